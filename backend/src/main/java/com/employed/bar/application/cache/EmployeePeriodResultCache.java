@@ -0,0 +1,144 @@
+package com.employed.bar.application.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * In-process cache of per-employee results for a period (reports, KPI totals), keyed by
+ * (employeeId, startDate, endDate). Each entry remembers the employee's change version it was computed
+ * from and is reused only while that version is still current, so regenerating
+ * a period after a couple of corrections only recomputes the corrected employees. The version must be
+ * read in the same transaction as the data, before it, so an entry can never hold data newer or older
+ * than its version claims. A cached null (no report for the period) is kept as well. The cache is bounded
+ * by size and entries expire after the TTL, so periods nobody asks for again do not stay around.
+ * <p>
+ * Writes made through this instance also drop the overlapping entries right away with
+ * {@link #invalidate(Long, LocalDate, LocalDate)}, and once more after the write commits, since a read
+ * running before the commit may still store the old result; the version still covers writes made by
+ * other instances or outside the application services. Hits, misses and evictions are counted for metrics.
+ */
+public class EmployeePeriodResultCache<V> {
+
+    private final boolean enabled;
+    private final Cache<Key, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public EmployeePeriodResultCache(int maxSize, Duration ttl) {
+        this.enabled = maxSize > 0 && ttl.isPositive();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(enabled ? ttl : Duration.ZERO)
+                .<Key, Entry<V>>evictionListener((key, entry, cause) -> evictions.increment())
+                .build();
+    }
+
+    /**
+     * Returns the cached results of the given employees that were computed from their current change
+     * version (employees missing from versions are at version 0). Employees missing from the result must
+     * be recomputed.
+     */
+    public Map<Long, Optional<V>> getUnchanged(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate,
+                                               Map<Long, Long> versions) {
+        Map<Long, Optional<V>> unchanged = new HashMap<>();
+        for (Long employeeId : employeeIds) {
+            Key key = new Key(employeeId, startDate, endDate);
+            Entry<V> entry = entries.getIfPresent(key);
+            if (entry != null && entry.version() == versions.getOrDefault(employeeId, 0L)) {
+                unchanged.put(employeeId, Optional.ofNullable(entry.value()));
+                hits.increment();
+            } else {
+                if (entry != null) {
+                    entries.asMap().remove(key, entry);
+                }
+                misses.increment();
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * Stores a result together with the change version that was read, before the data, in the transaction
+     * that computed it.
+     */
+    public void put(Long employeeId, LocalDate startDate, LocalDate endDate, V value, long version) {
+        if (!enabled || employeeId == null) {
+            return;
+        }
+        entries.put(new Key(employeeId, startDate, endDate), new Entry<>(value, version));
+    }
+
+    /**
+     * Drops the employee's entries whose period overlaps the given days (both inclusive), now and, inside
+     * a transaction, again after it commits.
+     */
+    public void invalidate(Long employeeId, LocalDate from, LocalDate to) {
+        if (employeeId == null || from == null || to == null) {
+            return;
+        }
+        removeNowAndAfterCommit(key -> key.employeeId().equals(employeeId)
+                && !key.startDate().isAfter(to) && !key.endDate().isBefore(from));
+    }
+
+    /**
+     * Drops every entry of the employee, for changes that affect any period (rate, payment type, status).
+     */
+    public void invalidate(Long employeeId) {
+        if (employeeId != null) {
+            removeNowAndAfterCommit(key -> key.employeeId().equals(employeeId));
+        }
+    }
+
+    private void removeNowAndAfterCommit(Predicate<Key> stale) {
+        entries.asMap().keySet().removeIf(stale);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.asMap().keySet().removeIf(stale);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Entries dropped to make room for new ones or because they expired; invalidations are not counted.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private record Key(Long employeeId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record Entry<V>(V value, long version) {
+    }
+}
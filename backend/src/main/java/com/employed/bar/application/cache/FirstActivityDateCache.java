@@ -0,0 +1,77 @@
+package com.employed.bar.application.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-process cache of each employee's first attendance entry, used to clamp report periods.
+ * Only employees whose first activity is known are cached; an unknown employee always falls back to the repository.
+ */
+public class FirstActivityDateCache {
+
+    private final ConcurrentMap<Long, LocalDateTime> firstActivityDates = new ConcurrentHashMap<>();
+
+    public Optional<LocalDateTime> get(Long employeeId) {
+        return Optional.ofNullable(firstActivityDates.get(employeeId));
+    }
+
+    public Map<Long, LocalDateTime> getAll(Collection<Long> employeeIds) {
+        Map<Long, LocalDateTime> cached = new HashMap<>();
+        for (Long employeeId : employeeIds) {
+            LocalDateTime firstActivity = firstActivityDates.get(employeeId);
+            if (firstActivity != null) {
+                cached.put(employeeId, firstActivity);
+            }
+        }
+        return cached;
+    }
+
+    public void put(Long employeeId, LocalDateTime firstActivity) {
+        firstActivityDates.put(employeeId, firstActivity);
+    }
+
+    public void putAll(Map<Long, LocalDateTime> firstActivities) {
+        firstActivityDates.putAll(firstActivities);
+    }
+
+    /**
+     * Moves a cached first activity earlier when a new attendance starts before it, once the current
+     * transaction commits, so a rolled back write never moves it. Employees that are not cached yet are left
+     * untouched, since older records may still exist.
+     */
+    public void recordActivity(Long employeeId, LocalDateTime entryDateTime) {
+        afterCommit(() -> firstActivityDates.computeIfPresent(employeeId,
+                (id, current) -> entryDateTime.isBefore(current) ? entryDateTime : current));
+    }
+
+    /**
+     * Drops the employee's entry now and, inside a transaction, once more after it commits, since a read
+     * running before the commit may still load the old first activity.
+     */
+    public void evict(Long employeeId) {
+        firstActivityDates.remove(employeeId);
+        afterCommit(() -> firstActivityDates.remove(employeeId));
+    }
+
+    // Without a transaction the action runs right away
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
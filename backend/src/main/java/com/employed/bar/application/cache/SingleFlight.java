@@ -0,0 +1,104 @@
+package com.employed.bar.application.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller computes the value in its own thread
+ * and every caller arriving meanwhile waits on that same CompletableFuture instead of starting the
+ * computation again. A successful result is kept for a short TTL, so requests right behind it reuse it
+ * too; failures are never kept. A TTL of 0 only shares calls that overlap.
+ * <p>
+ * Callers must not hold a transaction while they wait, or each waiter keeps a connection busy.
+ */
+public class SingleFlight<K, V> {
+
+    private final Duration ttl;
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    public SingleFlight(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public V execute(K key, Supplier<V> computation) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight != null && flight.isUsable()) {
+                return await(flight.future());
+            }
+            if (flight != null) {
+                flights.remove(key, flight);
+            }
+            Flight<V> ownFlight = new Flight<>(new CompletableFuture<>());
+            if (flights.putIfAbsent(key, ownFlight) == null) {
+                removeExpired();
+                return run(key, ownFlight, computation);
+            }
+            // Another caller started the same computation first; join it on the next pass
+        }
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    private V run(K key, Flight<V> flight, Supplier<V> computation) {
+        V value;
+        try {
+            value = computation.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.future().completeExceptionally(e);
+            throw e;
+        }
+        if (ttl.isZero() || ttl.isNegative()) {
+            flight.expiresAtNanos = System.nanoTime();
+            flights.remove(key, flight);
+        } else {
+            flight.expiresAtNanos = System.nanoTime() + ttl.toNanos();
+        }
+        flight.future().complete(value);
+        return value;
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Waiters see the same exception as the caller that ran the computation
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private void removeExpired() {
+        flights.values().removeIf(flight -> flight.future().isDone() && !flight.isUsable());
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> future;
+        // Set before the future completes, so a completed flight always has its expiry
+        private volatile long expiresAtNanos;
+
+        private Flight(CompletableFuture<V> future) {
+            this.future = future;
+        }
+
+        CompletableFuture<V> future() {
+            return future;
+        }
+
+        boolean isUsable() {
+            return !future.isDone() || (!future.isCompletedExceptionally() && System.nanoTime() - expiresAtNanos < 0);
+        }
+    }
+}
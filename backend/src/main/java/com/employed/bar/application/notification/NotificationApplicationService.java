@@ -4,23 +4,64 @@ import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.service.SendEmployeeReportNotificationUseCase;
 import com.employed.bar.domain.port.out.NotificationPort;
+import com.employed.bar.domain.port.out.OutboxNotificationPort;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationApplicationService implements SendEmployeeReportNotificationUseCase {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationApplicationService.class);
+
     private final NotificationPort notificationPort;
+    private final OutboxNotificationPort outboxNotificationPort;
 
+    // Sent right away on the caller thread; only the test email uses it, the weekly run goes through the outbox
     @Override
     public void sendReport(List<EmployeeClass> employees, List<Report> reports) {
-        System.out.println("📨 [NOTIFICATION SERVICE] Enviando reportes para " + employees.size() + " empleados");
-        for (int i = 0; i < employees.size(); i++) {
-            System.out.println("   - Enviando email a: " + employees.get(i).getEmail());
-            notificationPort.sendReportByEmail(employees.get(i), reports.get(i));
+        log.info("Sending {} reports for {} employees", reports.size(), employees.size());
+        Map<Long, Report> reportsByEmployeeId = reportsByEmployeeId(reports);
+        for (EmployeeClass employee : employees) {
+            Report report = reportsByEmployeeId.get(employee.getId());
+            if (report == null) {
+                continue;
+            }
+            log.debug("Sending report of employee {}", employee.getId());
+            notificationPort.sendReportByEmail(employee, report);
+        }
+    }
+
+    @Override
+    public int queueReports(List<EmployeeClass> employees, List<Report> reports, LocalDate startDate, LocalDate endDate) {
+        // Called outside any transaction: each row is rendered and then written in its own short transaction
+        Map<Long, Report> reportsByEmployeeId = reportsByEmployeeId(reports);
+        int queued = 0;
+        for (EmployeeClass employee : employees) {
+            Report report = reportsByEmployeeId.get(employee.getId());
+            if (report != null && outboxNotificationPort.enqueueEmployeeReport(employee, report, startDate, endDate)) {
+                queued++;
+            }
+        }
+        log.info("{} employee reports queued for {} to {}", queued, startDate, endDate);
+        return queued;
+    }
+
+    // Reports only exist for employees with activity, so they are matched by id instead of by position
+    private Map<Long, Report> reportsByEmployeeId(List<Report> reports) {
+        Map<Long, Report> reportsByEmployeeId = new HashMap<>();
+        for (Report report : reports) {
+            if (report != null && report.getEmployeeId() != null) {
+                reportsByEmployeeId.putIfAbsent(report.getEmployeeId(), report);
+            }
         }
+        return reportsByEmployeeId;
     }
 }
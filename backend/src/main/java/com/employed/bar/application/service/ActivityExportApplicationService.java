@@ -0,0 +1,73 @@
+package com.employed.bar.application.service;
+
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.port.in.service.ActivityExportUseCase;
+import com.employed.bar.domain.port.out.ActivityExportPort;
+import com.employed.bar.domain.port.out.SpreadsheetGeneratorPort;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public class ActivityExportApplicationService implements ActivityExportUseCase {
+
+    private final ActivityExportPort activityExportPort;
+    private final SpreadsheetGeneratorPort spreadsheetGeneratorPort;
+
+    public ActivityExportApplicationService(ActivityExportPort activityExportPort,
+                                            SpreadsheetGeneratorPort spreadsheetGeneratorPort) {
+        this.activityExportPort = activityExportPort;
+        this.spreadsheetGeneratorPort = spreadsheetGeneratorPort;
+    }
+
+    @Override
+    public void writeActivityExcel(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
+
+        // Rows go from the database cursor straight into the workbook; neither side holds the whole range
+        try (SpreadsheetGeneratorPort.ActivityWorkbook workbook = spreadsheetGeneratorPort.openActivityWorkbook(startDate, endDate, outputStream)) {
+            activityExportPort.forEachAttendance(startDateTime, endDateTime, workbook::addAttendance);
+            activityExportPort.forEachConsumption(startDateTime, endDateTime, workbook::addConsumption);
+            workbook.finish();
+        }
+    }
+
+    @Override
+    public void forEachAttendance(LocalDate startDate, LocalDate endDate, Consumer<AttendanceRecordClass> action) {
+        validateOptionalRange(startDate, endDate);
+        activityExportPort.forEachAttendance(startOf(startDate), endOf(endDate), action);
+    }
+
+    @Override
+    public void forEachConsumption(LocalDate startDate, LocalDate endDate, Consumer<ConsumptionClass> action) {
+        validateOptionalRange(startDate, endDate);
+        activityExportPort.forEachConsumption(startOf(startDate), endOf(endDate), action);
+    }
+
+    private void validateOptionalRange(LocalDate startDate, LocalDate endDate) {
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("Start date and end date must be provided together");
+        }
+        if (startDate != null && endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+    }
+
+    private LocalDateTime startOf(LocalDate startDate) {
+        return startDate != null ? startDate.atStartOfDay() : null;
+    }
+
+    // Exclusive upper bound so records in the last second of the day are included
+    private LocalDateTime endOf(LocalDate endDate) {
+        return endDate != null ? endDate.plusDays(1).atStartOfDay() : null;
+    }
+}
@@ -1,9 +1,14 @@
 package com.employed.bar.application.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
+import com.employed.bar.application.cache.FirstActivityDateCache;
 import com.employed.bar.domain.enums.AttendanceStatus;
 import com.employed.bar.domain.exceptions.AttendanceNotFoundException;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
 import com.employed.bar.domain.exceptions.InvalidAttendanceDataException;
+import com.employed.bar.domain.exceptions.InvalidDateRangeException;
+import com.employed.bar.domain.model.attendance.AttendanceImportResult;
+import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.model.structure.ScheduleClass;
@@ -11,26 +16,43 @@ import com.employed.bar.domain.port.in.app.AttendanceUseCase;
 import com.employed.bar.domain.port.out.AttendanceRepositoryPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
 import com.employed.bar.domain.port.out.ScheduleRepositoryPort;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class AttendanceApplicationService implements AttendanceUseCase {
+    // Upper bound for one import request; a time clock sync at shift change is a few hundred punches
+    public static final int MAX_IMPORT_RECORDS = 5000;
+
     private final EmployeeRepositoryPort employeeRepository;
     private final AttendanceRepositoryPort attendanceRepositoryPort;
     private final ScheduleRepositoryPort scheduleRepositoryPort;
+    private final FirstActivityDateCache firstActivityDateCache;
+    private final EmployeePeriodResultCache<Report> reportResultCache;
 
     public AttendanceApplicationService(EmployeeRepositoryPort employeeRepository,
                                         AttendanceRepositoryPort attendanceRepositoryPort,
-                                        ScheduleRepositoryPort scheduleRepositoryPort) {
+                                        ScheduleRepositoryPort scheduleRepositoryPort,
+                                        FirstActivityDateCache firstActivityDateCache,
+                                        EmployeePeriodResultCache<Report> reportResultCache) {
         this.employeeRepository = employeeRepository;
         this.attendanceRepositoryPort = attendanceRepositoryPort;
         this.scheduleRepositoryPort = scheduleRepositoryPort;
+        this.firstActivityDateCache = firstActivityDateCache;
+        this.reportResultCache = reportResultCache;
     }
 
     @Override
@@ -55,19 +77,15 @@ public class AttendanceApplicationService implements AttendanceUseCase {
         // Robust logic to find the correct schedule, especially for overnight shifts.
         if (attendanceRecord.getEntryDateTime() != null) {
             System.out.println("DEBUG: Entering status calculation logic.");
-            LocalDate attendanceDate = attendanceRecord.getEntryDateTime().toLocalDate();
             // We define a 48-hour search window to catch schedules that cross midnight.
-            LocalDateTime searchStart = attendanceDate.atStartOfDay().minusDays(1); // Search from the previous day to catch overnight schedules
-            LocalDateTime searchEnd = attendanceDate.atStartOfDay().plusDays(2); // Until the end of the next day
+            LocalDateTime searchStart = scheduleSearchStart(attendanceRecord.getEntryDateTime());
+            LocalDateTime searchEnd = scheduleSearchEnd(attendanceRecord.getEntryDateTime());
 
             List<ScheduleClass> potentialSchedules = scheduleRepositoryPort.findByEmployeeAndDate(employee, searchStart, searchEnd);
             System.out.println("DEBUG: Found " + potentialSchedules.size() + " potential schedules in 48h window.");
 
             // Find the schedule whose start time is closest to the employee's clock-in time.
-            Optional<ScheduleClass> relevantScheduleOpt = potentialSchedules.stream()
-                    .min(Comparator.comparing(s ->
-                            java.time.Duration.between(s.getStartTime(), attendanceRecord.getEntryDateTime()).abs()
-                    ));
+            Optional<ScheduleClass> relevantScheduleOpt = closestSchedule(potentialSchedules, attendanceRecord.getEntryDateTime());
 
             if (relevantScheduleOpt.isPresent()) {
                 ScheduleClass schedule = relevantScheduleOpt.get();
@@ -90,7 +108,124 @@ public class AttendanceApplicationService implements AttendanceUseCase {
         }
 
         System.out.println("DEBUG: Before saving, status is: " + attendanceRecord.getStatus());
-        return attendanceRepositoryPort.save(attendanceRecord);
+        AttendanceRecordClass savedRecord = attendanceRepositoryPort.save(attendanceRecord);
+        invalidateReports(employeeId, attendanceRecord.getEntryDateTime(), attendanceRecord.getExitDateTime());
+
+        // Only completed records count as activity for the report period
+        if (attendanceRecord.getEntryDateTime() != null && attendanceRecord.getExitDateTime() != null) {
+            firstActivityDateCache.recordActivity(employeeId, attendanceRecord.getEntryDateTime());
+        }
+        return savedRecord;
+    }
+
+    @Override
+    @Transactional
+    public AttendanceImportResult importAttendances(List<AttendanceRecordClass> attendanceRecords) {
+        if (attendanceRecords == null || attendanceRecords.isEmpty()) {
+            throw new IllegalArgumentException("At least one attendance record is required");
+        }
+        if (attendanceRecords.size() > MAX_IMPORT_RECORDS) {
+            throw new IllegalArgumentException("Cannot import more than " + MAX_IMPORT_RECORDS + " attendance records at once");
+        }
+
+        // Every employee of the batch in one query instead of one lookup per record
+        Set<Long> employeeIds = attendanceRecords.stream()
+                .map(attendanceRecord -> attendanceRecord.getEmployee() != null ? attendanceRecord.getEmployee().getId() : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, EmployeeClass> employeesById = employeeRepository.findAllByIds(employeeIds).stream()
+                .collect(Collectors.toMap(EmployeeClass::getId, Function.identity()));
+
+        List<AttendanceRecordClass> accepted = new ArrayList<>();
+        List<AttendanceImportResult.RejectedRecord> rejected = new ArrayList<>();
+        for (int index = 0; index < attendanceRecords.size(); index++) {
+            AttendanceRecordClass attendanceRecord = attendanceRecords.get(index);
+            String rejection = validateImportedRecord(attendanceRecord, employeesById);
+            if (rejection != null) {
+                rejected.add(new AttendanceImportResult.RejectedRecord(index, rejection));
+                continue;
+            }
+            attendanceRecord.setId(null);
+            attendanceRecord.setEmployee(employeesById.get(attendanceRecord.getEmployee().getId()));
+            accepted.add(attendanceRecord);
+        }
+
+        if (!accepted.isEmpty()) {
+            assignImportedStatuses(accepted);
+            attendanceRepositoryPort.saveAll(accepted);
+            for (AttendanceRecordClass attendanceRecord : accepted) {
+                invalidateReports(attendanceRecord.getEmployee().getId(), attendanceRecord.getEntryDateTime(), attendanceRecord.getExitDateTime());
+                if (attendanceRecord.getExitDateTime() != null) {
+                    firstActivityDateCache.recordActivity(attendanceRecord.getEmployee().getId(), attendanceRecord.getEntryDateTime());
+                }
+            }
+        }
+        return new AttendanceImportResult(attendanceRecords.size(), accepted.size(), rejected);
+    }
+
+    private String validateImportedRecord(AttendanceRecordClass attendanceRecord, Map<Long, EmployeeClass> employeesById) {
+        if (attendanceRecord == null) {
+            return "Attendance record cannot be null";
+        }
+        if (attendanceRecord.getEmployee() == null || attendanceRecord.getEmployee().getId() == null) {
+            return "Employee ID cannot be null in AttendanceRecord";
+        }
+        if (!employeesById.containsKey(attendanceRecord.getEmployee().getId())) {
+            return "Employee not found: " + attendanceRecord.getEmployee().getId();
+        }
+        if (attendanceRecord.getEntryDateTime() == null) {
+            return "Entry time cannot be null";
+        }
+        if (attendanceRecord.getExitDateTime() != null && attendanceRecord.getExitDateTime().isBefore(attendanceRecord.getEntryDateTime())) {
+            return "Exit time cannot be before entry time.";
+        }
+        return null;
+    }
+
+    // Same LATE/PRESENT rule as registerAttendance, with the schedules of the whole batch loaded in one query
+    private void assignImportedStatuses(List<AttendanceRecordClass> attendanceRecords) {
+        LocalDateTime searchStart = attendanceRecords.stream()
+                .map(attendanceRecord -> scheduleSearchStart(attendanceRecord.getEntryDateTime()))
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        LocalDateTime searchEnd = attendanceRecords.stream()
+                .map(attendanceRecord -> scheduleSearchEnd(attendanceRecord.getEntryDateTime()))
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        Set<Long> employeeIds = attendanceRecords.stream()
+                .map(attendanceRecord -> attendanceRecord.getEmployee().getId())
+                .collect(Collectors.toSet());
+
+        Map<Long, List<ScheduleClass>> schedulesByEmployee = scheduleRepositoryPort.findByEmployeeIdsAndDate(employeeIds, searchStart, searchEnd).stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getEmployee().getId()));
+
+        for (AttendanceRecordClass attendanceRecord : attendanceRecords) {
+            LocalDateTime entryDateTime = attendanceRecord.getEntryDateTime();
+            LocalDateTime recordSearchStart = scheduleSearchStart(entryDateTime);
+            LocalDateTime recordSearchEnd = scheduleSearchEnd(entryDateTime);
+            List<ScheduleClass> potentialSchedules = schedulesByEmployee.getOrDefault(attendanceRecord.getEmployee().getId(), List.of()).stream()
+                    .filter(schedule -> !schedule.getStartTime().isBefore(recordSearchStart) && !schedule.getEndTime().isAfter(recordSearchEnd))
+                    .collect(Collectors.toList());
+
+            boolean late = closestSchedule(potentialSchedules, entryDateTime)
+                    .map(schedule -> entryDateTime.isAfter(schedule.getStartTime()))
+                    .orElse(false);
+            attendanceRecord.setStatus(late ? AttendanceStatus.LATE : AttendanceStatus.PRESENT);
+        }
+    }
+
+    // From the previous day (overnight schedules) until the end of the next day
+    private static LocalDateTime scheduleSearchStart(LocalDateTime entryDateTime) {
+        return entryDateTime.toLocalDate().atStartOfDay().minusDays(1);
+    }
+
+    private static LocalDateTime scheduleSearchEnd(LocalDateTime entryDateTime) {
+        return entryDateTime.toLocalDate().atStartOfDay().plusDays(2);
+    }
+
+    private static Optional<ScheduleClass> closestSchedule(List<ScheduleClass> schedules, LocalDateTime entryDateTime) {
+        return schedules.stream()
+                .min(Comparator.comparing(s -> java.time.Duration.between(s.getStartTime(), entryDateTime).abs()));
     }
 
     @Override
@@ -110,13 +245,11 @@ public class AttendanceApplicationService implements AttendanceUseCase {
         LocalDate startOfMonth = LocalDate.of(year, month, 1);
         LocalDate endOfMonth = LocalDate.of(year, month, startOfMonth.lengthOfMonth());
 
-        List<AttendanceRecordClass> records = getAttendanceListByEmployeeAndDateRange(employeeId, startOfMonth, endOfMonth);
+        employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found: " + employeeId));
 
-        long daysWithAttendance = records.stream()
-                .filter(record -> record.getEntryDateTime() != null)
-                .map(record -> record.getEntryDateTime().toLocalDate())
-                .distinct()
-                .count();
+        // Counted by the database (or read from the daily rollup) instead of loading the month's records
+        long daysWithAttendance = attendanceRepositoryPort.countDaysWithAttendance(employeeId, startOfMonth, endOfMonth);
 
         long totalDaysInMonth = endOfMonth.getDayOfMonth();
 
@@ -136,6 +269,22 @@ public class AttendanceApplicationService implements AttendanceUseCase {
         return attendanceRepositoryPort.findByEmployeeAndDateRange(employee, startDateTime, endDateTime);
     }
 
+    @Override
+    public Window<AttendanceRecordClass> scrollAttendances(Long employeeId, LocalDate startDate, LocalDate endDate,
+                                                          KeysetScrollPosition position, int size) {
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("Start date and end date must be provided together");
+        }
+        if (startDate != null && endDate.isBefore(startDate)) {
+            throw new InvalidDateRangeException("Start date cannot be after end date");
+        }
+        // The end date is inclusive: records up to the start of the next day
+        return attendanceRepositoryPort.scrollByDateRange(employeeId,
+                startDate != null ? startDate.atStartOfDay() : null,
+                endDate != null ? endDate.plusDays(1).atStartOfDay() : null,
+                position, size);
+    }
+
     @Override
     public AttendanceRecordClass updateAttendance(AttendanceRecordClass attendanceRecord) {
         if (attendanceRecord.getId() == null) {
@@ -144,6 +293,8 @@ public class AttendanceApplicationService implements AttendanceUseCase {
 
         AttendanceRecordClass existingRecord = attendanceRepositoryPort.findById(attendanceRecord.getId())
                 .orElseThrow(() -> new AttendanceNotFoundException("Attendance record not found: " + attendanceRecord.getId()));
+        LocalDateTime previousEntryDateTime = existingRecord.getEntryDateTime();
+        LocalDateTime previousExitDateTime = existingRecord.getExitDateTime();
 
         if (attendanceRecord.getEntryDateTime() != null) {
             existingRecord.setEntryDateTime(attendanceRecord.getEntryDateTime());
@@ -161,14 +312,32 @@ public class AttendanceApplicationService implements AttendanceUseCase {
             throw new InvalidAttendanceDataException("Exit time cannot be before entry time.");
         }
 
-        return attendanceRepositoryPort.save(existingRecord);
+        AttendanceRecordClass savedRecord = attendanceRepositoryPort.save(existingRecord);
+        // The edited record may have been the earliest one, so let the next report reload it
+        if (existingRecord.getEmployee() != null) {
+            firstActivityDateCache.evict(existingRecord.getEmployee().getId());
+            invalidateReports(existingRecord.getEmployee().getId(), previousEntryDateTime, previousExitDateTime);
+            invalidateReports(existingRecord.getEmployee().getId(), existingRecord.getEntryDateTime(), existingRecord.getExitDateTime());
+        }
+        return savedRecord;
     }
 
     @Override
     public void deleteById(Long attendanceId) {
-        if (!attendanceRepositoryPort.findById(attendanceId).isPresent()) {
-            throw new AttendanceNotFoundException("Attendance record not found: " + attendanceId);
-        }
+        AttendanceRecordClass existingRecord = attendanceRepositoryPort.findById(attendanceId)
+                .orElseThrow(() -> new AttendanceNotFoundException("Attendance record not found: " + attendanceId));
         attendanceRepositoryPort.deleteById(attendanceId);
+        if (existingRecord.getEmployee() != null) {
+            firstActivityDateCache.evict(existingRecord.getEmployee().getId());
+            invalidateReports(existingRecord.getEmployee().getId(), existingRecord.getEntryDateTime(), existingRecord.getExitDateTime());
+        }
+    }
+
+    // Cached reports of the days the record spans are stale once the write commits; the change watermark covers other instances
+    private void invalidateReports(Long employeeId, LocalDateTime entryDateTime, LocalDateTime exitDateTime) {
+        if (entryDateTime != null) {
+            LocalDateTime lastDateTime = exitDateTime != null && exitDateTime.isAfter(entryDateTime) ? exitDateTime : entryDateTime;
+            reportResultCache.invalidate(employeeId, entryDateTime.toLocalDate(), lastDateTime.toLocalDate());
+        }
     }
 }
@@ -1,28 +1,47 @@
 package com.employed.bar.application.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
 import com.employed.bar.domain.exceptions.ConsumptionNotFoundException;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
 import com.employed.bar.domain.exceptions.InvalidDateRangeException;
+import com.employed.bar.domain.model.consumption.ConsumptionBatchResult;
+import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.app.ConsumptionUseCase;
 import com.employed.bar.domain.port.out.ConsumptionRepositoryPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class ConsumptionApplicationService implements ConsumptionUseCase {
+    // Upper bound for one batch; the POS pushes a few hundred staff consumptions at close
+    public static final int MAX_BATCH_CONSUMPTIONS = 5000;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
 
     private final EmployeeRepositoryPort employeeRepository;
     private final ConsumptionRepositoryPort consumptionRepositoryPort;
+    private final EmployeePeriodResultCache<Report> reportResultCache;
 
-    public ConsumptionApplicationService(EmployeeRepositoryPort employeeRepository, ConsumptionRepositoryPort consumptionRepositoryPort) {
+    public ConsumptionApplicationService(EmployeeRepositoryPort employeeRepository, ConsumptionRepositoryPort consumptionRepositoryPort,
+                                         EmployeePeriodResultCache<Report> reportResultCache) {
         this.employeeRepository = employeeRepository;
         this.consumptionRepositoryPort = consumptionRepositoryPort;
+        this.reportResultCache = reportResultCache;
     }
 
 
@@ -34,7 +53,78 @@ public class ConsumptionApplicationService implements ConsumptionUseCase {
         EmployeeClass employee = employeeRepository.findById(consumptionClass.getEmployee().getId())
                 .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with id " + consumptionClass.getEmployee().getId()));
         consumptionClass.setEmployee(employee);
-        return consumptionRepositoryPort.save(consumptionClass);
+        ConsumptionClass saved = consumptionRepositoryPort.save(consumptionClass);
+        invalidateReports(employee.getId(), consumptionClass.getConsumptionDate());
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public ConsumptionBatchResult createConsumptions(List<ConsumptionClass> consumptions) {
+        if (consumptions == null || consumptions.isEmpty()) {
+            throw new IllegalArgumentException("At least one consumption is required");
+        }
+        if (consumptions.size() > MAX_BATCH_CONSUMPTIONS) {
+            throw new IllegalArgumentException("Cannot create more than " + MAX_BATCH_CONSUMPTIONS + " consumptions at once");
+        }
+
+        // Every employee of the batch in one query instead of one lookup per consumption
+        Set<Long> employeeIds = consumptions.stream()
+                .map(consumption -> consumption != null && consumption.getEmployee() != null ? consumption.getEmployee().getId() : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, EmployeeClass> employeesById = employeeRepository.findAllByIds(employeeIds).stream()
+                .collect(Collectors.toMap(EmployeeClass::getId, Function.identity()));
+
+        ConsumptionBatchResult.ItemResult[] items = new ConsumptionBatchResult.ItemResult[consumptions.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<ConsumptionClass> accepted = new ArrayList<>();
+        for (int index = 0; index < consumptions.size(); index++) {
+            ConsumptionClass consumption = consumptions.get(index);
+            String error = validateBatchConsumption(consumption, employeesById);
+            if (error != null) {
+                items[index] = ConsumptionBatchResult.ItemResult.rejected(index, error);
+                continue;
+            }
+            consumption.setId(null);
+            consumption.setEmployee(employeesById.get(consumption.getEmployee().getId()));
+            acceptedIndexes.add(index);
+            accepted.add(consumption);
+        }
+
+        if (!accepted.isEmpty()) {
+            List<ConsumptionClass> saved = consumptionRepositoryPort.saveAll(accepted);
+            accepted.forEach(consumption -> invalidateReports(consumption.getEmployee().getId(), consumption.getConsumptionDate()));
+            for (int i = 0; i < saved.size(); i++) {
+                int index = acceptedIndexes.get(i);
+                items[index] = ConsumptionBatchResult.ItemResult.created(index, saved.get(i).getId());
+            }
+        }
+        int rejected = consumptions.size() - accepted.size();
+        return new ConsumptionBatchResult(consumptions.size(), accepted.size(), rejected, Arrays.asList(items));
+    }
+
+    // Same rules as ConsumptionDto, checked per item so one bad consumption does not reject the batch
+    private String validateBatchConsumption(ConsumptionClass consumption, Map<Long, EmployeeClass> employeesById) {
+        if (consumption == null) {
+            return "Consumption cannot be null";
+        }
+        if (consumption.getEmployee() == null || consumption.getEmployee().getId() == null) {
+            return "Employee cannot be null for consumption creation.";
+        }
+        if (!employeesById.containsKey(consumption.getEmployee().getId())) {
+            return "Employee not found with id " + consumption.getEmployee().getId();
+        }
+        if (consumption.getConsumptionDate() == null) {
+            return "Consumption date cannot be null";
+        }
+        if (consumption.getAmount() == null || consumption.getAmount().signum() <= 0) {
+            return "Amount must be positive";
+        }
+        if (consumption.getDescription() != null && consumption.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description cannot exceed " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        return null;
     }
 
     @Override
@@ -101,10 +191,12 @@ public class ConsumptionApplicationService implements ConsumptionUseCase {
 
     @Override
     public void deleteConsumption(Long id) {
-        if (!consumptionRepositoryPort.findById(id).isPresent()) {
-            throw new ConsumptionNotFoundException("Consumption not found with id " + id);
-        }
+        ConsumptionClass existingConsumption = consumptionRepositoryPort.findById(id)
+                .orElseThrow(() -> new ConsumptionNotFoundException("Consumption not found with id " + id));
         consumptionRepositoryPort.deleteById(id);
+        if (existingConsumption.getEmployee() != null) {
+            invalidateReports(existingConsumption.getEmployee().getId(), existingConsumption.getConsumptionDate());
+        }
     }
 
     @Override
@@ -112,6 +204,22 @@ public class ConsumptionApplicationService implements ConsumptionUseCase {
         return consumptionRepositoryPort.findAll();
     }
 
+    @Override
+    public Window<ConsumptionClass> scrollConsumptions(Long employeeId, LocalDate startDate, LocalDate endDate,
+                                                       KeysetScrollPosition position, int size) {
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("Start date and end date must be provided together");
+        }
+        if (startDate != null && endDate.isBefore(startDate)) {
+            throw new InvalidDateRangeException("Start date cannot be after end date");
+        }
+        // The end date is inclusive: consumptions up to the start of the next day
+        return consumptionRepositoryPort.scrollByDateRange(employeeId,
+                startDate != null ? startDate.atStartOfDay() : null,
+                endDate != null ? endDate.plusDays(1).atStartOfDay() : null,
+                position, size);
+    }
+
     @Override
     public ConsumptionClass updateConsumption(ConsumptionClass consumptionClass) {
         if (consumptionClass.getEmployee() == null) {
@@ -121,12 +229,25 @@ public class ConsumptionApplicationService implements ConsumptionUseCase {
                 .map(existingConsumption -> {
                     EmployeeClass employee = employeeRepository.findById(consumptionClass.getEmployee().getId())
                             .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with id " + consumptionClass.getEmployee().getId()));
+                    Long previousEmployeeId = existingConsumption.getEmployee() != null ? existingConsumption.getEmployee().getId() : null;
+                    LocalDateTime previousConsumptionDate = existingConsumption.getConsumptionDate();
                     existingConsumption.setEmployee(employee);
                     existingConsumption.setAmount(consumptionClass.getAmount());
                     existingConsumption.setDescription(consumptionClass.getDescription());
                     existingConsumption.setConsumptionDate(consumptionClass.getConsumptionDate());
-                    return consumptionRepositoryPort.save(existingConsumption);
+                    ConsumptionClass saved = consumptionRepositoryPort.save(existingConsumption);
+                    // The consumption may have moved to another employee or day; both sides are stale
+                    invalidateReports(previousEmployeeId, previousConsumptionDate);
+                    invalidateReports(employee.getId(), existingConsumption.getConsumptionDate());
+                    return saved;
                 })
                 .orElseThrow(() -> new ConsumptionNotFoundException("Consumption not found with id " + consumptionClass.getId()));
     }
-}
\ No newline at end of file
+
+    // Cached reports covering the consumption's day are stale once the write commits; the change watermark covers other instances
+    private void invalidateReports(Long employeeId, LocalDateTime consumptionDate) {
+        if (consumptionDate != null) {
+            reportResultCache.invalidate(employeeId, consumptionDate.toLocalDate(), consumptionDate.toLocalDate());
+        }
+    }
+}
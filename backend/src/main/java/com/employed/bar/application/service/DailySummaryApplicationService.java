@@ -0,0 +1,34 @@
+package com.employed.bar.application.service;
+
+import com.employed.bar.domain.port.in.service.DailySummaryUseCase;
+import com.employed.bar.domain.port.out.DailySummaryRepositoryPort;
+
+import java.time.LocalDate;
+
+public class DailySummaryApplicationService implements DailySummaryUseCase {
+
+    private final DailySummaryRepositoryPort dailySummaryRepositoryPort;
+
+    public DailySummaryApplicationService(DailySummaryRepositoryPort dailySummaryRepositoryPort) {
+        this.dailySummaryRepositoryPort = dailySummaryRepositoryPort;
+    }
+
+    @Override
+    public void rebuildDailySummaries(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+
+        // Rebuild one calendar month per transaction so a long backfill never holds a huge delete/insert
+        LocalDate chunkStart = startDate;
+        while (!chunkStart.isAfter(endDate)) {
+            LocalDate endOfMonth = chunkStart.withDayOfMonth(chunkStart.lengthOfMonth());
+            LocalDate chunkEnd = endOfMonth.isBefore(endDate) ? endOfMonth : endDate;
+            dailySummaryRepositoryPort.rebuild(chunkStart, chunkEnd);
+            chunkStart = chunkEnd.plusDays(1);
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.employed.bar.application.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
 import com.employed.bar.domain.enums.EmployeeRole;
 import com.employed.bar.domain.enums.EmployeeStatus;
 import com.employed.bar.domain.exceptions.EmailAlreadyExistException;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
+import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.app.AttendanceUseCase;
 import com.employed.bar.domain.port.in.app.EmployeeUseCase;
 import com.employed.bar.domain.port.in.payment.PaymentCalculationUseCase;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 
 
 import java.math.BigDecimal;
@@ -20,11 +24,14 @@ public class EmployeeApplicationService implements EmployeeUseCase {
     private final EmployeeRepositoryPort employeeRepositoryPort;
     private final AttendanceUseCase attendanceUseCase;
     private final PaymentCalculationUseCase paymentCalculationUseCase;
+    private final EmployeePeriodResultCache<Report> reportResultCache;
 
-    public EmployeeApplicationService(EmployeeRepositoryPort employeeRepositoryPort, AttendanceUseCase attendanceUseCase, PaymentCalculationUseCase paymentCalculationUseCase) {
+    public EmployeeApplicationService(EmployeeRepositoryPort employeeRepositoryPort, AttendanceUseCase attendanceUseCase, PaymentCalculationUseCase paymentCalculationUseCase,
+                                      EmployeePeriodResultCache<Report> reportResultCache) {
         this.employeeRepositoryPort = employeeRepositoryPort;
         this.attendanceUseCase = attendanceUseCase;
         this.paymentCalculationUseCase = paymentCalculationUseCase;
+        this.reportResultCache = reportResultCache;
     }
 
     @Override
@@ -51,6 +58,11 @@ public class EmployeeApplicationService implements EmployeeUseCase {
         return employeeRepositoryPort.searchEmployees(name, role, status, pageable);
     }
 
+    @Override
+    public Window<EmployeeClass> scrollEmployees(String name, EmployeeRole role, EmployeeStatus status, KeysetScrollPosition position, int size) {
+        return employeeRepositoryPort.scrollEmployees(name, role, status, position, size);
+    }
+
     @Override
     public void deleteEmployee(Long id) {
         employeeRepositoryPort.findById(id)
@@ -58,6 +70,7 @@ public class EmployeeApplicationService implements EmployeeUseCase {
                 // Cambiar el estado del empleado a TERMINATED en lugar de eliminarlo físicamente
                 employee.setStatus(EmployeeStatus.TERMINATED);
                 employeeRepositoryPort.save(employee);
+                reportResultCache.invalidate(id);
             });
     }
 
@@ -71,7 +84,10 @@ public class EmployeeApplicationService implements EmployeeUseCase {
                     }
                     validateEmployeePaymentType(updatedEmployee);
                     employee.updateWith(updatedEmployee);
-                    return employeeRepositoryPort.save(employee);
+                    EmployeeClass saved = employeeRepositoryPort.save(employee);
+                    // Rate, payment type and overtime settings apply to every period of the employee
+                    reportResultCache.invalidate(id);
+                    return saved;
                 })
                 .orElseThrow(()-> new EmployeeNotFoundException("Employee not Found with ID: " + id));
     }
@@ -81,7 +97,9 @@ public class EmployeeApplicationService implements EmployeeUseCase {
         return employeeRepositoryPort.findById(employeeId)
                 .map(employee -> {
                     employee.setHourlyRate(newRate);
-                    return employeeRepositoryPort.save(employee);
+                    EmployeeClass saved = employeeRepositoryPort.save(employee);
+                    reportResultCache.invalidate(employeeId);
+                    return saved;
                 })
                 .orElseThrow(() -> new EmployeeNotFoundException("Employee not Found with ID: " + employeeId));
     }
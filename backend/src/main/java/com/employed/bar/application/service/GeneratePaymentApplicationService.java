@@ -1,5 +1,6 @@
 package com.employed.bar.application.service;
 
+import com.employed.bar.domain.model.payroll.PayrollLine;
 import com.employed.bar.domain.model.report.HoursCalculation;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
@@ -7,12 +8,14 @@ import com.employed.bar.domain.port.in.app.AttendanceUseCase;
 import com.employed.bar.domain.port.in.app.EmployeeUseCase;
 import com.employed.bar.domain.port.in.payment.GeneratePaymentUseCase;
 import com.employed.bar.domain.port.in.payment.PaymentCalculationUseCase;
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
 import com.employed.bar.domain.service.ReportCalculator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public class GeneratePaymentApplicationService implements GeneratePaymentUseCase {
 
@@ -20,12 +23,14 @@ public class GeneratePaymentApplicationService implements GeneratePaymentUseCase
     private final EmployeeUseCase employeeUseCase;
     private final PaymentCalculationUseCase paymentCalculationUseCase;
     private final ReportCalculator reportCalculator;
+    private final PayrollRunUseCase payrollRunUseCase;
 
-    public GeneratePaymentApplicationService(AttendanceUseCase attendanceUseCase, EmployeeUseCase employeeUseCase, PaymentCalculationUseCase paymentCalculationUseCase, ReportCalculator reportCalculator) {
+    public GeneratePaymentApplicationService(AttendanceUseCase attendanceUseCase, EmployeeUseCase employeeUseCase, PaymentCalculationUseCase paymentCalculationUseCase, ReportCalculator reportCalculator, PayrollRunUseCase payrollRunUseCase) {
         this.attendanceUseCase = attendanceUseCase;
         this.employeeUseCase = employeeUseCase;
         this.paymentCalculationUseCase = paymentCalculationUseCase;
         this.reportCalculator = reportCalculator;
+        this.payrollRunUseCase = payrollRunUseCase;
     }
 
 
@@ -34,9 +39,15 @@ public class GeneratePaymentApplicationService implements GeneratePaymentUseCase
         EmployeeClass employee = employeeUseCase.getEmployeeById(employeeId)
                 .orElseThrow(() -> new EmployeeNotFoundException("Employee not found"));
 
+        // Once the period is closed the payment is the snapshot, including any later adjustment lines
+        Optional<PayrollLine> closedPeriodLine = payrollRunUseCase.findClosedPeriodLine(employeeId, startDate, endDate);
+        if (closedPeriodLine.isPresent()) {
+            return closedPeriodLine.get().getEarnings();
+        }
+
         List<AttendanceRecordClass> attendanceRecords = attendanceUseCase.getAttendanceListByEmployeeAndDateRange(employeeId, startDate, endDate);
 
-        HoursCalculation hoursCalculation = reportCalculator.calculateHours(attendanceRecords, startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        HoursCalculation hoursCalculation = reportCalculator.calculateHours(attendanceRecords, startDate.atStartOfDay(), endDate.atTime(23, 59, 59), employee);
 
         return paymentCalculationUseCase.calculateTotalPay(
                 employee.getPaymentType(),
@@ -1,43 +1,49 @@
 package com.employed.bar.application.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
 import com.employed.bar.domain.enums.EmployeeStatus;
+import com.employed.bar.domain.model.kpi.EmployeeActivityTotals;
 import com.employed.bar.domain.model.kpi.EmployeeKpiSummary;
 import com.employed.bar.domain.model.kpi.ManagerKpis;
-import com.employed.bar.domain.model.structure.AttendanceRecordClass;
-import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.service.KpiServicePort;
-import com.employed.bar.domain.port.out.AttendanceRepositoryPort;
-import com.employed.bar.domain.port.out.ConsumptionRepositoryPort;
+import com.employed.bar.domain.port.out.EmployeeChangeWatermarkPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
-import lombok.RequiredArgsConstructor;
+import com.employed.bar.domain.port.out.KpiAggregationPort;
 import org.springframework.data.domain.Pageable;
-import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class KpiApplicationService implements KpiServicePort {
 
     private final EmployeeRepositoryPort employeeRepository;
-    private final AttendanceRepositoryPort attendanceRepository;
-    private final ConsumptionRepositoryPort consumptionRepositoryPort;
+    private final KpiAggregationPort kpiAggregationPort;
+    private final EmployeeChangeWatermarkPort employeeChangeWatermarkPort;
+    private final EmployeePeriodResultCache<EmployeeActivityTotals> activityTotalsCache;
 
     public KpiApplicationService(EmployeeRepositoryPort employeeRepository,
-                                 AttendanceRepositoryPort attendanceRepository,
-                                 ConsumptionRepositoryPort consumptionRepositoryPort) {
+                                 KpiAggregationPort kpiAggregationPort,
+                                 EmployeeChangeWatermarkPort employeeChangeWatermarkPort,
+                                 EmployeePeriodResultCache<EmployeeActivityTotals> activityTotalsCache) {
         this.employeeRepository = employeeRepository;
-        this.attendanceRepository = attendanceRepository;
-        this.consumptionRepositoryPort = consumptionRepositoryPort;
+        this.kpiAggregationPort = kpiAggregationPort;
+        this.employeeChangeWatermarkPort = employeeChangeWatermarkPort;
+        this.activityTotalsCache = activityTotalsCache;
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public ManagerKpis getManagerKpis(LocalDate startDate, LocalDate endDate) {
         if (startDate == null || endDate == null) {
             throw new IllegalArgumentException("Start date and end date must not be null");
@@ -52,30 +58,17 @@ public class KpiApplicationService implements KpiServicePort {
                 .filter(e -> EmployeeStatus.INACTIVE.equals(e.getStatus()))
                 .count();
 
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
+        Map<Long, EmployeeActivityTotals> totalsByEmployee = findActivityTotals(startDate, endDate, allEmployees.stream()
+                .filter(e -> EmployeeStatus.ACTIVE.equals(e.getStatus()))
+                .map(EmployeeClass::getId)
+                .collect(Collectors.toList()));
 
         List<EmployeeKpiSummary> employeeKpiSummaries = allEmployees.stream()
                 .filter(e -> EmployeeStatus.ACTIVE.equals(e.getStatus()))
                 .map(employee -> {
-                    List<AttendanceRecordClass> attendanceRecords =
-                            attendanceRepository.findByEmployeeAndDateRange(employee, startDateTime, endDateTime);
-
-                    double totalHoursWorked = attendanceRecords.stream()
-                            .mapToDouble(record -> {
-                                if (record.getEntryDateTime() != null && record.getExitDateTime() != null) {
-                                    return Duration.between(record.getEntryDateTime(), record.getExitDateTime()).toMinutes() / 60.0;
-                                }
-                                return 0;
-                            })
-                            .sum();
-
-                    List<ConsumptionClass> consumptions =
-                            consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(employee, startDateTime, endDateTime, null);
-
-                    BigDecimal totalConsumptions = consumptions.stream()
-                            .map(ConsumptionClass::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    EmployeeActivityTotals totals = totalsByEmployee.get(employee.getId());
+                    double totalHoursWorked = totals != null ? totals.getTotalWorkedMinutes() / 60.0 : 0.0;
+                    BigDecimal totalConsumptions = totals != null ? totals.getTotalConsumptions() : BigDecimal.ZERO;
 
                     return new EmployeeKpiSummary(
                             employee.getId(),
@@ -115,4 +108,35 @@ public class KpiApplicationService implements KpiServicePort {
                 topEmployeesByConsumptions
         );
     }
-}
\ No newline at end of file
+
+    private Map<Long, EmployeeActivityTotals> findActivityTotals(LocalDate startDate, LocalDate endDate, List<Long> employeeIds) {
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
+
+        // Totals of employees whose change version did not move since they were cached are reused; the rest are
+        // aggregated again. The versions are read before the totals, in the same transaction
+        Map<Long, Long> versions = employeeChangeWatermarkPort.findVersions(employeeIds);
+        Map<Long, Optional<EmployeeActivityTotals>> cached = activityTotalsCache.getUnchanged(employeeIds, startDate, endDate, versions);
+        List<Long> changedIds = employeeIds.stream()
+                .filter(id -> !cached.containsKey(id))
+                .collect(Collectors.toList());
+
+        Map<Long, EmployeeActivityTotals> totalsByEmployee = new HashMap<>();
+        cached.forEach((id, totals) -> totals.ifPresent(value -> totalsByEmployee.put(id, value)));
+        if (!cached.isEmpty() && changedIds.isEmpty()) {
+            return totalsByEmployee;
+        }
+
+        // One aggregated row per employee for the whole range, summed by the database
+        List<EmployeeActivityTotals> loaded = cached.isEmpty()
+                ? kpiAggregationPort.findActivityTotalsByEmployee(startDateTime, endDateTime)
+                : kpiAggregationPort.findActivityTotalsByEmployeeIds(changedIds, startDateTime, endDateTime);
+        Map<Long, EmployeeActivityTotals> loadedByEmployee = loaded.stream()
+                .collect(Collectors.toMap(EmployeeActivityTotals::getEmployeeId, Function.identity()));
+        for (Long id : changedIds) {
+            activityTotalsCache.put(id, startDate, endDate, loadedByEmployee.get(id), versions.getOrDefault(id, 0L));
+        }
+        totalsByEmployee.putAll(loadedByEmployee);
+        return totalsByEmployee;
+    }
+}
@@ -1,18 +1,34 @@
 package com.employed.bar.application.service;
 
+import com.employed.bar.application.cache.SingleFlight;
+import com.employed.bar.domain.exceptions.ReportGenerationException;
 import com.employed.bar.domain.model.manager.ManagerReport;
 import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
 import com.employed.bar.domain.port.in.service.ManagerReportServicePort;
 import com.employed.bar.domain.port.in.service.ReportingUseCase;
+import com.employed.bar.domain.port.out.DailySummaryRepositoryPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
-import com.employed.bar.domain.port.out.NotificationPort;
+import com.employed.bar.domain.port.out.OutboxNotificationPort;
 import com.employed.bar.domain.port.out.PdfGeneratorPort;
+import com.employed.bar.domain.port.out.SpreadsheetGeneratorPort;
 import com.employed.bar.domain.service.ManagerReportCalculator;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 public class ManagerReportApplicationService implements ManagerReportServicePort {
@@ -20,30 +36,51 @@ public class ManagerReportApplicationService implements ManagerReportServicePort
     private final EmployeeRepositoryPort employeeRepository;
     private final ReportingUseCase reportingUseCase;
     private final ManagerReportCalculator managerReportCalculator;
-    private final NotificationPort notificationPort;
+    private final OutboxNotificationPort outboxNotificationPort;
     private final PdfGeneratorPort pdfGeneratorPort;
+    private final SpreadsheetGeneratorPort spreadsheetGeneratorPort;
+    private final DailySummaryRepositoryPort dailySummaryRepositoryPort;
+    private final PayrollRunUseCase payrollRunUseCase;
+    private final Executor reportExecutor;
+    private final Duration employeeReportTimeout;
+    private final SingleFlight<List<LocalDate>, ManagerReport> managerReportFlights;
 
     public ManagerReportApplicationService(EmployeeRepositoryPort employeeRepository,
                                            ReportingUseCase reportingUseCase, ManagerReportCalculator managerReportCalculator,
-                                           NotificationPort notificationPort, PdfGeneratorPort pdfGeneratorPort) {
+                                           OutboxNotificationPort outboxNotificationPort, PdfGeneratorPort pdfGeneratorPort,
+                                           SpreadsheetGeneratorPort spreadsheetGeneratorPort,
+                                           DailySummaryRepositoryPort dailySummaryRepositoryPort,
+                                           PayrollRunUseCase payrollRunUseCase,
+                                           Executor reportExecutor, Duration employeeReportTimeout,
+                                           SingleFlight<List<LocalDate>, ManagerReport> managerReportFlights) {
         this.employeeRepository = employeeRepository;
         this.reportingUseCase = reportingUseCase;
         this.managerReportCalculator = managerReportCalculator;
-        this.notificationPort = notificationPort;
+        this.outboxNotificationPort = outboxNotificationPort;
         this.pdfGeneratorPort = pdfGeneratorPort;
+        this.spreadsheetGeneratorPort = spreadsheetGeneratorPort;
+        this.dailySummaryRepositoryPort = dailySummaryRepositoryPort;
+        this.payrollRunUseCase = payrollRunUseCase;
+        this.reportExecutor = reportExecutor;
+        this.employeeReportTimeout = employeeReportTimeout;
+        this.managerReportFlights = managerReportFlights;
     }
 
 
     @Override
-    public void generateAndSendManagerReport(LocalDate startDate, LocalDate endDate) {
+    public boolean generateAndSendManagerReport(LocalDate startDate, LocalDate endDate) {
+        return generateAndSendManagerReport(startDate, endDate, null);
+    }
+
+    // No transaction here, as for the downloads: the reports are computed and the PDF rendered without holding
+    // a connection, and the outbox row is written in its own short transaction at the end
+    @Override
+    public boolean generateAndSendManagerReport(LocalDate startDate, LocalDate endDate, String requestId) {
         if (startDate == null || endDate == null) {
             throw new IllegalArgumentException("Start date and end date must not be null");
         }
         List<EmployeeClass> allEmployees = employeeRepository.findAll(Pageable.unpaged()).getContent();
-        List<Report> individualReports = allEmployees.stream()
-                .map(employee -> reportingUseCase.generateCompleteReportForEmployeeById(startDate, endDate, employee.getId()))
-                .filter(java.util.Objects::nonNull) // Filter out null reports
-                .collect(Collectors.toList());
+        List<Report> individualReports = generateIndividualReports(allEmployees, startDate, endDate);
 
         ManagerReport managerReport = managerReportCalculator.calculate(allEmployees, individualReports);
 
@@ -57,7 +94,8 @@ public class ManagerReportApplicationService implements ManagerReportServicePort
                 .findFirst()
                 .orElse("devpruebas.zar@gmail.com"); // Fallback to a default email if no manager is found
 
-        notificationPort.sendManagerReportByEmail(managerEmail, managerReport, pdfBytes, startDate, endDate);
+        // Delivered by the outbox relay; a second run for the same period (or request) does not queue it again
+        return outboxNotificationPort.enqueueManagerReport(managerEmail, managerReport, pdfBytes, startDate, endDate, requestId);
     }
 
     @Override
@@ -65,14 +103,147 @@ public class ManagerReportApplicationService implements ManagerReportServicePort
         if (startDate == null || endDate == null) {
             throw new IllegalArgumentException("Start date and end date must not be null");
         }
-        List<EmployeeClass> allEmployees = employeeRepository.findAll(Pageable.unpaged()).getContent();
-        List<Report> individualReports = allEmployees.stream()
-                .map(employee -> reportingUseCase.generateCompleteReportForEmployeeById(startDate, endDate, employee.getId()))
-                .filter(java.util.Objects::nonNull) // Filter out null reports
+        ManagerReport managerReport = loadManagerReport(startDate, endDate);
+
+        return pdfGeneratorPort.generateManagerReportPdf(managerReport, startDate, endDate);
+    }
+
+    @Override
+    public void writeManagerReportPdf(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        ManagerReport managerReport = loadManagerReport(startDate, endDate);
+
+        // The PDF goes straight to the caller's stream instead of being built as a byte array first
+        pdfGeneratorPort.writeManagerReportPdf(managerReport, startDate, endDate, outputStream);
+    }
+
+    @Override
+    public void writeManagerReportExcel(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        ManagerReport managerReport = loadManagerReport(startDate, endDate);
+
+        spreadsheetGeneratorPort.writeManagerReportWorkbook(managerReport, startDate, endDate, outputStream);
+    }
+
+    /**
+     * Downloads of the same period running at the same time (PDF or Excel, several managers on Monday
+     * morning) share one computation; each of them still writes its own file from the shared result.
+     * The download methods open no transaction, so the callers waiting here hold no connection.
+     */
+    private ManagerReport loadManagerReport(LocalDate startDate, LocalDate endDate) {
+        return managerReportFlights.execute(List.of(startDate, endDate), () -> {
+            List<EmployeeClass> allEmployees = employeeRepository.findAll(Pageable.unpaged()).getContent();
+            List<Report> individualReports = generateIndividualReports(allEmployees, startDate, endDate);
+            return managerReportCalculator.calculate(allEmployees, individualReports);
+        });
+    }
+
+    private List<Report> generateIndividualReports(List<EmployeeClass> allEmployees, LocalDate startDate, LocalDate endDate) {
+        // A closed payroll period reports what was paid, not what the raw tables say today
+        Optional<List<Report>> closedPeriodReports = payrollRunUseCase.findClosedPeriodReports(startDate, endDate);
+        if (closedPeriodReports.isPresent()) {
+            return closedPeriodReports.get();
+        }
+
+        // Employees without attendance or consumption in the period produce no report, so they are skipped
+        // before building one. The lookup starts a day early to keep overnight shifts that began the day before.
+        Set<Long> activeEmployeeIds = dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate);
+
+        // Fan out one task per employee on the bounded report executor, reusing the already loaded employees
+        // instead of fetching each one again by id. Tasks are joined in the original employee order.
+        // Each report runs in its own read-only transaction (on the replica when one is configured); none of
+        // the callers open one, so this thread never holds a connection while it waits.
+        List<ReportTask> tasks = allEmployees.stream()
+                .filter(employee -> activeEmployeeIds.contains(employee.getId()))
+                .map(employee -> submitReport(employee, startDate, endDate))
                 .collect(Collectors.toList());
 
-        ManagerReport managerReport = managerReportCalculator.calculate(allEmployees, individualReports);
+        try {
+            List<Report> reports = new ArrayList<>();
+            for (ReportTask task : tasks) {
+                Report report = task.await();
+                if (report != null) { // Filter out null reports
+                    reports.add(report);
+                }
+            }
+            return reports;
+        } catch (ReportGenerationException e) {
+            // A partial manager report would under-report payroll, so one failed employee fails the whole report.
+            // Cancelling interrupts the reports still running, so they stop and give back their connection.
+            tasks.forEach(ReportTask::cancel);
+            throw e;
+        } catch (InterruptedException e) {
+            tasks.forEach(ReportTask::cancel);
+            Thread.currentThread().interrupt();
+            throw new ReportGenerationException("Manager report generation was interrupted", e);
+        }
+    }
 
-        return pdfGeneratorPort.generateManagerReportPdf(managerReport, startDate, endDate);
+    private ReportTask submitReport(EmployeeClass employee, LocalDate startDate, LocalDate endDate) {
+        ReportTask task = new ReportTask(employee, startDate, endDate);
+        reportExecutor.execute(task.future);
+        return task;
+    }
+
+    /**
+     * One employee's report on the report executor. The timeout starts when a worker picks the employee up,
+     * not while it waits in the queue. Unlike a CompletableFuture, cancelling the FutureTask interrupts the
+     * worker that runs it.
+     */
+    private final class ReportTask {
+        private final EmployeeClass employee;
+        private final FutureTask<Report> future;
+        private volatile Long startedAt;
+
+        private ReportTask(EmployeeClass employee, LocalDate startDate, LocalDate endDate) {
+            this.employee = employee;
+            this.future = new FutureTask<>(() -> {
+                startedAt = System.nanoTime();
+                return reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee);
+            });
+        }
+
+        private Report await() throws InterruptedException {
+            long timeoutNanos = employeeReportTimeout.toNanos();
+            while (true) {
+                Long started = startedAt;
+                long waitNanos = started != null ? started + timeoutNanos - System.nanoTime() : timeoutNanos;
+                try {
+                    if (waitNanos > 0) {
+                        return future.get(waitNanos, TimeUnit.NANOSECONDS);
+                    }
+                    if (future.isDone()) {
+                        return future.get();
+                    }
+                    cancel();
+                    throw reportFailure(employee, new TimeoutException());
+                } catch (TimeoutException e) {
+                    // Still queued, or the deadline is checked again on the next pass
+                } catch (ExecutionException e) {
+                    throw reportFailure(employee, e.getCause());
+                } catch (CancellationException e) {
+                    throw reportFailure(employee, e);
+                }
+            }
+        }
+
+        private void cancel() {
+            future.cancel(true);
+        }
+    }
+
+    private ReportGenerationException reportFailure(EmployeeClass employee, Throwable cause) {
+        if (cause instanceof ReportGenerationException reportGenerationException) {
+            return reportGenerationException;
+        }
+        if (cause instanceof TimeoutException) {
+            return new ReportGenerationException("Report for employee " + employee.getId() + " timed out after "
+                    + employeeReportTimeout.toMillis() + " ms", cause);
+        }
+        return new ReportGenerationException("Could not generate report for employee " + employee.getId() + ": " + cause.getMessage(), cause);
     }
-}
\ No newline at end of file
+}
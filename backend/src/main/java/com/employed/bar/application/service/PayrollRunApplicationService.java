@@ -0,0 +1,207 @@
+package com.employed.bar.application.service;
+
+import com.employed.bar.domain.enums.PayrollLineType;
+import com.employed.bar.domain.exceptions.InvalidDateRangeException;
+import com.employed.bar.domain.exceptions.PayrollPeriodAlreadyClosedException;
+import com.employed.bar.domain.exceptions.PayrollRunNotFoundException;
+import com.employed.bar.domain.model.payroll.PayrollLine;
+import com.employed.bar.domain.model.payroll.PayrollRun;
+import com.employed.bar.domain.model.report.HoursCalculation;
+import com.employed.bar.domain.model.report.Report;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
+import com.employed.bar.domain.port.in.service.ReportingUseCase;
+import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
+import com.employed.bar.domain.port.out.PayrollRunRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Closes payroll periods into immutable snapshots. Once a period is closed, payments and manager reports
+ * for it are served from the stored lines instead of being recomputed from attendance and consumption,
+ * so they keep showing what was paid. Later edits inside the period are appended as ADJUSTMENT lines
+ * with the difference, never by rewriting the original lines.
+ */
+public class PayrollRunApplicationService implements PayrollRunUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollRunApplicationService.class);
+
+    private final PayrollRunRepositoryPort payrollRunRepositoryPort;
+    private final EmployeeRepositoryPort employeeRepository;
+    private final ReportingUseCase reportingUseCase;
+
+    public PayrollRunApplicationService(PayrollRunRepositoryPort payrollRunRepositoryPort, EmployeeRepositoryPort employeeRepository,
+                                        ReportingUseCase reportingUseCase) {
+        this.payrollRunRepositoryPort = payrollRunRepositoryPort;
+        this.employeeRepository = employeeRepository;
+        this.reportingUseCase = reportingUseCase;
+    }
+
+    @Override
+    @Transactional
+    public PayrollRun closePeriod(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        // Overlapping runs would pay the shared days twice
+        if (payrollRunRepositoryPort.existsOverlapping(startDate, endDate)) {
+            throw new PayrollPeriodAlreadyClosedException("A payroll run already covers part of " + startDate + " to " + endDate);
+        }
+
+        List<EmployeeClass> allEmployees = employeeRepository.findAll(Pageable.unpaged()).getContent();
+        LocalDateTime closedAt = LocalDateTime.now();
+        List<PayrollLine> lines = reportingUseCase.generateCompleteReportsForEmployees(startDate, endDate, allEmployees).stream()
+                .map(report -> toLine(report, closedAt))
+                .collect(Collectors.toList());
+
+        PayrollRun payrollRun = payrollRunRepositoryPort.save(new PayrollRun(null, startDate, endDate, closedAt, lines));
+        log.info("Payroll period {} to {} closed with {} lines", startDate, endDate, lines.size());
+        return payrollRun;
+    }
+
+    // Not read-only: pending adjustments are written first, and their recompute must read the primary,
+    // since a lagging replica could miss the very change that marked them
+    @Override
+    @Transactional
+    public PayrollRun getPayrollRun(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        PayrollRun header = payrollRunRepositoryPort.findByPeriod(startDate, endDate)
+                .orElseThrow(() -> new PayrollRunNotFoundException("No payroll run for " + startDate + " to " + endDate));
+        applyPendingAdjustments(header);
+        return new PayrollRun(header.getId(), header.getPeriodStart(), header.getPeriodEnd(), header.getClosedAt(),
+                payrollRunRepositoryPort.findLines(header.getId()));
+    }
+
+    @Override
+    @Transactional
+    public Optional<List<Report>> findClosedPeriodReports(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return Optional.empty();
+        }
+        return payrollRunRepositoryPort.findByPeriod(startDate, endDate).map(run -> {
+            applyPendingAdjustments(run);
+            return payrollRunRepositoryPort.findEmployeeTotals(run.getId()).stream()
+                    .filter(total -> !isEmpty(total))
+                    .map(this::toReport)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Override
+    @Transactional
+    public Optional<PayrollLine> findClosedPeriodLine(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        if (employeeId == null || startDate == null || endDate == null) {
+            return Optional.empty();
+        }
+        return payrollRunRepositoryPort.findByPeriod(startDate, endDate).flatMap(run -> {
+            Long markVersion = payrollRunRepositoryPort.findPendingAdjustments(run.getId()).get(employeeId);
+            if (markVersion != null) {
+                applyPendingAdjustment(run, employeeId, markVersion);
+            }
+            return payrollRunRepositoryPort.findEmployeeTotal(run.getId(), employeeId);
+        });
+    }
+
+    @Override
+    @Transactional
+    public int applyPendingAdjustments() {
+        int applied = 0;
+        for (Long payrollRunId : payrollRunRepositoryPort.findRunIdsWithPendingAdjustments()) {
+            Optional<PayrollRun> run = payrollRunRepositoryPort.findById(payrollRunId);
+            if (run.isPresent()) {
+                applied += applyPendingAdjustments(run.get());
+            }
+        }
+        return applied;
+    }
+
+    private int applyPendingAdjustments(PayrollRun run) {
+        int applied = 0;
+        for (Map.Entry<Long, Long> pending : payrollRunRepositoryPort.findPendingAdjustments(run.getId()).entrySet()) {
+            if (applyPendingAdjustment(run, pending.getKey(), pending.getValue())) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Recomputes one employee's period from the raw data and stores the difference to what the run already
+     * holds. The mark version was read before the data, in the same transaction, so a change committed after
+     * the data this adjustment is computed from leaves a newer mark behind for the next pass.
+     */
+    private boolean applyPendingAdjustment(PayrollRun run, Long employeeId, long markVersion) {
+        LocalDateTime computedAt = LocalDateTime.now();
+        Report report = employeeRepository.findById(employeeId)
+                .map(employee -> reportingUseCase.generateCompleteReportForEmployee(run.getPeriodStart(), run.getPeriodEnd(), employee))
+                .orElse(null);
+        PayrollLine recomputed = report != null ? toLine(report, computedAt) : emptyLine(employeeId, computedAt);
+        PayrollLine current = payrollRunRepositoryPort.findEmployeeTotal(run.getId(), employeeId)
+                .orElseGet(() -> emptyLine(employeeId, computedAt));
+
+        PayrollLine adjustment = difference(recomputed, current, computedAt);
+        return payrollRunRepositoryPort.resolvePendingAdjustment(run.getId(), employeeId, isEmpty(adjustment) ? null : adjustment, markVersion)
+                && !isEmpty(adjustment);
+    }
+
+    private PayrollLine toLine(Report report, LocalDateTime createdAt) {
+        BigDecimal earnings = orZero(report.getTotalEarnings());
+        BigDecimal consumptions = orZero(report.getTotalConsumptionAmount());
+        return new PayrollLine(report.getEmployeeId(), PayrollLineType.REGULAR, report.getHoursCalculation(),
+                earnings, consumptions, earnings.subtract(consumptions), createdAt);
+    }
+
+    private PayrollLine difference(PayrollLine recomputed, PayrollLine current, LocalDateTime createdAt) {
+        HoursCalculation now = recomputed.getHoursCalculation();
+        HoursCalculation before = current.getHoursCalculation();
+        return new PayrollLine(recomputed.getEmployeeId(), PayrollLineType.ADJUSTMENT,
+                new HoursCalculation(
+                        now.getTotalHours().subtract(before.getTotalHours()),
+                        now.getRegularHours().subtract(before.getRegularHours()),
+                        now.getOvertimeHours().subtract(before.getOvertimeHours())),
+                recomputed.getEarnings().subtract(current.getEarnings()),
+                recomputed.getConsumptions().subtract(current.getConsumptions()),
+                recomputed.getNetPay().subtract(current.getNetPay()),
+                createdAt);
+    }
+
+    private PayrollLine emptyLine(Long employeeId, LocalDateTime createdAt) {
+        return new PayrollLine(employeeId, PayrollLineType.REGULAR,
+                new HoursCalculation(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO),
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, createdAt);
+    }
+
+    private boolean isEmpty(PayrollLine line) {
+        HoursCalculation hours = line.getHoursCalculation();
+        return hours.getTotalHours().signum() == 0 && hours.getRegularHours().signum() == 0 && hours.getOvertimeHours().signum() == 0
+                && line.getEarnings().signum() == 0 && line.getConsumptions().signum() == 0 && line.getNetPay().signum() == 0;
+    }
+
+    // The snapshot keeps the totals only, so the reports built from it have no per-record lines
+    private Report toReport(PayrollLine total) {
+        return new Report(total.getEmployeeId(), Collections.emptyList(), Collections.emptyList(),
+                total.getHoursCalculation(), total.getConsumptions(), total.getEarnings());
+    }
+
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidDateRangeException("Start date cannot be after end date");
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.employed.bar.application.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
+import com.employed.bar.application.cache.FirstActivityDateCache;
 import com.employed.bar.domain.enums.AttendanceStatus;
 import com.employed.bar.domain.enums.PaymentType;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
@@ -8,22 +10,29 @@ import com.employed.bar.domain.model.report.ConsumptionReportLine;
 import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.report.HoursCalculation;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.payment.PaymentCalculationUseCase;
 import com.employed.bar.domain.port.in.service.ReportingUseCase;
 import com.employed.bar.domain.port.in.service.SendEmployeeReportNotificationUseCase;
 import com.employed.bar.domain.port.out.AttendanceRepositoryPort;
 import com.employed.bar.domain.port.out.ConsumptionRepositoryPort;
+import com.employed.bar.domain.port.out.EmployeeChangeWatermarkPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
 import com.employed.bar.domain.service.ReportCalculator;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -35,18 +44,28 @@ public class ReportingApplicationService implements ReportingUseCase {
     private final ReportCalculator reportCalculator;
     private final PaymentCalculationUseCase paymentCalculationUseCase;
     private final SendEmployeeReportNotificationUseCase sendEmployeeReportNotificationUseCase;
+    private final FirstActivityDateCache firstActivityDateCache;
+    private final TransactionOperations readOnlyTransaction;
+    private final EmployeeChangeWatermarkPort employeeChangeWatermarkPort;
+    private final EmployeePeriodResultCache<Report> reportResultCache;
 
-    public ReportingApplicationService(EmployeeRepositoryPort employeeRepository, ConsumptionRepositoryPort consumptionRepositoryPort, AttendanceRepositoryPort attendanceRepositoryPort, ReportCalculator reportCalculator, PaymentCalculationUseCase paymentCalculationUseCase, SendEmployeeReportNotificationUseCase sendEmployeeReportNotificationUseCase) {
+    public ReportingApplicationService(EmployeeRepositoryPort employeeRepository, ConsumptionRepositoryPort consumptionRepositoryPort, AttendanceRepositoryPort attendanceRepositoryPort, ReportCalculator reportCalculator, PaymentCalculationUseCase paymentCalculationUseCase, SendEmployeeReportNotificationUseCase sendEmployeeReportNotificationUseCase, FirstActivityDateCache firstActivityDateCache, TransactionOperations readOnlyTransaction,
+                                       EmployeeChangeWatermarkPort employeeChangeWatermarkPort, EmployeePeriodResultCache<Report> reportResultCache) {
         this.employeeRepository = employeeRepository;
         this.consumptionRepositoryPort = consumptionRepositoryPort;
         this.attendanceRepositoryPort = attendanceRepositoryPort;
         this.reportCalculator = reportCalculator;
         this.paymentCalculationUseCase = paymentCalculationUseCase;
         this.sendEmployeeReportNotificationUseCase = sendEmployeeReportNotificationUseCase;
+        this.firstActivityDateCache = firstActivityDateCache;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.employeeChangeWatermarkPort = employeeChangeWatermarkPort;
+        this.reportResultCache = reportResultCache;
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public Report generateCompleteReportForEmployeeById(LocalDate startDate, LocalDate endDate, Long employeeId) {
         if (startDate == null || endDate == null || employeeId == null) {
             throw new IllegalArgumentException("Start date, end date, and employee ID must not be null");
@@ -56,13 +75,27 @@ public class ReportingApplicationService implements ReportingUseCase {
         return generateCompleteReportForEmployee(startDate, endDate, employee);
     }
 
-    private Report generateCompleteReportForEmployee(LocalDate startDate, LocalDate endDate, EmployeeClass employee) {
+    @Override
+    @Transactional(readOnly = true)
+    public Report generateCompleteReportForEmployee(LocalDate startDate, LocalDate endDate, EmployeeClass employee) {
+        if (startDate == null || endDate == null || employee == null || employee.getId() == null) {
+            throw new IllegalArgumentException("Start date, end date, and employee must not be null");
+        }
+        // Read before the data, in the same transaction, so the stored report is never newer than its version
+        long version = employeeChangeWatermarkPort.findVersions(List.of(employee.getId())).getOrDefault(employee.getId(), 0L);
+        Optional<Report> cached = reportResultCache.getUnchanged(List.of(employee.getId()), startDate, endDate,
+                Map.of(employee.getId(), version)).get(employee.getId());
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        Report report = computeReport(startDate, endDate, employee);
+        reportResultCache.put(employee.getId(), startDate, endDate, report, version);
+        return report;
+    }
+
+    private Report computeReport(LocalDate startDate, LocalDate endDate, EmployeeClass employee) {
         // Determine the employee's earliest activity date from all attendance records
-        LocalDateTime employeeFirstActivityDate = attendanceRepositoryPort.findByEmployeeAndDateRange(
-                        employee, LocalDateTime.of(1900, 1, 1, 0, 0), LocalDateTime.now()) // Use a reasonable min and current max date
-                .stream()
-                .map(AttendanceRecordClass::getEntryDateTime)
-                .min(LocalDateTime::compareTo)
+        LocalDateTime employeeFirstActivityDate = findFirstActivityDate(employee.getId())
                 .orElse(startDate.atStartOfDay()); // Fallback to original startDate if no attendance records found
 
         // Adjust the report's start date to be no earlier than the employee's first activity date
@@ -72,12 +105,117 @@ public class ReportingApplicationService implements ReportingUseCase {
         LocalDateTime effectiveEndDateTime = endDate.plusDays(1).atStartOfDay();
 
         List<AttendanceRecordClass> attendanceRecords = attendanceRepositoryPort.findByEmployeeAndDateRange(employee, effectiveStartDateTime, effectiveEndDateTime);
+        List<ConsumptionClass> consumptions = consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(employee, effectiveStartDateTime,
+                effectiveEndDateTime, null);
+
+        return buildReport(employee, effectiveStartDateTime, effectiveEndDateTime, attendanceRecords, consumptions);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Report> generateCompleteReportsForEmployees(LocalDate startDate, LocalDate endDate, List<EmployeeClass> employees) {
+        if (startDate == null || endDate == null || employees == null) {
+            throw new IllegalArgumentException("Start date, end date, and employees must not be null");
+        }
+        if (employees.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Only employees whose change version moved since their report was cached are recomputed. The versions
+        // are read before the data, in the same transaction
+        List<Long> employeeIds = employees.stream().map(EmployeeClass::getId).collect(Collectors.toList());
+        Map<Long, Long> versions = employeeChangeWatermarkPort.findVersions(employeeIds);
+        Map<Long, Optional<Report>> cached = reportResultCache.getUnchanged(employeeIds, startDate, endDate, versions);
+        List<EmployeeClass> changedEmployees = employees.stream()
+                .filter(employee -> !cached.containsKey(employee.getId()))
+                .collect(Collectors.toList());
+
+        Map<Long, Report> computed = new HashMap<>();
+        if (changedEmployees.size() * 2 <= employees.size()) {
+            // A few corrections: the per-employee queries read far less than the whole period
+            changedEmployees.forEach(employee -> computed.put(employee.getId(), computeReport(startDate, endDate, employee)));
+        } else if (!changedEmployees.isEmpty()) {
+            computed.putAll(computeReports(startDate, endDate, changedEmployees));
+        }
+        computed.forEach((employeeId, report) -> reportResultCache.put(employeeId, startDate, endDate, report,
+                versions.getOrDefault(employeeId, 0L)));
+
+        List<Report> reports = new ArrayList<>();
+        for (EmployeeClass employee : employees) {
+            Report report = cached.containsKey(employee.getId())
+                    ? cached.get(employee.getId()).orElse(null)
+                    : computed.get(employee.getId());
+            if (report != null) {
+                reports.add(report);
+            }
+        }
+        return reports;
+    }
+
+    private Map<Long, Report> computeReports(LocalDate startDate, LocalDate endDate, List<EmployeeClass> employees) {
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
+
+        // Load the whole period once and split it per employee in memory instead of querying per employee
+        Map<Long, LocalDateTime> firstActivityDates = findFirstActivityDates(
+                employees.stream().map(EmployeeClass::getId).collect(Collectors.toList()));
+        Map<Long, List<AttendanceRecordClass>> attendanceByEmployee = attendanceRepositoryPort.findByDateRange(startDateTime, endDateTime)
+                .stream()
+                .collect(Collectors.groupingBy(record -> record.getEmployee().getId()));
+        Map<Long, List<ConsumptionClass>> consumptionsByEmployee = consumptionRepositoryPort.findByDateTimeBetween(startDateTime, endDateTime)
+                .stream()
+                .collect(Collectors.groupingBy(consumption -> consumption.getEmployee().getId()));
+
+        Map<Long, Report> reports = new HashMap<>();
+        for (EmployeeClass employee : employees) {
+            LocalDateTime firstActivityDate = firstActivityDates.getOrDefault(employee.getId(), startDateTime);
+            LocalDateTime effectiveStartDateTime = startDateTime.isAfter(firstActivityDate) ? startDateTime : firstActivityDate;
+
+            // Narrow the shared period to the employee's effective window, mirroring the per-employee queries
+            List<AttendanceRecordClass> attendanceRecords = attendanceByEmployee.getOrDefault(employee.getId(), Collections.emptyList())
+                    .stream()
+                    .filter(record -> record.getEntryDateTime().isBefore(endDateTime) && record.getExitDateTime().isAfter(effectiveStartDateTime))
+                    .collect(Collectors.toList());
+            List<ConsumptionClass> consumptions = consumptionsByEmployee.getOrDefault(employee.getId(), Collections.emptyList())
+                    .stream()
+                    .filter(consumption -> !consumption.getConsumptionDate().isBefore(effectiveStartDateTime))
+                    .collect(Collectors.toList());
+
+            reports.put(employee.getId(), buildReport(employee, effectiveStartDateTime, endDateTime, attendanceRecords, consumptions));
+        }
+        return reports;
+    }
+
+    private Optional<LocalDateTime> findFirstActivityDate(Long employeeId) {
+        Optional<LocalDateTime> cached = firstActivityDateCache.get(employeeId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<LocalDateTime> firstActivityDate = attendanceRepositoryPort.findFirstEntryDateTimeByEmployee(employeeId);
+        firstActivityDate.ifPresent(date -> firstActivityDateCache.put(employeeId, date));
+        return firstActivityDate;
+    }
+
+    private Map<Long, LocalDateTime> findFirstActivityDates(List<Long> employeeIds) {
+        Map<Long, LocalDateTime> firstActivityDates = firstActivityDateCache.getAll(employeeIds);
+        List<Long> missingIds = employeeIds.stream()
+                .filter(id -> !firstActivityDates.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            Map<Long, LocalDateTime> loaded = attendanceRepositoryPort.findFirstEntryDateTimeByEmployeeIds(missingIds);
+            firstActivityDateCache.putAll(loaded);
+            firstActivityDates.putAll(loaded);
+        }
+        return firstActivityDates;
+    }
+
+    private Report buildReport(EmployeeClass employee, LocalDateTime effectiveStartDateTime, LocalDateTime effectiveEndDateTime,
+                               List<AttendanceRecordClass> attendanceRecords, List<ConsumptionClass> consumptions) {
         List<AttendanceReportLine> attendanceLines = attendanceRecords.stream()
                 .map(record -> reportCalculator.mapToAttendanceReportLine(record, effectiveStartDateTime, effectiveEndDateTime))
                 .collect(Collectors.toList());
 
-        List<ConsumptionReportLine> consumptionLines = consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(employee, effectiveStartDateTime,
-                        effectiveEndDateTime, null).stream()
+        List<ConsumptionReportLine> consumptionLines = consumptions.stream()
                 .map(reportCalculator::mapToConsumptionReportLine)
                 .collect(Collectors.toList());
 
@@ -91,7 +229,7 @@ public class ReportingApplicationService implements ReportingUseCase {
             return null;
         }
 
-        HoursCalculation hoursCalculation = reportCalculator.calculateHours(attendanceRecords, effectiveStartDateTime, effectiveEndDateTime);
+        HoursCalculation hoursCalculation = reportCalculator.calculateHours(attendanceRecords, effectiveStartDateTime, effectiveEndDateTime, employee);
 
         // Bug 1: Do not include hourly employees with 0 hours in the report.
         // This is a specific business rule for hourly employees.
@@ -159,12 +297,10 @@ public class ReportingApplicationService implements ReportingUseCase {
     @Override
     public void generateAndSendWeeklyReport(LocalDate startDate, LocalDate endDate) {
         List<EmployeeClass> allEmployees = employeeRepository.findAll(Pageable.unpaged()).getContent();
-        List<Report> reports = allEmployees.stream()
-                .map(employee -> generateCompleteReportForEmployee(startDate, endDate, employee))
-                .filter(java.util.Objects::nonNull) // Filter out null reports
-                .collect(Collectors.toList());
-
-        sendEmployeeReportNotificationUseCase.sendReport(allEmployees, reports);
+        // Only the reads share a (read-only) transaction; the emails are rendered afterwards and each one is
+        // written to the outbox in its own short transaction, so no connection is held while rendering.
+        // The relay sends them later, so SMTP latency or a restart mid-run neither slows down nor loses the batch
+        List<Report> reports = readOnlyTransaction.execute(status -> generateCompleteReportsForEmployees(startDate, endDate, allEmployees));
+        sendEmployeeReportNotificationUseCase.queueReports(allEmployees, reports, startDate, endDate);
     }
 }
-
@@ -0,0 +1,6 @@
+package com.employed.bar.domain.enums;
+
+public enum PayrollLineType {
+    REGULAR,
+    ADJUSTMENT
+}
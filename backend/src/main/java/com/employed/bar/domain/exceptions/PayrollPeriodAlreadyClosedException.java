@@ -0,0 +1,9 @@
+package com.employed.bar.domain.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class PayrollPeriodAlreadyClosedException extends BaseDomainException {
+    public PayrollPeriodAlreadyClosedException(String message) {
+        super(message, HttpStatus.CONFLICT, "PAYROLL_PERIOD_ALREADY_CLOSED");
+    }
+}
@@ -0,0 +1,9 @@
+package com.employed.bar.domain.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class PayrollRunNotFoundException extends BaseDomainException {
+    public PayrollRunNotFoundException(String message) {
+        super(message, HttpStatus.NOT_FOUND, "PAYROLL_RUN_NOT_FOUND");
+    }
+}
@@ -7,4 +7,8 @@ public class ReportGenerationException extends BaseDomainException {
     public ReportGenerationException(String message) {
         super(message, HttpStatus.INTERNAL_SERVER_ERROR, "REPORT_GENERATION_FAILED");
     }
+
+    public ReportGenerationException(String message, Throwable cause) {
+        super(message, HttpStatus.INTERNAL_SERVER_ERROR, "REPORT_GENERATION_FAILED", cause);
+    }
 }
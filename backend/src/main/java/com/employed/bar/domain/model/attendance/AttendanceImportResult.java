@@ -0,0 +1,22 @@
+package com.employed.bar.domain.model.attendance;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk attendance import. Valid records are stored even when others are rejected;
+ * each rejection points at the position of the record in the submitted batch (0-based).
+ */
+@Value
+public class AttendanceImportResult {
+    int received;
+    int imported;
+    List<RejectedRecord> rejected;
+
+    @Value
+    public static class RejectedRecord {
+        int index;
+        String reason;
+    }
+}
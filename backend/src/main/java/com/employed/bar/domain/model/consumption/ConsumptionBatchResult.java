@@ -0,0 +1,38 @@
+package com.employed.bar.domain.model.consumption;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of consumptions pushed by the POS. There is one item per submitted consumption,
+ * in the same order: the id of the stored consumption, or the reason it was rejected.
+ */
+@Value
+public class ConsumptionBatchResult {
+    int received;
+    int created;
+    int rejected;
+    List<ItemResult> items;
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    @Value
+    public static class ItemResult {
+        int index;
+        Status status;
+        Long consumptionId;
+        String error;
+
+        public static ItemResult created(int index, Long consumptionId) {
+            return new ItemResult(index, Status.CREATED, consumptionId, null);
+        }
+
+        public static ItemResult rejected(int index, String error) {
+            return new ItemResult(index, Status.REJECTED, null, error);
+        }
+    }
+}
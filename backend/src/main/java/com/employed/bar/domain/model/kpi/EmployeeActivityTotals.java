@@ -0,0 +1,12 @@
+package com.employed.bar.domain.model.kpi;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+@Value
+public class EmployeeActivityTotals {
+    Long employeeId;
+    long totalWorkedMinutes;
+    BigDecimal totalConsumptions;
+}
@@ -0,0 +1,23 @@
+package com.employed.bar.domain.model.payroll;
+
+import com.employed.bar.domain.enums.PayrollLineType;
+import com.employed.bar.domain.model.report.HoursCalculation;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One employee's figures in a closed payroll period. The REGULAR line is the snapshot taken when the
+ * period was closed; each ADJUSTMENT line holds the difference left by a later edit to the period.
+ */
+@Value
+public class PayrollLine {
+    Long employeeId;
+    PayrollLineType lineType;
+    HoursCalculation hoursCalculation;
+    BigDecimal earnings;
+    BigDecimal consumptions;
+    BigDecimal netPay;
+    LocalDateTime createdAt;
+}
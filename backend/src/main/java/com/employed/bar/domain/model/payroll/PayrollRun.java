@@ -0,0 +1,16 @@
+package com.employed.bar.domain.model.payroll;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+public class PayrollRun {
+    Long id;
+    LocalDate periodStart;
+    LocalDate periodEnd;
+    LocalDateTime closedAt;
+    List<PayrollLine> lines;
+}
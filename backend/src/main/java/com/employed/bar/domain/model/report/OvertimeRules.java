@@ -0,0 +1,19 @@
+package com.employed.bar.domain.model.report;
+
+import lombok.Value;
+
+import java.time.DayOfWeek;
+
+/**
+ * Thresholds after which worked time counts as overtime. Daily overtime is counted first; the weekly
+ * threshold only applies to the regular minutes left after it, so no minute is counted twice.
+ * A threshold of 0 disables that rule.
+ */
+@Value
+public class OvertimeRules {
+    public static final OvertimeRules DEFAULT = new OvertimeRules(8 * 60, 40 * 60, DayOfWeek.MONDAY);
+
+    long dailyThresholdMinutes;
+    long weeklyThresholdMinutes;
+    DayOfWeek firstDayOfWeek;
+}
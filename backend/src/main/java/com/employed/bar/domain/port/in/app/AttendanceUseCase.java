@@ -1,6 +1,9 @@
 package com.employed.bar.domain.port.in.app;
 
+import com.employed.bar.domain.model.attendance.AttendanceImportResult;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -9,11 +12,14 @@ public interface AttendanceUseCase {
 
     AttendanceRecordClass registerAttendance(AttendanceRecordClass attendanceRecord);
 
+    AttendanceImportResult importAttendances(List<AttendanceRecordClass> attendanceRecords);
+
     List<AttendanceRecordClass> findEmployeeAttendances(Long employeeId, LocalDate date);
 
     double calculateAttendancePercentage(Long employeeId, int year, int month, int day);
 
     List<AttendanceRecordClass> getAttendanceListByEmployeeAndDateRange(Long employeeId, LocalDate startDate, LocalDate endDate);
+    Window<AttendanceRecordClass> scrollAttendances(Long employeeId, LocalDate startDate, LocalDate endDate, KeysetScrollPosition position, int size);
     AttendanceRecordClass updateAttendance(AttendanceRecordClass attendanceRecord);
     void deleteById (Long attendanceId);
 }
@@ -1,9 +1,13 @@
 package com.employed.bar.domain.port.in.app;
 
+import com.employed.bar.domain.model.consumption.ConsumptionBatchResult;
 import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +16,8 @@ public interface ConsumptionUseCase {
 
     ConsumptionClass createConsumption(ConsumptionClass consumptionClass);
 
+    ConsumptionBatchResult createConsumptions(List<ConsumptionClass> consumptions);
+
     Optional<ConsumptionClass> getConsumptionById(Long id);
 
     List<ConsumptionClass> getConsumptionByEmployee(EmployeeClass employee, LocalDateTime startDate,
@@ -25,6 +31,9 @@ public interface ConsumptionUseCase {
 
     List<ConsumptionClass> getAllConsumptions();
 
+    Window<ConsumptionClass> scrollConsumptions(Long employeeId, LocalDate startDate, LocalDate endDate,
+                                                KeysetScrollPosition position, int size);
+
     ConsumptionClass updateConsumption(ConsumptionClass consumptionClass);
 
 
@@ -3,8 +3,10 @@ package com.employed.bar.domain.port.in.app;
 import com.employed.bar.domain.enums.EmployeeRole;
 import com.employed.bar.domain.enums.EmployeeStatus;
 import com.employed.bar.domain.model.structure.EmployeeClass;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -14,6 +16,7 @@ public interface EmployeeUseCase {
     Optional<EmployeeClass> getEmployeeById(Long id);
     Page<EmployeeClass> getEmployees(Pageable pageable);
     Page<EmployeeClass> searchEmployees(String name, EmployeeRole role, EmployeeStatus status, Pageable pageable);
+    Window<EmployeeClass> scrollEmployees(String name, EmployeeRole role, EmployeeStatus status, KeysetScrollPosition position, int size);
     void deleteEmployee(Long id);
     EmployeeClass updateEmployee(Long id, EmployeeClass updatedEmployee);
     Optional<EmployeeClass> findByEmail(String email);
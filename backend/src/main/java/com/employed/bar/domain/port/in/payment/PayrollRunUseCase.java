@@ -0,0 +1,17 @@
+package com.employed.bar.domain.port.in.payment;
+
+import com.employed.bar.domain.model.payroll.PayrollLine;
+import com.employed.bar.domain.model.payroll.PayrollRun;
+import com.employed.bar.domain.model.report.Report;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface PayrollRunUseCase {
+    PayrollRun closePeriod(LocalDate startDate, LocalDate endDate);
+    PayrollRun getPayrollRun(LocalDate startDate, LocalDate endDate);
+    Optional<List<Report>> findClosedPeriodReports(LocalDate startDate, LocalDate endDate);
+    Optional<PayrollLine> findClosedPeriodLine(Long employeeId, LocalDate startDate, LocalDate endDate);
+    int applyPendingAdjustments();
+}
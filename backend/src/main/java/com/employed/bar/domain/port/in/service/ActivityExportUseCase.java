@@ -0,0 +1,27 @@
+package com.employed.bar.domain.port.in.service;
+
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface ActivityExportUseCase {
+    /**
+     * Writes every attendance record and consumption between both dates (inclusive) as an .xlsx workbook.
+     */
+    void writeActivityExcel(LocalDate startDate, LocalDate endDate, OutputStream outputStream);
+
+    /**
+     * Hands every attendance record between both dates (inclusive) to the action as it is read.
+     * Without dates the whole history is streamed.
+     */
+    void forEachAttendance(LocalDate startDate, LocalDate endDate, Consumer<AttendanceRecordClass> action);
+
+    /**
+     * Hands every consumption between both dates (inclusive) to the action as it is read.
+     * Without dates the whole history is streamed.
+     */
+    void forEachConsumption(LocalDate startDate, LocalDate endDate, Consumer<ConsumptionClass> action);
+}
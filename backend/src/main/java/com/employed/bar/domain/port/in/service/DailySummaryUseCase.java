@@ -0,0 +1,7 @@
+package com.employed.bar.domain.port.in.service;
+
+import java.time.LocalDate;
+
+public interface DailySummaryUseCase {
+    void rebuildDailySummaries(LocalDate startDate, LocalDate endDate);
+}
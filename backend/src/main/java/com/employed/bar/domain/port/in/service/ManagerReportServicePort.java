@@ -1,8 +1,14 @@
 package com.employed.bar.domain.port.in.service;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 
 public interface ManagerReportServicePort {
-    void generateAndSendManagerReport(LocalDate startDate, LocalDate endDate);
+    // Scheduled run: queued once per period; false if the period was already queued
+    boolean generateAndSendManagerReport(LocalDate startDate, LocalDate endDate);
+    // Manual trigger: queued once per request id; false if that request was already queued
+    boolean generateAndSendManagerReport(LocalDate startDate, LocalDate endDate, String requestId);
     byte[] generateManagerReportPdf(LocalDate startDate, LocalDate endDate);
+    void writeManagerReportPdf(LocalDate startDate, LocalDate endDate, OutputStream outputStream);
+    void writeManagerReportExcel(LocalDate startDate, LocalDate endDate, OutputStream outputStream);
 }
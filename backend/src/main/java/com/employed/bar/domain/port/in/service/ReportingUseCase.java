@@ -5,9 +5,12 @@ import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public interface ReportingUseCase {
     Report generateCompleteReportForEmployeeById(LocalDate startDate, LocalDate endDate, Long employeeId);
+    Report generateCompleteReportForEmployee(LocalDate startDate, LocalDate endDate, EmployeeClass employee);
+    List<Report> generateCompleteReportsForEmployees(LocalDate startDate, LocalDate endDate, List<EmployeeClass> employees);
     void sendTestEmailToEmployee(Long employeeId);
     void generateAndSendWeeklyReport(LocalDate startDate, LocalDate endDate);
 }
@@ -3,8 +3,15 @@ package com.employed.bar.domain.port.in.service;
 import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface SendEmployeeReportNotificationUseCase {
     void sendReport(List<EmployeeClass> employees, List<Report> reports);
+
+    /**
+     * Queues the reports of a period in the notification outbox, one row per employee, for the relay to send.
+     * Returns how many were queued; reports already queued for the same period are skipped.
+     */
+    int queueReports(List<EmployeeClass> employees, List<Report> reports, LocalDate startDate, LocalDate endDate);
 }
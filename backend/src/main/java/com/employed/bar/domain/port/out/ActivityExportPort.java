@@ -0,0 +1,18 @@
+package com.employed.bar.domain.port.out;
+
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Read side for bulk exports. Records are handed to the action one at a time, in date order,
+ * while they are read from the database, so a whole year never has to fit in memory.
+ * A null start and end date streams every record.
+ */
+public interface ActivityExportPort {
+    void forEachAttendance(LocalDateTime startDateTime, LocalDateTime endDateTime, Consumer<AttendanceRecordClass> action);
+
+    void forEachConsumption(LocalDateTime startDateTime, LocalDateTime endDateTime, Consumer<ConsumptionClass> action);
+}
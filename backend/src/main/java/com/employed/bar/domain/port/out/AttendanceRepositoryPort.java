@@ -2,14 +2,28 @@ package com.employed.bar.domain.port.out;
 
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface AttendanceRepositoryPort {
     AttendanceRecordClass save(AttendanceRecordClass attendanceRecordClass);
+    // Inserts new records in JDBC batches
+    List<AttendanceRecordClass> saveAll(List<AttendanceRecordClass> attendanceRecords);
     List<AttendanceRecordClass> findByEmployeeAndDateRange(EmployeeClass employee, LocalDateTime startDate, LocalDateTime endDate);
+    List<AttendanceRecordClass> findByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    // Keyset pagination, newest entry first; no count query. A null employee or range is not filtered on.
+    Window<AttendanceRecordClass> scrollByDateRange(Long employeeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                    KeysetScrollPosition position, int limit);
+    Optional<LocalDateTime> findFirstEntryDateTimeByEmployee(Long employeeId);
+    Map<Long, LocalDateTime> findFirstEntryDateTimeByEmployeeIds(Collection<Long> employeeIds);
+    long countDaysWithAttendance(Long employeeId, LocalDate startDate, LocalDate endDate);
     List<AttendanceRecordClass> findByEmployee(EmployeeClass employee);
     Optional<AttendanceRecordClass> findTopByEmployeeOrderByEntryDateTimeDesc(EmployeeClass employee);
     Optional<AttendanceRecordClass> findById(Long attendanceId);
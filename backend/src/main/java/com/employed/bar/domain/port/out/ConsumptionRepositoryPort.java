@@ -2,6 +2,8 @@ package com.employed.bar.domain.port.out;
 
 import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,6 +14,9 @@ public interface ConsumptionRepositoryPort {
 
     ConsumptionClass save(ConsumptionClass consumptionClass);
 
+    // Inserts new consumptions in JDBC batches; the result keeps the order of the input
+    List<ConsumptionClass> saveAll(List<ConsumptionClass> consumptions);
+
     Optional<ConsumptionClass> findById(Long id);
 
     void deleteById(Long id);
@@ -21,6 +26,16 @@ public interface ConsumptionRepositoryPort {
                                                             LocalDateTime endDate,
                                                             String description);
 
+    List<ConsumptionClass> findByDateTimeBetween(LocalDateTime startDate,
+                                                 LocalDateTime endDate);
+
+    // Keyset pagination, newest consumption first; no count query. A null employee or range is not filtered on.
+    Window<ConsumptionClass> scrollByDateRange(Long employeeId,
+                                               LocalDateTime startDate,
+                                               LocalDateTime endDate,
+                                               KeysetScrollPosition position,
+                                               int limit);
+
     BigDecimal sumConsumptionByEmployeeAndDateRange(Long employeeId,
                                                     LocalDateTime startDate,
                                                     LocalDateTime endDate);
@@ -0,0 +1,9 @@
+package com.employed.bar.domain.port.out;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public interface DailySummaryRepositoryPort {
+    void rebuild(LocalDate startDate, LocalDate endDate);
+    Set<Long> findEmployeeIdsWithActivity(LocalDate startDate, LocalDate endDate);
+}
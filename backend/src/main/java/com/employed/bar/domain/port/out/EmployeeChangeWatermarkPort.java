@@ -0,0 +1,12 @@
+package com.employed.bar.domain.port.out;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface EmployeeChangeWatermarkPort {
+    /**
+     * Change version of each employee's report data; it grows with every committed change. Employees
+     * without a recorded change are left out (version 0). Read it before the data, in the same transaction.
+     */
+    Map<Long, Long> findVersions(Collection<Long> employeeIds);
+}
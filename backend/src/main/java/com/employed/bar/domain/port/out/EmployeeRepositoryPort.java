@@ -3,16 +3,23 @@ package com.employed.bar.domain.port.out;
 import com.employed.bar.domain.enums.EmployeeRole;
 import com.employed.bar.domain.enums.EmployeeStatus;
 import com.employed.bar.domain.model.structure.EmployeeClass;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface EmployeeRepositoryPort {
     Optional<EmployeeClass> findByEmail(String email);
     EmployeeClass save(EmployeeClass employee);
     Optional<EmployeeClass> findById(Long id);
+    List<EmployeeClass> findAllByIds(Collection<Long> ids);
     Page<EmployeeClass> findAll(Pageable pageable);
     Page<EmployeeClass> searchEmployees(String name, EmployeeRole role, EmployeeStatus status, Pageable pageable);
+    // Keyset pagination ordered by id; no count query. Null filters are ignored.
+    Window<EmployeeClass> scrollEmployees(String name, EmployeeRole role, EmployeeStatus status, KeysetScrollPosition position, int limit);
     void delete(EmployeeClass employee);
 }
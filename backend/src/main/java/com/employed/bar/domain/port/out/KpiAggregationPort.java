@@ -0,0 +1,12 @@
+package com.employed.bar.domain.port.out;
+
+import com.employed.bar.domain.model.kpi.EmployeeActivityTotals;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface KpiAggregationPort {
+    List<EmployeeActivityTotals> findActivityTotalsByEmployee(LocalDateTime startDate, LocalDateTime endDate);
+    List<EmployeeActivityTotals> findActivityTotalsByEmployeeIds(Collection<Long> employeeIds, LocalDateTime startDate, LocalDateTime endDate);
+}
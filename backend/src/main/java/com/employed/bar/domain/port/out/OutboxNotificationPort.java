@@ -0,0 +1,23 @@
+package com.employed.bar.domain.port.out;
+
+import com.employed.bar.domain.model.manager.ManagerReport;
+import com.employed.bar.domain.model.report.Report;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+
+import java.time.LocalDate;
+
+/**
+ * Records "report ready" notifications. Both are called outside a transaction and write one row each in a
+ * short transaction of their own, after the report is computed. The outbox relay delivers them
+ * later, at least once. The idempotency key is derived from the report period, so running the same
+ * period again does not queue a second copy; a manual manager report trigger adds its request id to the key,
+ * so each request queues its own copy while a retry of the same request does not. Both methods return false
+ * when the notification already existed.
+ */
+public interface OutboxNotificationPort {
+    boolean enqueueEmployeeReport(EmployeeClass employee, Report report, LocalDate startDate, LocalDate endDate);
+
+    // requestId is null for the scheduled run
+    boolean enqueueManagerReport(String managerEmail, ManagerReport managerReport, byte[] pdfAttachment, LocalDate startDate, LocalDate endDate,
+                                 String requestId);
+}
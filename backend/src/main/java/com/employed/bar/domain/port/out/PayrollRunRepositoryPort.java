@@ -0,0 +1,26 @@
+package com.employed.bar.domain.port.out;
+
+import com.employed.bar.domain.model.payroll.PayrollLine;
+import com.employed.bar.domain.model.payroll.PayrollRun;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface PayrollRunRepositoryPort {
+    PayrollRun save(PayrollRun payrollRun);
+    boolean existsOverlapping(LocalDate periodStart, LocalDate periodEnd);
+    Optional<PayrollRun> findByPeriod(LocalDate periodStart, LocalDate periodEnd);
+    Optional<PayrollRun> findById(Long payrollRunId);
+    List<PayrollLine> findLines(Long payrollRunId);
+    List<PayrollLine> findEmployeeTotals(Long payrollRunId);
+    Optional<PayrollLine> findEmployeeTotal(Long payrollRunId, Long employeeId);
+    Set<Long> findRunIdsWithPendingAdjustments();
+    // Employee id to the mark version of each pending adjustment of the run
+    Map<Long, Long> findPendingAdjustments(Long payrollRunId);
+    // Clears the marks up to the given version, keeping any change that arrived since it was read, and stores
+    // the adjustment only if it cleared any; false if they were already resolved by someone else
+    boolean resolvePendingAdjustment(Long payrollRunId, Long employeeId, PayrollLine adjustment, long markVersion);
+}
@@ -2,8 +2,15 @@ package com.employed.bar.domain.port.out;
 
 import com.employed.bar.domain.model.manager.ManagerReport;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 
 public interface PdfGeneratorPort {
     byte[] generateManagerReportPdf(ManagerReport managerReport, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Writes the PDF into the given stream as it is laid out, without buffering the whole document.
+     * The stream is flushed but left open for the caller to close.
+     */
+    void writeManagerReportPdf(ManagerReport managerReport, LocalDate startDate, LocalDate endDate, OutputStream outputStream);
 }
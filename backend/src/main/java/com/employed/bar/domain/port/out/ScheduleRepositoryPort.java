@@ -4,6 +4,7 @@ import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.model.structure.ScheduleClass;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import java.util.Optional;
@@ -12,6 +13,7 @@ public interface ScheduleRepositoryPort {
     ScheduleClass save(ScheduleClass schedule);
     List<ScheduleClass> findByEmployee(EmployeeClass employee);
     List<ScheduleClass> findByEmployeeAndDate(EmployeeClass employee, LocalDateTime startTime, LocalDateTime endTime);
+    List<ScheduleClass> findByEmployeeIdsAndDate(Collection<Long> employeeIds, LocalDateTime startTime, LocalDateTime endTime);
     List<ScheduleClass> findByDateRange(LocalDateTime startTime, LocalDateTime endTime);
 
     void deleteById(Long scheduleId);
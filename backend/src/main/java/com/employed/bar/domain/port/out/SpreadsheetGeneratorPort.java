@@ -0,0 +1,39 @@
+package com.employed.bar.domain.port.out;
+
+import com.employed.bar.domain.model.manager.ManagerReport;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface SpreadsheetGeneratorPort {
+
+    /**
+     * Writes the manager report as an .xlsx workbook into the given stream. The stream is left open.
+     */
+    void writeManagerReportWorkbook(ManagerReport managerReport, LocalDate startDate, LocalDate endDate, OutputStream outputStream);
+
+    /**
+     * Opens a workbook with one sheet for attendance and one for consumptions that rows can be appended to
+     * one at a time. Nothing is written to the stream until {@link ActivityWorkbook#finish()}.
+     */
+    ActivityWorkbook openActivityWorkbook(LocalDate startDate, LocalDate endDate, OutputStream outputStream);
+
+    interface ActivityWorkbook extends AutoCloseable {
+        void addAttendance(AttendanceRecordClass attendanceRecord);
+
+        void addConsumption(ConsumptionClass consumption);
+
+        /**
+         * Writes the workbook to the stream. Not calling it (e.g. after a failure) discards the export.
+         */
+        void finish();
+
+        /**
+         * Releases the temporary files backing the workbook.
+         */
+        @Override
+        void close();
+    }
+}
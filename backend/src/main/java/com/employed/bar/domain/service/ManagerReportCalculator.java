@@ -8,62 +8,56 @@ import com.employed.bar.domain.model.structure.EmployeeClass;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+
 @Service
 public class ManagerReportCalculator {
 
     public ManagerReport calculate(List<EmployeeClass> employees, List<Report> reports) {
-        List<EmployeeSummary> employeeSummaries = employees.stream()
-                .map(employee -> {
-                    // Intenta encontrar el reporte individual para el empleado
-                    Report report = reports.stream()
-                            .filter(r -> r.getEmployeeId().equals(employee.getId()))
-                            .findFirst()
-                            .orElse(null); // Si no se encuentra, devuelve null
-
-                    if (report == null) {
-                        return null; // Si no hay reporte, este empleado no se incluirá en el resumen
-                    }
-
-                    BigDecimal totalEarnings = report.getTotalEarnings();
-                    BigDecimal totalConsumptions = report.getTotalConsumptionAmount();
-                    BigDecimal netPay = totalEarnings.subtract(totalConsumptions);
-
-                    return new EmployeeSummary(
-                            employee.getName(),
-                            report.getHoursCalculation().getTotalHours(), // Total hours (regular + overtime)
-                            totalEarnings,
-                            totalConsumptions,
-                            netPay,
-                            employee.getPaymentMethod()
-                    );
-                })
-                .filter(java.util.Objects::nonNull) // Filtra los EmployeeSummary nulos (empleados sin reporte)
-                .collect(Collectors.toList());
-
-        // Los cálculos de totales agregados deben basarse en los reportes individuales que SÍ existen
+        // Indexa los reportes por empleado (hash join) y acumula las horas en la misma pasada.
+        // Los totales de horas se basan en todos los reportes individuales que SÍ existen
         // (la lista 'reports' ya está filtrada de nulos en ManagerReportApplicationService)
-        BigDecimal aggregatedRegularHours = reports.stream()
-                .map(report -> report.getHoursCalculation().getRegularHours())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal aggregatedOvertimeHours = reports.stream()
-                .map(report -> report.getHoursCalculation().getOvertimeHours())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<Long, Report> reportsByEmployeeId = new HashMap<>(Math.max(16, (int) (reports.size() / 0.75f) + 1));
+        BigDecimal aggregatedRegularHours = BigDecimal.ZERO;
+        BigDecimal aggregatedOvertimeHours = BigDecimal.ZERO;
+        for (Report report : reports) {
+            if (report.getEmployeeId() != null) {
+                reportsByEmployeeId.putIfAbsent(report.getEmployeeId(), report); // Se conserva el primero, como antes
+            }
+            aggregatedRegularHours = aggregatedRegularHours.add(report.getHoursCalculation().getRegularHours());
+            aggregatedOvertimeHours = aggregatedOvertimeHours.add(report.getHoursCalculation().getOvertimeHours());
+        }
 
-        // Los cálculos de totales desde employeeSummaries ya son correctos si los EmployeeSummary se crean solo para empleados con reporte
-        BigDecimal totalEarnings = employeeSummaries.stream()
-                .map(EmployeeSummary::getTotalEarnings)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Una sola pasada por los empleados: construye los EmployeeSummary y los totales monetarios a la vez
+        List<EmployeeSummary> employeeSummaries = new ArrayList<>(reportsByEmployeeId.size());
+        BigDecimal totalEarnings = BigDecimal.ZERO;
+        BigDecimal totalConsumptions = BigDecimal.ZERO;
+        BigDecimal totalNetPay = BigDecimal.ZERO;
+        for (EmployeeClass employee : employees) {
+            Report report = reportsByEmployeeId.get(employee.getId());
+            if (report == null) {
+                continue; // Si no hay reporte, este empleado no se incluirá en el resumen
+            }
 
-        BigDecimal totalConsumptions = employeeSummaries.stream()
-                .map(EmployeeSummary::getTotalConsumptions)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal earnings = report.getTotalEarnings();
+            BigDecimal consumptions = report.getTotalConsumptionAmount();
+            BigDecimal netPay = earnings.subtract(consumptions);
 
-        BigDecimal totalNetPay = employeeSummaries.stream()
-                .map(EmployeeSummary::getNetPay)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            employeeSummaries.add(new EmployeeSummary(
+                    employee.getName(),
+                    report.getHoursCalculation().getTotalHours(), // Total hours (regular + overtime)
+                    earnings,
+                    consumptions,
+                    netPay,
+                    employee.getPaymentMethod()
+            ));
+            totalEarnings = totalEarnings.add(earnings);
+            totalConsumptions = totalConsumptions.add(consumptions);
+            totalNetPay = totalNetPay.add(netPay);
+        }
 
         ReportTotals totals = new ReportTotals(
                 aggregatedRegularHours,
@@ -75,4 +69,4 @@ public class ManagerReportCalculator {
 
         return new ManagerReport(employeeSummaries, totals);
     }
-}
\ No newline at end of file
+}
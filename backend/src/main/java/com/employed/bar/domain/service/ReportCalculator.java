@@ -3,60 +3,82 @@ package com.employed.bar.domain.service;
 import com.employed.bar.domain.model.report.AttendanceReportLine;
 import com.employed.bar.domain.model.report.ConsumptionReportLine;
 import com.employed.bar.domain.model.report.HoursCalculation;
+import com.employed.bar.domain.model.report.OvertimeRules;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
 import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.DayOfWeek;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
 public class ReportCalculator {
 
-    public HoursCalculation calculateHours(List<AttendanceRecordClass> records, LocalDateTime startDate, LocalDateTime endDate) {
-        BigDecimal totalHours = records.stream()
-                .map(record -> {
-                    if (record.getEntryDateTime() != null && record.getExitDateTime() != null) {
-                        LocalDateTime effectiveEntry = record.getEntryDateTime().isBefore(startDate) ? startDate : record.getEntryDateTime();
-                        LocalDateTime effectiveExit = record.getExitDateTime().isAfter(endDate) ? endDate : record.getExitDateTime();
-
-                        if (effectiveEntry.isAfter(effectiveExit)) {
-                            return BigDecimal.ZERO;
-                        }
-
-                        return BigDecimal.valueOf(Duration.between(effectiveEntry, effectiveExit).toMinutes())
-                                .divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
-                    }
-                    return BigDecimal.ZERO;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // TODO: Implement overtime calculation logic
-        BigDecimal regularHours = totalHours;
-        BigDecimal overtimeHours = BigDecimal.ZERO;
-
-        return new HoursCalculation(totalHours, regularHours, overtimeHours);
+    private static final BigDecimal MINUTES_PER_HOUR = BigDecimal.valueOf(60);
+
+    private final OvertimeRules overtimeRules;
+
+    public ReportCalculator() {
+        this(OvertimeRules.DEFAULT);
     }
 
-    public AttendanceReportLine mapToAttendanceReportLine(AttendanceRecordClass record, LocalDateTime startDate, LocalDateTime endDate) {
-        BigDecimal workedHours = BigDecimal.ZERO;
-        if (record.getEntryDateTime() != null && record.getExitDateTime() != null) {
-            LocalDateTime effectiveEntry = record.getEntryDateTime().isBefore(startDate) ? startDate : record.getEntryDateTime();
-            LocalDateTime effectiveExit = record.getExitDateTime().isAfter(endDate) ? endDate : record.getExitDateTime();
-
-            if (effectiveEntry.isBefore(effectiveExit)) {
-                workedHours = BigDecimal.valueOf(Duration.between(effectiveEntry, effectiveExit).toMinutes())
-                        .divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+    public ReportCalculator(OvertimeRules overtimeRules) {
+        this.overtimeRules = overtimeRules;
+    }
+
+    @Autowired
+    public ReportCalculator(@Value("${bar.overtime.daily-threshold:8h}") Duration dailyThreshold,
+                            @Value("${bar.overtime.weekly-threshold:40h}") Duration weeklyThreshold,
+                            @Value("${bar.overtime.first-day-of-week:MONDAY}") DayOfWeek firstDayOfWeek) {
+        this(new OvertimeRules(dailyThreshold.toMinutes(), weeklyThreshold.toMinutes(), firstDayOfWeek));
+    }
+
+    /**
+     * Splits the worked time of one employee into regular and overtime hours. Minutes are added up per
+     * day as longs and converted to hours once, so rounding does not compound per record. A shift that
+     * crosses midnight counts for the day it started. Employees that are not paid overtime get every
+     * hour as regular, so those hours are still paid at their normal rate.
+     */
+    public HoursCalculation calculateHours(List<AttendanceRecordClass> records, LocalDateTime startDate, LocalDateTime endDate,
+                                           EmployeeClass employee) {
+        if (endDate.isBefore(startDate)) {
+            return new HoursCalculation(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+        LocalDate firstDay = startDate.toLocalDate();
+        long[] minutesPerDay = new long[(int) (endDate.toLocalDate().toEpochDay() - firstDay.toEpochDay()) + 1];
+        long totalMinutes = 0;
+
+        for (AttendanceRecordClass record : records) {
+            long minutes = workedMinutes(record, startDate, endDate);
+            if (minutes > 0) {
+                int day = (int) (effectiveEntry(record, startDate).toLocalDate().toEpochDay() - firstDay.toEpochDay());
+                minutesPerDay[day] += minutes;
+                totalMinutes += minutes;
             }
         }
+
+        long overtimeMinutes = employee == null || employee.isPaysOvertime() ? overtimeMinutes(minutesPerDay, firstDay) : 0;
+
+        BigDecimal totalHours = toHours(totalMinutes);
+        BigDecimal overtimeHours = toHours(overtimeMinutes);
+        // Derived from the rounded totals so regular + overtime always adds up to the total shown
+        return new HoursCalculation(totalHours, totalHours.subtract(overtimeHours), overtimeHours);
+    }
+
+    public AttendanceReportLine mapToAttendanceReportLine(AttendanceRecordClass record, LocalDateTime startDate, LocalDateTime endDate) {
         return new AttendanceReportLine(
                 record.getEmployee().getName(),
                 record.getEntryDateTime(),
                 record.getExitDateTime(),
-                workedHours,
+                toHours(workedMinutes(record, startDate, endDate)),
                 100.0 // Placeholder for percentage
         );
     }
@@ -69,4 +91,47 @@ public class ReportCalculator {
                 consumption.getDescription()
         );
     }
+
+    private long overtimeMinutes(long[] minutesPerDay, LocalDate firstDay) {
+        long dailyThreshold = overtimeRules.getDailyThresholdMinutes();
+        long weeklyThreshold = overtimeRules.getWeeklyThresholdMinutes();
+        long overtime = 0;
+        // Weeks are cut at the configured first day; a partial first week only counts the days in the range
+        long regularThisWeek = 0;
+
+        for (int day = 0; day < minutesPerDay.length; day++) {
+            if (day > 0 && firstDay.plusDays(day).getDayOfWeek() == overtimeRules.getFirstDayOfWeek()) {
+                regularThisWeek = 0;
+            }
+            long worked = minutesPerDay[day];
+            long dailyOvertime = dailyThreshold > 0 ? Math.max(0, worked - dailyThreshold) : 0;
+            long regular = worked - dailyOvertime;
+
+            long weeklyOvertime = 0;
+            if (weeklyThreshold > 0) {
+                weeklyOvertime = Math.max(0, regular - Math.max(0, weeklyThreshold - regularThisWeek));
+                regular -= weeklyOvertime;
+            }
+            regularThisWeek += regular;
+            overtime += dailyOvertime + weeklyOvertime;
+        }
+        return overtime;
+    }
+
+    private long workedMinutes(AttendanceRecordClass record, LocalDateTime startDate, LocalDateTime endDate) {
+        if (record.getEntryDateTime() == null || record.getExitDateTime() == null) {
+            return 0;
+        }
+        LocalDateTime effectiveEntry = effectiveEntry(record, startDate);
+        LocalDateTime effectiveExit = record.getExitDateTime().isAfter(endDate) ? endDate : record.getExitDateTime();
+        return effectiveEntry.isBefore(effectiveExit) ? Duration.between(effectiveEntry, effectiveExit).toMinutes() : 0;
+    }
+
+    private LocalDateTime effectiveEntry(AttendanceRecordClass record, LocalDateTime startDate) {
+        return record.getEntryDateTime().isBefore(startDate) ? startDate : record.getEntryDateTime();
+    }
+
+    private BigDecimal toHours(long minutes) {
+        return BigDecimal.valueOf(minutes).divide(MINUTES_PER_HOUR, 2, RoundingMode.HALF_UP);
+    }
 }
@@ -1,10 +1,13 @@
 package com.employed.bar.infrastructure.adapter.in.controller.app;
 
 import com.employed.bar.application.service.AttendanceApplicationService;
+import com.employed.bar.domain.model.attendance.AttendanceImportResult;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
 import com.employed.bar.infrastructure.adapter.in.mapper.AttendanceApiMapper;
+import com.employed.bar.infrastructure.adapter.in.pagination.ContinuationTokens;
 import com.employed.bar.infrastructure.constants.ApiPathConstants;
 import com.employed.bar.infrastructure.dto.domain.AttendanceDto;
+import com.employed.bar.infrastructure.dto.response.CursorPageResponse;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,14 +19,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing employee attendance records.
@@ -35,6 +46,8 @@ import java.util.List;
 @Tag(name = "3. Gestión de Asistencia", description = "Endpoints para el registro y consulta de asistencia del personal")
 @RequiredArgsConstructor
 public class AttendanceController {
+    private static final Set<String> ATTENDANCE_KEYSET = Set.of("entryDateTime", "id");
+
     private final AttendanceApplicationService attendanceApplicationService;
     private final AttendanceApiMapper attendanceApiMapper;
 
@@ -81,7 +94,72 @@ public class AttendanceController {
         return ResponseEntity.ok(attendanceApiMapper.toDto(createdRecord));
     }
 
-    
+    @Operation(
+            summary = "Importar asistencias en bloque",
+            description = "Registra un lote de asistencias (p. ej. la sincronización del reloj checador al cambio de turno) en una sola petición. " +
+                    "Los registros válidos se guardan; los inválidos se devuelven con su posición en el lote (base 0) y el motivo. " +
+                    "Máximo " + AttendanceApplicationService.MAX_IMPORT_RECORDS + " registros por petición.",
+            operationId = "importAttendances"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote procesado",
+                    content = @Content(schema = @Schema(implementation = AttendanceImportResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vacío o demasiado grande",
+                    content = @Content(schema = @Schema(example = "{\"message\": \"At least one attendance record is required\"}"))
+            )
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<AttendanceImportResult> importAttendances(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Registros de asistencia a importar",
+                    required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = AttendanceDto.class)))
+            )
+            @RequestBody List<AttendanceDto> attendanceDtos) {
+        return ResponseEntity.ok(importRecords(attendanceDtos));
+    }
+
+    @Operation(
+            summary = "Importar asistencias desde CSV",
+            description = "Igual que la importación en bloque, a partir de un archivo CSV con cabecera employeeId,entryDateTime,exitDateTime " +
+                    "(fechas ISO, p. ej. 2024-05-01T08:00:00). La posición de un registro rechazado corresponde a la línea de datos (base 0, sin la cabecera).",
+            operationId = "importAttendancesCsv"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Archivo procesado",
+                    content = @Content(schema = @Schema(implementation = AttendanceImportResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Archivo CSV inválido",
+                    content = @Content(schema = @Schema(example = "{\"message\": \"Invalid CSV value at line 3: ...\"}"))
+            )
+    })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<AttendanceImportResult> importAttendancesCsv(
+            @Parameter(description = "Archivo CSV del reloj checador", required = true)
+            @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(importRecords(AttendanceCsvParser.parse(inputStream)));
+        }
+    }
+
+    private AttendanceImportResult importRecords(List<AttendanceDto> attendanceDtos) {
+        List<AttendanceRecordClass> attendanceRecords = attendanceDtos.stream()
+                .map(attendanceApiMapper::toImportDomain)
+                .collect(Collectors.toList());
+        return attendanceApplicationService.importAttendances(attendanceRecords);
+    }
+
 
     @Operation(
             summary = "Calcular porcentaje de asistencia",
@@ -242,4 +320,29 @@ public class AttendanceController {
         attendanceApplicationService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Listar asistencias por cursor",
+            description = "Devuelve registros de asistencia, los más recientes primero, usando paginación por cursor (keyset). " +
+                    "Enviar el 'nextToken' recibido como 'token' para obtener la siguiente página. No calcula el total de registros.",
+            operationId = "scrollAttendances"
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CursorPageResponse<AttendanceRecordClass>> scrollAttendances(
+            @Parameter(description = "ID del empleado (opcional)", example = "1")
+            @RequestParam(required = false) Long employeeId,
+            @Parameter(description = "Fecha de inicio (YYYY-MM-DD), junto con la fecha de fin", example = "2023-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Fecha de fin (YYYY-MM-DD), inclusiva", example = "2023-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Tamaño de página (máx. 200)", example = "50")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Token de continuación devuelto por la página anterior")
+            @RequestParam(required = false) String token) {
+
+        Window<AttendanceRecordClass> window = attendanceApplicationService.scrollAttendances(employeeId, startDate, endDate,
+                ContinuationTokens.decode(token, ATTENDANCE_KEYSET), ContinuationTokens.pageSize(size));
+        return ResponseEntity.ok(ContinuationTokens.toResponse(window, Function.identity()));
+    }
+}
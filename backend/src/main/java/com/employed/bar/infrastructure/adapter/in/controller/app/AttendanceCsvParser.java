@@ -0,0 +1,110 @@
+package com.employed.bar.infrastructure.adapter.in.controller.app;
+
+import com.employed.bar.infrastructure.dto.domain.AttendanceDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the CSV file uploaded by the time clock for a bulk attendance import.
+ * <p>
+ * The first line is a header with the columns employeeId, entryDateTime and, optionally, exitDateTime
+ * (snake_case names are accepted too, as in AttendanceDto). Dates are ISO local date-times, with a 'T'
+ * or a space between date and time. Blank lines are skipped. A line that cannot be parsed rejects the
+ * whole file; business rules (unknown employee, exit before entry) are checked per record by the service.
+ */
+final class AttendanceCsvParser {
+
+    private static final String EMPLOYEE_ID = "employeeid";
+    private static final String ENTRY_DATE_TIME = "entrydatetime";
+    private static final String EXIT_DATE_TIME = "exitdatetime";
+
+    private AttendanceCsvParser() {
+    }
+
+    static List<AttendanceDto> parse(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = null;
+        List<AttendanceDto> records = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            // Spreadsheet programs may save the file with a byte order mark
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] values = split(line);
+            if (columns == null) {
+                columns = readHeader(values);
+                continue;
+            }
+            records.add(readRecord(values, columns, lineNumber));
+        }
+        if (columns == null) {
+            throw new IllegalArgumentException("The CSV file is empty");
+        }
+        return records;
+    }
+
+    private static Map<String, Integer> readHeader(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey(EMPLOYEE_ID) || !columns.containsKey(ENTRY_DATE_TIME)) {
+            throw new IllegalArgumentException("The CSV header must contain the columns employeeId and entryDateTime");
+        }
+        return columns;
+    }
+
+    private static AttendanceDto readRecord(String[] values, Map<String, Integer> columns, int lineNumber) {
+        AttendanceDto dto = new AttendanceDto();
+        try {
+            String employeeId = value(values, columns.get(EMPLOYEE_ID));
+            dto.setEmployeeId(employeeId != null ? Long.valueOf(employeeId) : null);
+            dto.setEntryDateTime(dateTime(value(values, columns.get(ENTRY_DATE_TIME))));
+            dto.setExitDateTime(dateTime(value(values, columns.get(EXIT_DATE_TIME))));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid CSV value at line " + lineNumber + ": " + e.getMessage());
+        }
+        return dto;
+    }
+
+    private static String value(String[] values, Integer column) {
+        if (column == null || column >= values.length || values[column].isEmpty()) {
+            return null;
+        }
+        return values[column];
+    }
+
+    private static LocalDateTime dateTime(String value) {
+        return value != null ? LocalDateTime.parse(value.replace(' ', 'T')) : null;
+    }
+
+    // The columns are ids and dates, so a plain split is enough; surrounding quotes are tolerated
+    private static String[] split(String line) {
+        String[] values = line.split(",", -1);
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i].trim();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1).trim();
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+}
@@ -8,10 +8,14 @@ import com.employed.bar.application.service.ConsumptionApplicationService;
 import com.employed.bar.domain.exceptions.ConsumptionNotFoundException;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
 import com.employed.bar.domain.exceptions.InvalidConsumptionDataException;
+import com.employed.bar.domain.model.consumption.ConsumptionBatchResult;
 import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.infrastructure.adapter.in.mapper.ConsumptionApiMapper;
+import com.employed.bar.infrastructure.adapter.in.pagination.ContinuationTokens;
+import com.employed.bar.infrastructure.dto.response.CursorPageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,6 +23,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +38,8 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing employee consumption records.
@@ -44,6 +51,8 @@ import java.util.Map;
 @RequestMapping(ApiPathConstants.V1_ROUTE + ApiPathConstants.CONSUMPTION_ROUTE)
 @Tag(name = "4. Gestión de Consumos", description = "Endpoints para el registro y consulta de consumos del personal")
 public class ConsumptionController {
+    private static final Set<String> CONSUMPTION_KEYSET = Set.of("consumptionDate", "id");
+
     private final ConsumptionApplicationService consumptionApplicationService;
     private final ConsumptionApiMapper consumptionApiMapper;
     private final EmployeeRepositoryPort employeeRepository;
@@ -84,6 +93,42 @@ public class ConsumptionController {
         return ResponseEntity.ok(createdConsumption);
     }
 
+    @Operation(
+            summary = "Registrar consumos en lote",
+            description = "Registra en una sola petición los consumos enviados por el POS al cierre. " +
+                    "Devuelve un resultado por consumo, en el mismo orden: el ID creado o el motivo del rechazo. " +
+                    "Un consumo inválido no impide registrar los demás. " +
+                    "Máximo " + ConsumptionApplicationService.MAX_BATCH_CONSUMPTIONS + " consumos por petición.",
+            operationId = "createConsumptionsBatch"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote procesado",
+                    content = @Content(schema = @Schema(implementation = ConsumptionBatchResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vacío o demasiado grande",
+                    content = @Content(schema = @Schema(example = "{\"message\": \"At least one consumption is required\"}"))
+            )
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ConsumptionBatchResult> createConsumptionsBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Consumos a registrar",
+                    required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ConsumptionDto.class)))
+            )
+            @RequestBody List<ConsumptionDto> consumptionDtos) {
+        // Validated per item by the service, so one invalid consumption does not fail the whole request
+        List<ConsumptionClass> consumptions = consumptionDtos.stream()
+                .map(consumptionApiMapper::toDomain)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(consumptionApplicationService.createConsumptions(consumptions));
+    }
+
     @Operation(
             summary = "Obtener todos los consumos",
             description = "Obtiene una lista de todos los registros de consumo",
@@ -316,6 +361,35 @@ public class ConsumptionController {
 
 
 
+    @Operation(
+            summary = "Listar consumos por cursor",
+            description = "Devuelve consumos, los más recientes primero, usando paginación por cursor (keyset). " +
+                    "Enviar el 'nextToken' recibido como 'token' para obtener la siguiente página. No calcula el total de registros.",
+            operationId = "scrollConsumptions"
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CursorPageResponse<ConsumptionDto>> scrollConsumptions(
+            @Parameter(description = "ID del empleado (opcional)", example = "1")
+            @RequestParam(required = false) Long employeeId,
+
+            @Parameter(description = "Fecha de inicio (YYYY-MM-DD), junto con la fecha de fin", example = "2023-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Fecha de fin (YYYY-MM-DD), inclusiva", example = "2023-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Tamaño de página (máx. 200)", example = "50")
+            @RequestParam(required = false) Integer size,
+
+            @Parameter(description = "Token de continuación devuelto por la página anterior")
+            @RequestParam(required = false) String token) {
+
+        Window<ConsumptionClass> window = consumptionApplicationService.scrollConsumptions(employeeId, startDate, endDate,
+                ContinuationTokens.decode(token, CONSUMPTION_KEYSET), ContinuationTokens.pageSize(size));
+        return ResponseEntity.ok(ContinuationTokens.toResponse(window, consumptionApiMapper::toDto));
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Map<String, String> handleValidationConsumption(MethodArgumentNotValidException ex) {
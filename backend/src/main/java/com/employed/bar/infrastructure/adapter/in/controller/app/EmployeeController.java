@@ -5,9 +5,11 @@ import com.employed.bar.domain.enums.EmployeeStatus;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.app.EmployeeUseCase;
 import com.employed.bar.infrastructure.adapter.in.mapper.EmployeeApiMapper;
+import com.employed.bar.infrastructure.adapter.in.pagination.ContinuationTokens;
 import com.employed.bar.infrastructure.constants.ApiPathConstants;
 import com.employed.bar.infrastructure.dto.domain.EmployeeDto;
 import com.employed.bar.infrastructure.dto.request.UpdateHourlyRateRequest;
+import com.employed.bar.infrastructure.dto.response.CursorPageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,11 +20,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Set;
+
 /**
  * REST controller for managing employee information.
  * This controller handles HTTP requests related to employee CRUD operations, hourly rate updates,
@@ -32,6 +37,8 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping(ApiPathConstants.V1_ROUTE + ApiPathConstants.EMPLOYEE_ROUTE)
 @Tag(name = "1. Gestión de Empleados", description = "Endpoints para la administración del personal")
 public class EmployeeController {
+    private static final Set<String> EMPLOYEE_KEYSET = Set.of("id");
+
     private final EmployeeUseCase employeeUseCase;
     private final EmployeeApiMapper employeeApiMapper;
 
@@ -192,4 +199,23 @@ public class EmployeeController {
         Page<EmployeeClass> employeePage = employeeUseCase.searchEmployees(name, role, status, pageable);
         return ResponseEntity.ok(employeePage.map(employeeApiMapper::toDto));
     }
+
+    @Operation(
+            summary = "Listar empleados por cursor",
+            description = "Devuelve empleados ordenados por ID usando paginación por cursor (keyset). Enviar el 'nextToken' recibido como 'token' para obtener la siguiente página. No calcula el total de registros.",
+            operationId = "scrollEmployees"
+    )
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CursorPageResponse<EmployeeDto>> scrollEmployees(
+            @Parameter(description = "Estado del empleado (ej. 'ACTIVE', 'INACTIVE')") @RequestParam(required = false) EmployeeStatus status,
+            @Parameter(description = "Nombre completo o parcial del empleado") @RequestParam(required = false) String name,
+            @Parameter(description = "Rol del empleado") @RequestParam(required = false) EmployeeRole role,
+            @Parameter(description = "Tamaño de página (máx. 200)", example = "50") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Token de continuación devuelto por la página anterior") @RequestParam(required = false) String token) {
+
+        Window<EmployeeClass> window = employeeUseCase.scrollEmployees(name, role, status,
+                ContinuationTokens.decode(token, EMPLOYEE_KEYSET), ContinuationTokens.pageSize(size));
+        return ResponseEntity.ok(ContinuationTokens.toResponse(window, employeeApiMapper::toDto));
+    }
 }
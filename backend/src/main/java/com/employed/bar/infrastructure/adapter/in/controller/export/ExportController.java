@@ -0,0 +1,148 @@
+package com.employed.bar.infrastructure.adapter.in.controller.export;
+
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.in.service.ActivityExportUseCase;
+import com.employed.bar.domain.port.in.service.ManagerReportServicePort;
+import com.employed.bar.infrastructure.constants.ApiPathConstants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.employed.bar.infrastructure.adapter.in.controller.export.RowStreamWriter.column;
+
+/**
+ * REST controller for bulk exports used by accounting.
+ * Files are streamed to the response while the rows are read from the database, so long ranges
+ * (e.g. a whole year) can be downloaded without holding the file or the result set in memory.
+ */
+@RestController
+@RequestMapping(ApiPathConstants.V1_ROUTE + ApiPathConstants.EXPORT_ROUTE)
+@Tag(name = "Exports", description = "Excel exports of payroll and activity data.")
+@RequiredArgsConstructor
+public class ExportController {
+
+    static final MediaType XLSX_MEDIA_TYPE = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private static final List<RowStreamWriter.Column<AttendanceRecordClass>> ATTENDANCE_COLUMNS = List.of(
+            column("id", AttendanceRecordClass::getId),
+            column("employeeId", attendance -> employeeId(attendance.getEmployee())),
+            column("employeeName", attendance -> employeeName(attendance.getEmployee())),
+            column("entryDateTime", AttendanceRecordClass::getEntryDateTime),
+            column("exitDateTime", AttendanceRecordClass::getExitDateTime),
+            column("status", AttendanceRecordClass::getStatus));
+
+    private static final List<RowStreamWriter.Column<ConsumptionClass>> CONSUMPTION_COLUMNS = List.of(
+            column("id", ConsumptionClass::getId),
+            column("employeeId", consumption -> employeeId(consumption.getEmployee())),
+            column("employeeName", consumption -> employeeName(consumption.getEmployee())),
+            column("date", ConsumptionClass::getConsumptionDate),
+            column("description", ConsumptionClass::getDescription),
+            column("amount", ConsumptionClass::getAmount));
+
+    private final ManagerReportServicePort managerReportServicePort;
+    private final ActivityExportUseCase activityExportUseCase;
+
+    @Operation(summary = "Export Manager Report to Excel",
+            description = "Streams the manager payroll report for the date range as an .xlsx workbook.")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/manager-report/xlsx")
+    public ResponseEntity<StreamingResponseBody> exportManagerReport(@RequestParam LocalDate startDate, @RequestParam LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody workbook = outputStream -> managerReportServicePort.writeManagerReportExcel(startDate, endDate, outputStream);
+        return ResponseEntity.ok().headers(xlsxHeaders("manager-report", startDate, endDate)).body(workbook);
+    }
+
+    @Operation(summary = "Export Attendance and Consumptions to Excel",
+            description = "Streams every attendance record and consumption in the date range as an .xlsx workbook.")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/activity/xlsx")
+    public ResponseEntity<StreamingResponseBody> exportActivity(@RequestParam LocalDate startDate, @RequestParam LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody workbook = outputStream -> activityExportUseCase.writeActivityExcel(startDate, endDate, outputStream);
+        return ResponseEntity.ok().headers(xlsxHeaders("activity", startDate, endDate)).body(workbook);
+    }
+
+    @Operation(summary = "Export Attendance Records",
+            description = "Streams attendance records as CSV or NDJSON, row by row. Without dates the whole history is exported.")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/attendances")
+    public ResponseEntity<StreamingResponseBody> exportAttendances(@RequestParam(required = false) LocalDate startDate,
+                                                                   @RequestParam(required = false) LocalDate endDate,
+                                                                   @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        if (!isValidOptionalRange(startDate, endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (RowStreamWriter<AttendanceRecordClass> writer = new RowStreamWriter<>(format, ATTENDANCE_COLUMNS, outputStream)) {
+                activityExportUseCase.forEachAttendance(startDate, endDate, writer::write);
+            }
+        };
+        return ResponseEntity.ok().headers(rowHeaders("attendances", format)).body(body);
+    }
+
+    @Operation(summary = "Export Consumptions",
+            description = "Streams consumptions as CSV or NDJSON, row by row. Without dates the whole history is exported.")
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/consumptions")
+    public ResponseEntity<StreamingResponseBody> exportConsumptions(@RequestParam(required = false) LocalDate startDate,
+                                                                    @RequestParam(required = false) LocalDate endDate,
+                                                                    @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        if (!isValidOptionalRange(startDate, endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (RowStreamWriter<ConsumptionClass> writer = new RowStreamWriter<>(format, CONSUMPTION_COLUMNS, outputStream)) {
+                activityExportUseCase.forEachConsumption(startDate, endDate, writer::write);
+            }
+        };
+        return ResponseEntity.ok().headers(rowHeaders("consumptions", format)).body(body);
+    }
+
+    // Checked before the response starts; once rows are being written the status can no longer change
+    private boolean isValidOptionalRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return startDate == null && endDate == null;
+        }
+        return !endDate.isBefore(startDate);
+    }
+
+    private HttpHeaders rowHeaders(String name, ExportFormat format) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDispositionFormData("attachment", name + "." + format.getExtension());
+        return headers;
+    }
+
+    private static Long employeeId(EmployeeClass employee) {
+        return employee != null ? employee.getId() : null;
+    }
+
+    private static String employeeName(EmployeeClass employee) {
+        return employee != null ? employee.getName() : null;
+    }
+
+    private HttpHeaders xlsxHeaders(String name, LocalDate startDate, LocalDate endDate) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(XLSX_MEDIA_TYPE);
+        headers.setContentDispositionFormData("attachment", name + "-" + startDate + "-" + endDate + ".xlsx");
+        return headers;
+    }
+}
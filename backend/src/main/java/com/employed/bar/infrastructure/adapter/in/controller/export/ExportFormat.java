@@ -0,0 +1,27 @@
+package com.employed.bar.infrastructure.adapter.in.controller.export;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented formats for the row-by-row exports.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
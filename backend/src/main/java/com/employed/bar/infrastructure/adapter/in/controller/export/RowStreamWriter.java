@@ -0,0 +1,133 @@
+package com.employed.bar.infrastructure.adapter.in.controller.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes rows to the response one at a time, either as CSV (with a header line) or as NDJSON
+ * (one JSON object per line). Values are taken straight from the domain objects through the
+ * given columns, so no intermediate DTO list is built.
+ */
+class RowStreamWriter<T> implements AutoCloseable {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ExportFormat format;
+    private final List<Column<T>> columns;
+    private final Writer writer;
+    private final JsonGenerator jsonGenerator;
+
+    RowStreamWriter(ExportFormat format, List<Column<T>> columns, OutputStream outputStream) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            jsonGenerator = JSON_FACTORY.createGenerator(writer);
+            jsonGenerator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            // Each object ends its own line, so no separator between root values
+            jsonGenerator.setRootValueSeparator(null);
+        } else {
+            jsonGenerator = null;
+            writeCsvLine(columns.stream().map(Column::name).toList());
+        }
+    }
+
+    static <T> Column<T> column(String name, Function<T, Object> value) {
+        return new Column<>(name, value);
+    }
+
+    /**
+     * Meant to be used as the row consumer of a stream; I/O errors are rethrown unchecked.
+     */
+    void write(T row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writeJsonLine(row);
+            } else {
+                writeCsvLine(columns.stream().map(column -> column.value().apply(row)).toList());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeJsonLine(T row) throws IOException {
+        jsonGenerator.writeStartObject();
+        for (Column<T> column : columns) {
+            Object value = column.value().apply(row);
+            jsonGenerator.writeFieldName(column.name());
+            if (value == null) {
+                jsonGenerator.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                jsonGenerator.writeNumber(decimal);
+            } else if (value instanceof Long number) {
+                jsonGenerator.writeNumber(number);
+            } else {
+                jsonGenerator.writeString(format(value));
+            }
+        }
+        jsonGenerator.writeEndObject();
+        jsonGenerator.writeRaw('\n');
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = format(value);
+        // Free text starting with a formula character would be evaluated when the file is opened in a spreadsheet
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private String format(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.format(DATE_TIME_FORMATTER);
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (jsonGenerator != null) {
+            jsonGenerator.close();
+        }
+        // Flush only: the response stream belongs to the container
+        writer.flush();
+    }
+
+    record Column<T>(String name, Function<T, Object> value) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.employed.bar.infrastructure.adapter.in.controller.kpi;
 
+import com.employed.bar.application.cache.SingleFlight;
 import com.employed.bar.domain.model.kpi.ManagerKpis;
 import com.employed.bar.domain.port.in.service.KpiServicePort;
 import com.employed.bar.infrastructure.constants.ApiPathConstants;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * REST controller for retrieving Key Performance Indicators (KPIs).
@@ -29,6 +31,7 @@ import java.time.LocalDate;
 public class KpiController {
 
     private final KpiServicePort kpiServicePort;
+    private final SingleFlight<List<LocalDate>, ManagerKpis> managerKpisFlights;
 
     @Operation(summary = "Get Manager KPIs",
             description = "Retrieves a set of Key Performance Indicators for the manager for a given date range.")
@@ -40,7 +43,9 @@ public class KpiController {
     public ResponseEntity<ManagerKpis> getManagerKpis(
             @RequestParam LocalDate startDate,
             @RequestParam LocalDate endDate) {
-        ManagerKpis kpis = kpiServicePort.getManagerKpis(startDate, endDate);
+        // Dashboards opened at the same time share one computation; coalesced here, outside the service's transaction
+        ManagerKpis kpis = managerKpisFlights.execute(List.of(startDate, endDate),
+                () -> kpiServicePort.getManagerKpis(startDate, endDate));
         return ResponseEntity.ok(kpis);
     }
 }
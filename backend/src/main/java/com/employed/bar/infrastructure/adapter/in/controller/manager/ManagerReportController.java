@@ -8,15 +8,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 
@@ -32,32 +36,46 @@ import org.springframework.security.access.prepost.PreAuthorize;
 @RequiredArgsConstructor
 public class ManagerReportController {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final ManagerReportServicePort managerReportServicePort;
 
     @Operation(summary = "Generate Manager Weekly Report",
             description = "Triggers the generation of the manager's weekly report for a given date range.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Manager report generation triggered successfully.")
+            @ApiResponse(responseCode = "200", description = "Manager report generation triggered successfully."),
+            @ApiResponse(responseCode = "409", description = "The request with this Idempotency-Key was already queued.")
     })
     @PreAuthorize("hasAuthority('ROLE_MANAGER')")
     @PostMapping("/weekly")
     public ResponseEntity<String> generateManagerWeeklyReport(
             @RequestParam LocalDate startDate,
-            @RequestParam LocalDate endDate) {
+            @RequestParam LocalDate endDate,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         if (endDate.isBefore(startDate)) {
             return ResponseEntity.badRequest().body("End date cannot be before start date.");
         }
-        managerReportServicePort.generateAndSendManagerReport(startDate, endDate);
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return ResponseEntity.badRequest().body("Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.");
+        }
+        // Every trigger queues its own copy, even for a period already sent; a client retry passes the same key
+        String requestId = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+        if (!managerReportServicePort.generateAndSendManagerReport(startDate, endDate, requestId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Manager report already queued for this request.");
+        }
         return ResponseEntity.ok("Manager report generation triggered successfully.");
     }
 
+    @Operation(summary = "Download Manager Weekly Report PDF",
+            description = "Streams the manager's weekly report as a PDF while it is being generated.")
     @PreAuthorize("hasAuthority('ROLE_MANAGER')")
     @GetMapping("/weekly/pdf")
-    public ResponseEntity<byte[]> downloadManagerReportPdf(@RequestParam LocalDate startDate, @RequestParam LocalDate endDate) {
+    public ResponseEntity<StreamingResponseBody> downloadManagerReportPdf(@RequestParam LocalDate startDate, @RequestParam LocalDate endDate) {
         if (endDate.isBefore(startDate)) {
-            return ResponseEntity.badRequest().body(new byte[0]);
+            return ResponseEntity.badRequest().build();
         }
-        byte[] pdf = managerReportServicePort.generateManagerReportPdf(startDate, endDate);
+        // Written to the response as the table is laid out, so the PDF is never held in memory as a whole
+        StreamingResponseBody pdf = outputStream -> managerReportServicePort.writeManagerReportPdf(startDate, endDate, outputStream);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", "manager-report.pdf");
@@ -0,0 +1,61 @@
+package com.employed.bar.infrastructure.adapter.in.controller.payroll;
+
+import com.employed.bar.domain.model.payroll.PayrollRun;
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
+import com.employed.bar.infrastructure.constants.ApiPathConstants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller for closing payroll periods and reading their snapshots.
+ * Once a period is closed, payments and manager reports for it are served from the stored lines.
+ */
+@RestController
+@RequestMapping(ApiPathConstants.V1_ROUTE + ApiPathConstants.PAYROLL_ROUTE)
+@Tag(name = "Payroll", description = "Endpoints for closing payroll periods.")
+@RequiredArgsConstructor
+public class PayrollRunController {
+
+    private final PayrollRunUseCase payrollRunUseCase;
+
+    @Operation(summary = "Close a payroll period",
+            description = "Stores one line per employee with the hours, earnings and consumptions of the period. Later changes are added as adjustment lines.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Payroll period closed successfully."),
+            @ApiResponse(responseCode = "409", description = "A payroll run already covers part of the period.")
+    })
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/runs")
+    public ResponseEntity<PayrollRun> closePeriod(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return new ResponseEntity<>(payrollRunUseCase.closePeriod(startDate, endDate), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Get a closed payroll period",
+            description = "Retrieves the regular and adjustment lines of a closed payroll period.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payroll run retrieved successfully."),
+            @ApiResponse(responseCode = "404", description = "The period has not been closed.")
+    })
+    @PreAuthorize("hasAuthority('ROLE_MANAGER') or hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/runs")
+    public ResponseEntity<PayrollRun> getPayrollRun(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return ResponseEntity.ok(payrollRunUseCase.getPayrollRun(startDate, endDate));
+    }
+}
@@ -68,6 +68,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PayrollPeriodAlreadyClosedException.class)
+    public ResponseEntity<ErrorResponse> handlePayrollPeriodAlreadyClosedException(PayrollPeriodAlreadyClosedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse("PAYROLL_PERIOD_ALREADY_CLOSED", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PayrollRunNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handlePayrollRunNotFoundException(PayrollRunNotFoundException ex) {
+        ErrorResponse errorResponse = new ErrorResponse("PAYROLL_RUN_NOT_FOUND", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex) {
         ErrorResponse errorResponse = new ErrorResponse("BAD_CREDENTIALS", ex.getMessage());
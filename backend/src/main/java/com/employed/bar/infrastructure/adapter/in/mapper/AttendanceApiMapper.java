@@ -32,6 +32,21 @@ public abstract class AttendanceApiMapper { // Changed to abstract class
         return employee.orElse(null); // Or throw an exception if employee must exist
     }
 
+    // Bulk import: only the employee id is set; the service loads every employee of the batch at once
+    @Mapping(target = "id", ignore = true)
+    @Mapping(source = "employeeId", target = "employee", qualifiedByName = "employeeIdToReference")
+    public abstract AttendanceRecordClass toImportDomain(AttendanceDto dto);
+
+    @Named("employeeIdToReference")
+    public EmployeeClass employeeIdToReference(Long employeeId) {
+        if (employeeId == null) {
+            return null;
+        }
+        EmployeeClass employee = new EmployeeClass();
+        employee.setId(employeeId);
+        return employee;
+    }
+
     @Mapping(source = "employee.id", target = "employeeId")
     public abstract AttendanceDto toDto(AttendanceRecordClass domain); // Changed to abstract method
 
@@ -0,0 +1,102 @@
+package com.employed.bar.infrastructure.adapter.in.pagination;
+
+import com.employed.bar.infrastructure.dto.response.CursorPageResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Converts keyset scroll positions to the opaque continuation tokens handed to API clients and back.
+ * A token holds the sort key of the last row of a page (e.g. entryDateTime and id), base64url encoded,
+ * so clients cannot depend on its format. Tokens are only valid for the listing that issued them.
+ */
+public final class ContinuationTokens {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String VERSION = "v1";
+    private static final String FIELD_SEPARATOR = "|";
+    private static final String INVALID_TOKEN = "Invalid continuation token";
+
+    private ContinuationTokens() {
+    }
+
+    /**
+     * Position to scroll from: the start of the listing when no token is given.
+     */
+    public static KeysetScrollPosition decode(String token, Set<String> expectedKeys) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] fields = decoded.split("\\" + FIELD_SEPARATOR);
+            if (!VERSION.equals(fields[0])) {
+                throw new IllegalArgumentException(INVALID_TOKEN);
+            }
+            for (int i = 1; i < fields.length; i++) {
+                // key:type:value
+                String[] parts = fields[i].split(":", 3);
+                keys.put(parts[0], parseValue(parts[1], parts[2]));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(INVALID_TOKEN);
+        }
+        if (!keys.keySet().equals(expectedKeys)) {
+            throw new IllegalArgumentException(INVALID_TOKEN);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public static <T, R> CursorPageResponse<R> toResponse(Window<T> window, Function<T, R> mapper) {
+        List<R> content = window.getContent().stream().map(mapper).toList();
+        String nextToken = window.hasNext() && !window.isEmpty() ? encode(window.positionAt(window.size() - 1)) : null;
+        return new CursorPageResponse<>(content, nextToken, nextToken != null);
+    }
+
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keysetPosition)) {
+            throw new IllegalStateException("Only keyset positions can be turned into a continuation token");
+        }
+        StringBuilder token = new StringBuilder(VERSION);
+        keysetPosition.getKeys().forEach((key, value) ->
+                token.append(FIELD_SEPARATOR).append(key).append(':').append(formatValue(value)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String formatValue(Object value) {
+        if (value instanceof Long number) {
+            return "L:" + number;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return "T:" + dateTime;
+        }
+        throw new IllegalStateException("Unsupported keyset value type: " + (value == null ? "null" : value.getClass().getName()));
+    }
+
+    private static Object parseValue(String type, String value) {
+        return switch (type) {
+            case "L" -> Long.valueOf(value);
+            case "T" -> LocalDateTime.parse(value);
+            default -> throw new IllegalArgumentException(INVALID_TOKEN);
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.employed.bar.infrastructure.adapter.in.scheduler;
+
+import com.employed.bar.domain.port.in.service.DailySummaryUseCase;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDate;
+
+public class DailySummaryRebuildScheduler {
+
+    private final DailySummaryUseCase dailySummaryUseCase;
+    private final int rebuildDays;
+    private final LocalDate backfillFrom;
+
+    public DailySummaryRebuildScheduler(DailySummaryUseCase dailySummaryUseCase, int rebuildDays, LocalDate backfillFrom) {
+        this.dailySummaryUseCase = dailySummaryUseCase;
+        this.rebuildDays = rebuildDays;
+        this.backfillFrom = backfillFrom;
+    }
+
+    /**
+     * Runs every night (03:30 by default) and recomputes the recent days of the rollup,
+     * repairing any drift left by writes whose incremental refresh failed.
+     */
+    @Scheduled(cron = "${bar.daily-summary.rebuild.cron:0 30 3 * * *}")
+    public void rebuildRecentDays() {
+        LocalDate today = LocalDate.now();
+        dailySummaryUseCase.rebuildDailySummaries(today.minusDays(rebuildDays), today);
+    }
+
+    /**
+     * One-off backfill of the whole history, enabled by setting bar.daily-summary.backfill-from.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillFrom == null) {
+            return;
+        }
+        dailySummaryUseCase.rebuildDailySummaries(backfillFrom, LocalDate.now());
+    }
+}
@@ -0,0 +1,29 @@
+package com.employed.bar.infrastructure.adapter.in.scheduler;
+
+import com.employed.bar.infrastructure.adapter.out.notification.NotificationOutboxRelay;
+import org.springframework.scheduling.annotation.Scheduled;
+
+public class NotificationOutboxRelayScheduler {
+
+    private final NotificationOutboxRelay notificationOutboxRelay;
+
+    public NotificationOutboxRelayScheduler(NotificationOutboxRelay notificationOutboxRelay) {
+        this.notificationOutboxRelay = notificationOutboxRelay;
+    }
+
+    /**
+     * Polls the notification outbox (every 10 seconds by default) and sends whatever is due.
+     */
+    @Scheduled(fixedDelayString = "${bar.notification.outbox.relay-interval-ms:10000}")
+    public void relayPendingNotifications() {
+        notificationOutboxRelay.relayPending();
+    }
+
+    /**
+     * Deletes delivered notifications past their retention every night (04:00 by default).
+     */
+    @Scheduled(cron = "${bar.notification.outbox.purge-cron:0 0 4 * * *}")
+    public void purgeSentNotifications() {
+        notificationOutboxRelay.purgeSent();
+    }
+}
@@ -0,0 +1,29 @@
+package com.employed.bar.infrastructure.adapter.in.scheduler;
+
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+public class PayrollAdjustmentScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollAdjustmentScheduler.class);
+
+    private final PayrollRunUseCase payrollRunUseCase;
+
+    public PayrollAdjustmentScheduler(PayrollRunUseCase payrollRunUseCase) {
+        this.payrollRunUseCase = payrollRunUseCase;
+    }
+
+    /**
+     * Settles edits made inside closed payroll periods (every minute by default), so adjustment lines are
+     * written even if nobody reads the period. Reads also apply them first, so this only keeps them prompt.
+     */
+    @Scheduled(fixedDelayString = "${bar.payroll.adjustment-interval-ms:60000}")
+    public void applyPendingAdjustments() {
+        int applied = payrollRunUseCase.applyPendingAdjustments();
+        if (applied > 0) {
+            log.info("Payroll adjustments applied: {}", applied);
+        }
+    }
+}
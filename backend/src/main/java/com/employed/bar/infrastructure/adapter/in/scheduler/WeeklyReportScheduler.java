@@ -3,6 +3,8 @@ package com.employed.bar.infrastructure.adapter.in.scheduler;
 import com.employed.bar.domain.event.WeeklyReportRequestedEvent;
 import com.employed.bar.domain.port.in.service.ManagerReportServicePort;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -12,6 +14,8 @@ import java.time.LocalDate;
 
 public class WeeklyReportScheduler {
 
+    private static final Logger log = LoggerFactory.getLogger(WeeklyReportScheduler.class);
+
     private final ApplicationEventPublisher eventPublisher;
     private final ManagerReportServicePort managerReportServicePort;
 
@@ -36,7 +40,9 @@ public class WeeklyReportScheduler {
         WeeklyReportRequestedEvent employeeEvent = new WeeklyReportRequestedEvent(this, startDate, endDate);
         eventPublisher.publishEvent(employeeEvent);
 
-        // Trigger manager report
-        managerReportServicePort.generateAndSendManagerReport(startDate, endDate);
+        // Trigger manager report; another node may already have queued it for this week
+        if (!managerReportServicePort.generateAndSendManagerReport(startDate, endDate)) {
+            log.info("Manager report for {} to {} was already queued", startDate, endDate);
+        }
     }
 }
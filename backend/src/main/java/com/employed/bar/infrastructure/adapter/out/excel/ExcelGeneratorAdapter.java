@@ -0,0 +1,284 @@
+package com.employed.bar.infrastructure.adapter.out.excel;
+
+import com.employed.bar.domain.model.manager.EmployeeSummary;
+import com.employed.bar.domain.model.manager.ManagerReport;
+import com.employed.bar.domain.model.manager.ReportTotals;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.out.SpreadsheetGeneratorPort;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Excel exports built with POI's streaming workbook (SXSSF). Only the last rows of each sheet are kept in
+ * memory; older rows are flushed to a temporary file, so a year of attendance and consumptions can be
+ * exported with a constant heap footprint. Sheets that would exceed the Excel row limit continue on a new one.
+ */
+@Component
+public class ExcelGeneratorAdapter implements SpreadsheetGeneratorPort {
+
+    private static final Logger log = LoggerFactory.getLogger(ExcelGeneratorAdapter.class);
+
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private static final String[] SUMMARY_HEADERS = {"Empleado", "Horas Trabajadas", "Salario Bruto", "Consumos", "Pago Neto", "Método de Pago"};
+    private static final String[] ATTENDANCE_HEADERS = {"ID", "ID Empleado", "Empleado", "Entrada", "Salida", "Horas", "Estado"};
+    private static final String[] CONSUMPTION_HEADERS = {"ID", "ID Empleado", "Empleado", "Fecha", "Descripción", "Monto"};
+
+    private final int rowWindow;
+    private final boolean compressTempFiles;
+
+    public ExcelGeneratorAdapter(@Value("${bar.export.excel.row-window:100}") int rowWindow,
+                                 @Value("${bar.export.excel.compress-temp-files:true}") boolean compressTempFiles) {
+        this.rowWindow = Math.max(1, rowWindow);
+        this.compressTempFiles = compressTempFiles;
+    }
+
+    @Override
+    public void writeManagerReportWorkbook(ManagerReport managerReport, LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        try (StreamingWorkbook workbook = new StreamingWorkbook()) {
+            SheetCursor summary = workbook.sheet("Reporte", SUMMARY_HEADERS);
+            for (EmployeeSummary employee : managerReport.getEmployeeSummaries()) {
+                Row row = summary.nextRow();
+                workbook.text(row, 0, employee.getEmployeeName());
+                workbook.number(row, 1, employee.getTotalHoursWorked());
+                workbook.money(row, 2, employee.getTotalEarnings());
+                workbook.money(row, 3, employee.getTotalConsumptions());
+                workbook.money(row, 4, employee.getNetPay());
+                workbook.text(row, 5, employee.getPaymentMethod() != null ? String.valueOf(employee.getPaymentMethod().getType()) : null);
+            }
+
+            ReportTotals totals = managerReport.getTotals();
+            if (totals != null) {
+                Row row = summary.nextRow();
+                workbook.header(row, 0, "TOTAL");
+                workbook.number(row, 1, sum(totals.getTotalRegularHoursWorked(), totals.getTotalOvertimeHoursWorked()));
+                workbook.money(row, 2, totals.getTotalEarnings());
+                workbook.money(row, 3, totals.getTotalConsumptions());
+                workbook.money(row, 4, totals.getTotalNetPay());
+            }
+            workbook.write(outputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Error generating Excel report", e);
+        }
+    }
+
+    @Override
+    public ActivityWorkbook openActivityWorkbook(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        return new StreamingActivityWorkbook(outputStream);
+    }
+
+    private static BigDecimal sum(BigDecimal first, BigDecimal second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null ? first : first.add(second);
+    }
+
+    private final class StreamingActivityWorkbook implements ActivityWorkbook {
+        private final StreamingWorkbook workbook = new StreamingWorkbook();
+        private final OutputStream outputStream;
+        private final SheetCursor attendance;
+        private final SheetCursor consumptions;
+
+        private StreamingActivityWorkbook(OutputStream outputStream) {
+            this.outputStream = outputStream;
+            this.attendance = workbook.sheet("Asistencias", ATTENDANCE_HEADERS);
+            this.consumptions = workbook.sheet("Consumos", CONSUMPTION_HEADERS);
+        }
+
+        @Override
+        public void addAttendance(AttendanceRecordClass attendanceRecord) {
+            Row row = attendance.nextRow();
+            EmployeeClass employee = attendanceRecord.getEmployee();
+            workbook.number(row, 0, attendanceRecord.getId());
+            workbook.number(row, 1, employee != null ? employee.getId() : null);
+            workbook.text(row, 2, employee != null ? employee.getName() : null);
+            workbook.dateTime(row, 3, attendanceRecord.getEntryDateTime());
+            workbook.dateTime(row, 4, attendanceRecord.getExitDateTime());
+            if (attendanceRecord.getEntryDateTime() != null && attendanceRecord.getExitDateTime() != null) {
+                long minutes = Duration.between(attendanceRecord.getEntryDateTime(), attendanceRecord.getExitDateTime()).toMinutes();
+                workbook.decimal(row, 5, minutes / 60.0);
+            }
+            workbook.text(row, 6, attendanceRecord.getStatus() != null ? attendanceRecord.getStatus().name() : null);
+        }
+
+        @Override
+        public void addConsumption(ConsumptionClass consumption) {
+            Row row = consumptions.nextRow();
+            EmployeeClass employee = consumption.getEmployee();
+            workbook.number(row, 0, consumption.getId());
+            workbook.number(row, 1, employee != null ? employee.getId() : null);
+            workbook.text(row, 2, employee != null ? employee.getName() : null);
+            workbook.dateTime(row, 3, consumption.getConsumptionDate());
+            workbook.text(row, 4, consumption.getDescription());
+            workbook.money(row, 5, consumption.getAmount());
+        }
+
+        @Override
+        public void finish() {
+            try {
+                workbook.write(outputStream);
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing Excel export", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            workbook.close();
+        }
+    }
+
+    /**
+     * A sheet being filled row by row. When the row limit is reached a continuation sheet is created
+     * with the same headers ("Asistencias (2)", ...).
+     */
+    private final class SheetCursor {
+        private final StreamingWorkbook workbook;
+        private final String name;
+        private final String[] headers;
+        private Sheet sheet;
+        private int sheetCount;
+        private int nextRowIndex;
+
+        private SheetCursor(StreamingWorkbook workbook, String name, String[] headers) {
+            this.workbook = workbook;
+            this.name = name;
+            this.headers = headers;
+            startSheet();
+        }
+
+        private Row nextRow() {
+            if (nextRowIndex >= MAX_ROWS_PER_SHEET) {
+                startSheet();
+            }
+            return sheet.createRow(nextRowIndex++);
+        }
+
+        private void startSheet() {
+            sheetCount++;
+            sheet = workbook.poiWorkbook.createSheet(sheetCount == 1 ? name : name + " (" + sheetCount + ")");
+            // Column widths are fixed: auto-sizing would need every row in memory
+            for (int i = 0; i < headers.length; i++) {
+                sheet.setColumnWidth(i, 20 * 256);
+            }
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                workbook.header(headerRow, i, headers[i]);
+            }
+            sheet.createFreezePane(0, 1);
+            nextRowIndex = 1;
+        }
+    }
+
+    private final class StreamingWorkbook implements AutoCloseable {
+        private final SXSSFWorkbook poiWorkbook;
+        private final CellStyle headerStyle;
+        private final CellStyle dateTimeStyle;
+        private final CellStyle moneyStyle;
+        private final CellStyle decimalStyle;
+
+        private StreamingWorkbook() {
+            poiWorkbook = new SXSSFWorkbook(rowWindow);
+            poiWorkbook.setCompressTempFiles(compressTempFiles);
+
+            Font boldFont = poiWorkbook.createFont();
+            boldFont.setBold(true);
+            headerStyle = poiWorkbook.createCellStyle();
+            headerStyle.setFont(boldFont);
+
+            dateTimeStyle = poiWorkbook.createCellStyle();
+            dateTimeStyle.setDataFormat(poiWorkbook.createDataFormat().getFormat("dd-mm-yyyy hh:mm"));
+            moneyStyle = poiWorkbook.createCellStyle();
+            moneyStyle.setDataFormat(poiWorkbook.createDataFormat().getFormat("#,##0.00"));
+            decimalStyle = poiWorkbook.createCellStyle();
+            decimalStyle.setDataFormat(poiWorkbook.createDataFormat().getFormat("0.00"));
+        }
+
+        private SheetCursor sheet(String name, String[] headers) {
+            return new SheetCursor(this, name, headers);
+        }
+
+        private void header(Row row, int column, String value) {
+            Cell cell = row.createCell(column);
+            cell.setCellValue(value);
+            cell.setCellStyle(headerStyle);
+        }
+
+        private void text(Row row, int column, String value) {
+            if (value != null) {
+                row.createCell(column).setCellValue(value);
+            }
+        }
+
+        private void number(Row row, int column, Long value) {
+            if (value != null) {
+                row.createCell(column).setCellValue(value);
+            }
+        }
+
+        private void number(Row row, int column, BigDecimal value) {
+            if (value != null) {
+                decimal(row, column, value.doubleValue());
+            }
+        }
+
+        private void decimal(Row row, int column, double value) {
+            Cell cell = row.createCell(column);
+            cell.setCellValue(value);
+            cell.setCellStyle(decimalStyle);
+        }
+
+        private void money(Row row, int column, BigDecimal value) {
+            if (value != null) {
+                Cell cell = row.createCell(column);
+                cell.setCellValue(value.doubleValue());
+                cell.setCellStyle(moneyStyle);
+            }
+        }
+
+        private void dateTime(Row row, int column, LocalDateTime value) {
+            if (value != null) {
+                Cell cell = row.createCell(column);
+                cell.setCellValue(value);
+                cell.setCellStyle(dateTimeStyle);
+            }
+        }
+
+        private void write(OutputStream outputStream) throws IOException {
+            // POI closes the stream it writes to; the caller owns it (e.g. the HTTP response)
+            poiWorkbook.write(CloseShieldOutputStream.wrap(outputStream));
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() {
+            // Deletes the temporary files that back the flushed rows
+            poiWorkbook.dispose();
+            try {
+                poiWorkbook.close();
+            } catch (IOException e) {
+                log.warn("Could not close the workbook", e);
+            }
+        }
+    }
+}
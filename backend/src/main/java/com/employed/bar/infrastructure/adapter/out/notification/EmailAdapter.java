@@ -10,7 +10,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StreamUtils;
 import org.thymeleaf.TemplateEngine;
@@ -30,6 +29,10 @@ import org.springframework.core.io.ByteArrayResource;
 @Component
 public class EmailAdapter implements NotificationPort {
 
+    public static final String REPORT_SUBJECT = "Your Weekly Report";
+    public static final String MANAGER_REPORT_SUBJECT = "Manager Weekly Report";
+    public static final String IDEMPOTENCY_KEY_HEADER = "X-Idempotency-Key";
+
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
     private final ClassPathResource logoResource = new ClassPathResource("static/images/1800-logo.png");
@@ -47,8 +50,8 @@ public class EmailAdapter implements NotificationPort {
     public void sendReportByEmail(EmployeeClass employee, Report report) {
         System.out.println("📬 [EMAIL ADAPTER] Preparando email para: " + employee.getEmail());
         try {
-            String subject = "Your Weekly Report";
-            String body = generateEmailBody(employee, report);
+            String subject = REPORT_SUBJECT;
+            String body = renderReportBody(employee, report);
             System.out.println("✅ [EMAIL ADAPTER] Cuerpo del email generado, longitud: " + body.length());
             System.out.println("📧 [EMAIL ADAPTER] Contenido preview: " + (body.length() > 100 ? body.substring(0, 100) + "..." : body));
 
@@ -60,7 +63,18 @@ public class EmailAdapter implements NotificationPort {
             throw new RuntimeException("Error sending email to " + employee.getEmail(), e);
         }
     }
-    private String generateEmailBody(EmployeeClass employee, Report report) {
+
+    /**
+     * Rebuilds an email whose body was rendered when the report was generated (notification outbox).
+     * The idempotency key travels as a header so receivers can drop a redelivered copy.
+     */
+    public MimeMessage buildRenderedMessage(String to, String subject, String body, byte[] attachment, String idempotencyKey) throws MessagingException {
+        MimeMessage mimeMessage = createHtmlMessage(to, subject, body, attachment);
+        mimeMessage.setHeader(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        return mimeMessage;
+    }
+
+    public String renderReportBody(EmployeeClass employee, Report report) {
         System.out.println("🛠️ [TEMPLATE] Generando HTML...");
 
         Context context = new Context();
@@ -109,8 +123,8 @@ public class EmailAdapter implements NotificationPort {
     public void sendManagerReportByEmail(String managerEmail, ManagerReport managerReport, byte[] pdfAttachment, LocalDate startDate, LocalDate endDate) {
         System.out.println("📬 [EMAIL ADAPTER] Preparando email de manager para: " + managerEmail);
         try {
-            String subject = "Manager Weekly Report";
-            String body = generateManagerEmailBody(managerReport, startDate, endDate);
+            String subject = MANAGER_REPORT_SUBJECT;
+            String body = renderManagerReportBody(managerReport, startDate, endDate);
             System.out.println("✅ [EMAIL ADAPTER] Cuerpo del email de manager generado, longitud: " + body.length());
 
             sendHtmlEmail(managerEmail, subject, body, pdfAttachment); // Pass attachment
@@ -122,7 +136,7 @@ public class EmailAdapter implements NotificationPort {
         }
     }
 
-    private String generateManagerEmailBody(ManagerReport managerReport, LocalDate startDate, LocalDate endDate) {
+    public String renderManagerReportBody(ManagerReport managerReport, LocalDate startDate, LocalDate endDate) {
         System.out.println("🛠️ [TEMPLATE] Generando HTML para manager...");
 
         Context context = new Context();
@@ -157,6 +171,13 @@ public class EmailAdapter implements NotificationPort {
 
     private void sendHtmlEmail(String to, String subject, String body, byte[] attachment) throws MessagingException {
         System.out.println("📤 [SEND HTML] Enviando email a: " + to);
+        MimeMessage mimeMessage = createHtmlMessage(to, subject, body, attachment);
+        System.out.println("🔄 [SEND HTML] Ejecutando mailSender.send()...");
+        mailSender.send(mimeMessage);
+        System.out.println("✅ [SEND HTML] mailSender.send() ejecutado exitosamente");
+    }
+
+    private MimeMessage createHtmlMessage(String to, String subject, String body, byte[] attachment) throws MessagingException {
         MimeMessage mimeMessage = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8"); // 'true' for multipart, 'UTF-8' for encoding
         try {
@@ -171,13 +192,10 @@ public class EmailAdapter implements NotificationPort {
             if (attachment != null && attachment.length > 0) {
                 helper.addAttachment("Manager-Report.pdf", new ByteArrayResource(attachment));
             }
-
-            System.out.println("🔄 [SEND HTML] Ejecutando mailSender.send()...");
-            mailSender.send(mimeMessage);
-            System.out.println("✅ [SEND HTML] mailSender.send() ejecutado exitosamente");
+            return mimeMessage;
         } catch (MessagingException e) {
             System.out.println("❌ [SEND HTML] ERROR de Messaging: " + e.getMessage());
-            throw new RuntimeException("Error sending HTML email to " + to, e);
+            throw new RuntimeException("Error building HTML email to " + to, e);
         }
     }
-}
\ No newline at end of file
+}
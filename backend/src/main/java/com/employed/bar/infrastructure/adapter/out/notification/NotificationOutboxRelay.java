@@ -0,0 +1,175 @@
+package com.employed.bar.infrastructure.adapter.out.notification;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity.Status;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringNotificationOutboxJpaRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the notification outbox over SMTP with at-least-once delivery.
+ * <p>
+ * Due rows are claimed with a lease (a conditional update on locked_until), so several nodes can run the
+ * relay at the same time without sending the same row twice. A claimed batch is sent with a single
+ * JavaMailSender.send(MimeMessage...) call and each row is then marked as sent or rescheduled with
+ * exponential backoff. If a node dies between sending and marking, the lease expires and the row is sent
+ * again; the idempotency key goes out in a header so receivers can discard the copy.
+ */
+@Component
+public class NotificationOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final SpringNotificationOutboxJpaRepository outboxRepository;
+    private final EmailAdapter emailAdapter;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration lease;
+    private final Duration retention;
+
+    public NotificationOutboxRelay(SpringNotificationOutboxJpaRepository outboxRepository,
+                                   EmailAdapter emailAdapter,
+                                   JavaMailSender mailSender,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${bar.notification.outbox.batch-size:20}") int batchSize,
+                                   @Value("${bar.notification.outbox.max-attempts:8}") int maxAttempts,
+                                   @Value("${bar.notification.outbox.initial-backoff:1m}") Duration initialBackoff,
+                                   @Value("${bar.notification.outbox.lease:5m}") Duration lease,
+                                   @Value("${bar.notification.outbox.retention:30d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.emailAdapter = emailAdapter;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    /**
+     * Sends every due row and returns how many were delivered.
+     */
+    public int relayPending() {
+        int delivered = 0;
+        while (true) {
+            List<NotificationOutboxEntity> batch = claimBatch(LocalDateTime.now());
+            if (batch.isEmpty()) {
+                return delivered;
+            }
+            delivered += send(batch);
+        }
+    }
+
+    /**
+     * Removes rows that were delivered longer ago than the retention period (they hold the rendered bodies and PDFs).
+     */
+    public int purgeSent() {
+        LocalDateTime sentBefore = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteByStatusAndSentAtBefore(Status.SENT, sentBefore));
+        return deleted != null ? deleted : 0;
+    }
+
+    private List<NotificationOutboxEntity> claimBatch(LocalDateTime now) {
+        List<Long> claimedIds = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (Long id : outboxRepository.findDueIds(Status.PENDING, now, PageRequest.of(0, batchSize))) {
+                if (outboxRepository.claim(id, Status.PENDING, now, now.plus(lease)) == 1) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        });
+        if (claimedIds == null || claimedIds.isEmpty()) {
+            return List.of();
+        }
+        return outboxRepository.findAllById(claimedIds);
+    }
+
+    private int send(List<NotificationOutboxEntity> batch) {
+        Map<MimeMessage, NotificationOutboxEntity> rowsByMessage = new IdentityHashMap<>();
+        Map<NotificationOutboxEntity, Exception> failures = new HashMap<>();
+        for (NotificationOutboxEntity row : batch) {
+            try {
+                rowsByMessage.put(emailAdapter.buildRenderedMessage(row.getRecipient(), row.getSubject(), row.getBody(),
+                        row.getAttachment(), row.getIdempotencyKey()), row);
+            } catch (Exception e) {
+                failures.put(row, e);
+            }
+        }
+
+        if (!rowsByMessage.isEmpty()) {
+            try {
+                mailSender.send(rowsByMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                if (failedMessages == null || failedMessages.isEmpty()) {
+                    rowsByMessage.values().forEach(row -> failures.put(row, e));
+                } else {
+                    failedMessages.forEach((message, error) -> {
+                        NotificationOutboxEntity row = rowsByMessage.get(message);
+                        if (row != null) {
+                            failures.put(row, error);
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                // Connection or authentication problem: nothing in the batch was sent
+                rowsByMessage.values().forEach(row -> failures.put(row, e));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int delivered = 0;
+        for (NotificationOutboxEntity row : batch) {
+            row.setAttempts(row.getAttempts() + 1);
+            row.setLockedUntil(null);
+            Exception error = failures.get(row);
+            if (error == null) {
+                row.setStatus(Status.SENT);
+                row.setSentAt(now);
+                row.setLastError(null);
+                delivered++;
+            } else {
+                reschedule(row, error, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(batch));
+        log.info("Outbox batch processed: {} sent, {} failed", delivered, failures.size());
+        return delivered;
+    }
+
+    private void reschedule(NotificationOutboxEntity row, Exception error, LocalDateTime now) {
+        String errorMessage = String.valueOf(error.getMessage());
+        row.setLastError(errorMessage.length() > MAX_ERROR_LENGTH ? errorMessage.substring(0, MAX_ERROR_LENGTH) : errorMessage);
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(Status.FAILED);
+            log.error("Notification {} dropped after {} attempts", row.getIdempotencyKey(), row.getAttempts(), error);
+            return;
+        }
+        long backoffMillis = initialBackoff.toMillis() * (1L << Math.min(row.getAttempts() - 1, 16));
+        row.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis)));
+        log.warn("Notification {} will be retried in {} ms: {}", row.getIdempotencyKey(), backoffMillis, errorMessage);
+    }
+}
@@ -0,0 +1,91 @@
+package com.employed.bar.infrastructure.adapter.out.notification;
+
+import com.employed.bar.domain.model.manager.ManagerReport;
+import com.employed.bar.domain.model.report.Report;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.out.OutboxNotificationPort;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity.NotificationType;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity.Status;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringNotificationOutboxJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Writes report notifications to the notification_outbox table. The email body (and the manager PDF)
+ * is rendered here, while the report is still in hand, so the relay only has to talk to SMTP.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxNotificationAdapter implements OutboxNotificationPort {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxNotificationAdapter.class);
+
+    private final SpringNotificationOutboxJpaRepository outboxRepository;
+    private final EmailAdapter emailAdapter;
+
+    // No transaction of its own: the weekly runs call these outside one, so the body (and PDF) is rendered first
+    // and the existence check and insert each take a short repository transaction instead of holding one open
+    @Override
+    public boolean enqueueEmployeeReport(EmployeeClass employee, Report report, LocalDate startDate, LocalDate endDate) {
+        String idempotencyKey = "employee-report:" + employee.getId() + ":" + startDate + ":" + endDate;
+        if (outboxRepository.existsByIdempotencyKey(idempotencyKey)) {
+            log.debug("Employee report already queued, skipping {}", idempotencyKey);
+            return false;
+        }
+        String body = emailAdapter.renderReportBody(employee, report);
+        return insert(newRow(idempotencyKey, NotificationType.EMPLOYEE_REPORT, employee.getEmail(),
+                EmailAdapter.REPORT_SUBJECT, body, null));
+    }
+
+    @Override
+    public boolean enqueueManagerReport(String managerEmail, ManagerReport managerReport, byte[] pdfAttachment, LocalDate startDate, LocalDate endDate,
+                                        String requestId) {
+        String idempotencyKey = "manager-report:" + startDate + ":" + endDate + (requestId != null ? ":" + requestId : "");
+        if (outboxRepository.existsByIdempotencyKey(idempotencyKey)) {
+            log.debug("Manager report already queued, skipping {}", idempotencyKey);
+            return false;
+        }
+        String body = emailAdapter.renderManagerReportBody(managerReport, startDate, endDate);
+        return insert(newRow(idempotencyKey, NotificationType.MANAGER_REPORT, managerEmail,
+                EmailAdapter.MANAGER_REPORT_SUBJECT, body, pdfAttachment));
+    }
+
+    /**
+     * The existence check only saves rendering work: another node (or a re-trigger) may insert the same key
+     * between the check and this insert. The unique key then rejects the row, which counts as already queued
+     * instead of failing the rest of the run.
+     */
+    private boolean insert(NotificationOutboxEntity row) {
+        try {
+            outboxRepository.save(row);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Notification queued concurrently, skipping {}", row.getIdempotencyKey());
+            return false;
+        }
+    }
+
+    private NotificationOutboxEntity newRow(String idempotencyKey, NotificationType type, String recipient,
+                                            String subject, String body, byte[] attachment) {
+        LocalDateTime now = LocalDateTime.now();
+        return NotificationOutboxEntity.builder()
+                .idempotencyKey(idempotencyKey)
+                .notificationType(type)
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .attachment(attachment)
+                .status(Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+}
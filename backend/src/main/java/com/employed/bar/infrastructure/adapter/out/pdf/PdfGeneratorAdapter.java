@@ -11,6 +11,8 @@ import com.itextpdf.text.pdf.PdfWriter;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -20,6 +22,9 @@ public class PdfGeneratorAdapter implements PdfGeneratorPort {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
+    // Filas que se acumulan antes de volcar la tabla de empleados al documento
+    private static final int ROWS_PER_FLUSH = 100;
+
     // Fuentes mejoradas con tamaños optimizados
     private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.DARK_GRAY);
     private static final Font SUBTITLE_FONT = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD, BaseColor.DARK_GRAY);
@@ -42,17 +47,35 @@ public class PdfGeneratorAdapter implements PdfGeneratorPort {
         }
     }
 
+    @Override
+    public void writeManagerReportPdf(ManagerReport managerReport, LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        try {
+            writeProfessionalPdf(managerReport, startDate, endDate, outputStream);
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating PDF", e);
+        }
+    }
+
     private byte[] createProfessionalPdf(ManagerReport report, LocalDate startDate, LocalDate endDate) {
         try (ByteArrayOutputStream pdfOut = new ByteArrayOutputStream()) {
+            writeProfessionalPdf(report, startDate, endDate, pdfOut);
+            return pdfOut.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("PDF creation failed", e);
+        }
+    }
+
+    private void writeProfessionalPdf(ManagerReport report, LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        try {
             Document document = new Document(PageSize.A4.rotate()); // Horizontal para tablas anchas
-            PdfWriter.getInstance(document, pdfOut);
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false); // The caller owns the stream (e.g. the HTTP response)
 
             document.open();
             addProfessionalContent(document, report, startDate, endDate);
             document.close();
 
-            return pdfOut.toByteArray();
-
+            outputStream.flush();
         } catch (Exception e) {
             throw new RuntimeException("PDF creation failed", e);
         }
@@ -164,6 +187,10 @@ public class PdfGeneratorAdapter implements PdfGeneratorPort {
         table.setWidthPercentage(100);
         table.setSpacingBefore(5f);
         table.setSpacingAfter(20f);
+        // Large table mode: rows already added to the document are written out and released, so
+        // memory stays flat no matter how many employees there are. The header repeats on every page.
+        table.setComplete(false);
+        table.setHeaderRows(1);
 
         // Configurar anchos de columnas optimizados
         float[] columnWidths = {25f, 12f, 15f, 15f, 15f, 18f};
@@ -179,13 +206,19 @@ public class PdfGeneratorAdapter implements PdfGeneratorPort {
 
         // Datos de empleados con estilo zebra
         boolean alternate = false;
+        int pendingRows = 0;
         for (EmployeeSummary employee : employees) {
             BaseColor rowColor = alternate ? LIGHT_GRAY : BaseColor.WHITE;
             alternate = !alternate;
 
             addEmployeeDataRow(table, employee, rowColor);
+            if (++pendingRows == ROWS_PER_FLUSH) {
+                document.add(table);
+                pendingRows = 0;
+            }
         }
 
+        table.setComplete(true);
         document.add(table);
     }
 
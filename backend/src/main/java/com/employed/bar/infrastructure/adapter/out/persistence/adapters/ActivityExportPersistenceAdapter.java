@@ -0,0 +1,67 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.port.out.ActivityExportPort;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.AttendanceRecordEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.ConsumptionEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.AttendanceMapper;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.ConsumptionMapper;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringAttendanceJpaRepository;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringConsumptionJpaRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class ActivityExportPersistenceAdapter implements ActivityExportPort {
+
+    private final SpringAttendanceJpaRepository springAttendanceJpaRepository;
+    private final SpringConsumptionJpaRepository springConsumptionJpaRepository;
+    private final AttendanceMapper attendanceMapper;
+    private final ConsumptionMapper consumptionMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachAttendance(LocalDateTime startDateTime, LocalDateTime endDateTime, Consumer<AttendanceRecordClass> action) {
+        try (Stream<AttendanceRecordEntity> records = streamAttendance(startDateTime, endDateTime)) {
+            records.forEach(entity -> {
+                action.accept(attendanceMapper.toDomain(entity));
+                // Keep the persistence context from growing with every row of the cursor
+                entityManager.detach(entity);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachConsumption(LocalDateTime startDateTime, LocalDateTime endDateTime, Consumer<ConsumptionClass> action) {
+        try (Stream<ConsumptionEntity> consumptions = streamConsumptions(startDateTime, endDateTime)) {
+            consumptions.forEach(entity -> {
+                action.accept(consumptionMapper.toDomain(entity));
+                entityManager.detach(entity);
+            });
+        }
+    }
+
+    private Stream<AttendanceRecordEntity> streamAttendance(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (startDateTime == null && endDateTime == null) {
+            return springAttendanceJpaRepository.streamAll();
+        }
+        return springAttendanceJpaRepository.streamByEntryDateTimeRange(startDateTime, endDateTime);
+    }
+
+    private Stream<ConsumptionEntity> streamConsumptions(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (startDateTime == null && endDateTime == null) {
+            return springConsumptionJpaRepository.streamAll();
+        }
+        return springConsumptionJpaRepository.streamByConsumptionDateRange(startDateTime, endDateTime);
+    }
+}
@@ -6,14 +6,27 @@ import com.employed.bar.domain.port.out.AttendanceRepositoryPort;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.AttendanceRecordEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.mapper.AttendanceMapper;
 import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapper;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.AttendanceSpecification;
 import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringAttendanceJpaRepository;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Component
 public class AttendancePersistenceAdapter implements AttendanceRepositoryPort {
@@ -21,49 +34,174 @@ public class AttendancePersistenceAdapter implements AttendanceRepositoryPort {
     private final SpringAttendanceJpaRepository springAttendanceJpaRepository;
     private final AttendanceMapper attendanceMapper;
     private final EmployeeMapper employeeMapper;
+    private final DailySummaryPersistenceAdapter dailySummaryPersistenceAdapter;
+    private final PayrollRunPersistenceAdapter payrollRunPersistenceAdapter;
+    private final EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter;
 
-    public AttendancePersistenceAdapter(SpringAttendanceJpaRepository springAttendanceJpaRepository, AttendanceMapper attendanceMapper, EmployeeMapper employeeMapper) {
+    public AttendancePersistenceAdapter(SpringAttendanceJpaRepository springAttendanceJpaRepository, AttendanceMapper attendanceMapper,
+                                        EmployeeMapper employeeMapper, DailySummaryPersistenceAdapter dailySummaryPersistenceAdapter,
+                                        PayrollRunPersistenceAdapter payrollRunPersistenceAdapter,
+                                        EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter) {
         this.springAttendanceJpaRepository = springAttendanceJpaRepository;
         this.attendanceMapper = attendanceMapper;
         this.employeeMapper = employeeMapper;
+        this.dailySummaryPersistenceAdapter = dailySummaryPersistenceAdapter;
+        this.payrollRunPersistenceAdapter = payrollRunPersistenceAdapter;
+        this.employeeChangeWatermarkPersistenceAdapter = employeeChangeWatermarkPersistenceAdapter;
     }
 
     @Override
     public AttendanceRecordClass save(AttendanceRecordClass attendanceRecordClass) {
+        // On update the record may move to another employee or day, so the previous one is refreshed too
+        Optional<AttendanceRecordEntity> previous = attendanceRecordClass.getId() != null
+                ? springAttendanceJpaRepository.findById(attendanceRecordClass.getId())
+                : Optional.empty();
+        // Taken before the save, which merges the new state into that same managed entity
+        Map<Long, Set<LocalDate>> touchedDays = new HashMap<>();
+        previous.ifPresent(stored -> addTouchedDays(touchedDays, stored));
+
         AttendanceRecordEntity attendanceRecordEntity = attendanceMapper.toEntity(attendanceRecordClass);
         AttendanceRecordEntity savedEntity = springAttendanceJpaRepository.save(attendanceRecordEntity);
-        return attendanceMapper.toDomain(savedEntity);
+
+        addTouchedDays(touchedDays, savedEntity);
+        refreshDerivedData(touchedDays);
+        // The employee is lazy on the saved entity; the caller's one is mapped instead of loading it again
+        return attendanceMapper.toDomain(savedEntity, attendanceRecordClass.getEmployee());
+    }
+
+    @Override
+    public List<AttendanceRecordClass> saveAll(List<AttendanceRecordClass> attendanceRecords) {
+        List<AttendanceRecordEntity> entities = attendanceRecords.stream()
+                .map(attendanceMapper::toEntity)
+                .toList();
+        // Updated rows may move to another employee or day, so their stored values are taken before the save
+        List<AttendanceRecordEntity> stored = findStored(entities);
+        Map<Long, Set<LocalDate>> touchedDays = new HashMap<>();
+        stored.forEach(entity -> addTouchedDays(touchedDays, entity));
+        // Ids come from the pooled sequence, so the inserts are sent in batches of hibernate.jdbc.batch_size
+        List<AttendanceRecordEntity> savedEntities = springAttendanceJpaRepository.saveAll(entities);
+        springAttendanceJpaRepository.flush();
+
+        // One rollup refresh, after commit, for every employee and day touched by the batch
+        savedEntities.forEach(entity -> addTouchedDays(touchedDays, entity));
+        refreshDerivedData(touchedDays);
+        return IntStream.range(0, savedEntities.size())
+                .mapToObj(i -> attendanceMapper.toDomain(savedEntities.get(i), attendanceRecords.get(i).getEmployee()))
+                .collect(Collectors.toList());
     }
 
     @Override
     public List<AttendanceRecordClass> findByEmployeeAndDateRange(EmployeeClass employee, LocalDateTime startDate, LocalDateTime endDate) {
-                                return springAttendanceJpaRepository.findAttendanceByEmployeeAndDateRangeOverlapping(
-                                        employee.getId(), startDate, endDate).stream()
+        return springAttendanceJpaRepository.findAttendanceByEmployeeAndDateRangeOverlapping(
+                        employee.getId(), startDate, endDate).stream()
+                .map(record -> attendanceMapper.toDomain(record, employee))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AttendanceRecordClass> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return springAttendanceJpaRepository.findAttendanceByDateRangeOverlapping(startDate, endDate).stream()
                 .map(attendanceMapper::toDomain)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Window<AttendanceRecordClass> scrollByDateRange(Long employeeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                           KeysetScrollPosition position, int limit) {
+        Specification<AttendanceRecordEntity> spec = AttendanceSpecification.fetchEmployee();
+        if (employeeId != null) {
+            spec = spec.and(AttendanceSpecification.hasEmployeeId(employeeId));
+        }
+        if (startDate != null && endDate != null) {
+            spec = spec.and(AttendanceSpecification.entryDateTimeInRange(startDate, endDate));
+        }
+        // id breaks ties between records with the same entry time, so the keyset is unique
+        return springAttendanceJpaRepository.findBy(spec, query -> query
+                        .sortBy(Sort.by(Sort.Direction.DESC, "entryDateTime", "id"))
+                        .limit(limit)
+                        .scroll(position))
+                .map(attendanceMapper::toDomain);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findFirstEntryDateTimeByEmployee(Long employeeId) {
+        return Optional.ofNullable(springAttendanceJpaRepository.findFirstEntryDateTimeByEmployeeId(employeeId));
+    }
+
+    @Override
+    public Map<Long, LocalDateTime> findFirstEntryDateTimeByEmployeeIds(Collection<Long> employeeIds) {
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, LocalDateTime> firstEntries = new HashMap<>();
+        for (Object[] row : springAttendanceJpaRepository.findFirstEntryDateTimeByEmployeeIds(employeeIds)) {
+            firstEntries.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        return firstEntries;
+    }
+
+    @Override
+    public long countDaysWithAttendance(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        if (dailySummaryPersistenceAdapter.isReadEnabled()) {
+            return dailySummaryPersistenceAdapter.countDaysWithAttendance(employeeId, startDate, endDate);
+        }
+        return springAttendanceJpaRepository.countDaysWithAttendance(employeeId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+
     @Override
     public List<AttendanceRecordClass> findByEmployee(EmployeeClass employee) {
         return springAttendanceJpaRepository.findByEmployee(employeeMapper.toEntity(employee)).stream()
-                .map(attendanceMapper::toDomain)
+                .map(record -> attendanceMapper.toDomain(record, employee))
                 .collect(Collectors.toList());
     }
 
     @Override
     public Optional<AttendanceRecordClass> findTopByEmployeeOrderByEntryDateTimeDesc(EmployeeClass employee) {
         return springAttendanceJpaRepository.findTopByEmployeeOrderByEntryDateTimeDesc(employeeMapper.toEntity(employee))
-                .map(attendanceMapper::toDomain);
+                .map(record -> attendanceMapper.toDomain(record, employee));
     }
 
     @Override
     public Optional<AttendanceRecordClass> findById(Long attendanceId) {
-        return springAttendanceJpaRepository.findById(attendanceId)
+        return springAttendanceJpaRepository.findWithEmployeeById(attendanceId)
                 .map(attendanceMapper::toDomain);
     }
 
     @Override
     public void deleteById(Long attendanceId) {
+        Map<Long, Set<LocalDate>> touchedDays = new HashMap<>();
+        springAttendanceJpaRepository.findById(attendanceId).ifPresent(stored -> addTouchedDays(touchedDays, stored));
         springAttendanceJpaRepository.deleteById(attendanceId);
+        refreshDerivedData(touchedDays);
+    }
+
+    // Every day the shift covers, since its worked minutes are split over them in the rollup
+    private void addTouchedDays(Map<Long, Set<LocalDate>> touchedDays, AttendanceRecordEntity entity) {
+        if (entity.getEmployee() == null || entity.getEntryDateTime() == null) {
+            return;
+        }
+        Set<LocalDate> days = touchedDays.computeIfAbsent(entity.getEmployee().getId(), id -> new HashSet<>());
+        LocalDate lastDay = entity.getExitDateTime() != null ? entity.getExitDateTime().toLocalDate() : entity.getEntryDateTime().toLocalDate();
+        for (LocalDate day = entity.getEntryDateTime().toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            days.add(day);
+        }
+    }
+
+    private void refreshDerivedData(Map<Long, Set<LocalDate>> touchedDays) {
+        if (touchedDays.isEmpty()) {
+            return;
+        }
+        // The rollup is derived data, refreshed once the write has committed
+        dailySummaryPersistenceAdapter.refreshAfterCommit(touchedDays);
+        // Closed payroll periods are never rewritten; the change is settled later as an adjustment line. The mark
+        // is part of the write, so if it cannot be stored the write fails with it
+        payrollRunPersistenceAdapter.markChangedAll(touchedDays);
+        // In the write's transaction, so the new version commits together with the row
+        employeeChangeWatermarkPersistenceAdapter.touchAll(touchedDays.keySet());
+    }
+
+    private List<AttendanceRecordEntity> findStored(List<AttendanceRecordEntity> entities) {
+        List<Long> ids = entities.stream().map(AttendanceRecordEntity::getId).filter(Objects::nonNull).toList();
+        return ids.isEmpty() ? List.of() : springAttendanceJpaRepository.findAllById(ids);
     }
 }
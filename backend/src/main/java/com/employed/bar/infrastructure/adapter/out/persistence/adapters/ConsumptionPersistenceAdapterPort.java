@@ -6,15 +6,27 @@ import com.employed.bar.domain.port.out.ConsumptionRepositoryPort;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.ConsumptionEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.mapper.ConsumptionMapper;
 import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapper;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.ConsumptionSpecification;
 import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringConsumptionJpaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Component
 @RequiredArgsConstructor
@@ -23,34 +35,98 @@ public class ConsumptionPersistenceAdapterPort implements ConsumptionRepositoryP
     private final SpringConsumptionJpaRepository springConsumptionJpaRepository;
     private final ConsumptionMapper consumptionMapper;
     private final EmployeeMapper employeeMapper;
+    private final DailySummaryPersistenceAdapter dailySummaryPersistenceAdapter;
+    private final PayrollRunPersistenceAdapter payrollRunPersistenceAdapter;
+    private final EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter;
 
     @Override
     public ConsumptionClass save(ConsumptionClass consumptionClass) {
+        // On update the consumption may move to another employee or day, so the previous one is refreshed too
+        Optional<ConsumptionEntity> previous = consumptionClass.getId() != null
+                ? springConsumptionJpaRepository.findById(consumptionClass.getId())
+                : Optional.empty();
+        // Taken before the save, which merges the new state into that same managed entity
+        Map<Long, Set<LocalDate>> touchedDays = new HashMap<>();
+        previous.ifPresent(stored -> addTouchedDay(touchedDays, stored));
+
         ConsumptionEntity consumptionEntity = consumptionMapper.toEntity(consumptionClass);
         ConsumptionEntity savedEntity = springConsumptionJpaRepository.save(consumptionEntity);
-        return consumptionMapper.toDomain(savedEntity);
+
+        addTouchedDay(touchedDays, savedEntity);
+        refreshDerivedData(touchedDays);
+        return consumptionMapper.toDomain(savedEntity, consumptionClass.getEmployee());
+    }
+
+    @Override
+    public List<ConsumptionClass> saveAll(List<ConsumptionClass> consumptions) {
+        List<ConsumptionEntity> entities = consumptions.stream()
+                .map(consumptionMapper::toEntity)
+                .toList();
+        // Updated rows may move to another employee or day, so their stored values are taken before the save
+        List<ConsumptionEntity> stored = findStored(entities);
+        Map<Long, Set<LocalDate>> touchedDays = new HashMap<>();
+        stored.forEach(entity -> addTouchedDay(touchedDays, entity));
+        // Ids come from the pooled sequence, so the inserts are sent in batches of hibernate.jdbc.batch_size
+        List<ConsumptionEntity> savedEntities = springConsumptionJpaRepository.saveAll(entities);
+        springConsumptionJpaRepository.flush();
+
+        // One rollup refresh, after commit, for every employee and day touched by the batch
+        savedEntities.forEach(entity -> addTouchedDay(touchedDays, entity));
+        refreshDerivedData(touchedDays);
+        return IntStream.range(0, savedEntities.size())
+                .mapToObj(i -> consumptionMapper.toDomain(savedEntities.get(i), consumptions.get(i).getEmployee()))
+                .collect(Collectors.toList());
     }
 
     @Override
     public Optional<ConsumptionClass> findById(Long id) {
-        return springConsumptionJpaRepository.findById(id)
+        return springConsumptionJpaRepository.findWithEmployeeById(id)
                 .map(consumptionMapper::toDomain);
     }
 
     @Override
     public void deleteById(Long id) {
+        Map<Long, Set<LocalDate>> touchedDays = new HashMap<>();
+        springConsumptionJpaRepository.findById(id).ifPresent(stored -> addTouchedDay(touchedDays, stored));
         springConsumptionJpaRepository.deleteById(id);
+        refreshDerivedData(touchedDays);
     }
 
     @Override
     public List<ConsumptionClass> findByEmployeeAndDateTimeBetween(EmployeeClass employee, LocalDateTime startDate, LocalDateTime endDate, String description) {
         return springConsumptionJpaRepository.findByEmployeeAndDateTimeBetween(
                 employee.getId(), startDate, endDate, description)
+                .stream()
+                .map(consumption -> consumptionMapper.toDomain(consumption, employee))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ConsumptionClass> findByDateTimeBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return springConsumptionJpaRepository.findByDateTimeBetween(startDate, endDate)
                 .stream()
                 .map(consumptionMapper::toDomain)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Window<ConsumptionClass> scrollByDateRange(Long employeeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                      KeysetScrollPosition position, int limit) {
+        Specification<ConsumptionEntity> spec = ConsumptionSpecification.fetchEmployee();
+        if (employeeId != null) {
+            spec = spec.and(ConsumptionSpecification.hasEmployeeId(employeeId));
+        }
+        if (startDate != null && endDate != null) {
+            spec = spec.and(ConsumptionSpecification.consumptionDateInRange(startDate, endDate));
+        }
+        // id breaks ties between consumptions with the same date, so the keyset is unique
+        return springConsumptionJpaRepository.findBy(spec, query -> query
+                        .sortBy(Sort.by(Sort.Direction.DESC, "consumptionDate", "id"))
+                        .limit(limit)
+                        .scroll(position))
+                .map(consumptionMapper::toDomain);
+    }
+
     @Override
     public BigDecimal sumConsumptionByEmployeeAndDateRange(Long employeeId, LocalDateTime startDate, LocalDateTime endDate) {
         return springConsumptionJpaRepository.sumConsumptionByEmployeeAndDateRange(
@@ -68,4 +144,29 @@ public class ConsumptionPersistenceAdapterPort implements ConsumptionRepositoryP
                 .map(consumptionMapper::toDomain)
                 .collect(Collectors.toList());
     }
+
+    private void addTouchedDay(Map<Long, Set<LocalDate>> touchedDays, ConsumptionEntity entity) {
+        if (entity.getEmployee() != null && entity.getConsumptionDate() != null) {
+            touchedDays.computeIfAbsent(entity.getEmployee().getId(), id -> new HashSet<>())
+                    .add(entity.getConsumptionDate().toLocalDate());
+        }
+    }
+
+    private void refreshDerivedData(Map<Long, Set<LocalDate>> touchedDays) {
+        if (touchedDays.isEmpty()) {
+            return;
+        }
+        // The rollup is derived data, refreshed once the write has committed
+        dailySummaryPersistenceAdapter.refreshAfterCommit(touchedDays);
+        // Closed payroll periods are never rewritten; the change is settled later as an adjustment line. The mark
+        // is part of the write, so if it cannot be stored the write fails with it
+        payrollRunPersistenceAdapter.markChangedAll(touchedDays);
+        // In the write's transaction, so the new version commits together with the row
+        employeeChangeWatermarkPersistenceAdapter.touchAll(touchedDays.keySet());
+    }
+
+    private List<ConsumptionEntity> findStored(List<ConsumptionEntity> entities) {
+        List<Long> ids = entities.stream().map(ConsumptionEntity::getId).filter(Objects::nonNull).toList();
+        return ids.isEmpty() ? List.of() : springConsumptionJpaRepository.findAllById(ids);
+    }
 }
@@ -0,0 +1,299 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.enums.AttendanceStatus;
+import com.employed.bar.domain.model.kpi.EmployeeActivityTotals;
+import com.employed.bar.domain.port.out.DailySummaryRepositoryPort;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeDailySummaryEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringAttendanceJpaRepository;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringConsumptionJpaRepository;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringEmployeeDailySummaryJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maintains the employee_daily_summary rollup. The attendance and consumption adapters call
+ * {@link #refreshAfterCommit(Map)} on every write so that only the touched days are recomputed, once the
+ * write has committed, and {@link #rebuild(LocalDate, LocalDate)} recomputes whole ranges for the backfill.
+ * Reads go to the rollup only when bar.daily-summary.read-enabled is set, so the table can be
+ * backfilled before the KPI and report queries switch over. A shift's worked minutes are split over the days
+ * it covers, so summing any range of days gives the minutes inside that range, as the raw KPI query does;
+ * attendance and late counts stay on the entry day.
+ */
+@Component
+public class DailySummaryPersistenceAdapter implements DailySummaryRepositoryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(DailySummaryPersistenceAdapter.class);
+
+    private final SpringEmployeeDailySummaryJpaRepository dailySummaryJpaRepository;
+    private final SpringAttendanceJpaRepository springAttendanceJpaRepository;
+    private final SpringConsumptionJpaRepository springConsumptionJpaRepository;
+    private final EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter;
+    private final TransactionTemplate refreshTransaction;
+    private final boolean readEnabled;
+
+    public DailySummaryPersistenceAdapter(SpringEmployeeDailySummaryJpaRepository dailySummaryJpaRepository,
+                                          SpringAttendanceJpaRepository springAttendanceJpaRepository,
+                                          SpringConsumptionJpaRepository springConsumptionJpaRepository,
+                                          EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${bar.daily-summary.read-enabled:false}") boolean readEnabled) {
+        this.dailySummaryJpaRepository = dailySummaryJpaRepository;
+        this.springAttendanceJpaRepository = springAttendanceJpaRepository;
+        this.springConsumptionJpaRepository = springConsumptionJpaRepository;
+        this.employeeChangeWatermarkPersistenceAdapter = employeeChangeWatermarkPersistenceAdapter;
+        // afterCommit still sees the finished transaction as current, so the refresh needs a new one
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readEnabled = readEnabled;
+    }
+
+    public boolean isReadEnabled() {
+        return readEnabled;
+    }
+
+    /**
+     * Schedules a refresh of the given employees and days for when the current transaction commits.
+     * Days registered by several writes of one transaction are refreshed together. The refresh runs in a
+     * transaction of its own, so a failure there neither rolls back nor fails the write; the rebuild job
+     * repairs the days it left behind. It bumps the employees' change version again, since results cached
+     * between the write's commit and the refresh were read from the old rollup. Without a transaction the
+     * refresh runs right away.
+     */
+    public void refreshAfterCommit(Map<Long, Set<LocalDate>> datesByEmployee) {
+        if (datesByEmployee.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshInNewTransaction(datesByEmployee);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Set<LocalDate>> pending = (Map<Long, Set<LocalDate>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Set<LocalDate>> registered = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, registered);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshInNewTransaction(registered);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DailySummaryPersistenceAdapter.this);
+                }
+            });
+            pending = registered;
+        }
+        Map<Long, Set<LocalDate>> target = pending;
+        datesByEmployee.forEach((employeeId, dates) -> target.computeIfAbsent(employeeId, id -> new HashSet<>()).addAll(dates));
+    }
+
+    private void refreshInNewTransaction(Map<Long, Set<LocalDate>> datesByEmployee) {
+        try {
+            refreshTransaction.executeWithoutResult(status -> {
+                refreshAll(datesByEmployee);
+                employeeChangeWatermarkPersistenceAdapter.touchAll(datesByEmployee.keySet());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh daily summaries of employees {}: {}", datesByEmployee.keySet(), e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes the rollup row of a single employee and day from the raw tables.
+     */
+    @Transactional
+    public void refresh(Long employeeId, LocalDate date) {
+        if (employeeId == null || date == null) {
+            return;
+        }
+        EmployeeDailySummaryEntity computed = summarize(employeeId, date, date)
+                .getOrDefault(employeeId, Map.of())
+                .get(date);
+        Optional<EmployeeDailySummaryEntity> existing = dailySummaryJpaRepository.findByEmployeeIdAndSummaryDate(employeeId, date);
+        apply(employeeId, date, computed, existing);
+    }
+
+    /**
+     * Recomputes the rollup rows of several employees and days at once. The raw tables are aggregated once
+     * over the covered days, for the given employees only, instead of once per employee and day.
+     */
+    @Transactional
+    public void refreshAll(Map<Long, Set<LocalDate>> datesByEmployee) {
+        if (datesByEmployee.isEmpty()) {
+            return;
+        }
+        LocalDate startDate = datesByEmployee.values().stream().flatMap(Set::stream).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate endDate = datesByEmployee.values().stream().flatMap(Set::stream).max(Comparator.naturalOrder()).orElseThrow();
+
+        Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> computed = summarizeEmployees(datesByEmployee.keySet(), startDate, endDate);
+        Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> existing = new HashMap<>();
+        for (EmployeeDailySummaryEntity summary : dailySummaryJpaRepository.findByEmployeeIdInAndSummaryDateBetween(datesByEmployee.keySet(), startDate, endDate)) {
+            existing.computeIfAbsent(summary.getEmployeeId(), id -> new HashMap<>()).put(summary.getSummaryDate(), summary);
+        }
+
+        datesByEmployee.forEach((employeeId, dates) -> dates.forEach(date -> apply(employeeId, date,
+                computed.getOrDefault(employeeId, Map.of()).get(date),
+                Optional.ofNullable(existing.getOrDefault(employeeId, Map.of()).get(date)))));
+    }
+
+    private void apply(Long employeeId, LocalDate date, EmployeeDailySummaryEntity computed, Optional<EmployeeDailySummaryEntity> existing) {
+        if (computed == null) {
+            existing.ifPresent(dailySummaryJpaRepository::delete);
+            return;
+        }
+        EmployeeDailySummaryEntity summary = existing.orElseGet(() -> new EmployeeDailySummaryEntity(employeeId, date));
+        summary.setWorkedMinutes(computed.getWorkedMinutes());
+        summary.setAttendanceCount(computed.getAttendanceCount());
+        summary.setLateCount(computed.getLateCount());
+        summary.setConsumptionTotal(computed.getConsumptionTotal());
+        summary.setConsumptionCount(computed.getConsumptionCount());
+        dailySummaryJpaRepository.save(summary);
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(LocalDate startDate, LocalDate endDate) {
+        Set<Long> employeeIds = new HashSet<>(dailySummaryJpaRepository.findEmployeeIdsWithActivity(startDate, endDate));
+        dailySummaryJpaRepository.deleteBySummaryDateBetween(startDate, endDate);
+        List<EmployeeDailySummaryEntity> summaries = new ArrayList<>();
+        Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> computed = summarize(null, startDate, endDate);
+        computed.values().forEach(byDay -> summaries.addAll(byDay.values()));
+        dailySummaryJpaRepository.saveAll(summaries);
+        // Results cached from the rows it replaced are no longer current
+        employeeIds.addAll(computed.keySet());
+        employeeChangeWatermarkPersistenceAdapter.touchAll(employeeIds);
+    }
+
+    @Override
+    public Set<Long> findEmployeeIdsWithActivity(LocalDate startDate, LocalDate endDate) {
+        if (readEnabled) {
+            return new HashSet<>(dailySummaryJpaRepository.findEmployeeIdsWithActivity(startDate, endDate));
+        }
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
+        Set<Long> employeeIds = new HashSet<>(springAttendanceJpaRepository.findEmployeeIdsWithAttendance(startDateTime, endDateTime));
+        employeeIds.addAll(springConsumptionJpaRepository.findEmployeeIdsWithConsumption(startDateTime, endDateTime));
+        employeeIds.remove(null);
+        return employeeIds;
+    }
+
+    public List<EmployeeActivityTotals> findActivityTotalsByEmployee(LocalDate startDate, LocalDate endDate) {
+        return toActivityTotals(dailySummaryJpaRepository.sumActivityByEmployee(startDate, endDate));
+    }
+
+    public List<EmployeeActivityTotals> findActivityTotalsByEmployeeIds(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        return toActivityTotals(dailySummaryJpaRepository.sumActivityByEmployeeIds(employeeIds, startDate, endDate));
+    }
+
+    private List<EmployeeActivityTotals> toActivityTotals(List<Object[]> rows) {
+        List<EmployeeActivityTotals> totals = new ArrayList<>();
+        for (Object[] row : rows) {
+            totals.add(new EmployeeActivityTotals(
+                    (Long) row[0],
+                    row[1] != null ? ((Number) row[1]).longValue() : 0L,
+                    row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO
+            ));
+        }
+        return totals;
+    }
+
+    public long countDaysWithAttendance(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        return dailySummaryJpaRepository.countDaysWithAttendance(employeeId, startDate, endDate);
+    }
+
+    // Groups the raw rows by employee and calendar day; a null employeeId means every employee.
+    private Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> summarize(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
+        return toSummaries(springAttendanceJpaRepository.summarizeByEmployeeAndDay(employeeId, startDateTime, endDateTime, AttendanceStatus.LATE),
+                springAttendanceJpaRepository.findShiftsOverlapping(employeeId, startDateTime, endDateTime),
+                springConsumptionJpaRepository.summarizeByEmployeeAndDay(employeeId, startDateTime, endDateTime),
+                startDate, endDate);
+    }
+
+    private Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> summarizeEmployees(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
+        return toSummaries(springAttendanceJpaRepository.summarizeByEmployeeIdsAndDay(employeeIds, startDateTime, endDateTime, AttendanceStatus.LATE),
+                springAttendanceJpaRepository.findShiftsOverlappingByEmployeeIds(employeeIds, startDateTime, endDateTime),
+                springConsumptionJpaRepository.summarizeByEmployeeIdsAndDay(employeeIds, startDateTime, endDateTime),
+                startDate, endDate);
+    }
+
+    private Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> toSummaries(List<Object[]> attendanceRows, List<Object[]> shiftRows,
+                                                                              List<Object[]> consumptionRows, LocalDate startDate, LocalDate endDate) {
+        Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> summaries = new HashMap<>();
+
+        for (Object[] row : attendanceRows) {
+            if (row[0] == null) {
+                continue;
+            }
+            EmployeeDailySummaryEntity summary = summaryFor(summaries, (Long) row[0], (LocalDate) row[1]);
+            summary.setAttendanceCount(((Number) row[2]).intValue());
+            summary.setLateCount(row[3] != null ? ((Number) row[3]).intValue() : 0);
+        }
+
+        for (Object[] row : shiftRows) {
+            if (row[0] == null) {
+                continue;
+            }
+            LocalDateTime entry = (LocalDateTime) row[1];
+            LocalDateTime exit = (LocalDateTime) row[2];
+            LocalDate firstDay = entry.toLocalDate().isBefore(startDate) ? startDate : entry.toLocalDate();
+            LocalDate lastDay = exit.toLocalDate().isAfter(endDate) ? endDate : exit.toLocalDate();
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                long minutes = workedMinutes(entry, exit, day);
+                if (minutes > 0) {
+                    EmployeeDailySummaryEntity summary = summaryFor(summaries, (Long) row[0], day);
+                    summary.setWorkedMinutes(summary.getWorkedMinutes() + minutes);
+                }
+            }
+        }
+
+        for (Object[] row : consumptionRows) {
+            if (row[0] == null) {
+                continue;
+            }
+            EmployeeDailySummaryEntity summary = summaryFor(summaries, (Long) row[0], (LocalDate) row[1]);
+            summary.setConsumptionTotal(row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO);
+            summary.setConsumptionCount(((Number) row[3]).intValue());
+        }
+        return summaries;
+    }
+
+    // Minutes of the shift inside the day, truncated like timestampdiff
+    private static long workedMinutes(LocalDateTime entry, LocalDateTime exit, LocalDate day) {
+        LocalDateTime from = entry.isBefore(day.atStartOfDay()) ? day.atStartOfDay() : entry;
+        LocalDateTime to = exit.isAfter(day.plusDays(1).atStartOfDay()) ? day.plusDays(1).atStartOfDay() : exit;
+        return Duration.between(from, to).toMinutes();
+    }
+
+    private EmployeeDailySummaryEntity summaryFor(Map<Long, Map<LocalDate, EmployeeDailySummaryEntity>> summaries, Long employeeId, LocalDate date) {
+        return summaries.computeIfAbsent(employeeId, id -> new HashMap<>())
+                .computeIfAbsent(date, d -> new EmployeeDailySummaryEntity(employeeId, d));
+    }
+}
@@ -0,0 +1,73 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.port.out.EmployeeChangeWatermarkPort;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeChangeWatermarkEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringEmployeeChangeWatermarkJpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps the per-employee change version. The employee, attendance, consumption and schedule adapters call
+ * {@link #touch(Long)} in the transaction of every write, so the version and the row commit together, and
+ * the daily rollup bumps it again once its after-commit refresh is stored. A failure here fails the write:
+ * a change without its bump would leave cached results for the old version in place.
+ */
+@Component
+public class EmployeeChangeWatermarkPersistenceAdapter implements EmployeeChangeWatermarkPort {
+
+    private final SpringEmployeeChangeWatermarkJpaRepository watermarkJpaRepository;
+
+    public EmployeeChangeWatermarkPersistenceAdapter(SpringEmployeeChangeWatermarkJpaRepository watermarkJpaRepository) {
+        this.watermarkJpaRepository = watermarkJpaRepository;
+    }
+
+    @Transactional
+    public void touch(Long employeeId) {
+        if (employeeId != null) {
+            touchAll(Set.of(employeeId));
+        }
+    }
+
+    /**
+     * Bumps the versions in place. Every employee has a row (created with the employee, seeded by V12 for
+     * older ones), so concurrent writers only ever update it; a missing row, for an employee inserted
+     * outside the application, is created at version 1.
+     */
+    @Transactional
+    public void touchAll(Collection<Long> employeeIds) {
+        List<Long> ids = employeeIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (watermarkJpaRepository.bumpVersions(ids, now) == ids.size()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(watermarkJpaRepository.findExistingEmployeeIds(ids));
+        watermarkJpaRepository.saveAll(missing.stream()
+                .map(id -> new EmployeeChangeWatermarkEntity(id, now, 1L))
+                .toList());
+    }
+
+    @Override
+    public Map<Long, Long> findVersions(Collection<Long> employeeIds) {
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        for (Object[] row : watermarkJpaRepository.findVersions(employeeIds)) {
+            versions.put((Long) row[0], (Long) row[1]);
+        }
+        return versions;
+    }
+}
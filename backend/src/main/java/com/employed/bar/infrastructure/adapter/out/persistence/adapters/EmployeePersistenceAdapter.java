@@ -8,11 +8,17 @@ import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
 import com.employed.bar.infrastructure.adapter.out.persistence.repository.EmployeeSpecification;
 import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringEmployeeJpaRepository;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -20,10 +26,13 @@ public class EmployeePersistenceAdapter implements EmployeeRepositoryPort {
 
     private final SpringEmployeeJpaRepository springEmployeeJpaRepository;
     private final EmployeeMapper employeeMapper;
+    private final EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter;
 
-    public EmployeePersistenceAdapter(SpringEmployeeJpaRepository springEmployeeJpaRepository, EmployeeMapper employeeMapper) {
+    public EmployeePersistenceAdapter(SpringEmployeeJpaRepository springEmployeeJpaRepository, EmployeeMapper employeeMapper,
+                                      EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter) {
         this.springEmployeeJpaRepository = springEmployeeJpaRepository;
         this.employeeMapper = employeeMapper;
+        this.employeeChangeWatermarkPersistenceAdapter = employeeChangeWatermarkPersistenceAdapter;
     }
 
     @Override
@@ -33,9 +42,13 @@ public class EmployeePersistenceAdapter implements EmployeeRepositoryPort {
     }
 
     @Override
+    @Transactional
     public EmployeeClass save(EmployeeClass employee) {
         EmployeeEntity employeeEntity = employeeMapper.toEntity(employee);
         EmployeeEntity savedEntity = springEmployeeJpaRepository.save(employeeEntity);
+        // Rate, payment type or overtime changes alter every cached report of the employee; a new employee
+        // gets its watermark in the same transaction, so no later write ever has to insert it
+        employeeChangeWatermarkPersistenceAdapter.touch(savedEntity.getId());
         return employeeMapper.toDomain(savedEntity);
     }
 
@@ -45,6 +58,16 @@ public class EmployeePersistenceAdapter implements EmployeeRepositoryPort {
                 .map(employeeMapper::toDomain);
     }
 
+    @Override
+    public List<EmployeeClass> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return springEmployeeJpaRepository.findAllById(ids).stream()
+                .map(employeeMapper::toDomain)
+                .toList();
+    }
+
     @Override
     public Page<EmployeeClass> findAll(Pageable pageable) {
         return springEmployeeJpaRepository.findAll(EmployeeSpecification.isActiveOrInactive(), pageable)
@@ -59,6 +82,20 @@ public class EmployeePersistenceAdapter implements EmployeeRepositoryPort {
 
     @Override
     public Page<EmployeeClass> searchEmployees(String name, EmployeeRole role, EmployeeStatus status, Pageable pageable) {
+        return springEmployeeJpaRepository.findAll(searchSpecification(name, role, status), pageable)
+                .map(employeeMapper::toDomain);
+    }
+
+    @Override
+    public Window<EmployeeClass> scrollEmployees(String name, EmployeeRole role, EmployeeStatus status, KeysetScrollPosition position, int limit) {
+        return springEmployeeJpaRepository.findBy(searchSpecification(name, role, status), query -> query
+                        .sortBy(Sort.by("id"))
+                        .limit(limit)
+                        .scroll(position))
+                .map(employeeMapper::toDomain);
+    }
+
+    private Specification<EmployeeEntity> searchSpecification(String name, EmployeeRole role, EmployeeStatus status) {
         Specification<EmployeeEntity> spec = EmployeeSpecification.isActiveOrInactive();
         if (name != null) {
             spec = spec.and(EmployeeSpecification.nameContains(name));
@@ -69,7 +106,6 @@ public class EmployeePersistenceAdapter implements EmployeeRepositoryPort {
         if (status != null) {
             spec = spec.and(EmployeeSpecification.hasStatus(status));
         }
-        return springEmployeeJpaRepository.findAll(spec, pageable)
-                .map(employeeMapper::toDomain);
+        return spec;
     }
 }
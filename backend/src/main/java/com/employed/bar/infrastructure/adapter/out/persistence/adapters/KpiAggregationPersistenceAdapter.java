@@ -0,0 +1,84 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.model.kpi.EmployeeActivityTotals;
+import com.employed.bar.domain.port.out.KpiAggregationPort;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringAttendanceJpaRepository;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringConsumptionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class KpiAggregationPersistenceAdapter implements KpiAggregationPort {
+
+    private final SpringAttendanceJpaRepository springAttendanceJpaRepository;
+    private final SpringConsumptionJpaRepository springConsumptionJpaRepository;
+    private final DailySummaryPersistenceAdapter dailySummaryPersistenceAdapter;
+
+    @Override
+    public List<EmployeeActivityTotals> findActivityTotalsByEmployee(LocalDateTime startDate, LocalDateTime endDate) {
+        if (dailySummaryPersistenceAdapter.isReadEnabled()) {
+            // One row per employee and day instead of every raw attendance and consumption row
+            return dailySummaryPersistenceAdapter.findActivityTotalsByEmployee(startDate.toLocalDate(), endDate.toLocalDate());
+        }
+
+        return toActivityTotals(springAttendanceJpaRepository.sumWorkedMinutesByEmployee(startOfDay(startDate), startOfNextDay(endDate)),
+                springConsumptionJpaRepository.sumConsumptionByEmployee(startDate, endDate));
+    }
+
+    @Override
+    public List<EmployeeActivityTotals> findActivityTotalsByEmployeeIds(Collection<Long> employeeIds, LocalDateTime startDate, LocalDateTime endDate) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        if (dailySummaryPersistenceAdapter.isReadEnabled()) {
+            return dailySummaryPersistenceAdapter.findActivityTotalsByEmployeeIds(employeeIds, startDate.toLocalDate(), endDate.toLocalDate());
+        }
+        return toActivityTotals(springAttendanceJpaRepository.sumWorkedMinutesByEmployeeIds(employeeIds, startOfDay(startDate), startOfNextDay(endDate)),
+                springConsumptionJpaRepository.sumConsumptionByEmployeeIds(employeeIds, startDate, endDate));
+    }
+
+    // Shifts are clipped to whole days, as the rollup covers them, so both paths count the same minutes
+    private static LocalDateTime startOfDay(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().atStartOfDay();
+    }
+
+    private static LocalDateTime startOfNextDay(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().plusDays(1).atStartOfDay();
+    }
+
+    private List<EmployeeActivityTotals> toActivityTotals(List<Object[]> workedMinuteRows, List<Object[]> consumptionRows) {
+        Map<Long, Long> workedMinutes = new HashMap<>();
+        for (Object[] row : workedMinuteRows) {
+            workedMinutes.put((Long) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+
+        Map<Long, BigDecimal> consumptions = new HashMap<>();
+        for (Object[] row : consumptionRows) {
+            consumptions.put((Long) row[0], row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO);
+        }
+
+        Set<Long> employeeIds = new LinkedHashSet<>(workedMinutes.keySet());
+        employeeIds.addAll(consumptions.keySet());
+
+        List<EmployeeActivityTotals> totals = new ArrayList<>(employeeIds.size());
+        for (Long employeeId : employeeIds) {
+            totals.add(new EmployeeActivityTotals(
+                    employeeId,
+                    workedMinutes.getOrDefault(employeeId, 0L),
+                    consumptions.getOrDefault(employeeId, BigDecimal.ZERO)
+            ));
+        }
+        return totals;
+    }
+}
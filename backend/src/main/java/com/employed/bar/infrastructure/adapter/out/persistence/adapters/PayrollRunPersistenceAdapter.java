@@ -0,0 +1,201 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.model.payroll.PayrollLine;
+import com.employed.bar.domain.model.payroll.PayrollRun;
+import com.employed.bar.domain.model.report.HoursCalculation;
+import com.employed.bar.domain.port.out.PayrollRunRepositoryPort;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.PayrollLineEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.PayrollPendingAdjustmentEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.PayrollRunEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringPayrollLineJpaRepository;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringPayrollPendingAdjustmentJpaRepository;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringPayrollRunJpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores closed payroll periods. The attendance and consumption adapters call
+ * {@link #markChanged(Long, LocalDate)} after every write so that an employee whose data changed inside a
+ * closed period gets an adjustment line the next time the period is read or the adjustment job runs.
+ */
+@Component
+public class PayrollRunPersistenceAdapter implements PayrollRunRepositoryPort {
+
+    private final SpringPayrollRunJpaRepository payrollRunJpaRepository;
+    private final SpringPayrollLineJpaRepository payrollLineJpaRepository;
+    private final SpringPayrollPendingAdjustmentJpaRepository pendingAdjustmentJpaRepository;
+
+    public PayrollRunPersistenceAdapter(SpringPayrollRunJpaRepository payrollRunJpaRepository,
+                                        SpringPayrollLineJpaRepository payrollLineJpaRepository,
+                                        SpringPayrollPendingAdjustmentJpaRepository pendingAdjustmentJpaRepository) {
+        this.payrollRunJpaRepository = payrollRunJpaRepository;
+        this.payrollLineJpaRepository = payrollLineJpaRepository;
+        this.pendingAdjustmentJpaRepository = pendingAdjustmentJpaRepository;
+    }
+
+    @Override
+    @Transactional
+    public PayrollRun save(PayrollRun payrollRun) {
+        PayrollRunEntity savedRun = payrollRunJpaRepository.save(new PayrollRunEntity(null,
+                payrollRun.getPeriodStart(), payrollRun.getPeriodEnd(), payrollRun.getClosedAt()));
+        List<PayrollLineEntity> savedLines = payrollLineJpaRepository.saveAll(payrollRun.getLines().stream()
+                .map(line -> toEntity(savedRun.getId(), line))
+                .toList());
+        return toDomain(savedRun, savedLines.stream().map(this::toDomain).toList());
+    }
+
+    @Override
+    public boolean existsOverlapping(LocalDate periodStart, LocalDate periodEnd) {
+        return payrollRunJpaRepository.existsOverlapping(periodStart, periodEnd);
+    }
+
+    @Override
+    public Optional<PayrollRun> findByPeriod(LocalDate periodStart, LocalDate periodEnd) {
+        return payrollRunJpaRepository.findByPeriodStartAndPeriodEnd(periodStart, periodEnd)
+                .map(run -> toDomain(run, List.of()));
+    }
+
+    @Override
+    public Optional<PayrollRun> findById(Long payrollRunId) {
+        return payrollRunJpaRepository.findById(payrollRunId)
+                .map(run -> toDomain(run, List.of()));
+    }
+
+    @Override
+    public List<PayrollLine> findLines(Long payrollRunId) {
+        return payrollLineJpaRepository.findByPayrollRunIdOrderByIdAsc(payrollRunId).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<PayrollLine> findEmployeeTotals(Long payrollRunId) {
+        return payrollLineJpaRepository.sumByEmployee(payrollRunId, null).stream()
+                .map(this::toTotal)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<PayrollLine> findEmployeeTotal(Long payrollRunId, Long employeeId) {
+        return payrollLineJpaRepository.sumByEmployee(payrollRunId, employeeId).stream()
+                .findFirst()
+                .map(this::toTotal);
+    }
+
+    @Override
+    public Set<Long> findRunIdsWithPendingAdjustments() {
+        return new HashSet<>(pendingAdjustmentJpaRepository.findPayrollRunIds());
+    }
+
+    @Override
+    public Map<Long, Long> findPendingAdjustments(Long payrollRunId) {
+        Map<Long, Long> markVersions = new HashMap<>();
+        for (Object[] row : pendingAdjustmentJpaRepository.findEmployeeIdsAndLatestMarkIds(payrollRunId)) {
+            markVersions.put((Long) row[0], (Long) row[1]);
+        }
+        return markVersions;
+    }
+
+    /**
+     * Deletes the marks first and stores the adjustment only if this call deleted them. Two resolvers of the
+     * same version (the job and a read of the period, or two nodes) compute the same difference; the delete
+     * locks the mark rows, so the second one finds nothing to delete once the first commits and adds no line.
+     */
+    @Override
+    @Transactional
+    public boolean resolvePendingAdjustment(Long payrollRunId, Long employeeId, PayrollLine adjustment, long markVersion) {
+        if (pendingAdjustmentJpaRepository.deleteMarksUpTo(payrollRunId, employeeId, markVersion) == 0) {
+            return false;
+        }
+        if (adjustment != null) {
+            payrollLineJpaRepository.save(toEntity(payrollRunId, adjustment));
+        }
+        return true;
+    }
+
+    /**
+     * Marks the employee as pending in every closed period affected by a write on the given day. A record
+     * that starts the day before a period may run past midnight into it, so that period is marked too.
+     */
+    @Transactional
+    public void markChanged(Long employeeId, LocalDate date) {
+        if (employeeId == null || date == null) {
+            return;
+        }
+        markChangedAll(Map.of(employeeId, Set.of(date)));
+    }
+
+    /**
+     * Same as {@link #markChanged(Long, LocalDate)} for several employees and days (bulk imports), with a
+     * single lookup of the affected runs.
+     */
+    @Transactional
+    public void markChangedAll(Map<Long, Set<LocalDate>> datesByEmployee) {
+        if (datesByEmployee.isEmpty()) {
+            return;
+        }
+        LocalDate startDate = datesByEmployee.values().stream().flatMap(Set::stream).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate endDate = datesByEmployee.values().stream().flatMap(Set::stream).max(Comparator.naturalOrder()).orElseThrow();
+        List<PayrollRunEntity> runs = payrollRunJpaRepository.findOverlapping(startDate, endDate.plusDays(1));
+        if (runs.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Set<Long>> employeeIdsByRun = new HashMap<>();
+        datesByEmployee.forEach((employeeId, dates) -> runs.stream()
+                .filter(run -> dates.stream().anyMatch(date -> !run.getPeriodStart().isAfter(date.plusDays(1)) && !run.getPeriodEnd().isBefore(date)))
+                .forEach(run -> employeeIdsByRun.computeIfAbsent(run.getId(), id -> new HashSet<>()).add(employeeId)));
+        if (employeeIdsByRun.isEmpty()) {
+            return;
+        }
+
+        // One new mark per run and employee, in the writer's transaction; marks are never updated, so
+        // writers touching the same employee never wait on or conflict with each other's mark
+        LocalDateTime now = LocalDateTime.now();
+        List<PayrollPendingAdjustmentEntity> marks = new ArrayList<>();
+        employeeIdsByRun.forEach((runId, employeeIds) -> employeeIds.forEach(
+                employeeId -> marks.add(new PayrollPendingAdjustmentEntity(runId, employeeId, now))));
+        pendingAdjustmentJpaRepository.saveAll(marks);
+    }
+
+    private PayrollLineEntity toEntity(Long payrollRunId, PayrollLine line) {
+        HoursCalculation hours = line.getHoursCalculation();
+        return new PayrollLineEntity(null, payrollRunId, line.getEmployeeId(), line.getLineType(),
+                hours.getTotalHours(), hours.getRegularHours(), hours.getOvertimeHours(),
+                line.getEarnings(), line.getConsumptions(), line.getNetPay(), line.getCreatedAt());
+    }
+
+    private PayrollLine toDomain(PayrollLineEntity entity) {
+        return new PayrollLine(entity.getEmployeeId(), entity.getLineType(),
+                new HoursCalculation(entity.getTotalHours(), entity.getRegularHours(), entity.getOvertimeHours()),
+                entity.getEarnings(), entity.getConsumptions(), entity.getNetPay(), entity.getCreatedAt());
+    }
+
+    private PayrollRun toDomain(PayrollRunEntity entity, List<PayrollLine> lines) {
+        return new PayrollRun(entity.getId(), entity.getPeriodStart(), entity.getPeriodEnd(), entity.getClosedAt(), lines);
+    }
+
+    // A summed row has no single type; the line type is left null and createdAt is the latest line's
+    private PayrollLine toTotal(Object[] row) {
+        return new PayrollLine((Long) row[0], null,
+                new HoursCalculation(decimal(row[1]), decimal(row[2]), decimal(row[3])),
+                decimal(row[4]), decimal(row[5]), decimal(row[6]), (LocalDateTime) row[7]);
+    }
+
+    private BigDecimal decimal(Object value) {
+        return value != null ? (BigDecimal) value : BigDecimal.ZERO;
+    }
+}
@@ -3,6 +3,7 @@ package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.model.structure.ScheduleClass;
 import com.employed.bar.domain.port.out.ScheduleRepositoryPort;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.ScheduleEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.mapper.ScheduleMapper;
 import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapper;
@@ -10,6 +11,7 @@ import com.employed.bar.infrastructure.adapter.out.persistence.repository.Spring
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -20,36 +22,57 @@ public class SchedulePersistenceAdapter implements ScheduleRepositoryPort {
     private final SpringScheduleJpaRepository springScheduleJpaRepository;
     private final ScheduleMapper scheduleMapper;
     private final EmployeeMapper employeeMapper;
+    private final EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter;
 
-    public SchedulePersistenceAdapter(SpringScheduleJpaRepository springScheduleJpaRepository, ScheduleMapper scheduleMapper, EmployeeMapper employeeMapper) {
+    public SchedulePersistenceAdapter(SpringScheduleJpaRepository springScheduleJpaRepository, ScheduleMapper scheduleMapper, EmployeeMapper employeeMapper,
+                                      EmployeeChangeWatermarkPersistenceAdapter employeeChangeWatermarkPersistenceAdapter) {
         this.springScheduleJpaRepository = springScheduleJpaRepository;
         this.scheduleMapper = scheduleMapper;
         this.employeeMapper = employeeMapper;
+        this.employeeChangeWatermarkPersistenceAdapter = employeeChangeWatermarkPersistenceAdapter;
     }
 
     @Override
     public ScheduleClass save(ScheduleClass schedule) {
-        ScheduleEntity scheduleEntity = scheduleMapper.toEntity(schedule);
-        ScheduleEntity savedEntity = springScheduleJpaRepository.save(scheduleEntity);
-        return scheduleMapper.toDomain(savedEntity);
+        // An update may move the schedule to another employee; the previous one is taken before the save,
+        // which merges the new state into that same managed entity
+        Optional<EmployeeEntity> previousEmployee = schedule.getId() != null
+                ? springScheduleJpaRepository.findById(schedule.getId()).map(ScheduleEntity::getEmployee)
+                : Optional.empty();
+
+        ScheduleEntity savedEntity = springScheduleJpaRepository.save(scheduleMapper.toEntity(schedule));
+
+        previousEmployee.ifPresent(this::touchWatermark);
+        touchWatermark(savedEntity.getEmployee());
+        return scheduleMapper.toDomain(savedEntity, schedule.getEmployee());
     }
 
     @Override
     public Optional<ScheduleClass> findById(Long id) {
-        return springScheduleJpaRepository.findById(id)
+        return springScheduleJpaRepository.findWithEmployeeById(id)
                 .map(scheduleMapper::toDomain);
     }
 
     @Override
     public List<ScheduleClass> findByEmployee(EmployeeClass employee) {
         return springScheduleJpaRepository.findByEmployee(employeeMapper.toEntity(employee)).stream()
-                .map(scheduleMapper::toDomain)
+                .map(entity -> scheduleMapper.toDomain(entity, employee))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<ScheduleClass> findByEmployeeAndDate(EmployeeClass employee, LocalDateTime startTime, LocalDateTime endTime) {
         return springScheduleJpaRepository.findByEmployeeAndDate(employeeMapper.toEntity(employee), startTime, endTime).stream()
+                .map(entity -> scheduleMapper.toDomain(entity, employee))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ScheduleClass> findByEmployeeIdsAndDate(Collection<Long> employeeIds, LocalDateTime startTime, LocalDateTime endTime) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        return springScheduleJpaRepository.findByEmployeeIdsAndDate(employeeIds, startTime, endTime).stream()
                 .map(scheduleMapper::toDomain)
                 .collect(Collectors.toList());
     }
@@ -63,6 +86,15 @@ public class SchedulePersistenceAdapter implements ScheduleRepositoryPort {
 
     @Override
     public void deleteById(Long scheduleId) {
+        Optional<ScheduleEntity> existing = springScheduleJpaRepository.findById(scheduleId);
         springScheduleJpaRepository.deleteById(scheduleId);
+        existing.ifPresent(stored -> touchWatermark(stored.getEmployee()));
+    }
+
+    private void touchWatermark(EmployeeEntity employee) {
+        if (employee == null) {
+            return;
+        }
+        employeeChangeWatermarkPersistenceAdapter.touch(employee.getId());
     }
 }
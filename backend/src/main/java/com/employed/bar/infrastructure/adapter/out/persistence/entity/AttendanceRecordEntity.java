@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -16,12 +17,19 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table (name = "attendance_records")
+@NamedEntityGraph(name = AttendanceRecordEntity.WITH_EMPLOYEE, attributeNodes = @NamedAttributeNode("employee"))
 public class AttendanceRecordEntity {
+    // Fetch plan for reads whose results are mapped with their employee; the association itself is lazy
+    public static final String WITH_EMPLOYEE = "AttendanceRecordEntity.withEmployee";
+
+    // Pooled sequence (a table on MySQL, see V7) instead of IDENTITY: ids are reserved 50 at a time,
+    // so bulk imports can be inserted in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_records_seq")
+    @SequenceGenerator(name = "attendance_records_seq", sequenceName = "attendance_records_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     @JsonBackReference
     private EmployeeEntity employee;
@@ -36,5 +44,9 @@ public class AttendanceRecordEntity {
     @Column(name = "status" , nullable = false)
     private AttendanceStatus status;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
 
 }
@@ -3,6 +3,7 @@ package com.employed.bar.infrastructure.adapter.out.persistence.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,9 +15,14 @@ import java.time.LocalDateTime;
 @Entity
 @Builder
 @Table(name = "consumption")
+@NamedEntityGraph(name = ConsumptionEntity.WITH_EMPLOYEE, attributeNodes = @NamedAttributeNode("employee"))
 public class ConsumptionEntity {
+    public static final String WITH_EMPLOYEE = "ConsumptionEntity.withEmployee";
+
+    // Pooled sequence (a table on MySQL, see V8) so batched consumptions are inserted in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "consumption_seq")
+    @SequenceGenerator(name = "consumption_seq", sequenceName = "consumption_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "consumption_date")
@@ -28,8 +34,12 @@ public class ConsumptionEntity {
     @Column(name = "amount")
     private BigDecimal amount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id")
     @JsonBackReference
     private EmployeeEntity employee;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
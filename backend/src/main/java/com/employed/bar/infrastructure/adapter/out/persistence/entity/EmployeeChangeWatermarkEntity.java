@@ -0,0 +1,27 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "employee_change_watermark")
+public class EmployeeChangeWatermarkEntity {
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+}
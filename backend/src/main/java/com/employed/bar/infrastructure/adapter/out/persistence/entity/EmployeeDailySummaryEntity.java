@@ -0,0 +1,53 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-employee, per-day totals derived from attendance_records and consumption.
+ * Worked minutes are attributed to the day of the entry time.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "employee_daily_summary",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_summary_employee_date", columnNames = {"employee_id", "summary_date"}))
+public class EmployeeDailySummaryEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(name = "worked_minutes", nullable = false)
+    private long workedMinutes;
+
+    @Column(name = "attendance_count", nullable = false)
+    private int attendanceCount;
+
+    @Column(name = "late_count", nullable = false)
+    private int lateCount;
+
+    @Column(name = "consumption_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal consumptionTotal = BigDecimal.ZERO;
+
+    @Column(name = "consumption_count", nullable = false)
+    private int consumptionCount;
+
+    public EmployeeDailySummaryEntity(Long employeeId, LocalDate summaryDate) {
+        this.employeeId = employeeId;
+        this.summaryDate = summaryDate;
+    }
+}
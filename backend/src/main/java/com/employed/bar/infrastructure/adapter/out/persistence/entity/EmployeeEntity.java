@@ -8,6 +8,8 @@ import com.employed.bar.domain.enums.PaymentMethodType;
 import com.employed.bar.domain.enums.PaymentType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import java.util.UUID;
@@ -22,7 +24,13 @@ import java.util.Date;
 @NoArgsConstructor
 @Builder
 @Table(name = "employee")
+// Read on almost every write path (clock-ins, consumptions, schedules) and rarely changed: kept in the
+// second-level cache, which Hibernate updates on commit when the entity is saved or deleted
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EmployeeEntity.CACHE_REGION)
 public class EmployeeEntity {
+    public static final String CACHE_REGION = "employee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false)
@@ -0,0 +1,57 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.entity;
+
+import com.employed.bar.domain.enums.PayrollLineType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lines are only ever inserted; an employee's figures for a run are the sum of their lines.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "payroll_line")
+public class PayrollLineEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payroll_run_id", nullable = false)
+    private Long payrollRunId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "line_type", nullable = false, length = 20)
+    private PayrollLineType lineType;
+
+    @Column(name = "total_hours", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalHours;
+
+    @Column(name = "regular_hours", nullable = false, precision = 19, scale = 2)
+    private BigDecimal regularHours;
+
+    @Column(name = "overtime_hours", nullable = false, precision = 19, scale = 2)
+    private BigDecimal overtimeHours;
+
+    @Column(name = "earnings", nullable = false, precision = 19, scale = 2)
+    private BigDecimal earnings;
+
+    @Column(name = "consumptions", nullable = false, precision = 19, scale = 2)
+    private BigDecimal consumptions;
+
+    @Column(name = "net_pay", nullable = false, precision = 19, scale = 2)
+    private BigDecimal netPay;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change inside a closed period. Rows are only ever inserted and deleted; the employee stays pending
+ * while any row of the run is left.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "payroll_pending_adjustment")
+public class PayrollPendingAdjustmentEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payroll_run_id", nullable = false)
+    private Long payrollRunId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "marked_at", nullable = false)
+    private LocalDateTime markedAt;
+
+    public PayrollPendingAdjustmentEntity(Long payrollRunId, Long employeeId, LocalDateTime markedAt) {
+        this.payrollRunId = payrollRunId;
+        this.employeeId = employeeId;
+        this.markedAt = markedAt;
+    }
+}
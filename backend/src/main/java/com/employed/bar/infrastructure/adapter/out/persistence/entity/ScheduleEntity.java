@@ -3,6 +3,7 @@ package com.employed.bar.infrastructure.adapter.out.persistence.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Getter
@@ -11,7 +12,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Table(name = "schedule")
+@NamedEntityGraph(name = ScheduleEntity.WITH_EMPLOYEE, attributeNodes = @NamedAttributeNode("employee"))
 public class ScheduleEntity {
+    public static final String WITH_EMPLOYEE = "ScheduleEntity.withEmployee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,10 +26,14 @@ public class ScheduleEntity {
     @Column(name = "end_time")
     private LocalDateTime endTime;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     @JsonBackReference
     private EmployeeEntity employee;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
 
 }
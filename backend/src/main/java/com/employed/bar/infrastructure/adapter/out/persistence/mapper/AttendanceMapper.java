@@ -1,6 +1,7 @@
 package com.employed.bar.infrastructure.adapter.out.persistence.mapper;
 
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.AttendanceRecordEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -11,8 +12,22 @@ public interface AttendanceMapper {
     AttendanceMapper INSTANCE = Mappers.getMapper(AttendanceMapper.class);
 
     @Mapping(source = "employee", target = "employee")
+    @Mapping(target = "updatedAt", ignore = true)
     AttendanceRecordEntity toEntity(AttendanceRecordClass attendanceRecordClass);
 
     @Mapping(source = "employee", target = "employee")
     AttendanceRecordClass toDomain(AttendanceRecordEntity attendanceRecordEntity);
+
+    // For queries scoped to one employee: the caller already holds it, so the lazy association is not loaded
+    @Mapping(target = "employee", ignore = true)
+    AttendanceRecordClass toDomainWithoutEmployee(AttendanceRecordEntity attendanceRecordEntity);
+
+    default AttendanceRecordClass toDomain(AttendanceRecordEntity attendanceRecordEntity, EmployeeClass employee) {
+        if (attendanceRecordEntity == null) {
+            return null;
+        }
+        AttendanceRecordClass attendanceRecord = toDomainWithoutEmployee(attendanceRecordEntity);
+        attendanceRecord.setEmployee(employee);
+        return attendanceRecord;
+    }
 }
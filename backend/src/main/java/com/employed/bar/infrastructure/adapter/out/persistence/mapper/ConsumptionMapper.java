@@ -1,6 +1,7 @@
 package com.employed.bar.infrastructure.adapter.out.persistence.mapper;
 
 import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.ConsumptionEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -9,8 +10,21 @@ import org.mapstruct.Mapping;
 public interface ConsumptionMapper {
 
     @Mapping(source = "employee", target = "employee")
+    @Mapping(target = "updatedAt", ignore = true)
     ConsumptionEntity toEntity(ConsumptionClass consumptionClass);
 
     @Mapping(source = "employee", target = "employee")
     ConsumptionClass toDomain(ConsumptionEntity consumptionEntity);
+
+    @Mapping(target = "employee", ignore = true)
+    ConsumptionClass toDomainWithoutEmployee(ConsumptionEntity consumptionEntity);
+
+    default ConsumptionClass toDomain(ConsumptionEntity consumptionEntity, EmployeeClass employee) {
+        if (consumptionEntity == null) {
+            return null;
+        }
+        ConsumptionClass consumption = toDomainWithoutEmployee(consumptionEntity);
+        consumption.setEmployee(employee);
+        return consumption;
+    }
 }
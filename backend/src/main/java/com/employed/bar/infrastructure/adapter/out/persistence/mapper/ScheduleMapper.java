@@ -1,5 +1,6 @@
 package com.employed.bar.infrastructure.adapter.out.persistence.mapper;
 
+import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.model.structure.ScheduleClass;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.ScheduleEntity;
 import org.mapstruct.Mapper;
@@ -11,8 +12,21 @@ public interface ScheduleMapper {
     ScheduleMapper INSTANCE = Mappers.getMapper(ScheduleMapper.class);
 
     @Mapping(source = "employee", target = "employee")
+    @Mapping(target = "updatedAt", ignore = true)
     ScheduleEntity toEntity(ScheduleClass schedule);
 
     @Mapping(source = "employee", target = "employee")
     ScheduleClass toDomain(ScheduleEntity scheduleEntity);
+
+    @Mapping(target = "employee", ignore = true)
+    ScheduleClass toDomainWithoutEmployee(ScheduleEntity scheduleEntity);
+
+    default ScheduleClass toDomain(ScheduleEntity scheduleEntity, EmployeeClass employee) {
+        if (scheduleEntity == null) {
+            return null;
+        }
+        ScheduleClass schedule = toDomainWithoutEmployee(scheduleEntity);
+        schedule.setEmployee(employee);
+        return schedule;
+    }
 }
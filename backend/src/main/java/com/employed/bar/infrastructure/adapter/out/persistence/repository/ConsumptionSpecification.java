@@ -0,0 +1,29 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.repository;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.ConsumptionEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public class ConsumptionSpecification {
+
+    // Loads the employee in the same query instead of one select per consumption
+    public static Specification<ConsumptionEntity> fetchEmployee() {
+        return (root, query, criteriaBuilder) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("employee");
+            }
+            return null;
+        };
+    }
+
+    public static Specification<ConsumptionEntity> hasEmployeeId(Long employeeId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("employee").get("id"), employeeId);
+    }
+
+    public static Specification<ConsumptionEntity> consumptionDateInRange(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(root.get("consumptionDate"), startDateTime),
+                criteriaBuilder.lessThan(root.get("consumptionDate"), endDateTime));
+    }
+}
@@ -1,23 +1,110 @@
 package com.employed.bar.infrastructure.adapter.out.persistence.repository;
 
+import com.employed.bar.domain.enums.AttendanceStatus;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.AttendanceRecordEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SpringAttendanceJpaRepository extends JpaRepository<AttendanceRecordEntity, Long> {
+public interface SpringAttendanceJpaRepository extends JpaRepository<AttendanceRecordEntity, Long>, JpaSpecificationExecutor<AttendanceRecordEntity> {
 
-    @Query("SELECT ar FROM AttendanceRecordEntity ar JOIN FETCH ar.employee WHERE ar.employee.id = :employeeId AND ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime")
+    // A shift only counts its minutes inside the range, the same rule the daily rollup applies to each day it covers
+    String CLIPPED_ENTRY = "CASE WHEN ar.entryDateTime < :startDateTime THEN :startDateTime ELSE ar.entryDateTime END";
+    String CLIPPED_EXIT = "CASE WHEN ar.exitDateTime > :endDateTime THEN :endDateTime ELSE ar.exitDateTime END";
+
+    @Query("SELECT ar FROM AttendanceRecordEntity ar WHERE ar.employee.id = :employeeId AND ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime")
     List<AttendanceRecordEntity> findAttendanceByEmployeeAndDateRangeOverlapping(@Param("employeeId") Long employeeId, @Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
 
+    @Query("SELECT ar FROM AttendanceRecordEntity ar JOIN FETCH ar.employee WHERE ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime")
+    List<AttendanceRecordEntity> findAttendanceByDateRangeOverlapping(@Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query("SELECT MIN(ar.entryDateTime) FROM AttendanceRecordEntity ar WHERE ar.employee.id = :employeeId AND ar.exitDateTime IS NOT NULL")
+    LocalDateTime findFirstEntryDateTimeByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query("SELECT ar.employee.id, MIN(ar.entryDateTime) FROM AttendanceRecordEntity ar WHERE ar.employee.id IN :employeeIds AND ar.exitDateTime IS NOT NULL GROUP BY ar.employee.id")
+    List<Object[]> findFirstEntryDateTimeByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds);
+
+    @Query("SELECT ar.employee.id, SUM(timestampdiff(minute, " + CLIPPED_ENTRY + ", " + CLIPPED_EXIT + ")) FROM AttendanceRecordEntity ar WHERE ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime GROUP BY ar.employee.id")
+    List<Object[]> sumWorkedMinutesByEmployee(@Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query("SELECT ar.employee.id, SUM(timestampdiff(minute, " + CLIPPED_ENTRY + ", " + CLIPPED_EXIT + ")) FROM AttendanceRecordEntity ar WHERE ar.employee.id IN :employeeIds AND ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime GROUP BY ar.employee.id")
+    List<Object[]> sumWorkedMinutesByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds, @Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query("SELECT ar.employee.id, cast(ar.entryDateTime as LocalDate), " +
+            "COUNT(ar), SUM(CASE WHEN ar.status = :lateStatus THEN 1 ELSE 0 END) " +
+            "FROM AttendanceRecordEntity ar WHERE (:employeeId IS NULL OR ar.employee.id = :employeeId) " +
+            "AND ar.entryDateTime >= :startDateTime AND ar.entryDateTime < :endDateTime " +
+            "GROUP BY ar.employee.id, cast(ar.entryDateTime as LocalDate)")
+    List<Object[]> summarizeByEmployeeAndDay(@Param("employeeId") Long employeeId,
+                                             @Param("startDateTime") LocalDateTime startDateTime,
+                                             @Param("endDateTime") LocalDateTime endDateTime,
+                                             @Param("lateStatus") AttendanceStatus lateStatus);
+
+    @Query("SELECT ar.employee.id, cast(ar.entryDateTime as LocalDate), " +
+            "COUNT(ar), SUM(CASE WHEN ar.status = :lateStatus THEN 1 ELSE 0 END) " +
+            "FROM AttendanceRecordEntity ar WHERE ar.employee.id IN :employeeIds " +
+            "AND ar.entryDateTime >= :startDateTime AND ar.entryDateTime < :endDateTime " +
+            "GROUP BY ar.employee.id, cast(ar.entryDateTime as LocalDate)")
+    List<Object[]> summarizeByEmployeeIdsAndDay(@Param("employeeIds") Collection<Long> employeeIds,
+                                                @Param("startDateTime") LocalDateTime startDateTime,
+                                                @Param("endDateTime") LocalDateTime endDateTime,
+                                                @Param("lateStatus") AttendanceStatus lateStatus);
+
+    @Query("SELECT ar.employee.id, ar.entryDateTime, ar.exitDateTime FROM AttendanceRecordEntity ar " +
+            "WHERE (:employeeId IS NULL OR ar.employee.id = :employeeId) " +
+            "AND ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime")
+    List<Object[]> findShiftsOverlapping(@Param("employeeId") Long employeeId,
+                                         @Param("startDateTime") LocalDateTime startDateTime,
+                                         @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query("SELECT ar.employee.id, ar.entryDateTime, ar.exitDateTime FROM AttendanceRecordEntity ar " +
+            "WHERE ar.employee.id IN :employeeIds AND ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime")
+    List<Object[]> findShiftsOverlappingByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds,
+                                                      @Param("startDateTime") LocalDateTime startDateTime,
+                                                      @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query("SELECT COUNT(DISTINCT cast(ar.entryDateTime as LocalDate)) FROM AttendanceRecordEntity ar WHERE ar.employee.id = :employeeId AND ar.entryDateTime >= :startDateTime AND ar.entryDateTime < :endDateTime")
+    long countDaysWithAttendance(@Param("employeeId") Long employeeId, @Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
+    @Query("SELECT DISTINCT ar.employee.id FROM AttendanceRecordEntity ar WHERE ar.entryDateTime < :endDateTime AND ar.exitDateTime > :startDateTime")
+    List<Long> findEmployeeIdsWithAttendance(@Param("startDateTime") LocalDateTime startDateTime, @Param("endDateTime") LocalDateTime endDateTime);
+
+    @EntityGraph(AttendanceRecordEntity.WITH_EMPLOYEE)
+    Optional<AttendanceRecordEntity> findWithEmployeeById(Long id);
+
     List<AttendanceRecordEntity> findByEmployee(EmployeeEntity employee);
 
     Optional<AttendanceRecordEntity> findTopByEmployeeOrderByEntryDateTimeDesc(EmployeeEntity employee);
+
+    // Export cursor: rows are fetched in chunks and must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ar FROM AttendanceRecordEntity ar JOIN FETCH ar.employee " +
+            "WHERE ar.entryDateTime >= :startDateTime AND ar.entryDateTime < :endDateTime " +
+            "ORDER BY ar.entryDateTime, ar.id")
+    Stream<AttendanceRecordEntity> streamByEntryDateTimeRange(@Param("startDateTime") LocalDateTime startDateTime,
+                                                              @Param("endDateTime") LocalDateTime endDateTime);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ar FROM AttendanceRecordEntity ar JOIN FETCH ar.employee ORDER BY ar.entryDateTime, ar.id")
+    Stream<AttendanceRecordEntity> streamAll();
 }
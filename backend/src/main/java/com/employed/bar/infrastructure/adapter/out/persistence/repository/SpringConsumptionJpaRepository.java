@@ -2,32 +2,97 @@ package com.employed.bar.infrastructure.adapter.out.persistence.repository;
 
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.ConsumptionEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SpringConsumptionJpaRepository extends JpaRepository<ConsumptionEntity, Long> {
+public interface SpringConsumptionJpaRepository extends JpaRepository<ConsumptionEntity, Long>, JpaSpecificationExecutor<ConsumptionEntity> {
 
-    @Query("SELECT c FROM ConsumptionEntity c JOIN FETCH c.employee WHERE c.employee.id = :employeeId AND c.consumptionDate BETWEEN :startDate AND :endDate AND (:description IS NULL OR c.description LIKE %:description%)")
+    @EntityGraph(ConsumptionEntity.WITH_EMPLOYEE)
+    Optional<ConsumptionEntity> findWithEmployeeById(Long id);
+
+    @Override
+    @EntityGraph(ConsumptionEntity.WITH_EMPLOYEE)
+    List<ConsumptionEntity> findAll();
+
+    @Query("SELECT c FROM ConsumptionEntity c WHERE c.employee.id = :employeeId AND c.consumptionDate BETWEEN :startDate AND :endDate AND (:description IS NULL OR c.description LIKE %:description%)")
     List<ConsumptionEntity> findByEmployeeAndDateTimeBetween(@Param("employeeId") Long employeeId,
                                                             @Param("startDate") LocalDateTime startDate,
                                                             @Param("endDate") LocalDateTime endDate,
                                                             @Param("description") String description);
 
+    @Query("SELECT c FROM ConsumptionEntity c JOIN FETCH c.employee WHERE c.consumptionDate BETWEEN :startDate AND :endDate")
+    List<ConsumptionEntity> findByDateTimeBetween(@Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
 
     @Query("SELECT SUM(c.amount) FROM ConsumptionEntity c WHERE c.employee.id = :employeeId AND c.consumptionDate BETWEEN :startDate AND :endDate")
     BigDecimal sumConsumptionByEmployeeAndDateRange(@Param("employeeId") Long employeeId,
                                                     @Param("startDate") LocalDateTime startDate,
                                                     @Param("endDate") LocalDateTime endDate);
 
+    @Query("SELECT c.employee.id, SUM(c.amount) FROM ConsumptionEntity c WHERE c.consumptionDate BETWEEN :startDate AND :endDate GROUP BY c.employee.id")
+    List<Object[]> sumConsumptionByEmployee(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT c.employee.id, SUM(c.amount) FROM ConsumptionEntity c WHERE c.employee.id IN :employeeIds AND c.consumptionDate BETWEEN :startDate AND :endDate GROUP BY c.employee.id")
+    List<Object[]> sumConsumptionByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT c.employee.id, cast(c.consumptionDate as LocalDate), SUM(c.amount), COUNT(c) " +
+            "FROM ConsumptionEntity c WHERE (:employeeId IS NULL OR c.employee.id = :employeeId) " +
+            "AND c.consumptionDate >= :startDate AND c.consumptionDate < :endDate " +
+            "GROUP BY c.employee.id, cast(c.consumptionDate as LocalDate)")
+    List<Object[]> summarizeByEmployeeAndDay(@Param("employeeId") Long employeeId,
+                                             @Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT c.employee.id, cast(c.consumptionDate as LocalDate), SUM(c.amount), COUNT(c) " +
+            "FROM ConsumptionEntity c WHERE c.employee.id IN :employeeIds " +
+            "AND c.consumptionDate >= :startDate AND c.consumptionDate < :endDate " +
+            "GROUP BY c.employee.id, cast(c.consumptionDate as LocalDate)")
+    List<Object[]> summarizeByEmployeeIdsAndDay(@Param("employeeIds") Collection<Long> employeeIds,
+                                                @Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT DISTINCT c.employee.id FROM ConsumptionEntity c WHERE c.consumptionDate BETWEEN :startDate AND :endDate")
+    List<Long> findEmployeeIdsWithConsumption(@Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
+
     @Query("SELECT SUM(c.amount) FROM ConsumptionEntity c WHERE c.consumptionDate BETWEEN :startDate AND :endDate")
     BigDecimal sumTotalConsumptionByDateRange(@Param("startDate") LocalDateTime startDate,
                                               @Param("endDate") LocalDateTime endDate);
 
+
+    // Export cursor: rows are fetched in chunks and must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ConsumptionEntity c JOIN FETCH c.employee " +
+            "WHERE c.consumptionDate >= :startDate AND c.consumptionDate < :endDate " +
+            "ORDER BY c.consumptionDate, c.id")
+    Stream<ConsumptionEntity> streamByConsumptionDateRange(@Param("startDate") LocalDateTime startDate,
+                                                           @Param("endDate") LocalDateTime endDate);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ConsumptionEntity c JOIN FETCH c.employee ORDER BY c.consumptionDate, c.id")
+    Stream<ConsumptionEntity> streamAll();
 }
@@ -0,0 +1,28 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.repository;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeChangeWatermarkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpringEmployeeChangeWatermarkJpaRepository extends JpaRepository<EmployeeChangeWatermarkEntity, Long> {
+
+    // Incremented in the database, so concurrent writers never overwrite each other's bump
+    @Modifying
+    @Query("UPDATE EmployeeChangeWatermarkEntity w SET w.changeVersion = w.changeVersion + 1, w.changedAt = :changedAt " +
+            "WHERE w.employeeId IN :employeeIds")
+    int bumpVersions(@Param("employeeIds") Collection<Long> employeeIds, @Param("changedAt") LocalDateTime changedAt);
+
+    @Query("SELECT w.employeeId FROM EmployeeChangeWatermarkEntity w WHERE w.employeeId IN :employeeIds")
+    List<Long> findExistingEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds);
+
+    @Query("SELECT w.employeeId, w.changeVersion FROM EmployeeChangeWatermarkEntity w WHERE w.employeeId IN :employeeIds")
+    List<Object[]> findVersions(@Param("employeeIds") Collection<Long> employeeIds);
+}
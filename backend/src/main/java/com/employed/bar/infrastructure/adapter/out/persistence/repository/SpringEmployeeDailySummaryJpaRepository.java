@@ -0,0 +1,37 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.repository;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeDailySummaryEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpringEmployeeDailySummaryJpaRepository extends JpaRepository<EmployeeDailySummaryEntity, Long> {
+
+    Optional<EmployeeDailySummaryEntity> findByEmployeeIdAndSummaryDate(Long employeeId, LocalDate summaryDate);
+
+    List<EmployeeDailySummaryEntity> findByEmployeeIdInAndSummaryDateBetween(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM EmployeeDailySummaryEntity s WHERE s.summaryDate BETWEEN :startDate AND :endDate")
+    int deleteBySummaryDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT s.employeeId, SUM(s.workedMinutes), SUM(s.consumptionTotal) FROM EmployeeDailySummaryEntity s WHERE s.summaryDate BETWEEN :startDate AND :endDate GROUP BY s.employeeId")
+    List<Object[]> sumActivityByEmployee(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT s.employeeId, SUM(s.workedMinutes), SUM(s.consumptionTotal) FROM EmployeeDailySummaryEntity s WHERE s.employeeId IN :employeeIds AND s.summaryDate BETWEEN :startDate AND :endDate GROUP BY s.employeeId")
+    List<Object[]> sumActivityByEmployeeIds(@Param("employeeIds") Collection<Long> employeeIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COUNT(s) FROM EmployeeDailySummaryEntity s WHERE s.employeeId = :employeeId AND s.summaryDate BETWEEN :startDate AND :endDate AND s.attendanceCount > 0")
+    long countDaysWithAttendance(@Param("employeeId") Long employeeId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT DISTINCT s.employeeId FROM EmployeeDailySummaryEntity s WHERE s.summaryDate BETWEEN :startDate AND :endDate AND (s.attendanceCount > 0 OR s.workedMinutes > 0 OR s.consumptionCount > 0)")
+    List<Long> findEmployeeIdsWithActivity(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
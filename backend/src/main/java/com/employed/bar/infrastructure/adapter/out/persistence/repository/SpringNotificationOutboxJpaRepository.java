@@ -0,0 +1,36 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.repository;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SpringNotificationOutboxJpaRepository extends JpaRepository<NotificationOutboxEntity, Long> {
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    @Query("SELECT o.id FROM NotificationOutboxEntity o " +
+            "WHERE o.status = :status AND o.nextAttemptAt <= :now AND (o.lockedUntil IS NULL OR o.lockedUntil < :now) " +
+            "ORDER BY o.id")
+    List<Long> findDueIds(@Param("status") NotificationOutboxEntity.Status status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional update so that only one node can take a row, without relying on SELECT ... FOR UPDATE SKIP LOCKED
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.lockedUntil = :lockedUntil " +
+            "WHERE o.id = :id " +
+            "AND o.status = :status " +
+            "AND (o.lockedUntil IS NULL OR o.lockedUntil < :now)")
+    int claim(@Param("id") Long id, @Param("status") NotificationOutboxEntity.Status status, @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntity o " +
+            "WHERE o.status = :status AND o.sentAt < :sentBefore")
+    int deleteByStatusAndSentAtBefore(@Param("status") NotificationOutboxEntity.Status status, @Param("sentBefore") LocalDateTime sentBefore);
+}
@@ -0,0 +1,22 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.repository;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.PayrollLineEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SpringPayrollLineJpaRepository extends JpaRepository<PayrollLineEntity, Long> {
+
+    List<PayrollLineEntity> findByPayrollRunIdOrderByIdAsc(Long payrollRunId);
+
+    // A null employeeId sums the lines of every employee in the run
+    @Query("SELECT l.employeeId, SUM(l.totalHours), SUM(l.regularHours), SUM(l.overtimeHours), SUM(l.earnings), " +
+            "SUM(l.consumptions), SUM(l.netPay), MAX(l.createdAt) FROM PayrollLineEntity l " +
+            "WHERE l.payrollRunId = :payrollRunId AND (:employeeId IS NULL OR l.employeeId = :employeeId) " +
+            "GROUP BY l.employeeId ORDER BY l.employeeId")
+    List<Object[]> sumByEmployee(@Param("payrollRunId") Long payrollRunId, @Param("employeeId") Long employeeId);
+}
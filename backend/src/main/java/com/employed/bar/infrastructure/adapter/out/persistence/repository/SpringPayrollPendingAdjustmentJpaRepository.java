@@ -0,0 +1,29 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.repository;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.PayrollPendingAdjustmentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SpringPayrollPendingAdjustmentJpaRepository extends JpaRepository<PayrollPendingAdjustmentEntity, Long> {
+
+    @Query("SELECT DISTINCT p.payrollRunId FROM PayrollPendingAdjustmentEntity p")
+    List<Long> findPayrollRunIds();
+
+    // The latest mark id of each pending employee serves as the version of its pending state
+    @Query("SELECT p.employeeId, MAX(p.id) FROM PayrollPendingAdjustmentEntity p WHERE p.payrollRunId = :payrollRunId " +
+            "GROUP BY p.employeeId")
+    List<Object[]> findEmployeeIdsAndLatestMarkIds(@Param("payrollRunId") Long payrollRunId);
+
+    // Only removes the marks the adjustment read; a mark inserted after it has a higher id and stays
+    @Modifying
+    @Query("DELETE FROM PayrollPendingAdjustmentEntity p WHERE p.payrollRunId = :payrollRunId AND p.employeeId = :employeeId " +
+            "AND p.id <= :latestMarkId")
+    int deleteMarksUpTo(@Param("payrollRunId") Long payrollRunId, @Param("employeeId") Long employeeId,
+                        @Param("latestMarkId") long latestMarkId);
+}
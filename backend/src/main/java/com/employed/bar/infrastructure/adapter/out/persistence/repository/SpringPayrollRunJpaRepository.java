@@ -0,0 +1,23 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.repository;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.PayrollRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpringPayrollRunJpaRepository extends JpaRepository<PayrollRunEntity, Long> {
+
+    Optional<PayrollRunEntity> findByPeriodStartAndPeriodEnd(LocalDate periodStart, LocalDate periodEnd);
+
+    @Query("SELECT COUNT(r) > 0 FROM PayrollRunEntity r WHERE r.periodStart <= :periodEnd AND r.periodEnd >= :periodStart")
+    boolean existsOverlapping(@Param("periodStart") LocalDate periodStart, @Param("periodEnd") LocalDate periodEnd);
+
+    @Query("SELECT r FROM PayrollRunEntity r WHERE r.periodStart <= :endDate AND r.periodEnd >= :startDate")
+    List<PayrollRunEntity> findOverlapping(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
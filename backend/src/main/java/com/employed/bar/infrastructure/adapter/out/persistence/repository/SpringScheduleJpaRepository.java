@@ -2,25 +2,37 @@ package com.employed.bar.infrastructure.adapter.out.persistence.repository;
 
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.ScheduleEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SpringScheduleJpaRepository extends JpaRepository<ScheduleEntity, Long> {
 
+    @EntityGraph(ScheduleEntity.WITH_EMPLOYEE)
+    Optional<ScheduleEntity> findWithEmployeeById(Long id);
+
     List<ScheduleEntity> findByEmployee(EmployeeEntity employee);
 
-    @Query("SELECT s FROM ScheduleEntity s JOIN FETCH s.employee WHERE s.employee = :employee AND s.startTime >= :startTime AND s.endTime <= :endTime")
+    @Query("SELECT s FROM ScheduleEntity s WHERE s.employee = :employee AND s.startTime >= :startTime AND s.endTime <= :endTime")
     List<ScheduleEntity> findByEmployeeAndDate(
             @Param("employee") EmployeeEntity employee,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    @Query("SELECT s FROM ScheduleEntity s JOIN FETCH s.employee WHERE s.employee.id IN :employeeIds AND s.startTime >= :startTime AND s.endTime <= :endTime")
+    List<ScheduleEntity> findByEmployeeIdsAndDate(
+            @Param("employeeIds") Collection<Long> employeeIds,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
     @Query("SELECT s FROM ScheduleEntity s JOIN FETCH s.employee WHERE s.startTime >= :startTime AND s.endTime <= :endTime")
     List<ScheduleEntity> findByDateRange(
             @Param("startTime") LocalDateTime startTime,
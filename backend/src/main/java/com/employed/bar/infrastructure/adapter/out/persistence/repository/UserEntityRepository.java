@@ -2,13 +2,18 @@ package com.employed.bar.infrastructure.adapter.out.persistence.repository;
 
 import com.employed.bar.domain.enums.EmployeeRole;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserEntityRepository extends JpaRepository <UserEntity,UUID> {
 	
+	// Cached query (login and JWT filter): invalidated by Hibernate whenever the users table changes
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<UserEntity> findByEmail(String email);
 
 	Optional<UserEntity> findByRole(EmployeeRole role);
@@ -0,0 +1,30 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.routing;
+
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.util.ClassUtils;
+
+import java.util.Set;
+
+/**
+ * Runs every call on the given application services as analytical work, so their queries use the
+ * analytical connection pool. The advice is added in front of the transaction proxy when there is one.
+ */
+public class AnalyticalWorkloadPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    private final Set<Class<?>> analyticalServices;
+
+    public AnalyticalWorkloadPostProcessor(Set<Class<?>> analyticalServices) {
+        this.analyticalServices = Set.copyOf(analyticalServices);
+        this.advisor = new DefaultPointcutAdvisor(DataSourceWorkload.analyticalInterceptor());
+        setBeforeExistingAdvisors(true);
+        // Same proxy style as Spring Boot's transaction proxies: the beans are injected by class too
+        setProxyTargetClass(true);
+    }
+
+    @Override
+    protected boolean isEligible(Class<?> targetClass) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        return analyticalServices.stream().anyMatch(service -> service.isAssignableFrom(userClass));
+    }
+}
@@ -0,0 +1,42 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.routing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Marks the current thread as running an analytical use case (reports, KPIs, exports, rollups), so the
+ * {@link WorkloadRoutingDataSource} gives its connections from the analytical pool. Calls nest: the previous
+ * marker is restored when the outermost analytical call returns.
+ */
+public final class DataSourceWorkload {
+
+    private static final ThreadLocal<Boolean> ANALYTICAL = new ThreadLocal<>();
+
+    private DataSourceWorkload() {
+    }
+
+    public static boolean isAnalytical() {
+        return Boolean.TRUE.equals(ANALYTICAL.get());
+    }
+
+    /**
+     * Interceptor applied to the analytical application services (see AnalyticalWorkloadPostProcessor).
+     */
+    public static MethodInterceptor analyticalInterceptor() {
+        return DataSourceWorkload::invokeAsAnalytical;
+    }
+
+    private static Object invokeAsAnalytical(MethodInvocation invocation) throws Throwable {
+        Boolean previous = ANALYTICAL.get();
+        ANALYTICAL.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                ANALYTICAL.remove();
+            } else {
+                ANALYTICAL.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Keeps track of whether the read replica can take read-only work.
+ * <p>
+ * Every few seconds it runs the lag query on the replica (SHOW REPLICA STATUS by default) and compares the
+ * reported lag with the allowed maximum. An empty result means the database is not replicating (e.g. both
+ * routes point to the same server) and only reachability counts; a NULL lag means replication is stopped.
+ * With a blank lag query only reachability is checked. While the replica is unavailable every read goes
+ * to the primary; a replica connection failure also marks it unavailable until the next successful check.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replicaDataSource;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final Duration maxLag;
+    private volatile boolean available = true;
+    private volatile Long lastLagSeconds;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, String lagColumn, Duration maxLag) {
+        this.replicaDataSource = replicaDataSource;
+        this.lagQuery = lagQuery != null ? lagQuery.trim() : "";
+        this.lagColumn = lagColumn != null ? lagColumn.trim() : "";
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaAvailable() {
+        return available;
+    }
+
+    public Long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    public void markUnavailable(String reason) {
+        update(false, reason);
+    }
+
+    @Scheduled(fixedDelayString = "${bar.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        try (Connection connection = replicaDataSource.getConnection()) {
+            if (lagQuery.isEmpty()) {
+                update(connection.isValid(VALIDATION_TIMEOUT_SECONDS), "connection is not valid");
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    lastLagSeconds = 0L;
+                    update(true, null);
+                    return;
+                }
+                Object lag = lagColumn.isEmpty() ? resultSet.getObject(1) : resultSet.getObject(lagColumn);
+                if (lag == null) {
+                    lastLagSeconds = null;
+                    update(false, "replication is not running");
+                    return;
+                }
+                lastLagSeconds = Long.parseLong(lag.toString().trim());
+                update(lastLagSeconds <= maxLag.toSeconds(),
+                        "lag of " + lastLagSeconds + "s exceeds " + maxLag.toSeconds() + "s");
+            }
+        } catch (SQLException | NumberFormatException e) {
+            update(false, e.getMessage());
+        }
+    }
+
+    private void update(boolean nowAvailable, String reason) {
+        boolean wasAvailable = available;
+        available = nowAvailable;
+        if (wasAvailable && !nowAvailable) {
+            log.warn("Replica unavailable, reads go to the primary: {}", reason);
+        } else if (!wasAvailable && nowAvailable) {
+            log.info("Replica available again for reads");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Picks the connection pool for each unit of work so reporting never competes with clock-ins and POS writes.
+ * <ul>
+ *     <li>TRANSACTIONAL: everything else (clock-ins, consumptions, CRUD).</li>
+ *     <li>ANALYTICAL: work of the analytical use cases (see {@link DataSourceWorkload}) and read-only
+ *     transactions opened by the application. Same database as the transactional pool, separate pool.</li>
+ *     <li>REPLICA (optional): read-only transactions opened by the application while the replica is healthy.
+ *     If the replica cannot hand out a connection the work falls back to the analytical pool.</li>
+ * </ul>
+ * Spring Data wraps its own CRUD reads (findById, findAll...) in read-only transactions too. Those are often
+ * the read half of a read-modify-write, and a lagging replica would hand back stale rows, so transactions
+ * named after Spring Data's repository classes are not treated as read-only work.
+ * <p>
+ * The decision is made when the connection is obtained, so this must be wrapped in a
+ * LazyConnectionDataSourceProxy: the transaction manager asks for a connection before it has
+ * marked the transaction as read-only.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { TRANSACTIONAL, ANALYTICAL, REPLICA }
+
+    private static final String SPRING_DATA_TRANSACTION_PREFIX = "org.springframework.data.";
+
+    private final DataSource transactionalDataSource;
+    private final DataSource analyticalDataSource;
+    private final DataSource replicaDataSource;
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public WorkloadRoutingDataSource(DataSource transactionalDataSource, DataSource analyticalDataSource) {
+        this(transactionalDataSource, analyticalDataSource, null, null);
+    }
+
+    public WorkloadRoutingDataSource(DataSource transactionalDataSource, DataSource analyticalDataSource,
+                                     DataSource replicaDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        this.transactionalDataSource = transactionalDataSource;
+        this.analyticalDataSource = analyticalDataSource;
+        this.replicaDataSource = replicaDataSource;
+        this.replicaLagMonitor = replicaLagMonitor;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Route.TRANSACTIONAL, transactionalDataSource);
+        targets.put(Route.ANALYTICAL, analyticalDataSource);
+        if (replicaDataSource != null) {
+            targets.put(Route.REPLICA, replicaDataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(transactionalDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnlyWork = isReadOnlyApplicationTransaction();
+        if (readOnlyWork && replicaDataSource != null && replicaLagMonitor.isReplicaAvailable()) {
+            return Route.REPLICA;
+        }
+        return readOnlyWork || DataSourceWorkload.isAnalytical() ? Route.ANALYTICAL : Route.TRANSACTIONAL;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object route = determineCurrentLookupKey();
+        if (route == Route.REPLICA) {
+            try {
+                return replicaDataSource.getConnection();
+            } catch (SQLException e) {
+                replicaLagMonitor.markUnavailable(e.getMessage());
+                return analyticalDataSource.getConnection();
+            }
+        }
+        return route == Route.ANALYTICAL ? analyticalDataSource.getConnection() : transactionalDataSource.getConnection();
+    }
+
+    static boolean isReadOnlyApplicationTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        return transactionName == null || !transactionName.startsWith(SPRING_DATA_TRANSACTION_PREFIX);
+    }
+}
@@ -1,38 +1,132 @@
 package com.employed.bar.infrastructure.config;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
+import com.employed.bar.application.cache.FirstActivityDateCache;
+import com.employed.bar.application.cache.SingleFlight;
 import com.employed.bar.application.service.*;
+import com.employed.bar.domain.model.kpi.EmployeeActivityTotals;
+import com.employed.bar.domain.model.kpi.ManagerKpis;
+import com.employed.bar.domain.model.manager.ManagerReport;
+import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.port.in.app.AttendanceUseCase;
 import com.employed.bar.domain.port.in.app.EmployeeUseCase;
 import com.employed.bar.domain.port.in.payment.PaymentCalculationUseCase;
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
 import com.employed.bar.domain.port.in.service.ReportingUseCase;
 import com.employed.bar.domain.port.in.service.SendEmployeeReportNotificationUseCase;
 import com.employed.bar.domain.port.out.*;
 import com.employed.bar.domain.service.ManagerReportCalculator;
 import com.employed.bar.domain.service.ReportCalculator;
+import com.employed.bar.infrastructure.adapter.out.persistence.routing.AnalyticalWorkloadPostProcessor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableTransactionManagement
 public class ApplicationServiceConfig {
 
+    /**
+     * Reporting, KPI, export and rollup use cases run on the analytical connection pool, so a long scan
+     * never takes a connection away from clock-ins and POS writes (see DataSourceRoutingConfig).
+     */
+    @Bean
+    public static AnalyticalWorkloadPostProcessor analyticalWorkloadPostProcessor() {
+        return new AnalyticalWorkloadPostProcessor(Set.of(
+                ReportingApplicationService.class,
+                ManagerReportApplicationService.class,
+                KpiApplicationService.class,
+                ActivityExportApplicationService.class,
+                DailySummaryApplicationService.class));
+    }
+
+    @Bean
+    public FirstActivityDateCache firstActivityDateCache() {
+        return new FirstActivityDateCache();
+    }
+
+    @Bean
+    public EmployeePeriodResultCache<Report> reportResultCache(
+            @Value("${bar.reporting.result-cache.max-size:10000}") int maxSize,
+            @Value("${bar.reporting.result-cache.ttl:1h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return registerMetrics(new EmployeePeriodResultCache<>(maxSize, ttl), "reports", meterRegistry);
+    }
+
+    @Bean
+    public EmployeePeriodResultCache<EmployeeActivityTotals> activityTotalsCache(
+            @Value("${bar.reporting.result-cache.max-size:10000}") int maxSize,
+            @Value("${bar.reporting.result-cache.ttl:1h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return registerMetrics(new EmployeePeriodResultCache<>(maxSize, ttl), "kpiActivityTotals", meterRegistry);
+    }
+
+    /**
+     * Concurrent KPI requests for the same period share one computation (see KpiController).
+     */
+    @Bean
+    public SingleFlight<List<LocalDate>, ManagerKpis> managerKpisFlights(
+            @Value("${bar.coalescing.result-ttl:5s}") Duration resultTtl) {
+        return new SingleFlight<>(resultTtl);
+    }
+
+    /**
+     * Concurrent manager report downloads for the same period share one computation (see ManagerReportApplicationService).
+     */
+    @Bean
+    public SingleFlight<List<LocalDate>, ManagerReport> managerReportFlights(
+            @Value("${bar.coalescing.result-ttl:5s}") Duration resultTtl) {
+        return new SingleFlight<>(resultTtl);
+    }
+
+    /**
+     * Publishes cache.gets (result=hit|miss), cache.evictions and cache.size tagged with the cache name,
+     * the same meters the UserDetails cache uses, so the hit ratio shows up in actuator metrics.
+     */
+    private static <V> EmployeePeriodResultCache<V> registerMetrics(EmployeePeriodResultCache<V> cache, String name,
+                                                                    MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.gets", cache, EmployeePeriodResultCache::hitCount)
+                .tag("cache", name).tag("result", "hit").description("Result cache hits").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, EmployeePeriodResultCache::missCount)
+                .tag("cache", name).tag("result", "miss").description("Result cache misses").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, EmployeePeriodResultCache::evictionCount)
+                .tag("cache", name).description("Result cache entries evicted to make room").register(meterRegistry);
+        Gauge.builder("cache.size", cache, EmployeePeriodResultCache::size).tag("cache", name).register(meterRegistry);
+        return cache;
+    }
+
     @Bean
     @Transactional
     public AttendanceApplicationService attendanceApplicationService(
             EmployeeRepositoryPort employeeRepository,
             AttendanceRepositoryPort attendanceRepositoryPort,
-            ScheduleRepositoryPort scheduleRepositoryPort) {
-        return new AttendanceApplicationService(employeeRepository, attendanceRepositoryPort, scheduleRepositoryPort);
+            ScheduleRepositoryPort scheduleRepositoryPort,
+            FirstActivityDateCache firstActivityDateCache,
+            EmployeePeriodResultCache<Report> reportResultCache) {
+        return new AttendanceApplicationService(employeeRepository, attendanceRepositoryPort, scheduleRepositoryPort, firstActivityDateCache, reportResultCache);
     }
 
     @Bean
     @Transactional
     public ConsumptionApplicationService consumptionApplicationService(
             EmployeeRepositoryPort employeeRepository,
-            ConsumptionRepositoryPort consumptionRepositoryPort) {
-        return new ConsumptionApplicationService(employeeRepository, consumptionRepositoryPort);
+            ConsumptionRepositoryPort consumptionRepositoryPort,
+            EmployeePeriodResultCache<Report> reportResultCache) {
+        return new ConsumptionApplicationService(employeeRepository, consumptionRepositoryPort, reportResultCache);
     }
 
     @Bean
@@ -40,8 +134,9 @@ public class ApplicationServiceConfig {
     public EmployeeApplicationService employeeApplicationService(
             EmployeeRepositoryPort employeeRepositoryPort,
             AttendanceUseCase attendanceUseCase,
-            PaymentCalculationUseCase paymentCalculationUseCase) {
-        return new EmployeeApplicationService(employeeRepositoryPort, attendanceUseCase, paymentCalculationUseCase);
+            PaymentCalculationUseCase paymentCalculationUseCase,
+            EmployeePeriodResultCache<Report> reportResultCache) {
+        return new EmployeeApplicationService(employeeRepositoryPort, attendanceUseCase, paymentCalculationUseCase, reportResultCache);
     }
 
     @Bean
@@ -49,16 +144,18 @@ public class ApplicationServiceConfig {
             AttendanceUseCase attendanceUseCase,
             EmployeeUseCase employeeUseCase,
             PaymentCalculationUseCase paymentCalculationUseCase,
-            ReportCalculator reportCalculator) {
-        return new GeneratePaymentApplicationService(attendanceUseCase, employeeUseCase, paymentCalculationUseCase, reportCalculator);
+            ReportCalculator reportCalculator,
+            PayrollRunUseCase payrollRunUseCase) {
+        return new GeneratePaymentApplicationService(attendanceUseCase, employeeUseCase, paymentCalculationUseCase, reportCalculator, payrollRunUseCase);
     }
 
     @Bean
     public KpiApplicationService kpiApplicationService(
             EmployeeRepositoryPort employeeRepository,
-            AttendanceRepositoryPort attendanceRepository,
-            ConsumptionRepositoryPort consumptionRepositoryPort) {
-        return new KpiApplicationService(employeeRepository, attendanceRepository, consumptionRepositoryPort);
+            KpiAggregationPort kpiAggregationPort,
+            EmployeeChangeWatermarkPort employeeChangeWatermarkPort,
+            EmployeePeriodResultCache<EmployeeActivityTotals> activityTotalsCache) {
+        return new KpiApplicationService(employeeRepository, kpiAggregationPort, employeeChangeWatermarkPort, activityTotalsCache);
     }
 
     @Bean
@@ -66,9 +163,37 @@ public class ApplicationServiceConfig {
             EmployeeRepositoryPort employeeRepository,
             ReportingUseCase reportingUseCase,
             ManagerReportCalculator managerReportCalculator,
-            NotificationPort notificationPort,
-            PdfGeneratorPort pdfGeneratorPort) {
-        return new ManagerReportApplicationService(employeeRepository, reportingUseCase, managerReportCalculator, notificationPort, pdfGeneratorPort);
+            OutboxNotificationPort outboxNotificationPort,
+            PdfGeneratorPort pdfGeneratorPort,
+            SpreadsheetGeneratorPort spreadsheetGeneratorPort,
+            DailySummaryRepositoryPort dailySummaryRepositoryPort,
+            PayrollRunUseCase payrollRunUseCase,
+            @Qualifier("managerReportExecutor") Executor managerReportExecutor,
+            @Value("${bar.manager-report.employee-timeout:30s}") Duration employeeReportTimeout,
+            SingleFlight<List<LocalDate>, ManagerReport> managerReportFlights) {
+        return new ManagerReportApplicationService(employeeRepository, reportingUseCase, managerReportCalculator, outboxNotificationPort, pdfGeneratorPort,
+                spreadsheetGeneratorPort, dailySummaryRepositoryPort, payrollRunUseCase, managerReportExecutor, employeeReportTimeout,
+                managerReportFlights);
+    }
+
+    @Bean
+    public ActivityExportApplicationService activityExportApplicationService(
+            ActivityExportPort activityExportPort,
+            SpreadsheetGeneratorPort spreadsheetGeneratorPort) {
+        return new ActivityExportApplicationService(activityExportPort, spreadsheetGeneratorPort);
+    }
+
+    @Bean
+    public DailySummaryApplicationService dailySummaryApplicationService(DailySummaryRepositoryPort dailySummaryRepositoryPort) {
+        return new DailySummaryApplicationService(dailySummaryRepositoryPort);
+    }
+
+    @Bean
+    public PayrollRunApplicationService payrollRunApplicationService(
+            PayrollRunRepositoryPort payrollRunRepositoryPort,
+            EmployeeRepositoryPort employeeRepository,
+            ReportingUseCase reportingUseCase) {
+        return new PayrollRunApplicationService(payrollRunRepositoryPort, employeeRepository, reportingUseCase);
     }
 
     @Bean
@@ -90,8 +215,16 @@ public class ApplicationServiceConfig {
             AttendanceRepositoryPort attendanceRepositoryPort,
             ReportCalculator reportCalculator,
             PaymentCalculationUseCase paymentCalculationUseCase,
-            SendEmployeeReportNotificationUseCase sendEmployeeReportNotificationUseCase) {
-        return new ReportingApplicationService(employeeRepository, consumptionRepositoryPort, attendanceRepositoryPort, reportCalculator, paymentCalculationUseCase, sendEmployeeReportNotificationUseCase);
+            SendEmployeeReportNotificationUseCase sendEmployeeReportNotificationUseCase,
+            FirstActivityDateCache firstActivityDateCache,
+            PlatformTransactionManager transactionManager,
+            EmployeeChangeWatermarkPort employeeChangeWatermarkPort,
+            EmployeePeriodResultCache<Report> reportResultCache) {
+        // The weekly run calls its own bulk read, which the transactional proxy would not see
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return new ReportingApplicationService(employeeRepository, consumptionRepositoryPort, attendanceRepositoryPort, reportCalculator, paymentCalculationUseCase, sendEmployeeReportNotificationUseCase, firstActivityDateCache, readOnlyTransaction,
+                employeeChangeWatermarkPort, reportResultCache);
     }
 
     @Bean
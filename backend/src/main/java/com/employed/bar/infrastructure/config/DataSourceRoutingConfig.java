@@ -0,0 +1,89 @@
+package com.employed.bar.infrastructure.config;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.routing.ReplicaLagMonitor;
+import com.employed.bar.infrastructure.adapter.out.persistence.routing.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Connection pools, one per workload, behind a single routing DataSource (see WorkloadRoutingDataSource).
+ * <ul>
+ *     <li>transactional: spring.datasource.* and spring.datasource.hikari.*</li>
+ *     <li>analytical: same database, sized and timed out independently under bar.datasource.analytical.hikari.*</li>
+ *     <li>replica: only when bar.datasource.replica.enabled=true, configured under bar.datasource.replica.*
+ *     (credentials default to the primary ones)</li>
+ * </ul>
+ * Spring Boot binds the Micrometer pool metrics (hikaricp.connections.*) of every Hikari pool, tagged with
+ * the pool name.
+ */
+@Configuration
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource transactionalDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("transactional");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("bar.datasource.analytical.hikari")
+    public HikariDataSource analyticalDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("analytical");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "bar.datasource.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("bar.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${bar.datasource.replica.url}") String url,
+                                              @Value("${bar.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${bar.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "bar.datasource.replica.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${bar.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                                               @Value("${bar.datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn,
+                                               @Value("${bar.datasource.replica.max-lag:30s}") Duration maxLag) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, lagColumn, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("transactionalDataSource") DataSource transactionalDataSource,
+                                 @Qualifier("analyticalDataSource") DataSource analyticalDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        // Lazy proxy: the physical connection is only picked once the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(new WorkloadRoutingDataSource(transactionalDataSource, analyticalDataSource,
+                replicaDataSource.getIfAvailable(), replicaLagMonitor.getIfAvailable()));
+    }
+}
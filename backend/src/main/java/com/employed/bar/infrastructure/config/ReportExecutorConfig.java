@@ -0,0 +1,44 @@
+package com.employed.bar.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ReportExecutorConfig {
+
+    /**
+     * Bounded pool used to build the individual reports of the manager report in parallel.
+     * Every task holds a connection of the analytical pool while it runs, so the pool defaults
+     * to that pool's size. When the queue is full the caller runs the task itself.
+     */
+    @Bean(name = "managerReportExecutor")
+    public ThreadPoolTaskExecutor managerReportExecutor(
+            @Value("${bar.manager-report.parallelism:${bar.datasource.analytical.hikari.maximum-pool-size:10}}") int parallelism,
+            @Value("${bar.manager-report.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("manager-report-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Spring Boot only auto-configures its default task executor when no other Executor bean exists,
+     * so it is declared here the same way Boot does to keep MVC async and @Async on it.
+     */
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
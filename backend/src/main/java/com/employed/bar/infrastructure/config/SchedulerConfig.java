@@ -1,12 +1,21 @@
 package com.employed.bar.infrastructure.config;
 
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
+import com.employed.bar.domain.port.in.service.DailySummaryUseCase;
 import com.employed.bar.domain.port.in.service.ManagerReportServicePort;
+import com.employed.bar.infrastructure.adapter.in.scheduler.DailySummaryRebuildScheduler;
+import com.employed.bar.infrastructure.adapter.in.scheduler.NotificationOutboxRelayScheduler;
+import com.employed.bar.infrastructure.adapter.in.scheduler.PayrollAdjustmentScheduler;
 import com.employed.bar.infrastructure.adapter.in.scheduler.WeeklyReportScheduler;
+import com.employed.bar.infrastructure.adapter.out.notification.NotificationOutboxRelay;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.time.LocalDate;
+
 @Configuration
 @EnableScheduling
 public class SchedulerConfig {
@@ -17,4 +26,24 @@ public class SchedulerConfig {
             ManagerReportServicePort managerReportServicePort) {
         return new WeeklyReportScheduler(eventPublisher, managerReportServicePort);
     }
+
+    @Bean
+    public DailySummaryRebuildScheduler dailySummaryRebuildScheduler(
+            DailySummaryUseCase dailySummaryUseCase,
+            @Value("${bar.daily-summary.rebuild.days:35}") int rebuildDays,
+            @Value("${bar.daily-summary.backfill-from:}") String backfillFrom) {
+        // Empty by default: set to an ISO date (e.g. 2023-01-01) to backfill the rollup once on startup
+        LocalDate backfillFromDate = backfillFrom.isBlank() ? null : LocalDate.parse(backfillFrom);
+        return new DailySummaryRebuildScheduler(dailySummaryUseCase, rebuildDays, backfillFromDate);
+    }
+
+    @Bean
+    public NotificationOutboxRelayScheduler notificationOutboxRelayScheduler(NotificationOutboxRelay notificationOutboxRelay) {
+        return new NotificationOutboxRelayScheduler(notificationOutboxRelay);
+    }
+
+    @Bean
+    public PayrollAdjustmentScheduler payrollAdjustmentScheduler(PayrollRunUseCase payrollRunUseCase) {
+        return new PayrollAdjustmentScheduler(payrollRunUseCase);
+    }
 }
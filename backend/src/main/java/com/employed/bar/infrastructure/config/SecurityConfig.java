@@ -2,6 +2,7 @@ package com.employed.bar.infrastructure.config;
 
 import com.employed.bar.infrastructure.constants.ApiPathConstants;
 import com.employed.bar.infrastructure.security.filter.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
@@ -41,6 +42,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         // Public endpoints for API documentation and authentication
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Async dispatches finish streamed responses (e.g. the manager PDF) that were already
+                        // authorized on the original request; the stateless JWT context is not there anymore
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
@@ -50,6 +54,8 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers(EndpointRequest.to("health", "info"))
                         .permitAll()
+                        // Pool and application metrics are for operators only
+                        .requestMatchers(EndpointRequest.to("metrics")).hasAnyAuthority("ROLE_MANAGER", "ROLE_ADMIN")
 
                         // Schedule management endpoints
                         .requestMatchers(HttpMethod.POST, ApiPathConstants.V1_ROUTE + ApiPathConstants.SCHEDULE_ROUTE + "/**").hasAnyAuthority("ROLE_MANAGER", "ROLE_ADMIN")
@@ -11,5 +11,7 @@ public class ApiPathConstants {
     public static final String USERS_ROUTE = "/users";
     public static final String KPI_ROUTE = "/kpi";
     public static final String NOTIFICATION_ROUTE = "/notifications";
+    public static final String EXPORT_ROUTE = "/exports";
+    public static final String PAYROLL_ROUTE = "/payroll";
 
 }
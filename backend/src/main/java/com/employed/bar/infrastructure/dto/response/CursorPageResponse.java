@@ -0,0 +1,18 @@
+package com.employed.bar.infrastructure.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) listing. Pass nextToken back as the "token" parameter to get the
+ * following page; it is null on the last page. No total count is returned.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private final List<T> content;
+    private final String nextToken;
+    private final boolean hasNext;
+}
@@ -1,6 +1,7 @@
 package com.employed.bar.infrastructure.security.filter;
 
 import java.io.IOException;
+import java.util.Date;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,13 +9,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.employed.bar.infrastructure.security.jwt.JwtService;
+import com.employed.bar.infrastructure.security.user.UsersDetailsServiceImpl;
+
+import io.jsonwebtoken.Claims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -28,7 +31,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UsersDetailsServiceImpl usersDetailsService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -44,43 +47,44 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String userEmail;
+        final Claims claims;
 
         try {
-            userEmail = jwtService.extractEmail(jwt);
+            // Una sola verificación por request: firma, formato y expiración (con caché de claims ya verificados)
+            claims = jwtService.getClaims(jwt);
         } catch (Exception e) {
             log.warn("Token JWT invalido o Expirado: {}", e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        final String userEmail = claims.getSubject();
+
+        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && (claims.getExpiration() == null || claims.getExpiration().after(new Date()))) {
+            UserDetails userDetails = this.usersDetailsService.loadTokenUserByUsername(userEmail);
 
-            if (!jwtService.isExpired(jwt)) {
-                // EXTRAER ROLES DEL JWT EN LUGAR DE USERDETAILS
-                var claims = jwtService.getClaims(jwt);
-                var roles = claims.get("roles", java.util.List.class);
+            // EXTRAER ROLES DEL JWT EN LUGAR DE USERDETAILS
+            var roles = claims.get("roles", java.util.List.class);
 
-                // CREAR AUTHORITIES DESDE EL JWT
-                var authorities = new java.util.ArrayList<SimpleGrantedAuthority>();
-                if (roles != null) {
-                    for (Object role : roles) {
-                        authorities.add(new SimpleGrantedAuthority(role.toString()));
-                    }
+            // CREAR AUTHORITIES DESDE EL JWT
+            var authorities = new java.util.ArrayList<SimpleGrantedAuthority>();
+            if (roles != null) {
+                for (Object role : roles) {
+                    authorities.add(new SimpleGrantedAuthority(role.toString()));
                 }
+            }
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        authorities  // ← USAR AUTHORITIES DEL JWT, NO DE USERDETAILS
-                );
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    authorities  // ← USAR AUTHORITIES DEL JWT, NO DE USERDETAILS
+            );
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                log.debug("Usuario {} autenticado correctamente con roles: {}", userDetails.getUsername(), roles);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            log.debug("Usuario {} autenticado correctamente con roles: {}", userDetails.getUsername(), roles);
         }
 
         filterChain.doFilter(request, response);
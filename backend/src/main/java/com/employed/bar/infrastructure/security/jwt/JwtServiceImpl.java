@@ -8,12 +8,14 @@ import javax.crypto.SecretKey;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.employed.bar.infrastructure.dto.security.response.TokenResponse;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -22,13 +24,27 @@ public class JwtServiceImpl implements JwtService {
 	
 	private static final Logger log = LoggerFactory.getLogger(JwtServiceImpl.class);
 	private final SecretKey secretKey;
+	private final JwtParser jwtParser;
+	private final VerifiedClaimsCache verifiedClaimsCache;
 	private static final long EXPIRATION_TIME = 864_000_000;
+	private static final int DEFAULT_CLAIMS_CACHE_SIZE = 10_000;
 	
-	public JwtServiceImpl(@Value("${jwt.secret:${JWT_SECRET}}") String secret) {
+	public JwtServiceImpl(String secret) {
+		this(secret, DEFAULT_CLAIMS_CACHE_SIZE);
+	}
+
+	@Autowired
+	public JwtServiceImpl(@Value("${jwt.secret:${JWT_SECRET}}") String secret,
+			@Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize) {
 		if (secret.getBytes().length < 32) {
 			throw new IllegalArgumentException("La clave secreta JWT debe tener al menos 32 caracateres.");
 		}
 		this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+		// El parser es inmutable y thread-safe: se construye una sola vez
+		this.jwtParser = Jwts.parser()
+				.verifyWith(secretKey)
+				.build();
+		this.verifiedClaimsCache = new VerifiedClaimsCache(claimsCacheMaxSize);
 	}
 	
 
@@ -52,12 +68,16 @@ public class JwtServiceImpl implements JwtService {
 
 	@Override
 	public Claims getClaims(String token) {
+		Claims cached = verifiedClaimsCache.get(token, System.currentTimeMillis());
+		if (cached != null) {
+			return cached;
+		}
 		try {
-			return Jwts.parser()
-					.verifyWith(secretKey)
-					.build()
+			Claims claims = jwtParser
 					.parseSignedClaims(token)
 					.getPayload();
+			verifiedClaimsCache.put(token, claims);
+			return claims;
 		}catch (Exception e) {
 		 log.error("Error al parsear JWT: {}, Causa: {}", e.getMessage(), e.getCause() != null ? e.getCause().getMessage() : "N/A");
 	     throw new IllegalArgumentException("Token JWT inválido o expirado", e);
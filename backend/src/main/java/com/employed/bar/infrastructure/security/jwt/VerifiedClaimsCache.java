@@ -0,0 +1,70 @@
+package com.employed.bar.infrastructure.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Bounded cache of claims whose signature has already been verified, keyed by the SHA-256
+ * of the token so raw tokens are never kept in memory. Each entry expires at the token's
+ * own exp claim; when the cache is full, expired entries are purged before anything new is stored.
+ */
+public class VerifiedClaimsCache {
+
+	private final int maxSize;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	public VerifiedClaimsCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public Claims get(String token, long nowMillis) {
+		String key = hash(token);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAtMillis <= nowMillis) {
+			entries.remove(key, entry);
+			return null;
+		}
+		return entry.claims;
+	}
+
+	public void put(String token, Claims claims) {
+		if (maxSize <= 0 || claims.getExpiration() == null) {
+			return;
+		}
+		long expiresAtMillis = claims.getExpiration().getTime();
+		if (entries.size() >= maxSize) {
+			long now = System.currentTimeMillis();
+			entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+			if (entries.size() >= maxSize) {
+				// Still full of live tokens: skip caching, the token is simply verified again next time
+				return;
+			}
+		}
+		entries.put(hash(token), new Entry(claims, expiresAtMillis));
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private record Entry(Claims claims, long expiresAtMillis) {
+	}
+}
@@ -18,6 +18,7 @@ public class EmployeeRoleChangeService {
     private final UserEntityRepository userEntityRepository;
     private final EmployeeUseCase employeeUseCase;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     /**
      * Maneja la lógica cuando un empleado cambia de rol
@@ -46,6 +47,7 @@ public class EmployeeRoleChangeService {
                             .build();
 
                     userEntityRepository.save(userEntity);
+                    userDetailsCache.evict(userEntity.getEmail());
                 } else {
                     // Actualizar el rol del usuario existente si es necesario
                     UserEntity user = existingUser.get();
@@ -53,6 +55,7 @@ public class EmployeeRoleChangeService {
                         user.setRole(newRole);
                         user.setPassword(passwordEncoder.encode(password)); // Actualizar contraseña también
                         userEntityRepository.save(user);
+                        userDetailsCache.evict(user.getEmail());
                     }
                 }
             }
@@ -0,0 +1,103 @@
+package com.employed.bar.infrastructure.security.user;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Short-lived cache of immutable UserDetails snapshots by email for the JWT authentication path; the
+ * login never reads from it. Entries expire after the configured TTL and are evicted explicitly whenever
+ * a user's role, password or existence changes. Hits and misses are published as cache.gets
+ * (cache=userDetails) so the hit ratio shows up in actuator metrics.
+ */
+@Component
+public class UserDetailsCache {
+
+	private static final String CACHE_NAME = "userDetails";
+
+	private final Duration ttl;
+	private final int maxSize;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Counter hits;
+	private final Counter misses;
+
+	public UserDetailsCache(@Value("${security.user-details-cache.ttl:5m}") Duration ttl,
+			@Value("${security.user-details-cache.max-size:1000}") int maxSize,
+			MeterRegistry meterRegistry) {
+		this.ttl = ttl;
+		this.maxSize = maxSize;
+		this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+				.description("UserDetails cache hits").register(meterRegistry);
+		this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+				.description("UserDetails cache misses").register(meterRegistry);
+		Gauge.builder("cache.size", entries, Map::size).tag("cache", CACHE_NAME).register(meterRegistry);
+	}
+
+	public UserDetails get(String email) {
+		Entry entry = entries.get(key(email));
+		if (entry == null || entry.expiresAtMillis <= System.currentTimeMillis()) {
+			if (entry != null) {
+				entries.remove(key(email), entry);
+			}
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.userDetails;
+	}
+
+	public void put(String email, UserDetails userDetails) {
+		if (ttl.isZero() || ttl.isNegative() || maxSize <= 0) {
+			return;
+		}
+		if (entries.size() >= maxSize) {
+			long now = System.currentTimeMillis();
+			entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+			if (entries.size() >= maxSize) {
+				return;
+			}
+		}
+		entries.put(key(email), new Entry(userDetails, System.currentTimeMillis() + ttl.toMillis()));
+	}
+
+	/**
+	 * Drops the user's entry now and, inside a transaction, once more after it commits: a request running
+	 * before the commit may still load and cache the old row.
+	 */
+	public void evict(String email) {
+		if (email == null) {
+			return;
+		}
+		String key = key(email);
+		entries.remove(key);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					entries.remove(key);
+				}
+			});
+		}
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	private String key(String email) {
+		return email.toLowerCase();
+	}
+
+	private record Entry(UserDetails userDetails, long expiresAtMillis) {
+	}
+}
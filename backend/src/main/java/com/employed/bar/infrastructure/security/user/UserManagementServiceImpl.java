@@ -21,6 +21,7 @@ public class UserManagementServiceImpl implements UserManagementService {
 
     private final UserEntityRepository userEntityRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     @Transactional
@@ -43,7 +44,9 @@ public class UserManagementServiceImpl implements UserManagementService {
                 .role(request.getRole())
                 .build();
 
-        return userEntityRepository.save(userToSave);
+        UserEntity savedUser = userEntityRepository.save(userToSave);
+        userDetailsCache.evict(savedUser.getEmail());
+        return savedUser;
     }
 
     @Override
@@ -71,6 +74,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
 
         userEntityRepository.delete(userToDelete);
+        userDetailsCache.evict(userToDelete.getEmail());
     }
 
     @Override
@@ -115,6 +119,7 @@ public class UserManagementServiceImpl implements UserManagementService {
 
         userToUpdate.setRole(role);
         userEntityRepository.save(userToUpdate);
+        userDetailsCache.evict(userToUpdate.getEmail());
     }
 
     private UserEntity getAuthenticatedUser() {
@@ -1,10 +1,12 @@
 package com.employed.bar.infrastructure.security.user;
 
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.UserEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.repository.UserEntityRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -14,11 +16,42 @@ import lombok.RequiredArgsConstructor;
 public class UsersDetailsServiceImpl implements UserDetailsService {
 	
 	private final UserEntityRepository userEntityRepository;
+	private final UserDetailsCache userDetailsCache;
 	
 	
 
+	/**
+	 * Used by the login (DaoAuthenticationProvider), so it always reads the stored user: a changed
+	 * password or role applies to the next login right away.
+	 */
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		return findUser(username);
+	}
+
+	/**
+	 * Used on every JWT request. Returns an immutable snapshot of the user without its password, cached for
+	 * a short TTL and evicted whenever the user's role, password or existence changes.
+	 */
+	public UserDetails loadTokenUserByUsername(String username) throws UsernameNotFoundException {
+		UserDetails cached = userDetailsCache.get(username);
+		if (cached != null) {
+			return cached;
+		}
+		UserEntity user = findUser(username);
+		UserDetails snapshot = User.withUsername(user.getUsername())
+				.password("")
+				.authorities(user.getAuthorities())
+				.accountExpired(!user.isAccountNonExpired())
+				.accountLocked(!user.isAccountNonLocked())
+				.credentialsExpired(!user.isCredentialsNonExpired())
+				.disabled(!user.isEnabled())
+				.build();
+		userDetailsCache.put(username, snapshot);
+		return snapshot;
+	}
+
+	private UserEntity findUser(String username) {
 		return userEntityRepository.findByEmail(username)
 				.orElseThrow(()-> new UsernameNotFoundException("User with email " + username + " not found"));
 	}
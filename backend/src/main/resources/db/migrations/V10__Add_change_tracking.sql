@@ -0,0 +1,17 @@
+-- Change tracking on the activity tables: updated_at is set on every update.
+ALTER TABLE attendance_records
+    ADD COLUMN updated_at DATETIME(6) NULL;
+
+ALTER TABLE consumption
+    ADD COLUMN updated_at DATETIME(6) NULL;
+
+ALTER TABLE schedule
+    ADD COLUMN updated_at DATETIME(6) NULL;
+
+-- One row per employee, touched by every write that feeds the employee's reports (attendance, consumption,
+-- schedule or the employee itself, deletes included). changed_at is the time of the last such write.
+CREATE TABLE IF NOT EXISTS employee_change_watermark (
+    employee_id BIGINT NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (employee_id)
+);
@@ -0,0 +1,8 @@
+-- Marks become append-only: every change inside a closed period inserts its own row, so concurrent writers
+-- never compete for the same (run, employee) row. The adjustment job reads the latest mark id before the
+-- data it recomputes from and only deletes the marks up to that id, so a change committed while the
+-- adjustment was computed keeps the employee pending.
+ALTER TABLE payroll_pending_adjustment
+    DROP INDEX uk_payroll_pending_run_employee;
+
+CREATE INDEX idx_payroll_pending_run_employee ON payroll_pending_adjustment (payroll_run_id, employee_id);
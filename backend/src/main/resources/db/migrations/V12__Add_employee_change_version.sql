@@ -0,0 +1,12 @@
+-- The watermark becomes a counter bumped in the writing transaction. Cached results store the version
+-- they were computed from, read in the same snapshot as their data, instead of comparing app-clock
+-- timestamps taken before commit.
+ALTER TABLE employee_change_watermark
+    ADD COLUMN change_version BIGINT NOT NULL DEFAULT 1;
+
+-- Every employee has a row from now on (new ones get it when they are created), so writes only ever bump
+-- an existing row and never race each other to insert it.
+INSERT INTO employee_change_watermark (employee_id, changed_at, change_version)
+SELECT e.id, CURRENT_TIMESTAMP(6), 1
+FROM employee e
+WHERE NOT EXISTS (SELECT 1 FROM employee_change_watermark w WHERE w.employee_id = e.id);
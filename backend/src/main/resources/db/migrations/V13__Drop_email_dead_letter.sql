@@ -0,0 +1,3 @@
+-- The weekly report emails go through notification_outbox, which keeps failed rows itself (status FAILED,
+-- last_error), so the dead letter table of the former in-memory dispatch pipeline is no longer written.
+DROP TABLE IF EXISTS email_dead_letter;
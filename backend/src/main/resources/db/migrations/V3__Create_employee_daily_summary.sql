@@ -0,0 +1,18 @@
+-- Daily rollup of attendance and consumption per employee.
+-- Rows are refreshed by the persistence adapters on every write and can be rebuilt for any
+-- date range by the daily summary rebuild job (used for the initial backfill).
+CREATE TABLE IF NOT EXISTS employee_daily_summary (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    employee_id BIGINT NOT NULL,
+    summary_date DATE NOT NULL,
+    worked_minutes BIGINT NOT NULL DEFAULT 0,
+    attendance_count INT NOT NULL DEFAULT 0,
+    late_count INT NOT NULL DEFAULT 0,
+    consumption_total DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    consumption_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_daily_summary_employee_date UNIQUE (employee_id, summary_date)
+);
+
+-- KPI and manager report queries scan a date range across all employees.
+CREATE INDEX idx_daily_summary_date ON employee_daily_summary (summary_date);
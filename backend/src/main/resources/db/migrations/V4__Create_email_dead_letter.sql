@@ -0,0 +1,13 @@
+-- Emails that could not be delivered after every retry of the dispatch pipeline.
+CREATE TABLE IF NOT EXISTS email_dead_letter (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    recipient VARCHAR(255),
+    subject VARCHAR(255),
+    employee_id BIGINT,
+    attempts INT NOT NULL,
+    error_message VARCHAR(1000),
+    failed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_email_dead_letter_failed_at ON email_dead_letter (failed_at);
@@ -0,0 +1,21 @@
+-- Report notifications written in the same transaction as the report, drained later by the outbox relay.
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    idempotency_key VARCHAR(200) NOT NULL,
+    notification_type VARCHAR(40) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body LONGTEXT NOT NULL,
+    attachment LONGBLOB,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    locked_until DATETIME(6),
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_notification_outbox_idempotency_key UNIQUE (idempotency_key)
+);
+
+CREATE INDEX idx_notification_outbox_due ON notification_outbox (status, next_attempt_at);
@@ -0,0 +1,4 @@
+-- Keyset (cursor) pagination over all attendance records orders by (entry_date_time, id).
+-- InnoDB appends the primary key to secondary indexes, so this index also covers the id tie-breaker.
+-- Consumptions already have idx_consumption_date for the same purpose.
+CREATE INDEX idx_attendance_entry_datetime ON attendance_records (entry_date_time);
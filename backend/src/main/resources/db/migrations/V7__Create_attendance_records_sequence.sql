@@ -0,0 +1,11 @@
+-- Pooled id generator for attendance_records. MySQL has no sequences, so Hibernate emulates
+-- attendance_records_seq with a single-row table and reserves 50 ids per read (allocationSize in
+-- AttendanceRecordEntity). Unlike IDENTITY, this lets bulk imports be inserted in JDBC batches.
+CREATE TABLE IF NOT EXISTS attendance_records_seq (
+    next_val BIGINT
+);
+
+-- Seeded past the existing rows: a stored value of N hands out ids N-49..N, so the first new id is MAX(id) + 1.
+-- The 50 must match the allocationSize of the entity.
+INSERT INTO attendance_records_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM attendance_records;
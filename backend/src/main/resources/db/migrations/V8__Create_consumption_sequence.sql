@@ -0,0 +1,9 @@
+-- Pooled id generator for consumption, same scheme as attendance_records_seq (V7): a single-row table
+-- standing in for a sequence on MySQL, 50 ids reserved per read so POS batches are inserted in JDBC batches.
+CREATE TABLE IF NOT EXISTS consumption_seq (
+    next_val BIGINT
+);
+
+-- The 50 must match the allocationSize of ConsumptionEntity; the first new id is MAX(id) + 1.
+INSERT INTO consumption_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM consumption;
@@ -0,0 +1,44 @@
+-- Closed payroll periods. Closing a period stores one REGULAR line per employee; later edits to
+-- attendance or consumption inside the period never rewrite those lines but append ADJUSTMENT lines
+-- holding the difference, so the figures that were paid stay reproducible.
+CREATE TABLE IF NOT EXISTS payroll_run (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    period_start DATE NOT NULL,
+    period_end DATE NOT NULL,
+    closed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payroll_run_period UNIQUE (period_start, period_end)
+);
+
+-- Writes look up the runs whose period contains the day they touched.
+CREATE INDEX idx_payroll_run_period_end ON payroll_run (period_end);
+
+CREATE TABLE IF NOT EXISTS payroll_line (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    payroll_run_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    line_type VARCHAR(20) NOT NULL,
+    total_hours DECIMAL(19, 2) NOT NULL,
+    regular_hours DECIMAL(19, 2) NOT NULL,
+    overtime_hours DECIMAL(19, 2) NOT NULL,
+    earnings DECIMAL(19, 2) NOT NULL,
+    consumptions DECIMAL(19, 2) NOT NULL,
+    net_pay DECIMAL(19, 2) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_payroll_line_run FOREIGN KEY (payroll_run_id) REFERENCES payroll_run (id)
+);
+
+-- Reads sum the lines of one run, per employee.
+CREATE INDEX idx_payroll_line_run_employee ON payroll_line (payroll_run_id, employee_id);
+
+-- Employees whose data changed inside a closed period and still need an ADJUSTMENT line.
+-- marked_at is bumped on every change, so a change made while the adjustment is computed is not lost.
+CREATE TABLE IF NOT EXISTS payroll_pending_adjustment (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    payroll_run_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    marked_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payroll_pending_run_employee UNIQUE (payroll_run_id, employee_id)
+);
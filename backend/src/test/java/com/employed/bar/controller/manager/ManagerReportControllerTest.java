@@ -20,10 +20,16 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -65,6 +71,7 @@ public class ManagerReportControllerTest {
     void whenGenerateManagerWeeklyReport_withValidDates_shouldReturnOk() throws Exception {
         LocalDate startDate = LocalDate.of(2024, 1, 1);
         LocalDate endDate = LocalDate.of(2024, 1, 7);
+        when(managerReportServicePort.generateAndSendManagerReport(eq(startDate), eq(endDate), anyString())).thenReturn(true);
 
         mockMvc.perform(post(ApiPathConstants.V1_ROUTE + ApiPathConstants.REPORT_ROUTE + "/weekly")
                         .header("Authorization", "Bearer " + jwtToken)
@@ -73,7 +80,23 @@ public class ManagerReportControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Manager report generation triggered successfully."));
 
-        verify(managerReportServicePort).generateAndSendManagerReport(startDate, endDate);
+        // Without an Idempotency-Key every trigger gets its own request id, so a period already sent is sent again
+        verify(managerReportServicePort).generateAndSendManagerReport(eq(startDate), eq(endDate), anyString());
+    }
+
+    @Test
+    void whenGenerateManagerWeeklyReport_withAlreadyQueuedIdempotencyKey_shouldReturnConflict() throws Exception {
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 1, 7);
+        when(managerReportServicePort.generateAndSendManagerReport(startDate, endDate, "retry-1")).thenReturn(false);
+
+        mockMvc.perform(post(ApiPathConstants.V1_ROUTE + ApiPathConstants.REPORT_ROUTE + "/weekly")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Idempotency-Key", "retry-1")
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString()))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Manager report already queued for this request."));
     }
 
     @Test
@@ -82,18 +105,38 @@ public class ManagerReportControllerTest {
         LocalDate endDate = LocalDate.of(2024, 1, 7);
         byte[] pdfBytes = "Dummy PDF content".getBytes();
 
-        when(managerReportServicePort.generateManagerReportPdf(startDate, endDate)).thenReturn(pdfBytes);
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write(pdfBytes);
+            return null;
+        }).when(managerReportServicePort).writeManagerReportPdf(eq(startDate), eq(endDate), any(OutputStream.class));
 
-        mockMvc.perform(get(ApiPathConstants.V1_ROUTE + ApiPathConstants.REPORT_ROUTE + "/weekly/pdf")
+        MvcResult result = mockMvc.perform(get(ApiPathConstants.V1_ROUTE + ApiPathConstants.REPORT_ROUTE + "/weekly/pdf")
                         .header("Authorization", "Bearer " + jwtToken)
                         .param("startDate", startDate.toString())
                         .param("endDate", endDate.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PDF_VALUE))
                 .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "form-data; name=\"attachment\"; filename=\"manager-report.pdf\""))
                 .andExpect(content().bytes(pdfBytes));
 
-        verify(managerReportServicePort).generateManagerReportPdf(startDate, endDate);
+        verify(managerReportServicePort).writeManagerReportPdf(eq(startDate), eq(endDate), any(OutputStream.class));
+        verify(managerReportServicePort, never()).generateManagerReportPdf(any(), any());
+    }
+
+    @Test
+    void whenDownloadManagerWeeklyReportPdf_withEndDateBeforeStartDate_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(ApiPathConstants.V1_ROUTE + ApiPathConstants.REPORT_ROUTE + "/weekly/pdf")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("startDate", "2024-01-07")
+                        .param("endDate", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(managerReportServicePort);
     }
 
     @Test
@@ -153,7 +196,7 @@ public class ManagerReportControllerTest {
         LocalDate startDate = LocalDate.of(2024, 1, 1);
         LocalDate endDate = LocalDate.of(2024, 1, 7);
 
-        doThrow(new RuntimeException("Service failure")).when(managerReportServicePort).generateAndSendManagerReport(startDate, endDate);
+        doThrow(new RuntimeException("Service failure")).when(managerReportServicePort).generateAndSendManagerReport(eq(startDate), eq(endDate), anyString());
 
         mockMvc.perform(post(ApiPathConstants.V1_ROUTE + ApiPathConstants.REPORT_ROUTE + "/weekly")
                         .header("Authorization", "Bearer " + jwtToken)
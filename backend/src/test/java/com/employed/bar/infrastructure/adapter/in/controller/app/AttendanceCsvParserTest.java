@@ -0,0 +1,45 @@
+package com.employed.bar.infrastructure.adapter.in.controller.app;
+
+import com.employed.bar.infrastructure.dto.domain.AttendanceDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttendanceCsvParserTest {
+
+    private static List<AttendanceDto> parse(String csv) throws IOException {
+        return AttendanceCsvParser.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldParseRecordsByHeaderName() throws IOException {
+        List<AttendanceDto> records = parse("\uFEFFexit_date_time,employee_id,entry_date_time\r\n"
+                + "2024-05-01T17:00:00,1,2024-05-01T09:00:00\r\n"
+                + "\r\n"
+                + "\"\",\"2\",2024-05-01 22:15:00\r\n");
+
+        assertEquals(2, records.size());
+        assertEquals(1L, records.get(0).getEmployeeId());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 9, 0), records.get(0).getEntryDateTime());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 17, 0), records.get(0).getExitDateTime());
+        assertEquals(2L, records.get(1).getEmployeeId());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 22, 15), records.get(1).getEntryDateTime());
+        assertNull(records.get(1).getExitDateTime());
+    }
+
+    @Test
+    void shouldRejectMissingColumnsAndMalformedValues() {
+        assertThrows(IllegalArgumentException.class, () -> parse("employeeId,exitDateTime\n1,2024-05-01T17:00:00\n"));
+        assertThrows(IllegalArgumentException.class, () -> parse(""));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> parse("employeeId,entryDateTime\n1,2024-05-01T09:00:00\nabc,2024-05-01T09:00:00\n"));
+        assertTrue(exception.getMessage().contains("line 3"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.employed.bar.infrastructure.adapter.in.controller.export;
+
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.employed.bar.infrastructure.adapter.in.controller.export.RowStreamWriter.column;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowStreamWriterTest {
+
+    private static final List<RowStreamWriter.Column<ConsumptionClass>> COLUMNS = List.of(
+            column("id", ConsumptionClass::getId),
+            column("date", ConsumptionClass::getConsumptionDate),
+            column("description", ConsumptionClass::getDescription),
+            column("amount", ConsumptionClass::getAmount));
+
+    private final LocalDateTime date = LocalDateTime.of(2024, 5, 1, 21, 30);
+
+    @Test
+    void shouldWriteCsvWithHeaderAndEscapedValues() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (RowStreamWriter<ConsumptionClass> writer = new RowStreamWriter<>(ExportFormat.CSV, COLUMNS, outputStream)) {
+            writer.write(new ConsumptionClass(1L, date, "Cena, \"especial\"", new BigDecimal("12.50"), null));
+            writer.write(new ConsumptionClass(2L, date, "=SUM(A1:A2)", new BigDecimal("1E+1"), null));
+            writer.write(new ConsumptionClass(3L, null, null, null, null));
+        }
+
+        assertEquals("id,date,description,amount\r\n"
+                        + "1,2024-05-01T21:30:00,\"Cena, \"\"especial\"\"\",12.50\r\n"
+                        + "2,2024-05-01T21:30:00,'=SUM(A1:A2),10\r\n"
+                        + "3,,,\r\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (RowStreamWriter<ConsumptionClass> writer = new RowStreamWriter<>(ExportFormat.NDJSON, COLUMNS, outputStream)) {
+            writer.write(new ConsumptionClass(1L, date, "Cena \"especial\"", new BigDecimal("12.50"), null));
+            writer.write(new ConsumptionClass(2L, null, null, null, null));
+        }
+
+        assertEquals("{\"id\":1,\"date\":\"2024-05-01T21:30:00\",\"description\":\"Cena \\\"especial\\\"\",\"amount\":12.50}\n"
+                        + "{\"id\":2,\"date\":null,\"description\":null,\"amount\":null}\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldLeaveResponseStreamOpen() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        try (RowStreamWriter<ConsumptionClass> writer = new RowStreamWriter<>(ExportFormat.NDJSON, COLUMNS, outputStream)) {
+            writer.write(new ConsumptionClass(1L, date, "Cena", BigDecimal.ONE, null));
+        }
+
+        assertFalse(closed.get());
+        assertTrue(outputStream.size() > 0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.employed.bar.infrastructure.adapter.in.pagination;
+
+import com.employed.bar.infrastructure.dto.response.CursorPageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContinuationTokensTest {
+
+    private static final Set<String> KEYSET = Set.of("entryDateTime", "id");
+
+    @Test
+    void shouldStartFromTheBeginningWithoutToken() {
+        KeysetScrollPosition position = ContinuationTokens.decode(null, KEYSET);
+
+        assertTrue(position.isInitial());
+    }
+
+    @Test
+    void shouldRoundTripKeysetPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("entryDateTime", LocalDateTime.of(2024, 1, 2, 9, 0));
+        keys.put("id", 42L);
+
+        String token = ContinuationTokens.encode(ScrollPosition.forward(keys));
+        KeysetScrollPosition position = ContinuationTokens.decode(token, KEYSET);
+
+        assertEquals(keys, position.getKeys());
+        assertFalse(token.contains("="));
+    }
+
+    @Test
+    void shouldRejectMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> ContinuationTokens.decode("not-a-token", KEYSET));
+        String unknownType = Base64.getUrlEncoder().encodeToString("v1|id:X:1|entryDateTime:L:2".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationTokens.decode(unknownType, KEYSET));
+    }
+
+    @Test
+    void shouldRejectTokenIssuedForAnotherListing() {
+        String employeeToken = ContinuationTokens.encode(ScrollPosition.forward(Map.of("id", 7L)));
+
+        assertThrows(IllegalArgumentException.class, () -> ContinuationTokens.decode(employeeToken, KEYSET));
+    }
+
+    @Test
+    void shouldOnlyIssueTokenWhenThereIsANextPage() {
+        Window<Long> lastPage = Window.from(List.of(1L, 2L), index -> ScrollPosition.forward(Map.of("id", (long) index)));
+        Window<Long> middlePage = Window.from(List.of(1L, 2L), index -> ScrollPosition.forward(Map.of("id", 10L + index)), true);
+
+        CursorPageResponse<Long> last = ContinuationTokens.toResponse(lastPage, Function.identity());
+        CursorPageResponse<Long> middle = ContinuationTokens.toResponse(middlePage, Function.identity());
+
+        assertNull(last.getNextToken());
+        assertFalse(last.isHasNext());
+        assertTrue(middle.isHasNext());
+        assertEquals(Map.of("id", 11L), ContinuationTokens.decode(middle.getNextToken(), Set.of("id")).getKeys());
+    }
+
+    @Test
+    void shouldClampPageSize() {
+        assertEquals(ContinuationTokens.DEFAULT_PAGE_SIZE, ContinuationTokens.pageSize(null));
+        assertEquals(1, ContinuationTokens.pageSize(0));
+        assertEquals(ContinuationTokens.MAX_PAGE_SIZE, ContinuationTokens.pageSize(10_000));
+    }
+}
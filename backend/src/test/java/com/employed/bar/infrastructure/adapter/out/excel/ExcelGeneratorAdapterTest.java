@@ -0,0 +1,117 @@
+package com.employed.bar.infrastructure.adapter.out.excel;
+
+import com.employed.bar.domain.enums.AttendanceStatus;
+import com.employed.bar.domain.model.manager.EmployeeSummary;
+import com.employed.bar.domain.model.manager.ManagerReport;
+import com.employed.bar.domain.model.manager.ReportTotals;
+import com.employed.bar.domain.model.payment.YappyPaymentMethod;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.out.SpreadsheetGeneratorPort;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelGeneratorAdapterTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2024, 12, 31);
+
+    private ExcelGeneratorAdapter excelGeneratorAdapter;
+    private EmployeeClass employee;
+
+    @BeforeEach
+    void setUp() {
+        // Small row window so the test actually flushes rows to the temporary file
+        excelGeneratorAdapter = new ExcelGeneratorAdapter(10, true);
+        employee = new EmployeeClass();
+        employee.setId(7L);
+        employee.setName("John Doe");
+    }
+
+    @Test
+    void shouldWriteManagerReportWorkbookWithTotalsRow() throws IOException {
+        ReportTotals totals = new ReportTotals(BigDecimal.valueOf(40), BigDecimal.valueOf(5), BigDecimal.valueOf(500),
+                BigDecimal.valueOf(50), BigDecimal.valueOf(450));
+        EmployeeSummary summary = new EmployeeSummary("John Doe", BigDecimal.valueOf(45), BigDecimal.valueOf(500),
+                BigDecimal.valueOf(50), BigDecimal.valueOf(450), new YappyPaymentMethod("6666-7777"));
+        ManagerReport report = new ManagerReport(Collections.singletonList(summary), totals);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        excelGeneratorAdapter.writeManagerReportWorkbook(report, START_DATE, END_DATE, outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("Empleado", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("John Doe", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(450.0, sheet.getRow(1).getCell(4).getNumericCellValue());
+            assertEquals("YAPPY", sheet.getRow(1).getCell(5).getStringCellValue());
+            assertEquals("TOTAL", sheet.getRow(2).getCell(0).getStringCellValue());
+            assertEquals(45.0, sheet.getRow(2).getCell(1).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void shouldStreamActivityRowsIntoSeparateSheets() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LocalDateTime entry = LocalDateTime.of(2024, 3, 1, 18, 0);
+        int rows = 5000;
+
+        try (SpreadsheetGeneratorPort.ActivityWorkbook workbook = excelGeneratorAdapter.openActivityWorkbook(START_DATE, END_DATE, outputStream)) {
+            for (int i = 0; i < rows; i++) {
+                workbook.addAttendance(new AttendanceRecordClass((long) i, employee, entry, entry.plusHours(8).plusMinutes(30), AttendanceStatus.PRESENT));
+            }
+            ConsumptionClass consumption = new ConsumptionClass(99L, entry, "Cena", new BigDecimal("12.50"), employee);
+            workbook.addConsumption(consumption);
+            workbook.finish();
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet attendance = workbook.getSheet("Asistencias");
+            assertEquals(rows, attendance.getLastRowNum());
+            Row last = attendance.getRow(rows);
+            assertEquals(rows - 1, (int) last.getCell(0).getNumericCellValue());
+            assertEquals(7.0, last.getCell(1).getNumericCellValue());
+            assertEquals(entry, last.getCell(3).getLocalDateTimeCellValue());
+            assertEquals(8.5, last.getCell(5).getNumericCellValue());
+            assertEquals("PRESENT", last.getCell(6).getStringCellValue());
+
+            Sheet consumptions = workbook.getSheet("Consumos");
+            assertEquals(1, consumptions.getLastRowNum());
+            assertEquals("Cena", consumptions.getRow(1).getCell(4).getStringCellValue());
+            assertEquals(12.5, consumptions.getRow(1).getCell(5).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void shouldLeaveCallerStreamOpen() {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        try (SpreadsheetGeneratorPort.ActivityWorkbook workbook = excelGeneratorAdapter.openActivityWorkbook(START_DATE, END_DATE, outputStream)) {
+            workbook.finish();
+        }
+
+        assertFalse(closed.get());
+        assertTrue(outputStream.size() > 0);
+    }
+}
@@ -0,0 +1,187 @@
+package com.employed.bar.infrastructure.adapter.out.notification;
+
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity.NotificationType;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity.Status;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringNotificationOutboxJpaRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxRelayTest {
+
+    @Mock
+    private SpringNotificationOutboxJpaRepository outboxRepository;
+    @Mock
+    private EmailAdapter emailAdapter;
+    @Mock
+    private JavaMailSender mailSender;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Session session = Session.getInstance(new Properties());
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() throws MessagingException {
+        MockitoAnnotations.openMocks(this);
+        when(emailAdapter.buildRenderedMessage(anyString(), anyString(), anyString(), any(), anyString()))
+                .thenAnswer(invocation -> {
+                    // The idempotency key is used as subject so a test can tell the messages of a batch apart
+                    MimeMessage message = new MimeMessage(session);
+                    message.setSubject(invocation.getArgument(4));
+                    return message;
+                });
+        relay = new NotificationOutboxRelay(outboxRepository, emailAdapter, mailSender, transactionManager,
+                20, 3, Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofDays(30));
+    }
+
+    @Test
+    void relayPending_SendsClaimedRowsInOneBatchAndMarksThemSent() {
+        NotificationOutboxEntity first = row(1L, 0);
+        NotificationOutboxEntity second = row(2L, 0);
+        givenDueRows(first, second);
+
+        int delivered = relay.relayPending();
+
+        assertEquals(2, delivered);
+        verify(mailSender).send(any(MimeMessage[].class));
+        assertEquals(Status.SENT, first.getStatus());
+        assertEquals(Status.SENT, second.getStatus());
+        assertEquals(1, first.getAttempts());
+        assertNotNull(first.getSentAt());
+        assertNull(first.getLockedUntil());
+        verify(outboxRepository).saveAll(List.of(first, second));
+    }
+
+    @Test
+    void relayPending_SkipsRowsClaimedByAnotherNode() {
+        NotificationOutboxEntity mine = row(1L, 0);
+        when(outboxRepository.findDueIds(eq(Status.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        when(outboxRepository.claim(eq(1L), eq(Status.PENDING), any(), any())).thenReturn(1);
+        when(outboxRepository.claim(eq(2L), eq(Status.PENDING), any(), any())).thenReturn(0);
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(mine));
+
+        assertEquals(1, relay.relayPending());
+        verify(outboxRepository, never()).findAllById(List.of(1L, 2L));
+    }
+
+    @Test
+    void relayPending_ReschedulesOnlyTheMessagesThatFailed() {
+        NotificationOutboxEntity delivered = row(1L, 0);
+        NotificationOutboxEntity rejected = row(2L, 0);
+        givenDueRows(delivered, rejected);
+        doAnswer(invocation -> {
+            MimeMessage failedMessage = Arrays.stream(sentBatch(invocation))
+                    .filter(message -> isFor(message, rejected))
+                    .findFirst().orElseThrow();
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            failed.put(failedMessage, new MessagingException("mailbox unavailable"));
+            throw new MailSendException(failed);
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(1, relay.relayPending());
+
+        assertEquals(Status.SENT, delivered.getStatus());
+        assertEquals(Status.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertEquals("mailbox unavailable", rejected.getLastError());
+        assertTrue(rejected.getNextAttemptAt().isAfter(before.plusSeconds(59)));
+    }
+
+    @Test
+    void relayPending_GivesUpAfterMaxAttempts() {
+        NotificationOutboxEntity row = row(1L, 2);
+        givenDueRows(row);
+        doThrow(new MailAuthenticationException("bad credentials")).when(mailSender).send(any(MimeMessage[].class));
+
+        assertEquals(0, relay.relayPending());
+
+        assertEquals(Status.FAILED, row.getStatus());
+        assertEquals(3, row.getAttempts());
+        assertEquals("bad credentials", row.getLastError());
+    }
+
+    @Test
+    void purgeSent_DeletesSentRowsOlderThanRetention() {
+        when(outboxRepository.deleteByStatusAndSentAtBefore(eq(Status.SENT), any(LocalDateTime.class))).thenReturn(4);
+
+        assertEquals(4, relay.purgeSent());
+    }
+
+    private void givenDueRows(NotificationOutboxEntity... rows) {
+        List<Long> ids = Arrays.stream(rows).map(NotificationOutboxEntity::getId).toList();
+        when(outboxRepository.findDueIds(eq(Status.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(ids)
+                .thenReturn(List.of());
+        when(outboxRepository.claim(anyLong(), eq(Status.PENDING), any(), any())).thenReturn(1);
+        when(outboxRepository.findAllById(ids)).thenReturn(Arrays.asList(rows));
+    }
+
+    private NotificationOutboxEntity row(Long id, int attempts) {
+        return NotificationOutboxEntity.builder()
+                .id(id)
+                .idempotencyKey("employee-report:" + id + ":2024-01-01:2024-01-07")
+                .notificationType(NotificationType.EMPLOYEE_REPORT)
+                .recipient("employee" + id + "@bar.com")
+                .subject(EmailAdapter.REPORT_SUBJECT)
+                .body("<html></html>")
+                .status(Status.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusMinutes(1))
+                .lockedUntil(LocalDateTime.now().plusMinutes(5))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private boolean isFor(MimeMessage message, NotificationOutboxEntity row) {
+        try {
+            return row.getIdempotencyKey().equals(message.getSubject());
+        } catch (MessagingException e) {
+            return false;
+        }
+    }
+
+    private MimeMessage[] sentBatch(InvocationOnMock invocation) {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length == 1 && arguments[0] instanceof MimeMessage[] array) {
+            return array;
+        }
+        return Arrays.stream(arguments).toArray(MimeMessage[]::new);
+    }
+}
@@ -0,0 +1,78 @@
+package com.employed.bar.infrastructure.adapter.out.notification;
+
+import com.employed.bar.domain.model.report.Report;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.NotificationOutboxEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringNotificationOutboxJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxNotificationAdapterTest {
+
+    @Mock
+    private SpringNotificationOutboxJpaRepository outboxRepository;
+    @Mock
+    private EmailAdapter emailAdapter;
+
+    private OutboxNotificationAdapter adapter;
+    private EmployeeClass employee;
+    private final LocalDate startDate = LocalDate.of(2024, 1, 1);
+    private final LocalDate endDate = LocalDate.of(2024, 1, 7);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        adapter = new OutboxNotificationAdapter(outboxRepository, emailAdapter);
+        employee = new EmployeeClass();
+        employee.setId(1L);
+        employee.setEmail("employee@bar.com");
+        when(emailAdapter.renderReportBody(any(), any())).thenReturn("body");
+    }
+
+    @Test
+    void enqueueEmployeeReport_InsertsANewRow() {
+        when(outboxRepository.existsByIdempotencyKey(anyString())).thenReturn(false);
+
+        assertTrue(adapter.enqueueEmployeeReport(employee, new Report(), startDate, endDate));
+        verify(outboxRepository).save(any(NotificationOutboxEntity.class));
+    }
+
+    @Test
+    void enqueueEmployeeReport_TreatsAConcurrentInsertOfTheSameKeyAsAlreadyQueued() {
+        // Another node inserted the row between the existence check and this insert
+        when(outboxRepository.existsByIdempotencyKey(anyString())).thenReturn(false);
+        when(outboxRepository.save(any(NotificationOutboxEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_notification_outbox_idempotency_key"));
+
+        assertFalse(adapter.enqueueEmployeeReport(employee, new Report(), startDate, endDate));
+    }
+
+    @Test
+    void enqueueManagerReport_KeysAManualTriggerByItsRequestId() {
+        when(outboxRepository.existsByIdempotencyKey(anyString())).thenReturn(false);
+        when(emailAdapter.renderManagerReportBody(any(), any(), any())).thenReturn("body");
+
+        adapter.enqueueManagerReport("manager@bar.com", null, new byte[0], startDate, endDate, null);
+        adapter.enqueueManagerReport("manager@bar.com", null, new byte[0], startDate, endDate, "request-1");
+
+        ArgumentCaptor<NotificationOutboxEntity> rows = ArgumentCaptor.forClass(NotificationOutboxEntity.class);
+        verify(outboxRepository, times(2)).save(rows.capture());
+        assertEquals("manager-report:2024-01-01:2024-01-07", rows.getAllValues().get(0).getIdempotencyKey());
+        assertEquals("manager-report:2024-01-01:2024-01-07:request-1", rows.getAllValues().get(1).getIdempotencyKey());
+    }
+}
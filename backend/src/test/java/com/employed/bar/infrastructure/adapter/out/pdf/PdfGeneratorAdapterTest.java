@@ -8,13 +8,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
 import java.time.LocalDate;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,4 +92,70 @@ class PdfGeneratorAdapterTest {
             fail("PDF generation failed with an exception: " + e.getMessage(), e);
         }
     }
+
+    @Test
+    void shouldStreamLargeReportIntoOutputStreamWithoutClosingIt() throws IOException {
+        // Arrange: a 5,000 row report, written through the large table mode
+        List<EmployeeSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            summaries.add(new EmployeeSummary(
+                    "Employee " + i,
+                    BigDecimal.valueOf(40),
+                    BigDecimal.valueOf(400),
+                    BigDecimal.valueOf(10),
+                    BigDecimal.valueOf(390),
+                    new com.employed.bar.domain.model.payment.YappyPaymentMethod("6666-7777")
+            ));
+        }
+        ReportTotals totals = new ReportTotals(BigDecimal.valueOf(200000), BigDecimal.ZERO,
+                BigDecimal.valueOf(2000000), BigDecimal.valueOf(50000), BigDecimal.valueOf(1950000));
+        ManagerReport report = new ManagerReport(summaries, totals);
+
+        AtomicBoolean closed = new AtomicBoolean(false);
+        ByteArrayOutputStream pdfOut = new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        // Act
+        pdfGeneratorAdapter.writeManagerReportPdf(report, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 7), pdfOut);
+
+        // Assert: every row made it in, the header repeats on the last page and the stream stays open for the caller
+        assertFalse(closed.get());
+        PdfReader reader = new PdfReader(pdfOut.toByteArray());
+        try {
+            int pages = reader.getNumberOfPages();
+            assertTrue(pages > 10);
+            String lastPage = PdfTextExtractor.getTextFromPage(reader, pages);
+            assertTrue(lastPage.contains("Employee 4999"));
+            assertTrue(lastPage.contains("NOMBRE"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void shouldProduceSameDocumentAsByteArrayVariant() throws IOException {
+        ReportTotals totals = new ReportTotals(BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.valueOf(9));
+        EmployeeSummary summary = new EmployeeSummary("Jane Doe", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE,
+                BigDecimal.valueOf(9), new com.employed.bar.domain.model.payment.YappyPaymentMethod("6666-7777"));
+        ManagerReport report = new ManagerReport(Collections.singletonList(summary), totals);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        pdfGeneratorAdapter.writeManagerReportPdf(report, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 7), streamed);
+        byte[] buffered = pdfGeneratorAdapter.generateManagerReportPdf(report, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 7));
+
+        PdfReader streamedReader = new PdfReader(streamed.toByteArray());
+        PdfReader bufferedReader = new PdfReader(buffered);
+        try {
+            assertEquals(bufferedReader.getNumberOfPages(), streamedReader.getNumberOfPages());
+            assertEquals(PdfTextExtractor.getTextFromPage(bufferedReader, 1), PdfTextExtractor.getTextFromPage(streamedReader, 1));
+        } finally {
+            streamedReader.close();
+            bufferedReader.close();
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.enums.AttendanceStatus;
+import com.employed.bar.domain.enums.EmployeeRole;
+import com.employed.bar.domain.enums.EmployeeStatus;
+import com.employed.bar.domain.model.kpi.EmployeeActivityTotals;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeDailySummaryEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.AttendanceMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.repository.SpringEmployeeDailySummaryJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({DailySummaryPersistenceAdapter.class, AttendancePersistenceAdapter.class, EmployeePersistenceAdapter.class,
+        PayrollRunPersistenceAdapter.class, EmployeeChangeWatermarkPersistenceAdapter.class, KpiAggregationPersistenceAdapter.class,
+        AttendanceMapperImpl.class, EmployeeMapperImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+// Every adapter call commits on its own, as it does in the application
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailySummaryPersistenceAdapterTest {
+
+    @Autowired
+    private AttendancePersistenceAdapter attendanceAdapter;
+
+    @Autowired
+    private EmployeePersistenceAdapter employeeAdapter;
+
+    @Autowired
+    private SpringEmployeeDailySummaryJpaRepository dailySummaryJpaRepository;
+
+    @Autowired
+    private DailySummaryPersistenceAdapter dailySummaryAdapter;
+
+    @Autowired
+    private KpiAggregationPersistenceAdapter kpiAggregationAdapter;
+
+    private EmployeeClass employee;
+    private EmployeeClass otherEmployee;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeAdapter.save(newEmployee());
+        otherEmployee = employeeAdapter.save(newEmployee());
+    }
+
+    @Test
+    void saveAllRefreshesTheOldAndNewDayOfAMovedRecord() {
+        LocalDateTime firstDay = LocalDateTime.of(2033, 4, 4, 9, 0);
+        AttendanceRecordClass record = attendanceAdapter.saveAll(List.of(
+                new AttendanceRecordClass(null, employee, firstDay, firstDay.plusHours(8), AttendanceStatus.PRESENT))).get(0);
+        assertEquals(480, summary(employee, firstDay.toLocalDate()).getWorkedMinutes());
+
+        LocalDateTime nextDay = firstDay.plusDays(1);
+        record.setEntryDateTime(nextDay);
+        record.setExitDateTime(nextDay.plusHours(6));
+        attendanceAdapter.saveAll(List.of(record));
+
+        assertTrue(dailySummaryJpaRepository.findByEmployeeIdAndSummaryDate(employee.getId(), firstDay.toLocalDate()).isEmpty());
+        assertEquals(360, summary(employee, nextDay.toLocalDate()).getWorkedMinutes());
+    }
+
+    @Test
+    void saveAllOnlyRecomputesTheEmployeesItTouched() {
+        LocalDate day = LocalDate.of(2033, 4, 6);
+        // A row the import has nothing to do with; recomputing it would drop it, since it has no raw data
+        EmployeeDailySummaryEntity untouched = new EmployeeDailySummaryEntity(otherEmployee.getId(), day);
+        untouched.setWorkedMinutes(60);
+        untouched.setAttendanceCount(1);
+        dailySummaryJpaRepository.save(untouched);
+
+        LocalDateTime entry = day.atTime(9, 0);
+        attendanceAdapter.saveAll(List.of(new AttendanceRecordClass(null, employee, entry, entry.plusHours(8), AttendanceStatus.LATE)));
+
+        EmployeeDailySummaryEntity refreshed = summary(employee, day);
+        assertEquals(480, refreshed.getWorkedMinutes());
+        assertEquals(1, refreshed.getLateCount());
+        assertEquals(60, summary(otherEmployee, day).getWorkedMinutes());
+    }
+
+    @Test
+    void rollupAndRawTotalsCountTheSameMinutesOfAShiftCrossingTheRange() {
+        LocalDateTime entry = LocalDateTime.of(2033, 4, 9, 22, 0);
+        attendanceAdapter.save(new AttendanceRecordClass(null, employee, entry, entry.plusHours(8), AttendanceStatus.PRESENT));
+        LocalDate lastDayBefore = entry.toLocalDate();
+        LocalDate firstDayAfter = lastDayBefore.plusDays(1);
+
+        assertEquals(120, workedMinutesFromRollup(lastDayBefore.minusDays(2), lastDayBefore));
+        assertEquals(120, workedMinutesFromRawData(lastDayBefore.minusDays(2), lastDayBefore));
+        assertEquals(360, workedMinutesFromRollup(firstDayAfter, firstDayAfter.plusDays(2)));
+        assertEquals(360, workedMinutesFromRawData(firstDayAfter, firstDayAfter.plusDays(2)));
+        assertEquals(1, summary(employee, lastDayBefore).getAttendanceCount());
+        assertEquals(0, summary(employee, firstDayAfter).getAttendanceCount());
+    }
+
+    private long workedMinutesFromRollup(LocalDate startDate, LocalDate endDate) {
+        return dailySummaryAdapter.findActivityTotalsByEmployeeIds(List.of(employee.getId()), startDate, endDate).stream()
+                .mapToLong(EmployeeActivityTotals::getTotalWorkedMinutes).sum();
+    }
+
+    // As the KPI service asks for it, with the rollup reads switched off
+    private long workedMinutesFromRawData(LocalDate startDate, LocalDate endDate) {
+        return kpiAggregationAdapter.findActivityTotalsByEmployeeIds(List.of(employee.getId()), startDate.atStartOfDay(), endDate.atTime(23, 59, 59)).stream()
+                .mapToLong(EmployeeActivityTotals::getTotalWorkedMinutes).sum();
+    }
+
+    private EmployeeDailySummaryEntity summary(EmployeeClass employee, LocalDate date) {
+        return dailySummaryJpaRepository.findByEmployeeIdAndSummaryDate(employee.getId(), date).orElseThrow();
+    }
+
+    private EmployeeClass newEmployee() {
+        EmployeeClass newEmployee = new EmployeeClass();
+        newEmployee.setName("Rollup Employee");
+        newEmployee.setEmail("rollup-" + System.nanoTime() + "@bar.com");
+        newEmployee.setContactPhone(String.valueOf(System.nanoTime()));
+        newEmployee.setRole(EmployeeRole.WAITER);
+        newEmployee.setHourlyRate(new BigDecimal("5.00"));
+        newEmployee.setSalary(BigDecimal.ZERO);
+        newEmployee.setStatus(EmployeeStatus.ACTIVE);
+        return newEmployee;
+    }
+}
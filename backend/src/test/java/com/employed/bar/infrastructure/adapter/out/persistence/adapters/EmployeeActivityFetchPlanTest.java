@@ -0,0 +1,199 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.enums.AttendanceStatus;
+import com.employed.bar.domain.enums.EmployeeRole;
+import com.employed.bar.domain.enums.EmployeeStatus;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.model.structure.ScheduleClass;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.AttendanceMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.ConsumptionMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.ScheduleMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({AttendancePersistenceAdapter.class, ConsumptionPersistenceAdapterPort.class, SchedulePersistenceAdapter.class,
+        EmployeePersistenceAdapter.class, DailySummaryPersistenceAdapter.class, PayrollRunPersistenceAdapter.class, EmployeeChangeWatermarkPersistenceAdapter.class,
+        AttendanceMapperImpl.class, ConsumptionMapperImpl.class, ScheduleMapperImpl.class, EmployeeMapperImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+// Every adapter call runs in its own session, so a lazy employee that was not fetched would fail while mapping
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeActivityFetchPlanTest {
+
+    private static final AtomicInteger DAY_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private AttendancePersistenceAdapter attendanceAdapter;
+
+    @Autowired
+    private ConsumptionPersistenceAdapterPort consumptionAdapter;
+
+    @Autowired
+    private SchedulePersistenceAdapter scheduleAdapter;
+
+    @Autowired
+    private EmployeePersistenceAdapter employeeAdapter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private EmployeeClass waiter;
+    private EmployeeClass bartender;
+    private LocalDateTime dayStart;
+    private LocalDateTime dayEnd;
+    private AttendanceRecordClass attendance;
+    private ConsumptionClass consumption;
+    private ScheduleClass schedule;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Each test gets its own day, so the range queries only see the rows created here
+        dayStart = LocalDate.of(2030, 1, 1).plusDays(DAY_OFFSET.getAndIncrement()).atStartOfDay();
+        dayEnd = dayStart.plusDays(1);
+
+        waiter = employeeAdapter.save(newEmployee("Waiter", EmployeeRole.WAITER));
+        bartender = employeeAdapter.save(newEmployee("Bartender", EmployeeRole.BARTENDER));
+        for (EmployeeClass employee : List.of(waiter, bartender)) {
+            for (int hour : new int[]{9, 15}) {
+                attendance = attendanceAdapter.save(new AttendanceRecordClass(null, employee,
+                        dayStart.plusHours(hour), dayStart.plusHours(hour + 4), AttendanceStatus.PRESENT));
+                consumption = consumptionAdapter.save(new ConsumptionClass(null, dayStart.plusHours(hour + 1),
+                        "Soda", new BigDecimal("1.50"), employee));
+                schedule = scheduleAdapter.save(new ScheduleClass(null, dayStart.plusHours(hour), dayStart.plusHours(hour + 4), employee));
+            }
+        }
+        statistics.clear();
+    }
+
+    @Test
+    void attendanceFindByIdFetchesItsEmployeeInOneQuery() {
+        AttendanceRecordClass found = singleQuery(() -> attendanceAdapter.findById(attendance.getId())).orElseThrow();
+
+        assertEquals("Bartender", found.getEmployee().getName());
+    }
+
+    @Test
+    void attendanceQueriesForOneEmployeeReuseTheCallersEmployee() {
+        List<AttendanceRecordClass> byEmployee = singleQuery(() -> attendanceAdapter.findByEmployee(waiter));
+        List<AttendanceRecordClass> inRange = singleQuery(() -> attendanceAdapter.findByEmployeeAndDateRange(waiter, dayStart, dayEnd));
+        AttendanceRecordClass latest = singleQuery(() -> attendanceAdapter.findTopByEmployeeOrderByEntryDateTimeDesc(waiter)).orElseThrow();
+
+        assertEquals(2, byEmployee.size());
+        assertEquals(2, inRange.size());
+        assertSame(waiter, latest.getEmployee());
+        assertTrue(inRange.stream().allMatch(record -> record.getEmployee() == waiter));
+    }
+
+    @Test
+    void attendanceQueriesAcrossEmployeesFetchEveryEmployeeInOneQuery() {
+        List<AttendanceRecordClass> inRange = singleQuery(() -> attendanceAdapter.findByDateRange(dayStart, dayEnd));
+        Window<AttendanceRecordClass> page = singleQuery(() -> attendanceAdapter.scrollByDateRange(null, dayStart, dayEnd,
+                ScrollPosition.keyset(), 10));
+
+        assertEquals(4, inRange.size());
+        assertEquals(4, page.size());
+        assertEquals(2, inRange.stream().map(record -> record.getEmployee().getName()).distinct().count());
+    }
+
+    @Test
+    void consumptionFindByIdAndFindAllFetchTheirEmployeesInOneQuery() {
+        ConsumptionClass found = singleQuery(() -> consumptionAdapter.findById(consumption.getId())).orElseThrow();
+        List<ConsumptionClass> all = singleQuery(() -> consumptionAdapter.findAll());
+
+        assertEquals("Bartender", found.getEmployee().getName());
+        assertTrue(all.stream().allMatch(c -> c.getEmployee().getName() != null));
+    }
+
+    @Test
+    void consumptionRangeQueriesRunAsOneQuery() {
+        List<ConsumptionClass> forWaiter = singleQuery(() -> consumptionAdapter.findByEmployeeAndDateTimeBetween(waiter, dayStart, dayEnd, null));
+        List<ConsumptionClass> forEveryone = singleQuery(() -> consumptionAdapter.findByDateTimeBetween(dayStart, dayEnd));
+        Window<ConsumptionClass> page = singleQuery(() -> consumptionAdapter.scrollByDateRange(null, dayStart, dayEnd,
+                ScrollPosition.keyset(), 10));
+
+        assertEquals(2, forWaiter.size());
+        assertTrue(forWaiter.stream().allMatch(c -> c.getEmployee() == waiter));
+        assertEquals(2, forEveryone.stream().map(c -> c.getEmployee().getName()).distinct().count());
+        assertEquals(4, page.size());
+    }
+
+    @Test
+    void scheduleFindByIdFetchesItsEmployeeInOneQuery() {
+        ScheduleClass found = singleQuery(() -> scheduleAdapter.findById(schedule.getId())).orElseThrow();
+
+        assertEquals("Bartender", found.getEmployee().getName());
+    }
+
+    @Test
+    void scheduleQueriesRunAsOneQuery() {
+        List<ScheduleClass> byEmployee = singleQuery(() -> scheduleAdapter.findByEmployee(waiter));
+        List<ScheduleClass> byEmployeeAndDate = singleQuery(() -> scheduleAdapter.findByEmployeeAndDate(waiter, dayStart, dayEnd));
+        List<ScheduleClass> byEmployeeIds = singleQuery(() -> scheduleAdapter.findByEmployeeIdsAndDate(
+                List.of(waiter.getId(), bartender.getId()), dayStart, dayEnd));
+        List<ScheduleClass> byDateRange = singleQuery(() -> scheduleAdapter.findByDateRange(dayStart, dayEnd));
+
+        assertEquals(2, byEmployee.size());
+        assertTrue(byEmployeeAndDate.stream().allMatch(s -> s.getEmployee() == waiter));
+        assertEquals(2, byEmployeeIds.stream().map(s -> s.getEmployee().getName()).distinct().count());
+        assertEquals(4, byDateRange.size());
+    }
+
+    @Test
+    void updatingAScheduleDoesNotLoadItsEmployee() {
+        schedule.setEndTime(schedule.getEndTime().plusHours(1));
+
+        ScheduleClass updated = scheduleAdapter.save(schedule);
+
+        assertEquals("Bartender", updated.getEmployee().getName());
+        assertEquals(0, statistics.getEntityStatistics(EmployeeEntity.class.getName()).getLoadCount());
+    }
+
+    private <T> T singleQuery(Supplier<T> query) {
+        long before = statistics.getPrepareStatementCount();
+        T result = query.get();
+        assertEquals(1, statistics.getPrepareStatementCount() - before);
+        return result;
+    }
+
+    private EmployeeClass newEmployee(String name, EmployeeRole role) {
+        EmployeeClass employee = new EmployeeClass();
+        employee.setName(name);
+        employee.setEmail(name.toLowerCase() + "-" + System.nanoTime() + "@bar.com");
+        employee.setContactPhone(String.valueOf(System.nanoTime()));
+        employee.setRole(role);
+        employee.setHourlyRate(new BigDecimal("5.00"));
+        employee.setSalary(BigDecimal.ZERO);
+        employee.setStatus(EmployeeStatus.ACTIVE);
+        return employee;
+    }
+}
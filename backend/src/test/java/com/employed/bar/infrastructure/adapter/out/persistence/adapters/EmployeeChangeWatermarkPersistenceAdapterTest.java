@@ -0,0 +1,127 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.enums.AttendanceStatus;
+import com.employed.bar.domain.enums.EmployeeRole;
+import com.employed.bar.domain.enums.EmployeeStatus;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.model.structure.ScheduleClass;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.AttendanceMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.ScheduleMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({EmployeeChangeWatermarkPersistenceAdapter.class, AttendancePersistenceAdapter.class, SchedulePersistenceAdapter.class,
+        EmployeePersistenceAdapter.class, DailySummaryPersistenceAdapter.class, PayrollRunPersistenceAdapter.class,
+        AttendanceMapperImpl.class, ScheduleMapperImpl.class, EmployeeMapperImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+// Every adapter call commits on its own, as it does in the application
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeChangeWatermarkPersistenceAdapterTest {
+
+    @Autowired
+    private EmployeeChangeWatermarkPersistenceAdapter watermarkAdapter;
+
+    @Autowired
+    private AttendancePersistenceAdapter attendanceAdapter;
+
+    @Autowired
+    private SchedulePersistenceAdapter scheduleAdapter;
+
+    @Autowired
+    private EmployeePersistenceAdapter employeeAdapter;
+
+    private EmployeeClass employee;
+    private EmployeeClass otherEmployee;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeAdapter.save(newEmployee());
+        otherEmployee = employeeAdapter.save(newEmployee());
+    }
+
+    @Test
+    void attendanceWritesBumpOnlyTheirEmployeesVersion() {
+        long otherBefore = version(otherEmployee);
+        LocalDateTime entry = LocalDateTime.of(2032, 3, 1, 9, 0);
+
+        long before = version(employee);
+        AttendanceRecordClass record = attendanceAdapter.save(new AttendanceRecordClass(null, employee, entry, entry.plusHours(8), AttendanceStatus.PRESENT));
+        long afterInsert = version(employee);
+        record.setExitDateTime(entry.plusHours(9));
+        attendanceAdapter.save(record);
+
+        assertTrue(afterInsert > before);
+        assertTrue(version(employee) > afterInsert);
+        assertEquals(otherBefore, version(otherEmployee));
+    }
+
+    @Test
+    void repeatedUpdatesOfAStoredRowBumpTheVersionEachTime() {
+        LocalDateTime entry = LocalDateTime.of(2032, 3, 2, 9, 0);
+        AttendanceRecordClass record = attendanceAdapter.save(new AttendanceRecordClass(null, employee, entry, entry.plusHours(8), AttendanceStatus.PRESENT));
+        long afterInsert = version(employee);
+
+        record.setStatus(AttendanceStatus.LATE);
+        attendanceAdapter.save(record);
+        long afterSave = version(employee);
+        record.setStatus(AttendanceStatus.PRESENT);
+        attendanceAdapter.saveAll(List.of(record));
+
+        assertEquals(AttendanceStatus.PRESENT, attendanceAdapter.findById(record.getId()).orElseThrow().getStatus());
+        assertTrue(afterSave > afterInsert);
+        assertTrue(version(employee) > afterSave);
+    }
+
+    @Test
+    void deletingAScheduleBumpsItsEmployeesVersion() {
+        LocalDateTime start = LocalDateTime.of(2032, 3, 3, 9, 0);
+        ScheduleClass schedule = scheduleAdapter.save(new ScheduleClass(null, start, start.plusHours(8), otherEmployee));
+        long afterSave = version(otherEmployee);
+
+        scheduleAdapter.deleteById(schedule.getId());
+
+        assertTrue(version(otherEmployee) > afterSave);
+        assertTrue(scheduleAdapter.findById(schedule.getId()).isEmpty());
+    }
+
+    @Test
+    void unknownEmployeesHaveNoVersion() {
+        assertTrue(watermarkAdapter.findVersions(List.of(-1L)).isEmpty());
+    }
+
+    private long version(EmployeeClass employee) {
+        Long version = watermarkAdapter.findVersions(List.of(employee.getId())).get(employee.getId());
+        assertNotNull(version);
+        return version;
+    }
+
+    private EmployeeClass newEmployee() {
+        EmployeeClass newEmployee = new EmployeeClass();
+        newEmployee.setName("Watermark Employee");
+        newEmployee.setEmail("watermark-" + System.nanoTime() + "@bar.com");
+        newEmployee.setContactPhone(String.valueOf(System.nanoTime()));
+        newEmployee.setRole(EmployeeRole.WAITER);
+        newEmployee.setHourlyRate(new BigDecimal("5.00"));
+        newEmployee.setSalary(BigDecimal.ZERO);
+        newEmployee.setStatus(EmployeeStatus.ACTIVE);
+        return newEmployee;
+    }
+}
@@ -0,0 +1,122 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.enums.EmployeeRole;
+import com.employed.bar.domain.enums.EmployeeStatus;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.infrastructure.adapter.out.persistence.entity.EmployeeEntity;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({EmployeePersistenceAdapter.class, EmployeeChangeWatermarkPersistenceAdapter.class, EmployeeMapperImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+// Every adapter call runs in its own session, as it does in the application
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeePersistenceAdapterCacheTest {
+
+    @Autowired
+    private EmployeePersistenceAdapter employeePersistenceAdapter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private EmployeeClass employee;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        employee = employeePersistenceAdapter.save(newEmployee("cache-" + System.nanoTime() + "@bar.com"));
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedFindByIdFromSecondLevelCache() {
+        // IDENTITY inserts are not cached, so the first read loads the row
+        employeePersistenceAdapter.findById(employee.getId());
+        statistics.clear();
+
+        employeePersistenceAdapter.findById(employee.getId());
+        employeePersistenceAdapter.findById(employee.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(EmployeeEntity.CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void shouldSeeChangesSavedThroughTheAdapter() {
+        employeePersistenceAdapter.findById(employee.getId());
+
+        employee.setName("Renamed");
+        employee.setStatus(EmployeeStatus.INACTIVE);
+        employeePersistenceAdapter.save(employee);
+        statistics.clear();
+
+        EmployeeClass reloaded = employeePersistenceAdapter.findById(employee.getId()).orElseThrow();
+        assertEquals("Renamed", reloaded.getName());
+        assertEquals(EmployeeStatus.INACTIVE, reloaded.getStatus());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldInvalidateCachedEmailLookupWhenEmployeesChange() {
+        employeePersistenceAdapter.findByEmail(employee.getEmail());
+        employeePersistenceAdapter.findByEmail(employee.getEmail());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        employee.setName("Renamed");
+        employeePersistenceAdapter.save(employee);
+        statistics.clear();
+
+        EmployeeClass reloaded = employeePersistenceAdapter.findByEmail(employee.getEmail()).orElseThrow();
+        assertEquals("Renamed", reloaded.getName());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryCacheMissCount());
+    }
+
+    @Test
+    void shouldEvictDeletedEmployees() {
+        employeePersistenceAdapter.findById(employee.getId());
+
+        employeePersistenceAdapter.delete(employee);
+
+        assertTrue(employeePersistenceAdapter.findById(employee.getId()).isEmpty());
+    }
+
+    private EmployeeClass newEmployee(String email) {
+        EmployeeClass newEmployee = new EmployeeClass();
+        newEmployee.setName("Cached Employee");
+        newEmployee.setEmail(email);
+        newEmployee.setContactPhone(String.valueOf(System.nanoTime()));
+        newEmployee.setRole(EmployeeRole.WAITER);
+        newEmployee.setHourlyRate(new BigDecimal("5.00"));
+        newEmployee.setSalary(BigDecimal.ZERO);
+        newEmployee.setStatus(EmployeeStatus.ACTIVE);
+        return newEmployee;
+    }
+}
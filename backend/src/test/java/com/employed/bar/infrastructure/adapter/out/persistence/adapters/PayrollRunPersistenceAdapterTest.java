@@ -0,0 +1,179 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.adapters;
+
+import com.employed.bar.domain.enums.AttendanceStatus;
+import com.employed.bar.domain.enums.EmployeeRole;
+import com.employed.bar.domain.enums.EmployeeStatus;
+import com.employed.bar.domain.enums.PayrollLineType;
+import com.employed.bar.domain.model.payroll.PayrollLine;
+import com.employed.bar.domain.model.payroll.PayrollRun;
+import com.employed.bar.domain.model.report.HoursCalculation;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.AttendanceMapperImpl;
+import com.employed.bar.infrastructure.adapter.out.persistence.mapper.EmployeeMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({PayrollRunPersistenceAdapter.class, AttendancePersistenceAdapter.class, EmployeePersistenceAdapter.class,
+        DailySummaryPersistenceAdapter.class, EmployeeChangeWatermarkPersistenceAdapter.class, AttendanceMapperImpl.class, EmployeeMapperImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+// Every adapter call commits on its own, as it does in the application
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PayrollRunPersistenceAdapterTest {
+
+    private static final AtomicInteger PERIOD_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private PayrollRunPersistenceAdapter payrollRunAdapter;
+
+    @Autowired
+    private AttendancePersistenceAdapter attendanceAdapter;
+
+    @Autowired
+    private EmployeePersistenceAdapter employeeAdapter;
+
+    private EmployeeClass employee;
+    private PayrollRun run;
+
+    @BeforeEach
+    void setUp() {
+        // Each test closes its own two-week period, so runs and marks of other tests never overlap
+        LocalDate periodStart = LocalDate.of(2031, 1, 1).plusWeeks(3L * PERIOD_OFFSET.getAndIncrement());
+        employee = employeeAdapter.save(newEmployee());
+        run = payrollRunAdapter.save(new PayrollRun(null, periodStart, periodStart.plusDays(13), LocalDateTime.now(),
+                List.of(line(PayrollLineType.REGULAR, "40.00", "400.00", "12.50"))));
+    }
+
+    @Test
+    void sumsRegularAndAdjustmentLinesPerEmployee() {
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodStart());
+        long readVersion = payrollRunAdapter.findPendingAdjustments(run.getId()).get(employee.getId());
+        assertTrue(payrollRunAdapter.resolvePendingAdjustment(run.getId(), employee.getId(),
+                line(PayrollLineType.ADJUSTMENT, "2.00", "20.00", "0.00"), readVersion));
+
+        PayrollLine total = payrollRunAdapter.findEmployeeTotal(run.getId(), employee.getId()).orElseThrow();
+
+        assertEquals(0, new BigDecimal("42.00").compareTo(total.getHoursCalculation().getTotalHours()));
+        assertEquals(0, new BigDecimal("420.00").compareTo(total.getEarnings()));
+        assertEquals(0, new BigDecimal("407.50").compareTo(total.getNetPay()));
+        assertEquals(1, payrollRunAdapter.findEmployeeTotals(run.getId()).size());
+        assertEquals(List.of(PayrollLineType.REGULAR, PayrollLineType.ADJUSTMENT),
+                payrollRunAdapter.findLines(run.getId()).stream().map(PayrollLine::getLineType).toList());
+    }
+
+    @Test
+    void writesInsideAClosedPeriodMarkTheEmployeeAsPending() {
+        LocalDateTime entry = run.getPeriodStart().plusDays(3).atTime(9, 0);
+        attendanceAdapter.save(new AttendanceRecordClass(null, employee, entry, entry.plusHours(8), AttendanceStatus.PRESENT));
+
+        assertEquals(Set.of(employee.getId()), payrollRunAdapter.findPendingAdjustments(run.getId()).keySet());
+        assertTrue(payrollRunAdapter.findRunIdsWithPendingAdjustments().contains(run.getId()));
+    }
+
+    @Test
+    void anOvernightShiftStartingTheDayBeforeMarksThePeriod() {
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodStart().minusDays(1));
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodStart().minusDays(2));
+
+        assertEquals(Set.of(employee.getId()), payrollRunAdapter.findPendingAdjustments(run.getId()).keySet());
+    }
+
+    @Test
+    void writesOutsideEveryClosedPeriodMarkNothing() {
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodEnd().plusDays(1));
+
+        assertTrue(payrollRunAdapter.findPendingAdjustments(run.getId()).isEmpty());
+    }
+
+    @Test
+    void aChangeAfterTheMarkWasReadKeepsTheMark() {
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodStart());
+        long readVersion = payrollRunAdapter.findPendingAdjustments(run.getId()).get(employee.getId());
+
+        // Committed while the adjustment for readVersion was being computed
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodStart().plusDays(1));
+        assertTrue(payrollRunAdapter.resolvePendingAdjustment(run.getId(), employee.getId(), null, readVersion));
+        long bumpedVersion = payrollRunAdapter.findPendingAdjustments(run.getId()).get(employee.getId());
+        assertTrue(bumpedVersion > readVersion);
+
+        payrollRunAdapter.resolvePendingAdjustment(run.getId(), employee.getId(), null, bumpedVersion);
+        assertTrue(payrollRunAdapter.findPendingAdjustments(run.getId()).isEmpty());
+    }
+
+    @Test
+    void twoResolvesOfTheSameVersionAddTheAdjustmentOnce() {
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodStart());
+        long readVersion = payrollRunAdapter.findPendingAdjustments(run.getId()).get(employee.getId());
+        PayrollLine adjustment = line(PayrollLineType.ADJUSTMENT, "2.00", "20.00", "0.00");
+
+        // The adjustment job and a read of the period both computed the same difference from readVersion
+        assertTrue(payrollRunAdapter.resolvePendingAdjustment(run.getId(), employee.getId(), adjustment, readVersion));
+        assertFalse(payrollRunAdapter.resolvePendingAdjustment(run.getId(), employee.getId(), adjustment, readVersion));
+
+        assertEquals(List.of(PayrollLineType.REGULAR, PayrollLineType.ADJUSTMENT),
+                payrollRunAdapter.findLines(run.getId()).stream().map(PayrollLine::getLineType).toList());
+        assertEquals(0, new BigDecimal("420.00").compareTo(
+                payrollRunAdapter.findEmployeeTotal(run.getId(), employee.getId()).orElseThrow().getEarnings()));
+    }
+
+    @Test
+    void markingSeveralEmployeesRaisesExistingVersionsAndAddsNewMarks() {
+        EmployeeClass otherEmployee = employeeAdapter.save(newEmployee());
+        payrollRunAdapter.markChanged(employee.getId(), run.getPeriodStart());
+        long firstVersion = payrollRunAdapter.findPendingAdjustments(run.getId()).get(employee.getId());
+
+        payrollRunAdapter.markChangedAll(Map.of(
+                employee.getId(), Set.of(run.getPeriodStart().plusDays(2)),
+                otherEmployee.getId(), Set.of(run.getPeriodStart().plusDays(2))));
+
+        Map<Long, Long> pending = payrollRunAdapter.findPendingAdjustments(run.getId());
+        assertEquals(Set.of(employee.getId(), otherEmployee.getId()), pending.keySet());
+        assertTrue(pending.get(employee.getId()) > firstVersion);
+    }
+
+    @Test
+    void detectsOverlappingPeriods() {
+        assertTrue(payrollRunAdapter.existsOverlapping(run.getPeriodEnd(), run.getPeriodEnd().plusDays(13)));
+        assertFalse(payrollRunAdapter.existsOverlapping(run.getPeriodEnd().plusDays(1), run.getPeriodEnd().plusDays(2)));
+        assertEquals(run.getId(), payrollRunAdapter.findByPeriod(run.getPeriodStart(), run.getPeriodEnd()).orElseThrow().getId());
+    }
+
+    private PayrollLine line(PayrollLineType type, String hours, String earnings, String consumptions) {
+        return new PayrollLine(employee.getId(), type,
+                new HoursCalculation(new BigDecimal(hours), new BigDecimal(hours), BigDecimal.ZERO),
+                new BigDecimal(earnings), new BigDecimal(consumptions),
+                new BigDecimal(earnings).subtract(new BigDecimal(consumptions)), LocalDateTime.now());
+    }
+
+    private EmployeeClass newEmployee() {
+        EmployeeClass newEmployee = new EmployeeClass();
+        newEmployee.setName("Payroll Employee");
+        newEmployee.setEmail("payroll-" + System.nanoTime() + "@bar.com");
+        newEmployee.setContactPhone(String.valueOf(System.nanoTime()));
+        newEmployee.setRole(EmployeeRole.WAITER);
+        newEmployee.setHourlyRate(new BigDecimal("5.00"));
+        newEmployee.setSalary(BigDecimal.ZERO);
+        newEmployee.setStatus(EmployeeStatus.ACTIVE);
+        return newEmployee;
+    }
+}
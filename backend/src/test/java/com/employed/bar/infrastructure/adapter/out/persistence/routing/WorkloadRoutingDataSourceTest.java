@@ -0,0 +1,201 @@
+package com.employed.bar.infrastructure.adapter.out.persistence.routing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadRoutingDataSourceTest {
+
+    private static final String TRANSACTIONAL_URL = "jdbc:h2:mem:routing_transactional";
+    private static final String ANALYTICAL_URL = "jdbc:h2:mem:routing_analytical";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica";
+
+    private DataSource transactionalDataSource;
+    private DataSource analyticalDataSource;
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        transactionalDataSource = new DriverManagerDataSource(TRANSACTIONAL_URL + ";DB_CLOSE_DELAY=-1", "sa", "");
+        analyticalDataSource = new DriverManagerDataSource(ANALYTICAL_URL + ";DB_CLOSE_DELAY=-1", "sa", "");
+        replicaDataSource = new DriverManagerDataSource(REPLICA_URL + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+    }
+
+    @Test
+    void shouldUseTransactionalPoolOutsideTransactionsAndForReadWriteTransactions() throws SQLException {
+        WorkloadRoutingDataSource routing = routing(monitor(replicaDataSource, "", Duration.ofSeconds(30)));
+
+        assertEquals(TRANSACTIONAL_URL, urlOf(routing));
+
+        inTransaction(false, "com.employed.bar.application.service.AttendanceApplicationService.registerAttendance");
+        assertEquals(TRANSACTIONAL_URL, urlOf(routing));
+    }
+
+    @Test
+    void shouldUseAnalyticalPoolForAnalyticalUseCasesEvenWhenTheyWrite() throws Exception {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(transactionalDataSource, analyticalDataSource);
+        inTransaction(false, "com.employed.bar.application.service.ManagerReportApplicationService.generateAndSendManagerReport");
+
+        assertEquals(ANALYTICAL_URL, asAnalyticalUseCase(() -> urlOf(routing)));
+        assertFalse(DataSourceWorkload.isAnalytical());
+        assertEquals(TRANSACTIONAL_URL, urlOf(routing));
+    }
+
+    @Test
+    void shouldUseAnalyticalPoolForReadOnlyWorkWithoutReplica() throws SQLException {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(transactionalDataSource, analyticalDataSource);
+
+        inTransaction(true, "com.employed.bar.application.service.KpiApplicationService.getManagerKpis");
+
+        assertEquals(ANALYTICAL_URL, urlOf(routing));
+    }
+
+    @Test
+    void shouldUseReplicaForApplicationReadOnlyTransactions() throws SQLException {
+        WorkloadRoutingDataSource routing = routing(monitor(replicaDataSource, "", Duration.ofSeconds(30)));
+
+        inTransaction(true, "com.employed.bar.application.service.KpiApplicationService.getManagerKpis");
+
+        assertEquals(REPLICA_URL, urlOf(routing));
+    }
+
+    @Test
+    void shouldKeepSpringDataDefaultReadOnlyTransactionsOnTransactionalPool() throws SQLException {
+        WorkloadRoutingDataSource routing = routing(monitor(replicaDataSource, "", Duration.ofSeconds(30)));
+
+        inTransaction(true, "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById");
+
+        assertEquals(TRANSACTIONAL_URL, urlOf(routing));
+    }
+
+    @Test
+    void shouldFallBackToAnalyticalPoolWhenReplicaLagsTooMuch() throws SQLException {
+        ReplicaLagMonitor monitor = monitor(replicaDataSource, "SELECT 120 AS lag_seconds", Duration.ofSeconds(30));
+        WorkloadRoutingDataSource routing = routing(monitor);
+        inTransaction(true, "com.employed.bar.application.service.ReportingApplicationService.generateCompleteReportForEmployee");
+
+        monitor.checkLag();
+
+        assertFalse(monitor.isReplicaAvailable());
+        assertEquals(120L, monitor.getLastLagSeconds());
+        assertEquals(ANALYTICAL_URL, urlOf(routing));
+    }
+
+    @Test
+    void shouldReturnToReplicaOnceLagIsBackUnderTheLimit() throws SQLException {
+        ReplicaLagMonitor monitor = monitor(replicaDataSource, "SELECT 3 AS lag_seconds", Duration.ofSeconds(30));
+        WorkloadRoutingDataSource routing = routing(monitor);
+        inTransaction(true, "com.employed.bar.application.service.KpiApplicationService.getManagerKpis");
+        monitor.markUnavailable("test");
+
+        monitor.checkLag();
+
+        assertTrue(monitor.isReplicaAvailable());
+        assertEquals(REPLICA_URL, urlOf(routing));
+    }
+
+    @Test
+    void shouldTreatStoppedReplicationAsUnavailable() {
+        ReplicaLagMonitor monitor = monitor(replicaDataSource, "SELECT CAST(NULL AS BIGINT) AS lag_seconds", Duration.ofSeconds(30));
+
+        monitor.checkLag();
+
+        assertFalse(monitor.isReplicaAvailable());
+    }
+
+    @Test
+    void shouldFallBackToAnalyticalPoolWhenReplicaIsUnreachable() throws SQLException {
+        DataSource brokenReplica = new DriverManagerDataSource("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE", "sa", "");
+        ReplicaLagMonitor monitor = monitor(brokenReplica, "", Duration.ofSeconds(30));
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(transactionalDataSource, analyticalDataSource, brokenReplica, monitor);
+        inTransaction(true, "com.employed.bar.application.service.KpiApplicationService.getManagerKpis");
+
+        assertEquals(ANALYTICAL_URL, urlOf(routing));
+        assertFalse(monitor.isReplicaAvailable());
+    }
+
+    @Test
+    void shouldMarkOnlyConfiguredServicesAsAnalytical() {
+        AnalyticalWorkloadPostProcessor postProcessor = new AnalyticalWorkloadPostProcessor(Set.of(ReportService.class));
+
+        ReportService reportService = (ReportService) postProcessor.postProcessAfterInitialization(new ReportService(), "reportService");
+        ClockInService clockInService = (ClockInService) postProcessor.postProcessAfterInitialization(new ClockInService(), "clockInService");
+
+        assertTrue(reportService.runsAsAnalytical());
+        assertFalse(clockInService.runsAsAnalytical());
+    }
+
+    @Test
+    void shouldAddAnalyticalAdviceToExistingProxies() {
+        AnalyticalWorkloadPostProcessor postProcessor = new AnalyticalWorkloadPostProcessor(Set.of(ReportService.class));
+        ProxyFactory proxyFactory = new ProxyFactory(new ReportService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+        Object existingProxy = proxyFactory.getProxy();
+
+        ReportService reportService = (ReportService) postProcessor.postProcessAfterInitialization(existingProxy, "reportService");
+
+        assertSame(existingProxy, reportService);
+        assertTrue(reportService.runsAsAnalytical());
+    }
+
+    static class ReportService {
+        public boolean runsAsAnalytical() {
+            return DataSourceWorkload.isAnalytical();
+        }
+    }
+
+    static class ClockInService {
+        public boolean runsAsAnalytical() {
+            return DataSourceWorkload.isAnalytical();
+        }
+    }
+
+    private <T> T asAnalyticalUseCase(Callable<T> work) throws Exception {
+        ProxyFactory proxyFactory = new ProxyFactory((Callable<?>) work);
+        proxyFactory.addAdvice(DataSourceWorkload.analyticalInterceptor());
+        @SuppressWarnings("unchecked")
+        Callable<T> proxy = (Callable<T>) proxyFactory.getProxy();
+        return proxy.call();
+    }
+
+    private WorkloadRoutingDataSource routing(ReplicaLagMonitor monitor) {
+        return new WorkloadRoutingDataSource(transactionalDataSource, analyticalDataSource, replicaDataSource, monitor);
+    }
+
+    private ReplicaLagMonitor monitor(DataSource replica, String lagQuery, Duration maxLag) {
+        return new ReplicaLagMonitor(replica, lagQuery, "", maxLag);
+    }
+
+    private void inTransaction(boolean readOnly, String name) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+    }
+
+    private String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -29,32 +29,48 @@ public class TestMailConfig {
 
         // When send is called, capture the MimeMessage with its actual content
         doAnswer(invocation -> {
-            MimeMessage originalMessage = invocation.getArgument(0);
-
-            try {
-                // Crear una copia COMPLETA del mensaje
-                MimeMessage capturedMessage = realMailSender.createMimeMessage();
-
-                // Copiar TODO el contenido y propiedades
-                capturedMessage.setContent(originalMessage.getContent(), originalMessage.getContentType());
-                capturedMessage.setSubject(originalMessage.getSubject());
-                capturedMessage.setRecipients(MimeMessage.RecipientType.TO, originalMessage.getRecipients(MimeMessage.RecipientType.TO));
-
-                // Forzar la serialización del contenido
-                capturedMessage.saveChanges();
+            capture(realMailSender, invocation.getArgument(0));
+            return null;
+        }).when(mockMailSender).send(any(MimeMessage.class));
 
-                sentMimeMessages.add(capturedMessage);
-                System.out.println("✅ [TEST MAIL] Email capturado - Subject: " + capturedMessage.getSubject());
-                System.out.println("✅ [TEST MAIL] Content Type: " + capturedMessage.getContentType());
-            } catch (Exception e) {
-                System.out.println("❌ [TEST MAIL] Error capturando email: " + e.getMessage());
-                e.printStackTrace();
+        // The outbox relay sends report emails in batches
+        doAnswer(invocation -> {
+            for (Object argument : invocation.getArguments()) {
+                if (argument instanceof MimeMessage[] batch) {
+                    for (MimeMessage message : batch) {
+                        capture(realMailSender, message);
+                    }
+                } else if (argument instanceof MimeMessage message) {
+                    capture(realMailSender, message);
+                }
             }
             return null;
-        }).when(mockMailSender).send(any(MimeMessage.class));
+        }).when(mockMailSender).send(any(MimeMessage[].class));
         return mockMailSender;
     }
 
+    private static void capture(JavaMailSenderImpl realMailSender, MimeMessage originalMessage) {
+        try {
+            // Crear una copia COMPLETA del mensaje
+            MimeMessage capturedMessage = realMailSender.createMimeMessage();
+
+            // Copiar TODO el contenido y propiedades
+            capturedMessage.setContent(originalMessage.getContent(), originalMessage.getContentType());
+            capturedMessage.setSubject(originalMessage.getSubject());
+            capturedMessage.setRecipients(MimeMessage.RecipientType.TO, originalMessage.getRecipients(MimeMessage.RecipientType.TO));
+
+            // Forzar la serialización del contenido
+            capturedMessage.saveChanges();
+
+            sentMimeMessages.add(capturedMessage);
+            System.out.println("✅ [TEST MAIL] Email capturado - Subject: " + capturedMessage.getSubject());
+            System.out.println("✅ [TEST MAIL] Content Type: " + capturedMessage.getContentType());
+        } catch (Exception e) {
+            System.out.println("❌ [TEST MAIL] Error capturando email: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     public static List<MimeMessage> getSentMimeMessages() {
         return new ArrayList<>(TestMailConfig.sentMimeMessages);
     }
@@ -3,10 +3,14 @@ package com.employed.bar.security;
 import com.employed.bar.domain.enums.EmployeeRole;
 import com.employed.bar.infrastructure.dto.security.response.TokenResponse;
 import com.employed.bar.infrastructure.security.jwt.JwtServiceImpl;
+import com.employed.bar.infrastructure.security.jwt.VerifiedClaimsCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Date;
+
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -97,4 +101,47 @@ class JwtServiceImplTest {
         });
         assertEquals("La clave secreta JWT debe tener al menos 32 caracateres.", exception.getMessage());
     }
+
+    @Test
+    void getClaims_ShouldReuseVerifiedClaimsForSameToken() {
+        String token = jwtService.generateToken("cached@example.com", EmployeeRole.ADMIN.name()).getAccessToken();
+
+        Claims first = jwtService.getClaims(token);
+        Claims second = jwtService.getClaims(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void getClaims_ShouldNotCacheWhenCacheIsDisabled() {
+        JwtServiceImpl uncachedService = new JwtServiceImpl(SECRET, 0);
+        String token = uncachedService.generateToken("nocache@example.com", EmployeeRole.ADMIN.name()).getAccessToken();
+
+        Claims first = uncachedService.getClaims(token);
+        Claims second = uncachedService.getClaims(token);
+
+        assertNotSame(first, second);
+        assertEquals(first.getSubject(), second.getSubject());
+    }
+
+    @Test
+    void getClaims_ShouldRejectTamperedTokenEvenAfterCachingOriginal() {
+        String token = jwtService.generateToken("tamper@example.com", EmployeeRole.ADMIN.name()).getAccessToken();
+        jwtService.getClaims(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(IllegalArgumentException.class, () -> jwtService.getClaims(tampered));
+    }
+
+    @Test
+    void verifiedClaimsCache_ShouldDropEntriesAtTokenExpiration() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10);
+        Claims claims = Jwts.claims().subject("exp@example.com").expiration(new Date(1_000L)).build();
+        cache.put("token", claims);
+
+        assertSame(claims, cache.get("token", 999L));
+        assertNull(cache.get("token", 1_000L));
+        assertEquals(0, cache.size());
+    }
 }
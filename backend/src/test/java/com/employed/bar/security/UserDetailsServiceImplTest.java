@@ -3,27 +3,36 @@ package com.employed.bar.security;
 import com.employed.bar.domain.enums.EmployeeRole;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.UserEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.repository.UserEntityRepository;
+import com.employed.bar.infrastructure.security.user.UserDetailsCache;
 import com.employed.bar.infrastructure.security.user.UsersDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UserDetailsServiceImplTest {
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private UserEntityRepository userEntityRepository;
 
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(Duration.ofMinutes(5), 100, meterRegistry);
+
     @InjectMocks
     private UsersDetailsServiceImpl usersDetailsService;
 
@@ -64,4 +73,110 @@ public class UserDetailsServiceImplTest {
 
         assertEquals("User with email " + email + " not found", exception.getMessage());
     }
+
+    @Test
+    void loadTokenUserByUsername_SecondCallServedFromCache() {
+        // Arrange
+        String email = "cached@test.com";
+        UserEntity userEntity = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .email(email)
+                .password("password")
+                .name("Cached User")
+                .role(EmployeeRole.WAITER)
+                .build();
+        when(userEntityRepository.findByEmail(email)).thenReturn(Optional.of(userEntity));
+
+        // Act
+        UserDetails first = usersDetailsService.loadTokenUserByUsername(email);
+        UserDetails second = usersDetailsService.loadTokenUserByUsername(email);
+
+        // Assert
+        assertSame(first, second);
+        verify(userEntityRepository, times(1)).findByEmail(email);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void loadTokenUserByUsername_CachesAnImmutableSnapshotWithoutPassword() {
+        // Arrange
+        String email = "snapshot@test.com";
+        UserEntity userEntity = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .email(email)
+                .password("password")
+                .name("Snapshot User")
+                .role(EmployeeRole.WAITER)
+                .build();
+        when(userEntityRepository.findByEmail(email)).thenReturn(Optional.of(userEntity));
+
+        // Act
+        UserDetails snapshot = usersDetailsService.loadTokenUserByUsername(email);
+        userEntity.setRole(EmployeeRole.MANAGER);
+
+        // Assert
+        assertNotSame(userEntity, snapshot);
+        assertEquals("", snapshot.getPassword());
+        assertTrue(snapshot.getAuthorities().stream()
+                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_" + EmployeeRole.WAITER.name())));
+    }
+
+    @Test
+    void loadUserByUsername_LoginAlwaysReadsTheStoredUser() {
+        // Arrange
+        String email = "login@test.com";
+        UserEntity userEntity = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .email(email)
+                .password("password")
+                .name("Login User")
+                .role(EmployeeRole.CASHIER)
+                .build();
+        when(userEntityRepository.findByEmail(email)).thenReturn(Optional.of(userEntity));
+
+        // Act
+        usersDetailsService.loadTokenUserByUsername(email);
+        UserDetails first = usersDetailsService.loadUserByUsername(email);
+        UserDetails second = usersDetailsService.loadUserByUsername(email);
+
+        // Assert
+        assertSame(userEntity, first);
+        assertSame(userEntity, second);
+        verify(userEntityRepository, times(3)).findByEmail(email);
+    }
+
+    @Test
+    void loadTokenUserByUsername_ReloadsAfterEviction() {
+        // Arrange
+        String email = "evicted@test.com";
+        UserEntity userEntity = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .email(email)
+                .password("password")
+                .name("Evicted User")
+                .role(EmployeeRole.CASHIER)
+                .build();
+        when(userEntityRepository.findByEmail(email)).thenReturn(Optional.of(userEntity));
+
+        // Act
+        usersDetailsService.loadTokenUserByUsername(email);
+        userDetailsCache.evict(email);
+        usersDetailsService.loadTokenUserByUsername(email);
+
+        // Assert
+        verify(userEntityRepository, times(2)).findByEmail(email);
+    }
+
+    @Test
+    void loadTokenUserByUsername_NotFoundIsNotCached() {
+        // Arrange
+        String email = "missing@test.com";
+        when(userEntityRepository.findByEmail(email)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> usersDetailsService.loadTokenUserByUsername(email));
+        assertThrows(UsernameNotFoundException.class, () -> usersDetailsService.loadTokenUserByUsername(email));
+        verify(userEntityRepository, times(2)).findByEmail(email);
+    }
 }
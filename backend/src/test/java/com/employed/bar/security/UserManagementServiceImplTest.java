@@ -4,6 +4,7 @@ import com.employed.bar.domain.enums.EmployeeRole;
 import com.employed.bar.infrastructure.adapter.out.persistence.entity.UserEntity;
 import com.employed.bar.infrastructure.adapter.out.persistence.repository.UserEntityRepository;
 import com.employed.bar.infrastructure.dto.security.request.CreateUserRequest;
+import com.employed.bar.infrastructure.security.user.UserDetailsCache;
 import com.employed.bar.infrastructure.security.user.UserManagementServiceImpl;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +37,9 @@ public class UserManagementServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
     @InjectMocks
     private UserManagementServiceImpl userManagementService;
 
@@ -103,6 +107,7 @@ public class UserManagementServiceImplTest {
         userManagementService.deleteUser(adminToDelete.getId());
 
         verify(userEntityRepository).delete(adminToDelete);
+        verify(userDetailsCache).evict(adminToDelete.getEmail());
     }
 
     @Test
@@ -131,6 +136,7 @@ public class UserManagementServiceImplTest {
 
         assertEquals(EmployeeRole.ADMIN, cashierToPromote.getRole());
         verify(userEntityRepository).save(cashierToPromote);
+        verify(userDetailsCache).evict(cashierToPromote.getEmail());
     }
 
     @Test
@@ -0,0 +1,121 @@
+package com.employed.bar.service;
+
+import com.employed.bar.application.service.ActivityExportApplicationService;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.ConsumptionClass;
+import com.employed.bar.domain.port.out.ActivityExportPort;
+import com.employed.bar.domain.port.out.SpreadsheetGeneratorPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityExportApplicationServiceTest {
+
+    @Mock
+    private ActivityExportPort activityExportPort;
+
+    @Mock
+    private SpreadsheetGeneratorPort spreadsheetGeneratorPort;
+
+    @Mock
+    private SpreadsheetGeneratorPort.ActivityWorkbook workbook;
+
+    private ActivityExportApplicationService activityExportApplicationService;
+
+    private final LocalDate startDate = LocalDate.of(2024, 1, 1);
+    private final LocalDate endDate = LocalDate.of(2024, 12, 31);
+
+    @BeforeEach
+    void setUp() {
+        activityExportApplicationService = new ActivityExportApplicationService(activityExportPort, spreadsheetGeneratorPort);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWriteActivityExcel_StreamsEveryRowIntoWorkbook() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        AttendanceRecordClass attendance = new AttendanceRecordClass();
+        ConsumptionClass consumption = new ConsumptionClass();
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = LocalDate.of(2025, 1, 1).atStartOfDay();
+
+        when(spreadsheetGeneratorPort.openActivityWorkbook(startDate, endDate, outputStream)).thenReturn(workbook);
+        doAnswer(invocation -> {
+            ((Consumer<AttendanceRecordClass>) invocation.getArgument(2)).accept(attendance);
+            return null;
+        }).when(activityExportPort).forEachAttendance(eq(startDateTime), eq(endDateTime), any());
+        doAnswer(invocation -> {
+            ((Consumer<ConsumptionClass>) invocation.getArgument(2)).accept(consumption);
+            return null;
+        }).when(activityExportPort).forEachConsumption(eq(startDateTime), eq(endDateTime), any());
+
+        activityExportApplicationService.writeActivityExcel(startDate, endDate, outputStream);
+
+        InOrder inOrder = inOrder(workbook);
+        inOrder.verify(workbook).addAttendance(attendance);
+        inOrder.verify(workbook).addConsumption(consumption);
+        inOrder.verify(workbook).finish();
+        inOrder.verify(workbook).close();
+    }
+
+    @Test
+    void testWriteActivityExcel_FailureDiscardsWorkbook() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(spreadsheetGeneratorPort.openActivityWorkbook(startDate, endDate, outputStream)).thenReturn(workbook);
+        doThrow(new RuntimeException("connection lost")).when(activityExportPort).forEachAttendance(any(), any(), any());
+
+        assertThrows(RuntimeException.class, () -> activityExportApplicationService.writeActivityExcel(startDate, endDate, outputStream));
+
+        verify(workbook, never()).finish();
+        verify(workbook).close();
+    }
+
+    @Test
+    void testWriteActivityExcel_EndDateBeforeStartDate() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () ->
+                activityExportApplicationService.writeActivityExcel(endDate, startDate, new ByteArrayOutputStream()));
+        assertEquals("End date cannot be before start date", thrown.getMessage());
+        verifyNoInteractions(activityExportPort, spreadsheetGeneratorPort);
+    }
+
+    @Test
+    void testForEachConsumption_WithoutDatesStreamsWholeHistory() {
+        Consumer<ConsumptionClass> action = consumption -> { };
+
+        activityExportApplicationService.forEachConsumption(null, null, action);
+
+        verify(activityExportPort).forEachConsumption(null, null, action);
+    }
+
+    @Test
+    void testForEachAttendance_EndDateIsInclusive() {
+        Consumer<AttendanceRecordClass> action = attendance -> { };
+
+        activityExportApplicationService.forEachAttendance(startDate, endDate, action);
+
+        verify(activityExportPort).forEachAttendance(startDate.atStartOfDay(), LocalDate.of(2025, 1, 1).atStartOfDay(), action);
+    }
+
+    @Test
+    void testForEachAttendance_OnlyOneDate() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () ->
+                activityExportApplicationService.forEachAttendance(startDate, null, attendance -> { }));
+        assertEquals("Start date and end date must be provided together", thrown.getMessage());
+        verifyNoInteractions(activityExportPort);
+    }
+}
@@ -1,10 +1,15 @@
 package com.employed.bar.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
+import com.employed.bar.application.cache.FirstActivityDateCache;
 import com.employed.bar.application.service.AttendanceApplicationService;
 import com.employed.bar.domain.enums.AttendanceStatus;
 import com.employed.bar.domain.exceptions.AttendanceNotFoundException;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
 import com.employed.bar.domain.exceptions.InvalidAttendanceDataException;
+import com.employed.bar.domain.exceptions.InvalidDateRangeException;
+import com.employed.bar.domain.model.attendance.AttendanceImportResult;
+import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.model.structure.ScheduleClass;
@@ -16,13 +21,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +52,12 @@ public class AttendanceApplicationServiceTest {
     @Mock
     private ScheduleRepositoryPort scheduleRepositoryPort;
 
+    @Spy
+    private FirstActivityDateCache firstActivityDateCache = new FirstActivityDateCache();
+
+    @Spy
+    private EmployeePeriodResultCache<Report> reportResultCache = new EmployeePeriodResultCache<>(100, Duration.ofHours(1));
+
     @InjectMocks
     private AttendanceApplicationService attendanceApplicationService;
 
@@ -212,72 +231,52 @@ public class AttendanceApplicationServiceTest {
         });
 
         verify(employeeRepository, times(1)).findById(1L);
-        verify(attendanceRepositoryPort, never()).findByEmployeeAndDateRange(any(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(attendanceRepositoryPort, never()).countDaysWithAttendance(anyLong(), any(LocalDate.class), any(LocalDate.class));
     }
 
     @Test
     void testCalculateAttendancePercentage_NoRecords() {
         LocalDate startDate = LocalDate.of(2024, 10, 1);
         LocalDate endDate = LocalDate.of(2024, 10, 31);
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
-        when(attendanceRepositoryPort.findByEmployeeAndDateRange(employee, startDateTime, endDateTime)).thenReturn(java.util.Collections.emptyList());
+        when(attendanceRepositoryPort.countDaysWithAttendance(1L, startDate, endDate)).thenReturn(0L);
 
         double percentage = attendanceApplicationService.calculateAttendancePercentage(1L, 2024, 10, 1);
 
         assertEquals(0.0, percentage, 0.01);
         verify(employeeRepository, times(1)).findById(1L);
-        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(employee, startDateTime, endDateTime);
+        verify(attendanceRepositoryPort, times(1)).countDaysWithAttendance(1L, startDate, endDate);
     }
 
     @Test
     void testCalculateAttendancePercentage_SomeRecords() {
         LocalDate startDate = LocalDate.of(2024, 10, 1);
         LocalDate endDate = LocalDate.of(2024, 10, 31);
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-
-        AttendanceRecordClass record1 = new AttendanceRecordClass();
-        record1.setEntryDateTime(LocalDateTime.of(LocalDate.of(2024, 10, 5), LocalTime.MIDNIGHT));
-        AttendanceRecordClass record2 = new AttendanceRecordClass();
-        record2.setEntryDateTime(LocalDateTime.of(LocalDate.of(2024, 10, 10), LocalTime.MIDNIGHT));
 
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
-        when(attendanceRepositoryPort.findByEmployeeAndDateRange(employee, startDateTime, endDateTime))
-                .thenReturn(java.util.Arrays.asList(record1, record2));
+        when(attendanceRepositoryPort.countDaysWithAttendance(1L, startDate, endDate)).thenReturn(2L);
 
         double percentage = attendanceApplicationService.calculateAttendancePercentage(1L, 2024, 10, 1);
 
         // October has 31 days, 2 days with attendance
         assertEquals((2.0 / 31.0) * 100.0, percentage, 0.01);
         verify(employeeRepository, times(1)).findById(1L);
-        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(employee, startDateTime, endDateTime);
+        verify(attendanceRepositoryPort, never()).findByEmployeeAndDateRange(any(), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
     void testCalculateAttendancePercentage_FullAttendance() {
         LocalDate startDate = LocalDate.of(2024, 10, 1);
         LocalDate endDate = LocalDate.of(2024, 10, 31);
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-
-        List<AttendanceRecordClass> records = new java.util.ArrayList<>();
-        for (int i = 1; i <= 31; i++) {
-            AttendanceRecordClass record = new AttendanceRecordClass();
-            record.setEntryDateTime(LocalDateTime.of(LocalDate.of(2024, 10, i), LocalTime.MIDNIGHT));
-            records.add(record);
-        }
 
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
-        when(attendanceRepositoryPort.findByEmployeeAndDateRange(employee, startDateTime, endDateTime))
-                .thenReturn(records);
+        when(attendanceRepositoryPort.countDaysWithAttendance(1L, startDate, endDate)).thenReturn(31L);
 
         double percentage = attendanceApplicationService.calculateAttendancePercentage(1L, 2024, 10, 1);
 
         assertEquals(100.0, percentage, 0.01);
         verify(employeeRepository, times(1)).findById(1L);
-        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(employee, startDateTime, endDateTime);
+        verify(attendanceRepositoryPort, times(1)).countDaysWithAttendance(1L, startDate, endDate);
     }
 
     @Test
@@ -573,4 +572,191 @@ public class AttendanceApplicationServiceTest {
 
         verify(attendanceRepositoryPort, never()).deleteById(anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRegisterAttendance_EarlierEntry_UpdatesCachedFirstActivity() {
+        LocalDateTime cachedFirstActivity = attendanceRecord.getEntryDateTime().plusDays(3);
+        firstActivityDateCache.put(employee.getId(), cachedFirstActivity);
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(attendanceRepositoryPort.save(any(AttendanceRecordClass.class))).thenReturn(attendanceRecord);
+        when(scheduleRepositoryPort.findByEmployeeAndDate(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(java.util.Collections.emptyList());
+
+        attendanceApplicationService.registerAttendance(attendanceRecord);
+
+        assertEquals(Optional.of(attendanceRecord.getEntryDateTime()), firstActivityDateCache.get(employee.getId()));
+    }
+
+    @Test
+    void testRegisterAttendance_InTransaction_MovesCachedFirstActivityOnlyAfterTheCommit() {
+        LocalDateTime cachedFirstActivity = attendanceRecord.getEntryDateTime().plusDays(3);
+        firstActivityDateCache.put(employee.getId(), cachedFirstActivity);
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(attendanceRepositoryPort.save(any(AttendanceRecordClass.class))).thenReturn(attendanceRecord);
+        when(scheduleRepositoryPort.findByEmployeeAndDate(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(java.util.Collections.emptyList());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            attendanceApplicationService.registerAttendance(attendanceRecord);
+            // A rollback at this point must leave the cached first activity where it was
+            assertEquals(Optional.of(cachedFirstActivity), firstActivityDateCache.get(employee.getId()));
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Optional.of(attendanceRecord.getEntryDateTime()), firstActivityDateCache.get(employee.getId()));
+    }
+
+    @Test
+    void testDeleteAttendance_EvictsCachedFirstActivity() {
+        attendanceRecord.setId(1L);
+        firstActivityDateCache.put(employee.getId(), attendanceRecord.getEntryDateTime());
+        when(attendanceRepositoryPort.findById(1L)).thenReturn(Optional.of(attendanceRecord));
+
+        attendanceApplicationService.deleteById(1L);
+
+        assertTrue(firstActivityDateCache.get(employee.getId()).isEmpty());
+    }
+
+    @Test
+    void testScrollAttendances_EndDateIsInclusive() {
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<AttendanceRecordClass> window = Window.from(List.of(attendanceRecord), index -> position);
+        when(attendanceRepositoryPort.scrollByDateRange(1L, LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0), position, 20))
+                .thenReturn(window);
+
+        Window<AttendanceRecordClass> result = attendanceApplicationService.scrollAttendances(1L,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), position, 20);
+
+        assertSame(window, result);
+    }
+
+    @Test
+    void testScrollAttendances_InvalidRange() {
+        KeysetScrollPosition position = ScrollPosition.keyset();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                attendanceApplicationService.scrollAttendances(1L, LocalDate.of(2024, 1, 1), null, position, 20));
+        assertThrows(InvalidDateRangeException.class, () ->
+                attendanceApplicationService.scrollAttendances(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), position, 20));
+
+        verify(attendanceRepositoryPort, never()).scrollByDateRange(any(), any(), any(), any(), anyInt());
+    }
+
+    private AttendanceRecordClass importedRecord(Long employeeId, LocalDateTime entry, LocalDateTime exit) {
+        EmployeeClass reference = new EmployeeClass();
+        reference.setId(employeeId);
+        return new AttendanceRecordClass(null, reference, entry, exit, null);
+    }
+
+    @Test
+    void testImportAttendances_LoadsBatchOnceAndComputesStatus() {
+        EmployeeClass otherEmployee = new EmployeeClass();
+        otherEmployee.setId(2L);
+        LocalDateTime shiftStart = LocalDateTime.of(2024, 5, 1, 9, 0);
+        ScheduleClass schedule = new ScheduleClass(10L, shiftStart, shiftStart.plusHours(8), employee);
+        ScheduleClass otherSchedule = new ScheduleClass(11L, shiftStart, shiftStart.plusHours(8), otherEmployee);
+
+        AttendanceRecordClass late = importedRecord(1L, shiftStart.plusMinutes(15), shiftStart.plusHours(8));
+        AttendanceRecordClass onTime = importedRecord(2L, shiftStart.minusMinutes(5), shiftStart.plusHours(8));
+        AttendanceRecordClass withoutSchedule = importedRecord(2L, shiftStart.plusDays(10), null);
+
+        firstActivityDateCache.put(1L, shiftStart.plusDays(3));
+        firstActivityDateCache.put(2L, shiftStart.minusDays(3));
+        when(employeeRepository.findAllByIds(Set.of(1L, 2L))).thenReturn(List.of(employee, otherEmployee));
+        when(scheduleRepositoryPort.findByEmployeeIdsAndDate(eq(Set.of(1L, 2L)), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(schedule, otherSchedule));
+
+        AttendanceImportResult result = attendanceApplicationService.importAttendances(List.of(late, onTime, withoutSchedule));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertTrue(result.getRejected().isEmpty());
+        assertEquals(AttendanceStatus.LATE, late.getStatus());
+        assertEquals(AttendanceStatus.PRESENT, onTime.getStatus());
+        assertEquals(AttendanceStatus.PRESENT, withoutSchedule.getStatus());
+        assertSame(employee, late.getEmployee());
+        // One schedule query covering the whole batch, from the day before the first entry
+        verify(scheduleRepositoryPort).findByEmployeeIdsAndDate(Set.of(1L, 2L), LocalDateTime.of(2024, 4, 30, 0, 0), LocalDateTime.of(2024, 5, 13, 0, 0));
+        verify(scheduleRepositoryPort, never()).findByEmployeeAndDate(any(), any(), any());
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(attendanceRepositoryPort).saveAll(List.of(late, onTime, withoutSchedule));
+        verify(attendanceRepositoryPort, never()).save(any());
+        // An earlier imported entry moves the cached first activity back
+        assertEquals(Optional.of(late.getEntryDateTime()), firstActivityDateCache.get(1L));
+        assertEquals(Optional.of(shiftStart.minusDays(3)), firstActivityDateCache.get(2L));
+    }
+
+    @Test
+    void testImportAttendances_RejectsInvalidRecordsAndKeepsTheRest() {
+        LocalDateTime entry = LocalDateTime.of(2024, 5, 1, 9, 0);
+        AttendanceRecordClass valid = importedRecord(1L, entry, entry.plusHours(8));
+        AttendanceRecordClass unknownEmployee = importedRecord(99L, entry, entry.plusHours(8));
+        AttendanceRecordClass exitBeforeEntry = importedRecord(1L, entry, entry.minusHours(1));
+        AttendanceRecordClass missingEmployee = importedRecord(null, entry, entry.plusHours(8));
+
+        when(employeeRepository.findAllByIds(Set.of(1L, 99L))).thenReturn(List.of(employee));
+        when(scheduleRepositoryPort.findByEmployeeIdsAndDate(eq(Set.of(1L)), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        AttendanceImportResult result = attendanceApplicationService.importAttendances(
+                List.of(valid, unknownEmployee, exitBeforeEntry, missingEmployee));
+
+        assertEquals(4, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(1, 2, 3), result.getRejected().stream().map(AttendanceImportResult.RejectedRecord::getIndex).toList());
+        assertEquals("Employee not found: 99", result.getRejected().get(0).getReason());
+        verify(attendanceRepositoryPort).saveAll(List.of(valid));
+    }
+
+    @Test
+    void testImportAttendances_EmptyOrTooLargeBatch() {
+        assertThrows(IllegalArgumentException.class, () -> attendanceApplicationService.importAttendances(List.of()));
+
+        AttendanceRecordClass record = importedRecord(1L, LocalDateTime.of(2024, 5, 1, 9, 0), null);
+        List<AttendanceRecordClass> tooMany = java.util.Collections.nCopies(AttendanceApplicationService.MAX_IMPORT_RECORDS + 1, record);
+        assertThrows(IllegalArgumentException.class, () -> attendanceApplicationService.importAttendances(tooMany));
+
+        verify(attendanceRepositoryPort, never()).saveAll(any());
+    }
+
+    @Test
+    void testDeleteAttendance_InvalidatesOverlappingCachedReports() {
+        attendanceRecord.setId(1L);
+        LocalDate day = attendanceRecord.getEntryDateTime().toLocalDate();
+        reportResultCache.put(employee.getId(), day.minusDays(3), day.plusDays(3), null, 0L);
+        reportResultCache.put(employee.getId(), day.plusDays(7), day.plusDays(13), null, 0L);
+        reportResultCache.put(2L, day.minusDays(3), day.plusDays(3), null, 0L);
+        when(attendanceRepositoryPort.findById(1L)).thenReturn(Optional.of(attendanceRecord));
+
+        attendanceApplicationService.deleteById(1L);
+
+        // Only the deleted record's employee and week are dropped
+        assertTrue(reportResultCache.getUnchanged(List.of(employee.getId()), day.minusDays(3), day.plusDays(3), java.util.Map.of()).isEmpty());
+        assertEquals(1, reportResultCache.getUnchanged(List.of(employee.getId()), day.plusDays(7), day.plusDays(13), java.util.Map.of()).size());
+        assertEquals(1, reportResultCache.getUnchanged(List.of(2L), day.minusDays(3), day.plusDays(3), java.util.Map.of()).size());
+    }
+
+    @Test
+    void testDeleteAttendance_InTransaction_DropsReportsCachedBeforeTheCommit() {
+        attendanceRecord.setId(1L);
+        LocalDate day = attendanceRecord.getEntryDateTime().toLocalDate();
+        when(attendanceRepositoryPort.findById(1L)).thenReturn(Optional.of(attendanceRecord));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            attendanceApplicationService.deleteById(1L);
+            // A report read before the commit still sees the record and caches it
+            reportResultCache.put(employee.getId(), day, day, null, 0L);
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(reportResultCache.getUnchanged(List.of(employee.getId()), day, day, java.util.Map.of()).isEmpty());
+    }
+}
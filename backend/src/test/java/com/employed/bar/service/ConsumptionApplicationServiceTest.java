@@ -1,7 +1,11 @@
 package com.employed.bar.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
 import com.employed.bar.application.service.ConsumptionApplicationService;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
+import com.employed.bar.domain.exceptions.InvalidDateRangeException;
+import com.employed.bar.domain.model.consumption.ConsumptionBatchResult;
+import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.out.ConsumptionRepositoryPort;
@@ -12,11 +16,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +39,9 @@ public class ConsumptionApplicationServiceTest {
     @Mock
     private ConsumptionRepositoryPort consumptionRepository;
 
+    @Mock
+    private EmployeePeriodResultCache<Report> reportResultCache;
+
     @InjectMocks
     private ConsumptionApplicationService consumptionApplicationService;
 
@@ -374,4 +386,111 @@ public class ConsumptionApplicationServiceTest {
 
         verify(consumptionRepository, never()).sumTotalConsumptionByDateRange(any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testScrollConsumptions_WithoutRange() {
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<ConsumptionClass> window = Window.from(List.of(), index -> position);
+        when(consumptionRepository.scrollByDateRange(null, null, null, position, 50)).thenReturn(window);
+
+        Window<ConsumptionClass> result = consumptionApplicationService.scrollConsumptions(null, null, null, position, 50);
+
+        assertSame(window, result);
+    }
+
+    @Test
+    void testScrollConsumptions_EndDateIsInclusive() {
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        when(consumptionRepository.scrollByDateRange(eq(1L), any(), any(), eq(position), eq(10)))
+                .thenReturn(Window.from(List.of(), index -> position));
+
+        consumptionApplicationService.scrollConsumptions(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1), position, 10);
+
+        verify(consumptionRepository).scrollByDateRange(1L, LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 3, 2, 0, 0), position, 10);
+    }
+
+    @Test
+    void testScrollConsumptions_StartAfterEnd() {
+        assertThrows(InvalidDateRangeException.class, () ->
+                consumptionApplicationService.scrollConsumptions(1L, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1), ScrollPosition.keyset(), 10));
+
+        verify(consumptionRepository, never()).scrollByDateRange(any(), any(), any(), any(), anyInt());
+    }
+
+    private ConsumptionClass batchConsumption(Long employeeId, BigDecimal amount, String description) {
+        EmployeeClass reference = null;
+        if (employeeId != null) {
+            reference = new EmployeeClass();
+            reference.setId(employeeId);
+        }
+        return new ConsumptionClass(null, LocalDateTime.of(2024, 5, 1, 23, 0), description, amount, reference);
+    }
+
+    @Test
+    void testCreateConsumptions_ResolvesEmployeesOnceAndReportsEachItem() {
+        ConsumptionClass first = batchConsumption(1L, new BigDecimal("4.50"), "Cerveza");
+        ConsumptionClass unknownEmployee = batchConsumption(99L, new BigDecimal("2.00"), "Agua");
+        ConsumptionClass negativeAmount = batchConsumption(1L, new BigDecimal("-1.00"), "Ajuste");
+        ConsumptionClass second = batchConsumption(1L, new BigDecimal("8.00"), "Cena");
+
+        when(employeeRepository.findAllByIds(Set.of(1L, 99L))).thenReturn(List.of(employee));
+        when(consumptionRepository.saveAll(List.of(first, second))).thenAnswer(invocation -> {
+            List<ConsumptionClass> toSave = invocation.getArgument(0);
+            return List.of(
+                    new ConsumptionClass(101L, toSave.get(0).getConsumptionDate(), toSave.get(0).getDescription(), toSave.get(0).getAmount(), employee),
+                    new ConsumptionClass(102L, toSave.get(1).getConsumptionDate(), toSave.get(1).getDescription(), toSave.get(1).getAmount(), employee));
+        });
+
+        ConsumptionBatchResult result = consumptionApplicationService.createConsumptions(List.of(first, unknownEmployee, negativeAmount, second));
+
+        assertEquals(4, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(ConsumptionBatchResult.ItemResult.created(0, 101L), result.getItems().get(0));
+        assertEquals(ConsumptionBatchResult.ItemResult.rejected(1, "Employee not found with id 99"), result.getItems().get(1));
+        assertEquals(ConsumptionBatchResult.Status.REJECTED, result.getItems().get(2).getStatus());
+        assertEquals(ConsumptionBatchResult.ItemResult.created(3, 102L), result.getItems().get(3));
+        assertSame(employee, first.getEmployee());
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(consumptionRepository, never()).save(any(ConsumptionClass.class));
+    }
+
+    @Test
+    void testCreateConsumptions_AllRejectedSavesNothing() {
+        ConsumptionClass withoutEmployee = batchConsumption(null, BigDecimal.TEN, "Refresco");
+        ConsumptionClass longDescription = batchConsumption(1L, BigDecimal.TEN, "x".repeat(256));
+        when(employeeRepository.findAllByIds(Set.of(1L))).thenReturn(List.of(employee));
+
+        ConsumptionBatchResult result = consumptionApplicationService.createConsumptions(List.of(withoutEmployee, longDescription));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(2, result.getRejected());
+        verify(consumptionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testCreateConsumptions_EmptyBatch() {
+        assertThrows(IllegalArgumentException.class, () -> consumptionApplicationService.createConsumptions(List.of()));
+
+        verify(employeeRepository, never()).findAllByIds(any());
+    }
+
+    @Test
+    void testUpdateConsumption_MovedToAnotherEmployee_InvalidatesBothReports() {
+        EmployeeClass otherEmployee = new EmployeeClass();
+        otherEmployee.setId(2L);
+        LocalDateTime previousDate = LocalDateTime.of(2024, 3, 4, 22, 0);
+        LocalDateTime newDate = LocalDateTime.of(2024, 3, 5, 1, 0);
+        consumption.setId(10L);
+        consumption.setConsumptionDate(previousDate);
+        ConsumptionClass update = new ConsumptionClass(10L, newDate, "Coffee", BigDecimal.TEN, otherEmployee);
+        when(consumptionRepository.findById(10L)).thenReturn(Optional.of(consumption));
+        when(employeeRepository.findById(2L)).thenReturn(Optional.of(otherEmployee));
+        when(consumptionRepository.save(any(ConsumptionClass.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        consumptionApplicationService.updateConsumption(update);
+
+        verify(reportResultCache).invalidate(1L, previousDate.toLocalDate(), previousDate.toLocalDate());
+        verify(reportResultCache).invalidate(2L, newDate.toLocalDate(), newDate.toLocalDate());
+    }
+}
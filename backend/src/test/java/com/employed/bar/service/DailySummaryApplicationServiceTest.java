@@ -0,0 +1,61 @@
+package com.employed.bar.service;
+
+import com.employed.bar.application.service.DailySummaryApplicationService;
+import com.employed.bar.domain.port.out.DailySummaryRepositoryPort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DailySummaryApplicationServiceTest {
+
+    @Mock
+    private DailySummaryRepositoryPort dailySummaryRepositoryPort;
+
+    @InjectMocks
+    private DailySummaryApplicationService dailySummaryApplicationService;
+
+    @Test
+    void testRebuildDailySummaries_SplitsRangeByMonth() {
+        dailySummaryApplicationService.rebuildDailySummaries(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 10));
+
+        InOrder inOrder = inOrder(dailySummaryRepositoryPort);
+        inOrder.verify(dailySummaryRepositoryPort).rebuild(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 31));
+        inOrder.verify(dailySummaryRepositoryPort).rebuild(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+        inOrder.verify(dailySummaryRepositoryPort).rebuild(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10));
+        verifyNoMoreInteractions(dailySummaryRepositoryPort);
+    }
+
+    @Test
+    void testRebuildDailySummaries_SingleDay() {
+        LocalDate day = LocalDate.of(2024, 5, 20);
+
+        dailySummaryApplicationService.rebuildDailySummaries(day, day);
+
+        verify(dailySummaryRepositoryPort, times(1)).rebuild(day, day);
+    }
+
+    @Test
+    void testRebuildDailySummaries_EndBeforeStart() {
+        assertThrows(IllegalArgumentException.class, () ->
+                dailySummaryApplicationService.rebuildDailySummaries(LocalDate.of(2024, 5, 20), LocalDate.of(2024, 5, 1)));
+
+        verifyNoInteractions(dailySummaryRepositoryPort);
+    }
+
+    @Test
+    void testRebuildDailySummaries_NullDates() {
+        assertThrows(IllegalArgumentException.class, () ->
+                dailySummaryApplicationService.rebuildDailySummaries(null, LocalDate.of(2024, 5, 1)));
+
+        verifyNoInteractions(dailySummaryRepositoryPort);
+    }
+}
@@ -1,10 +1,12 @@
 package com.employed.bar.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
 import com.employed.bar.application.service.EmployeeApplicationService;
 import com.employed.bar.domain.enums.PaymentType;
 import com.employed.bar.domain.exceptions.EmailAlreadyExistException;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
 import com.employed.bar.domain.model.payment.CashPaymentMethod;
+import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.app.AttendanceUseCase;
 import com.employed.bar.domain.port.in.payment.PaymentCalculationUseCase;
@@ -34,6 +36,9 @@ public class EmployeeApplicationServiceTest {
     @Mock
     private PaymentCalculationUseCase paymentCalculationUseCase;
 
+    @Mock
+    private EmployeePeriodResultCache<Report> reportResultCache;
+
     @InjectMocks
     private EmployeeApplicationService employeeApplicationService;
 
@@ -164,4 +169,15 @@ public class EmployeeApplicationServiceTest {
             employeeApplicationService.createEmployee(employee);
         });
     }
+
+    @Test
+    void testUpdateHourlyRate_InvalidatesEveryCachedReportOfTheEmployee() {
+        when(employeeRepositoryPort.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeRepositoryPort.save(employee)).thenReturn(employee);
+
+        employeeApplicationService.updateHourlyRate(1L, new BigDecimal("12.50"));
+
+        assertEquals(new BigDecimal("12.50"), employee.getHourlyRate());
+        verify(reportResultCache).invalidate(1L);
+    }
 }
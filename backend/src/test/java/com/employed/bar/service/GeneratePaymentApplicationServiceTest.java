@@ -3,12 +3,14 @@ package com.employed.bar.service;
 import com.employed.bar.application.service.GeneratePaymentApplicationService;
 import com.employed.bar.domain.enums.PaymentType;
 import com.employed.bar.domain.exceptions.EmployeeNotFoundException;
+import com.employed.bar.domain.model.payroll.PayrollLine;
 import com.employed.bar.domain.model.report.HoursCalculation;
 import com.employed.bar.domain.model.structure.AttendanceRecordClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.in.app.AttendanceUseCase;
 import com.employed.bar.domain.port.in.app.EmployeeUseCase;
 import com.employed.bar.domain.port.in.payment.PaymentCalculationUseCase;
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
 import com.employed.bar.domain.service.ReportCalculator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,6 +45,9 @@ public class GeneratePaymentApplicationServiceTest {
     @Mock
     private ReportCalculator reportCalculator;
 
+    @Mock
+    private PayrollRunUseCase payrollRunUseCase;
+
     @InjectMocks
     private GeneratePaymentApplicationService generatePaymentApplicationService;
 
@@ -78,7 +83,7 @@ public class GeneratePaymentApplicationServiceTest {
         when(employeeUseCase.getEmployeeById(1L)).thenReturn(Optional.of(employee));
         when(attendanceUseCase.getAttendanceListByEmployeeAndDateRange(1L, startDate, endDate))
                 .thenReturn(Arrays.asList(record1, record2));
-        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(hoursCalculation);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
         when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
                 .thenReturn(BigDecimal.valueOf(120.0));
 
@@ -91,6 +96,20 @@ public class GeneratePaymentApplicationServiceTest {
         verify(paymentCalculationUseCase, times(1)).calculateTotalPay(employee.getPaymentType(), employee.getSalary(), employee.getHourlyRate(), employee.isPaysOvertime(), employee.getOvertimeRateType(), new BigDecimal("12.0"), BigDecimal.ZERO);
     }
 
+    @Test
+    void testGeneratePayment_ClosedPeriodReturnsSnapshotEarnings() {
+        PayrollLine snapshot = new PayrollLine(1L, null,
+                new HoursCalculation(new BigDecimal("40.00"), new BigDecimal("40.00"), BigDecimal.ZERO),
+                new BigDecimal("400.00"), new BigDecimal("12.50"), new BigDecimal("387.50"), LocalDateTime.now());
+        when(employeeUseCase.getEmployeeById(1L)).thenReturn(Optional.of(employee));
+        when(payrollRunUseCase.findClosedPeriodLine(1L, startDate, endDate)).thenReturn(Optional.of(snapshot));
+
+        BigDecimal result = generatePaymentApplicationService.generatePayment(1L, startDate, endDate);
+
+        assertEquals(new BigDecimal("400.00"), result);
+        verifyNoInteractions(attendanceUseCase, reportCalculator, paymentCalculationUseCase);
+    }
+
     @Test
     void testGeneratePayment_EmployeeNotFound() {
         when(employeeUseCase.getEmployeeById(1L)).thenReturn(Optional.empty());
@@ -110,7 +129,7 @@ public class GeneratePaymentApplicationServiceTest {
         when(employeeUseCase.getEmployeeById(1L)).thenReturn(Optional.of(employee));
         when(attendanceUseCase.getAttendanceListByEmployeeAndDateRange(1L, startDate, endDate))
                 .thenReturn(Collections.emptyList());
-        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(hoursCalculation);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
         when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), eq(BigDecimal.ZERO), eq(BigDecimal.ZERO)))
                 .thenReturn(BigDecimal.ZERO);
 
@@ -1,30 +1,32 @@
 package com.employed.bar.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
 import com.employed.bar.application.service.KpiApplicationService;
 import com.employed.bar.domain.enums.EmployeeStatus;
+import com.employed.bar.domain.model.kpi.EmployeeActivityTotals;
 import com.employed.bar.domain.model.kpi.ManagerKpis;
-import com.employed.bar.domain.model.structure.AttendanceRecordClass;
-import com.employed.bar.domain.model.structure.ConsumptionClass;
 import com.employed.bar.domain.model.structure.EmployeeClass;
-import com.employed.bar.domain.port.out.AttendanceRepositoryPort;
-import com.employed.bar.domain.port.out.ConsumptionRepositoryPort;
+import com.employed.bar.domain.port.out.EmployeeChangeWatermarkPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
+import com.employed.bar.domain.port.out.KpiAggregationPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,10 +38,13 @@ public class KpiApplicationServiceTest {
     private EmployeeRepositoryPort employeeRepository;
 
     @Mock
-    private AttendanceRepositoryPort attendanceRepository;
+    private KpiAggregationPort kpiAggregationPort;
 
     @Mock
-    private ConsumptionRepositoryPort consumptionRepositoryPort;
+    private EmployeeChangeWatermarkPort employeeChangeWatermarkPort;
+
+    @Spy
+    private EmployeePeriodResultCache<EmployeeActivityTotals> activityTotalsCache = new EmployeePeriodResultCache<>(100, Duration.ofHours(1));
 
     @InjectMocks
     private KpiApplicationService kpiApplicationService;
@@ -105,8 +110,7 @@ public class KpiApplicationServiceTest {
         assertTrue(result.getTopEmployeesByConsumptions().isEmpty());
 
         verify(employeeRepository, times(1)).findAll(any(Pageable.class));
-        verify(attendanceRepository, never()).findByEmployeeAndDateRange(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(consumptionRepositoryPort, never()).findByEmployeeAndDateTimeBetween(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class), any());
+        verify(kpiAggregationPort, times(1)).findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -128,22 +132,9 @@ public class KpiApplicationServiceTest {
         List<EmployeeClass> allEmployees = Collections.singletonList(activeEmployee1);
         when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(allEmployees));
 
-        AttendanceRecordClass arNullEntry = new AttendanceRecordClass();
-        arNullEntry.setEntryDateTime(null);
-        arNullEntry.setExitDateTime(LocalDateTime.of(LocalDate.now(), LocalTime.of(17, 0)));
-
-        AttendanceRecordClass arNullExit = new AttendanceRecordClass();
-        arNullExit.setEntryDateTime(LocalDateTime.of(LocalDate.now(), LocalTime.of(9, 0)));
-        arNullExit.setExitDateTime(null);
-
-        AttendanceRecordClass arBothNull = new AttendanceRecordClass();
-        arBothNull.setEntryDateTime(null);
-        arBothNull.setExitDateTime(null);
-
-        when(attendanceRepository.findByEmployeeAndDateRange(eq(activeEmployee1), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(arNullEntry, arNullExit, arBothNull));
-        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(activeEmployee1), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
-                .thenReturn(Collections.emptyList());
+        // Incomplete records contribute no minutes to the aggregated row
+        when(kpiAggregationPort.findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(new EmployeeActivityTotals(activeEmployee1.getId(), 0L, BigDecimal.ZERO)));
 
         ManagerKpis result = kpiApplicationService.getManagerKpis(startDate, endDate);
 
@@ -156,8 +147,7 @@ public class KpiApplicationServiceTest {
         assertTrue(result.getTopEmployeesByConsumptions().isEmpty());
 
         verify(employeeRepository, times(1)).findAll(any(Pageable.class));
-        verify(attendanceRepository, times(1)).findByEmployeeAndDateRange(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(consumptionRepositoryPort, times(1)).findByEmployeeAndDateTimeBetween(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class), any());
+        verify(kpiAggregationPort, times(1)).findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -166,33 +156,14 @@ public class KpiApplicationServiceTest {
         List<EmployeeClass> allEmployees = Arrays.asList(activeEmployee1, activeEmployee2, inactiveEmployee);
         when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(allEmployees));
 
-        // 🔹 Asistencia activa
-        // Employee 1 → 8 horas (9-17)
-        AttendanceRecordClass ar1 = new AttendanceRecordClass();
-        ar1.setEntryDateTime(LocalDateTime.of(startDate, LocalTime.of(9, 0)));
-        ar1.setExitDateTime(LocalDateTime.of(startDate, LocalTime.of(17, 0)));
-        when(attendanceRepository.findByEmployeeAndDateRange(eq(activeEmployee1), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(ar1));
-
-        // Employee 2 → 4 horas (9-13)
-        AttendanceRecordClass ar2 = new AttendanceRecordClass();
-        ar2.setEntryDateTime(LocalDateTime.of(startDate, LocalTime.of(9, 0)));
-        ar2.setExitDateTime(LocalDateTime.of(startDate, LocalTime.of(13, 0)));
-        when(attendanceRepository.findByEmployeeAndDateRange(eq(activeEmployee2), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(ar2));
-
-        // 🔹 Consumos activos
-        // Employee 1 → 20.00
-        ConsumptionClass cc1 = new ConsumptionClass();
-        cc1.setAmount(BigDecimal.valueOf(20.00));
-        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(activeEmployee1), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
-                .thenReturn(Collections.singletonList(cc1));
-
-        // Employee 2 → 10.00
-        ConsumptionClass cc2 = new ConsumptionClass();
-        cc2.setAmount(BigDecimal.valueOf(10.00));
-        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(activeEmployee2), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
-                .thenReturn(Collections.singletonList(cc2));
+        // 🔹 Totales agregados por empleado
+        // Employee 1 → 8 horas (9-17), 20.00 en consumos
+        // Employee 2 → 4 horas (9-13), 10.00 en consumos
+        when(kpiAggregationPort.findActivityTotalsByEmployee(startDate.atStartOfDay(), endDate.atTime(23, 59, 59)))
+                .thenReturn(Arrays.asList(
+                        new EmployeeActivityTotals(activeEmployee1.getId(), 480L, BigDecimal.valueOf(20.00)),
+                        new EmployeeActivityTotals(activeEmployee2.getId(), 240L, BigDecimal.valueOf(10.00))
+                ));
 
         // 🔹 Ejecutar servicio
         ManagerKpis result = kpiApplicationService.getManagerKpis(startDate, endDate);
@@ -218,10 +189,9 @@ public class KpiApplicationServiceTest {
         assertEquals("Employee Two", result.getTopEmployeesByConsumptions().get(1).getEmployeeName());
         assertEquals(BigDecimal.valueOf(10.00), result.getTopEmployeesByConsumptions().get(1).getTotalConsumptions());
 
-        // ✅ Verificaciones de interacciones (solo activos)
+        // ✅ Verificaciones de interacciones (una sola agregación sin importar la plantilla)
         verify(employeeRepository, times(1)).findAll(any(Pageable.class));
-        verify(attendanceRepository, times(2)).findByEmployeeAndDateRange(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(consumptionRepositoryPort, times(2)).findByEmployeeAndDateTimeBetween(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(null));
+        verify(kpiAggregationPort, times(1)).findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -242,62 +212,18 @@ public class KpiApplicationServiceTest {
         );
         when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(allEmployees));
 
-        // 🔹 Asistencia variada (solo para activos)
-        // Employee 1 → 8 horas (9-17) + 4 horas extra (18-22) en otro día
-        AttendanceRecordClass ar1_day1 = new AttendanceRecordClass();
-        ar1_day1.setEntryDateTime(LocalDateTime.of(startDate, LocalTime.of(9, 0)));
-        ar1_day1.setExitDateTime(LocalDateTime.of(startDate, LocalTime.of(17, 0)));
-
-        AttendanceRecordClass ar1_day2 = new AttendanceRecordClass();
-        ar1_day2.setEntryDateTime(LocalDateTime.of(startDate.plusDays(1), LocalTime.of(18, 0))); // Otro día
-        ar1_day2.setExitDateTime(LocalDateTime.of(startDate.plusDays(1), LocalTime.of(22, 0))); // Otro día
-
-        when(attendanceRepository.findByEmployeeAndDateRange(eq(activeEmployee1), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(ar1_day1, ar1_day2));
-
-        // Employee 2 → 2 horas (10-12) + 3 horas (13-16) = 5 horas
-        AttendanceRecordClass ar2_morning = new AttendanceRecordClass();
-        ar2_morning.setEntryDateTime(LocalDateTime.of(startDate, LocalTime.of(10, 0)));
-        ar2_morning.setExitDateTime(LocalDateTime.of(startDate, LocalTime.of(12, 0)));
-
-        AttendanceRecordClass ar2_afternoon = new AttendanceRecordClass();
-        ar2_afternoon.setEntryDateTime(LocalDateTime.of(startDate, LocalTime.of(13, 0)));
-        ar2_afternoon.setExitDateTime(LocalDateTime.of(startDate, LocalTime.of(16, 0)));
-
-        when(attendanceRepository.findByEmployeeAndDateRange(eq(activeEmployee2), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(ar2_morning, ar2_afternoon));
-
-        // Employee 3 → Solo medio día (9-13) = 4 horas
-        AttendanceRecordClass ar3 = new AttendanceRecordClass();
-        ar3.setEntryDateTime(LocalDateTime.of(startDate, LocalTime.of(9, 0)));
-        ar3.setExitDateTime(LocalDateTime.of(startDate, LocalTime.of(13, 0)));
-
-        when(attendanceRepository.findByEmployeeAndDateRange(eq(activeEmployee3), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(ar3));
-
-        // 🔹 Consumos variados (solo para activos)
-        // Employee 1 → 25.00 + 15.00 (múltiples consumos)
-        ConsumptionClass cc1_1 = new ConsumptionClass();
-        cc1_1.setAmount(BigDecimal.valueOf(25.00));
-        ConsumptionClass cc1_2 = new ConsumptionClass();
-        cc1_2.setAmount(BigDecimal.valueOf(15.00));
-
-        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(activeEmployee1), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
-                .thenReturn(Arrays.asList(cc1_1, cc1_2));
-
-        // Employee 2 → Solo 5.00 (consumo bajo)
-        ConsumptionClass cc2 = new ConsumptionClass();
-        cc2.setAmount(BigDecimal.valueOf(5.00));
-
-        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(activeEmployee2), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
-                .thenReturn(Collections.singletonList(cc2));
-
-        // Employee 3 → 35.00 (consumo alto)
-        ConsumptionClass cc3 = new ConsumptionClass();
-        cc3.setAmount(BigDecimal.valueOf(35.00));
-
-        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(activeEmployee3), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
-                .thenReturn(Collections.singletonList(cc3));
+        // 🔹 Totales agregados por empleado
+        // Employee 1 → 8 horas (9-17) + 4 horas (18-22) = 12 horas, 25.00 + 15.00 en consumos
+        // Employee 2 → 2 horas (10-12) + 3 horas (13-16) = 5 horas, 5.00 en consumos
+        // Employee 4 → 4 horas (9-13), 35.00 en consumos
+        // Employee 3 (inactivo) → aparece en la agregación pero no debe contar
+        when(kpiAggregationPort.findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(
+                        new EmployeeActivityTotals(activeEmployee1.getId(), 720L, BigDecimal.valueOf(40.00)),
+                        new EmployeeActivityTotals(activeEmployee2.getId(), 300L, BigDecimal.valueOf(5.00)),
+                        new EmployeeActivityTotals(activeEmployee3.getId(), 240L, BigDecimal.valueOf(35.00)),
+                        new EmployeeActivityTotals(inactiveEmployee.getId(), 600L, BigDecimal.valueOf(99.00))
+                ));
 
         // 🔹 Ejecutar servicio
         ManagerKpis result = kpiApplicationService.getManagerKpis(startDate, endDate);
@@ -327,10 +253,9 @@ public class KpiApplicationServiceTest {
         assertEquals("Employee Two", result.getTopEmployeesByConsumptions().get(2).getEmployeeName());
         assertEquals(BigDecimal.valueOf(5.00), result.getTopEmployeesByConsumptions().get(2).getTotalConsumptions());
 
-        // ✅ Verificaciones de interacciones (solo para empleados activos)
+        // ✅ Verificaciones de interacciones (una sola agregación sin importar la plantilla)
         verify(employeeRepository, times(1)).findAll(any(Pageable.class));
-        verify(attendanceRepository, times(3)).findByEmployeeAndDateRange(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(consumptionRepositoryPort, times(3)).findByEmployeeAndDateTimeBetween(any(EmployeeClass.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(null));
+        verify(kpiAggregationPort, times(1)).findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -340,8 +265,7 @@ public class KpiApplicationServiceTest {
         });
 
         verify(employeeRepository, never()).findAll(any(Pageable.class));
-        verify(attendanceRepository, never()).findByEmployeeAndDateRange(any(), any(), any());
-        verify(consumptionRepositoryPort, never()).findByEmployeeAndDateTimeBetween(any(), any(), any(), any());
+        verify(kpiAggregationPort, never()).findActivityTotalsByEmployee(any(), any());
     }
 
     @Test
@@ -351,7 +275,30 @@ public class KpiApplicationServiceTest {
         });
 
         verify(employeeRepository, never()).findAll(any(Pageable.class));
-        verify(attendanceRepository, never()).findByEmployeeAndDateRange(any(), any(), any());
-        verify(consumptionRepositoryPort, never()).findByEmployeeAndDateTimeBetween(any(), any(), any(), any());
+        verify(kpiAggregationPort, never()).findActivityTotalsByEmployee(any(), any());
+    }
+
+    @Test
+    void testGetManagerKpis_ReaggregatesOnlyChangedEmployees() {
+        when(employeeRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(activeEmployee1, activeEmployee2, inactiveEmployee)));
+        when(kpiAggregationPort.findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(
+                        new EmployeeActivityTotals(1L, 480L, new BigDecimal("10.00")),
+                        new EmployeeActivityTotals(2L, 240L, new BigDecimal("5.00"))));
+        kpiApplicationService.getManagerKpis(startDate, endDate);
+
+        // Employee two gets a correction after the first computation
+        when(employeeChangeWatermarkPort.findVersions(anyCollection()))
+                .thenReturn(Map.of(2L, 1L));
+        when(kpiAggregationPort.findActivityTotalsByEmployeeIds(eq(List.of(2L)), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new EmployeeActivityTotals(2L, 600L, new BigDecimal("7.00"))));
+
+        ManagerKpis result = kpiApplicationService.getManagerKpis(startDate, endDate);
+
+        assertEquals(18.0, result.getTotalHoursWorkedOverall());
+        assertEquals(new BigDecimal("17.00"), result.getTotalConsumptionsOverall());
+        verify(kpiAggregationPort, times(1)).findActivityTotalsByEmployee(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(kpiAggregationPort, times(1)).findActivityTotalsByEmployeeIds(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class));
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package com.employed.bar.service;
 
+import com.employed.bar.application.cache.SingleFlight;
 import com.employed.bar.application.service.ManagerReportApplicationService;
 import com.employed.bar.domain.enums.*;
+import com.employed.bar.domain.exceptions.ReportGenerationException;
 import com.employed.bar.domain.model.manager.EmployeeSummary;
 import com.employed.bar.domain.model.manager.ManagerReport;
 import com.employed.bar.domain.model.manager.ReportTotals;
@@ -9,30 +11,40 @@ import com.employed.bar.domain.model.payment.AchPaymentMethod;
 import com.employed.bar.domain.model.report.HoursCalculation;
 import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.in.payment.PayrollRunUseCase;
 import com.employed.bar.domain.port.in.service.ReportingUseCase;
+import com.employed.bar.domain.port.out.DailySummaryRepositoryPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
-import com.employed.bar.domain.port.out.NotificationPort;
+import com.employed.bar.domain.port.out.OutboxNotificationPort;
 import com.employed.bar.domain.port.out.PdfGeneratorPort;
+import com.employed.bar.domain.port.out.SpreadsheetGeneratorPort;
 import com.employed.bar.domain.service.ManagerReportCalculator;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -48,11 +60,18 @@ public class ManagerReportApplicationServiceTest {
     @Mock
     private ManagerReportCalculator managerReportCalculator;
     @Mock
-    private NotificationPort notificationPort;
+    private OutboxNotificationPort outboxNotificationPort;
     @Mock
     private PdfGeneratorPort pdfGeneratorPort;
+    @Mock
+    private SpreadsheetGeneratorPort spreadsheetGeneratorPort;
+
+    @Mock
+    private DailySummaryRepositoryPort dailySummaryRepositoryPort;
+
+    @Mock
+    private PayrollRunUseCase payrollRunUseCase;
 
-    @InjectMocks
     private ManagerReportApplicationService managerReportApplicationService;
 
     private EmployeeClass employee;
@@ -63,6 +82,11 @@ public class ManagerReportApplicationServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Run report tasks on the calling thread so the mocks are exercised deterministically
+        managerReportApplicationService = new ManagerReportApplicationService(employeeRepository, reportingUseCase,
+                managerReportCalculator, outboxNotificationPort, pdfGeneratorPort, spreadsheetGeneratorPort, dailySummaryRepositoryPort,
+                payrollRunUseCase, Runnable::run, Duration.ofSeconds(5), new SingleFlight<>(Duration.ZERO));
+
         startDate = LocalDate.of(2023, 1, 1);
         endDate = LocalDate.of(2023, 1, 7);
 
@@ -82,7 +106,8 @@ public class ManagerReportApplicationServiceTest {
         byte[] dummyPdf = "dummy-pdf-content".getBytes();
 
         when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
-        when(reportingUseCase.generateCompleteReportForEmployeeById(startDate, endDate, employee.getId())).thenReturn(individualReport);
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(individualReport);
         when(managerReportCalculator.calculate(employees, individualReports)).thenReturn(managerReport);
         when(pdfGeneratorPort.generateManagerReportPdf(managerReport, startDate, endDate)).thenReturn(dummyPdf);
 
@@ -92,14 +117,31 @@ public class ManagerReportApplicationServiceTest {
         // Assert
         ArgumentCaptor<byte[]> pdfCaptor = ArgumentCaptor.forClass(byte[].class);
         verify(employeeRepository, times(1)).findAll(any(Pageable.class));
-        verify(reportingUseCase, times(1)).generateCompleteReportForEmployeeById(startDate, endDate, employee.getId());
+        verify(reportingUseCase, times(1)).generateCompleteReportForEmployee(startDate, endDate, employee);
         verify(managerReportCalculator, times(1)).calculate(employees, individualReports);
         verify(pdfGeneratorPort, times(1)).generateManagerReportPdf(managerReport, startDate, endDate);
-        verify(notificationPort, times(1)).sendManagerReportByEmail(anyString(), eq(managerReport), pdfCaptor.capture(), eq(startDate), eq(endDate));
+        verify(outboxNotificationPort, times(1)).enqueueManagerReport(anyString(), eq(managerReport), pdfCaptor.capture(), eq(startDate), eq(endDate), isNull());
 
         assertArrayEquals(dummyPdf, pdfCaptor.getValue());
     }
 
+    @Test
+    void testGenerateManagerReportPdf_ClosedPeriodUsesPayrollSnapshot() {
+        List<EmployeeClass> employees = Collections.singletonList(employee);
+        List<Report> snapshotReports = Collections.singletonList(individualReport);
+        byte[] dummyPdf = "snapshot-pdf".getBytes();
+
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
+        when(payrollRunUseCase.findClosedPeriodReports(startDate, endDate)).thenReturn(Optional.of(snapshotReports));
+        when(managerReportCalculator.calculate(employees, snapshotReports)).thenReturn(managerReport);
+        when(pdfGeneratorPort.generateManagerReportPdf(managerReport, startDate, endDate)).thenReturn(dummyPdf);
+
+        byte[] result = managerReportApplicationService.generateManagerReportPdf(startDate, endDate);
+
+        assertArrayEquals(dummyPdf, result);
+        verifyNoInteractions(reportingUseCase, dailySummaryRepositoryPort);
+    }
+
     @Test
     void testGenerateAndSendManagerReport_NoEmployees() {
         // Arrange
@@ -118,7 +160,7 @@ public class ManagerReportApplicationServiceTest {
         verifyNoInteractions(reportingUseCase); // No reports should be generated
         verify(managerReportCalculator, times(1)).calculate(Collections.emptyList(), Collections.emptyList());
         verify(pdfGeneratorPort, times(1)).generateManagerReportPdf(managerReport, startDate, endDate); // Verify PDF generation is still called
-        verify(notificationPort, times(1)).sendManagerReportByEmail(anyString(), any(ManagerReport.class), pdfCaptor.capture(), eq(startDate), eq(endDate));
+        verify(outboxNotificationPort, times(1)).enqueueManagerReport(anyString(), any(ManagerReport.class), pdfCaptor.capture(), eq(startDate), eq(endDate), isNull());
         
         // Verify that the captured PDF is the one we mocked
         assertArrayEquals(dummyPdf, pdfCaptor.getValue());
@@ -132,7 +174,8 @@ public class ManagerReportApplicationServiceTest {
         byte[] expectedPdf = {1, 2, 3, 4};
 
         when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
-        when(reportingUseCase.generateCompleteReportForEmployeeById(startDate, endDate, employee.getId())).thenReturn(individualReport);
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(individualReport);
         when(managerReportCalculator.calculate(employees, individualReports)).thenReturn(managerReport);
         when(pdfGeneratorPort.generateManagerReportPdf(managerReport, startDate, endDate)).thenReturn(expectedPdf);
 
@@ -143,11 +186,86 @@ public class ManagerReportApplicationServiceTest {
         assertNotNull(actualPdf);
         assertArrayEquals(expectedPdf, actualPdf);
         verify(employeeRepository, times(1)).findAll(any(Pageable.class));
-        verify(reportingUseCase, times(1)).generateCompleteReportForEmployeeById(startDate, endDate, employee.getId());
+        verify(reportingUseCase, times(1)).generateCompleteReportForEmployee(startDate, endDate, employee);
         verify(managerReportCalculator, times(1)).calculate(employees, individualReports);
         verify(pdfGeneratorPort, times(1)).generateManagerReportPdf(managerReport, startDate, endDate);
     }
 
+    @Test
+    void testWriteManagerReportPdf_StreamsIntoGivenOutputStream() {
+        // Arrange
+        List<EmployeeClass> employees = Collections.singletonList(employee);
+        List<Report> individualReports = Collections.singletonList(individualReport);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(individualReport);
+        when(managerReportCalculator.calculate(employees, individualReports)).thenReturn(managerReport);
+
+        // Act
+        managerReportApplicationService.writeManagerReportPdf(startDate, endDate, outputStream);
+
+        // Assert
+        verify(pdfGeneratorPort, times(1)).writeManagerReportPdf(managerReport, startDate, endDate, outputStream);
+        verify(pdfGeneratorPort, never()).generateManagerReportPdf(any(), any(), any());
+    }
+
+    @Test
+    void testWriteManagerReportPdf_DownloadsWithinTheResultTtlShareOneComputation() {
+        // Arrange
+        ManagerReportApplicationService coalescingService = new ManagerReportApplicationService(employeeRepository, reportingUseCase,
+                managerReportCalculator, outboxNotificationPort, pdfGeneratorPort, spreadsheetGeneratorPort, dailySummaryRepositoryPort,
+                payrollRunUseCase, Runnable::run, Duration.ofSeconds(5), new SingleFlight<>(Duration.ofMinutes(1)));
+        List<EmployeeClass> employees = Collections.singletonList(employee);
+        ByteArrayOutputStream pdfStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream excelStream = new ByteArrayOutputStream();
+
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(individualReport);
+        when(managerReportCalculator.calculate(employees, Collections.singletonList(individualReport))).thenReturn(managerReport);
+
+        // Act
+        coalescingService.writeManagerReportPdf(startDate, endDate, pdfStream);
+        coalescingService.writeManagerReportPdf(startDate, endDate, pdfStream);
+        coalescingService.writeManagerReportExcel(startDate, endDate, excelStream);
+
+        // Assert: one computation, but every download still writes its own file
+        verify(reportingUseCase, times(1)).generateCompleteReportForEmployee(startDate, endDate, employee);
+        verify(managerReportCalculator, times(1)).calculate(any(), any());
+        verify(pdfGeneratorPort, times(2)).writeManagerReportPdf(managerReport, startDate, endDate, pdfStream);
+        verify(spreadsheetGeneratorPort, times(1)).writeManagerReportWorkbook(managerReport, startDate, endDate, excelStream);
+    }
+
+    @Test
+    void testWriteManagerReportExcel_WritesWorkbookIntoGivenOutputStream() {
+        // Arrange
+        List<EmployeeClass> employees = Collections.singletonList(employee);
+        List<Report> individualReports = Collections.singletonList(individualReport);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(individualReport);
+        when(managerReportCalculator.calculate(employees, individualReports)).thenReturn(managerReport);
+
+        // Act
+        managerReportApplicationService.writeManagerReportExcel(startDate, endDate, outputStream);
+
+        // Assert
+        verify(spreadsheetGeneratorPort, times(1)).writeManagerReportWorkbook(managerReport, startDate, endDate, outputStream);
+        verifyNoInteractions(pdfGeneratorPort);
+    }
+
+    @Test
+    void testWriteManagerReportPdf_NullStartDate() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () ->
+                managerReportApplicationService.writeManagerReportPdf(null, endDate, new ByteArrayOutputStream()));
+        assertEquals("Start date and end date must not be null", thrown.getMessage());
+        verifyNoInteractions(employeeRepository, pdfGeneratorPort);
+    }
+
     @Test
     void testGenerateManagerReportPdf_NoEmployees() {
         // Arrange
@@ -168,13 +286,125 @@ public class ManagerReportApplicationServiceTest {
         verify(pdfGeneratorPort, times(1)).generateManagerReportPdf(managerReport, startDate, endDate);
     }
 
+    @Test
+    void testGenerateManagerReportPdf_SkipsEmployeesWithoutActivity() {
+        // Arrange
+        EmployeeClass idleEmployee = new EmployeeClass();
+        idleEmployee.setId(2L);
+        idleEmployee.setName("Idle Employee");
+        List<EmployeeClass> employees = List.of(employee, idleEmployee);
+        List<Report> individualReports = Collections.singletonList(individualReport);
+        byte[] expectedPdf = {1, 2, 3, 4};
+
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(individualReport);
+        when(managerReportCalculator.calculate(employees, individualReports)).thenReturn(managerReport);
+        when(pdfGeneratorPort.generateManagerReportPdf(managerReport, startDate, endDate)).thenReturn(expectedPdf);
+
+        // Act
+        byte[] actualPdf = managerReportApplicationService.generateManagerReportPdf(startDate, endDate);
+
+        // Assert
+        assertArrayEquals(expectedPdf, actualPdf);
+        verify(reportingUseCase, never()).generateCompleteReportForEmployee(startDate, endDate, idleEmployee);
+        // The manager report still receives every employee so the manager email lookup is unchanged
+        verify(managerReportCalculator, times(1)).calculate(employees, individualReports);
+    }
+
+    @Test
+    void testGenerateManagerReportPdf_RunsReportsOnExecutorInEmployeeOrder() throws Exception {
+        // Arrange
+        EmployeeClass secondEmployee = new EmployeeClass();
+        secondEmployee.setId(2L);
+        secondEmployee.setName("Second Employee");
+        Report secondReport = mock(Report.class);
+        List<EmployeeClass> employees = List.of(employee, secondEmployee);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ManagerReportApplicationService parallelService = new ManagerReportApplicationService(employeeRepository, reportingUseCase,
+                managerReportCalculator, outboxNotificationPort, pdfGeneratorPort, spreadsheetGeneratorPort, dailySummaryRepositoryPort,
+                payrollRunUseCase, executor, Duration.ofSeconds(5), new SingleFlight<>(Duration.ZERO));
+
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(1L, 2L));
+        // The first employee finishes last, the joined list must still follow the employee order
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return individualReport;
+        });
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, secondEmployee)).thenReturn(secondReport);
+        when(managerReportCalculator.calculate(employees, List.of(individualReport, secondReport))).thenReturn(managerReport);
+        when(pdfGeneratorPort.generateManagerReportPdf(managerReport, startDate, endDate)).thenReturn(new byte[]{1});
+
+        try {
+            // Act
+            parallelService.generateManagerReportPdf(startDate, endDate);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        verify(managerReportCalculator, times(1)).calculate(employees, List.of(individualReport, secondReport));
+        verify(reportingUseCase, never()).generateCompleteReportForEmployeeById(any(), any(), any());
+    }
+
+    @Test
+    void testGenerateManagerReportPdf_EmployeeTimeout() throws InterruptedException {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ManagerReportApplicationService parallelService = new ManagerReportApplicationService(employeeRepository, reportingUseCase,
+                managerReportCalculator, outboxNotificationPort, pdfGeneratorPort, spreadsheetGeneratorPort, dailySummaryRepositoryPort,
+                payrollRunUseCase, executor, Duration.ofMillis(50), new SingleFlight<>(Duration.ZERO));
+
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(employee)));
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return individualReport;
+        });
+
+        try {
+            // Act & Assert
+            ReportGenerationException thrown = assertThrows(ReportGenerationException.class,
+                    () -> parallelService.generateManagerReportPdf(startDate, endDate));
+            assertTrue(thrown.getMessage().contains("timed out"));
+            // The timed-out report is interrupted instead of running on and holding its connection
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verifyNoInteractions(managerReportCalculator, pdfGeneratorPort);
+    }
+
+    @Test
+    void testGenerateManagerReportPdf_EmployeeReportFails() {
+        // Arrange
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(employee)));
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee))
+                .thenThrow(new IllegalStateException("boom"));
+
+        // Act & Assert
+        ReportGenerationException thrown = assertThrows(ReportGenerationException.class,
+                () -> managerReportApplicationService.generateManagerReportPdf(startDate, endDate));
+        assertTrue(thrown.getMessage().contains("employee 1"));
+        verifyNoInteractions(managerReportCalculator, pdfGeneratorPort);
+    }
+
     @Test
     void testGenerateAndSendManagerReport_NullStartDate() {
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
             managerReportApplicationService.generateAndSendManagerReport(null, endDate);
         });
         assertEquals("Start date and end date must not be null", thrown.getMessage());
-        verifyNoInteractions(employeeRepository, reportingUseCase, managerReportCalculator, notificationPort);
+        verifyNoInteractions(employeeRepository, reportingUseCase, managerReportCalculator, outboxNotificationPort);
     }
 
     @Test
@@ -209,7 +439,8 @@ public class ManagerReportApplicationServiceTest {
 
         // Mock dependencies
         when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(employee)));
-        when(reportingUseCase.generateCompleteReportForEmployeeById(startDate, endDate, employee.getId()))
+        when(dailySummaryRepositoryPort.findEmployeeIdsWithActivity(startDate.minusDays(1), endDate)).thenReturn(Set.of(employee.getId()));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee))
                 .thenReturn(localIndividualReport);
 
         // ✅ DEBUG: Verificar que el employee tiene paymentMethod
@@ -244,7 +475,7 @@ public class ManagerReportApplicationServiceTest {
         // Then
         ArgumentCaptor<ManagerReport> managerReportCaptor = ArgumentCaptor.forClass(ManagerReport.class);
         ArgumentCaptor<byte[]> pdfCaptor = ArgumentCaptor.forClass(byte[].class);
-        verify(notificationPort).sendManagerReportByEmail(anyString(), managerReportCaptor.capture(), pdfCaptor.capture(), eq(startDate), eq(endDate));
+        verify(outboxNotificationPort).enqueueManagerReport(anyString(), managerReportCaptor.capture(), pdfCaptor.capture(), eq(startDate), eq(endDate), isNull());
 
         // Assertions for the report content
         ManagerReport capturedReport = managerReportCaptor.getValue();
@@ -0,0 +1,108 @@
+package com.employed.bar.service;
+
+import com.employed.bar.domain.model.manager.EmployeeSummary;
+import com.employed.bar.domain.model.manager.ManagerReport;
+import com.employed.bar.domain.model.report.HoursCalculation;
+import com.employed.bar.domain.model.report.Report;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.service.ManagerReportCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ManagerReportCalculatorTest {
+
+    private final ManagerReportCalculator managerReportCalculator = new ManagerReportCalculator();
+
+    private EmployeeClass employee(long id, String name) {
+        EmployeeClass employee = new EmployeeClass();
+        employee.setId(id);
+        employee.setName(name);
+        return employee;
+    }
+
+    private Report report(long employeeId, String regularHours, String overtimeHours, String earnings, String consumptions) {
+        BigDecimal regular = new BigDecimal(regularHours);
+        BigDecimal overtime = new BigDecimal(overtimeHours);
+        return new Report(employeeId, Collections.emptyList(), Collections.emptyList(),
+                new HoursCalculation(regular.add(overtime), regular, overtime),
+                new BigDecimal(consumptions), new BigDecimal(earnings));
+    }
+
+    @Test
+    void testCalculate_MatchesReportsToEmployeesAndSumsTotals() {
+        List<EmployeeClass> employees = List.of(employee(1L, "Ana"), employee(2L, "Luis"), employee(3L, "Sin reporte"));
+        // Reports arrive in a different order than the employees
+        List<Report> reports = List.of(
+                report(2L, "40", "5", "900.00", "100.00"),
+                report(1L, "30", "0", "600.00", "50.00"));
+
+        ManagerReport result = managerReportCalculator.calculate(employees, reports);
+
+        List<EmployeeSummary> summaries = result.getEmployeeSummaries();
+        assertEquals(2, summaries.size());
+        assertEquals("Ana", summaries.get(0).getEmployeeName());
+        assertEquals(new BigDecimal("550.00"), summaries.get(0).getNetPay());
+        assertEquals("Luis", summaries.get(1).getEmployeeName());
+        assertEquals(new BigDecimal("45"), summaries.get(1).getTotalHoursWorked());
+
+        assertEquals(new BigDecimal("70"), result.getTotals().getTotalRegularHoursWorked());
+        assertEquals(new BigDecimal("5"), result.getTotals().getTotalOvertimeHoursWorked());
+        assertEquals(new BigDecimal("1500.00"), result.getTotals().getTotalEarnings());
+        assertEquals(new BigDecimal("150.00"), result.getTotals().getTotalConsumptions());
+        assertEquals(new BigDecimal("1350.00"), result.getTotals().getTotalNetPay());
+    }
+
+    @Test
+    void testCalculate_DuplicateReportKeepsFirst() {
+        List<EmployeeClass> employees = List.of(employee(1L, "Ana"));
+        List<Report> reports = List.of(
+                report(1L, "8", "0", "80.00", "0.00"),
+                report(1L, "4", "0", "40.00", "0.00"));
+
+        ManagerReport result = managerReportCalculator.calculate(employees, reports);
+
+        assertEquals(1, result.getEmployeeSummaries().size());
+        assertEquals(new BigDecimal("80.00"), result.getEmployeeSummaries().get(0).getTotalEarnings());
+        // Hour totals are still taken from every individual report
+        assertEquals(new BigDecimal("12"), result.getTotals().getTotalRegularHoursWorked());
+    }
+
+    @Test
+    void testCalculate_NoReports() {
+        ManagerReport result = managerReportCalculator.calculate(List.of(employee(1L, "Ana")), Collections.emptyList());
+
+        assertTrue(result.getEmployeeSummaries().isEmpty());
+        assertEquals(BigDecimal.ZERO, result.getTotals().getTotalEarnings());
+        assertEquals(BigDecimal.ZERO, result.getTotals().getTotalRegularHoursWorked());
+    }
+
+    @Test
+    void testCalculate_TenThousandEmployeesAreEachMatchedToTheirOwnReport() {
+        int size = 10_000;
+        List<EmployeeClass> employees = new ArrayList<>(size);
+        List<Report> reports = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(employee(i, "Employee " + i));
+            // Reversed order, and earnings equal to the employee id so a mismatched join shows up
+            long employeeId = size - 1 - i;
+            reports.add(report(employeeId, "8", "1", employeeId + ".00", "1.00"));
+        }
+
+        ManagerReport result = managerReportCalculator.calculate(employees, reports);
+
+        List<EmployeeSummary> summaries = result.getEmployeeSummaries();
+        assertEquals(size, summaries.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals("Employee " + i, summaries.get(i).getEmployeeName());
+            assertEquals(new BigDecimal(i + ".00"), summaries.get(i).getTotalEarnings());
+        }
+        assertEquals(new BigDecimal("49985000.00"), result.getTotals().getTotalNetPay());
+        assertEquals(new BigDecimal("80000"), result.getTotals().getTotalRegularHoursWorked());
+    }
+}
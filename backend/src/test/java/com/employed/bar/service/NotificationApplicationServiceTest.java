@@ -4,22 +4,35 @@ import com.employed.bar.application.notification.NotificationApplicationService;
 import com.employed.bar.domain.model.report.Report;
 import com.employed.bar.domain.model.structure.EmployeeClass;
 import com.employed.bar.domain.port.out.NotificationPort;
+import com.employed.bar.domain.port.out.OutboxNotificationPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 class NotificationApplicationServiceTest {
 
     @Mock
     private NotificationPort notificationPort;
 
+    @Mock
+    private OutboxNotificationPort outboxNotificationPort;
+
     @InjectMocks
     private NotificationApplicationService notificationApplicationService;
 
@@ -31,8 +44,10 @@ class NotificationApplicationServiceTest {
     @Test
     void testSendReport() {
         // Given
-        EmployeeClass employee = new EmployeeClass(); // Customize as needed
-        Report report = new Report(); // Customize as needed
+        EmployeeClass employee = new EmployeeClass();
+        employee.setId(1L);
+        Report report = new Report();
+        report.setEmployeeId(1L);
         List<EmployeeClass> employees = Collections.singletonList(employee);
         List<Report> reports = Collections.singletonList(report);
 
@@ -42,4 +57,59 @@ class NotificationApplicationServiceTest {
         // Then
         verify(notificationPort).sendReportByEmail(employee, report);
     }
+
+    @Test
+    void testSendReport_PairsReportsByEmployeeIdAndSkipsEmployeesWithoutReport() {
+        // Given: the report list only holds employees with activity, in a different order
+        EmployeeClass withoutActivity = new EmployeeClass();
+        withoutActivity.setId(1L);
+        EmployeeClass second = new EmployeeClass();
+        second.setId(2L);
+        EmployeeClass third = new EmployeeClass();
+        third.setId(3L);
+        Report thirdReport = new Report();
+        thirdReport.setEmployeeId(3L);
+        Report secondReport = new Report();
+        secondReport.setEmployeeId(2L);
+
+        // When
+        notificationApplicationService.sendReport(Arrays.asList(withoutActivity, second, third),
+                Arrays.asList(thirdReport, secondReport));
+
+        // Then
+        verify(notificationPort).sendReportByEmail(second, secondReport);
+        verify(notificationPort).sendReportByEmail(third, thirdReport);
+        verify(notificationPort, never()).sendReportByEmail(eq(withoutActivity), any());
+        verifyNoMoreInteractions(notificationPort);
+    }
+
+    @Test
+    void testQueueReports_QueuesOneRowPerEmployeeWithReportAndCountsOnlyNewOnes() {
+        // Given: employee 2 was already queued for this period
+        LocalDate startDate = LocalDate.of(2023, 1, 1);
+        LocalDate endDate = LocalDate.of(2023, 1, 7);
+        EmployeeClass withoutActivity = new EmployeeClass();
+        withoutActivity.setId(1L);
+        EmployeeClass alreadyQueued = new EmployeeClass();
+        alreadyQueued.setId(2L);
+        EmployeeClass third = new EmployeeClass();
+        third.setId(3L);
+        Report alreadyQueuedReport = new Report();
+        alreadyQueuedReport.setEmployeeId(2L);
+        Report thirdReport = new Report();
+        thirdReport.setEmployeeId(3L);
+        when(outboxNotificationPort.enqueueEmployeeReport(alreadyQueued, alreadyQueuedReport, startDate, endDate)).thenReturn(false);
+        when(outboxNotificationPort.enqueueEmployeeReport(third, thirdReport, startDate, endDate)).thenReturn(true);
+
+        // When
+        int queued = notificationApplicationService.queueReports(Arrays.asList(withoutActivity, alreadyQueued, third),
+                Arrays.asList(thirdReport, alreadyQueuedReport), startDate, endDate);
+
+        // Then
+        assertEquals(1, queued);
+        verify(outboxNotificationPort).enqueueEmployeeReport(alreadyQueued, alreadyQueuedReport, startDate, endDate);
+        verify(outboxNotificationPort).enqueueEmployeeReport(third, thirdReport, startDate, endDate);
+        verifyNoMoreInteractions(outboxNotificationPort);
+        verifyNoInteractions(notificationPort);
+    }
 }
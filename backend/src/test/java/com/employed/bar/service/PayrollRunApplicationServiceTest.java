@@ -0,0 +1,229 @@
+package com.employed.bar.service;
+
+import com.employed.bar.application.service.PayrollRunApplicationService;
+import com.employed.bar.domain.enums.PayrollLineType;
+import com.employed.bar.domain.exceptions.InvalidDateRangeException;
+import com.employed.bar.domain.exceptions.PayrollPeriodAlreadyClosedException;
+import com.employed.bar.domain.exceptions.PayrollRunNotFoundException;
+import com.employed.bar.domain.model.payroll.PayrollLine;
+import com.employed.bar.domain.model.payroll.PayrollRun;
+import com.employed.bar.domain.model.report.HoursCalculation;
+import com.employed.bar.domain.model.report.Report;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.port.in.service.ReportingUseCase;
+import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
+import com.employed.bar.domain.port.out.PayrollRunRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PayrollRunApplicationServiceTest {
+
+    @Mock
+    private PayrollRunRepositoryPort payrollRunRepositoryPort;
+
+    @Mock
+    private EmployeeRepositoryPort employeeRepository;
+
+    @Mock
+    private ReportingUseCase reportingUseCase;
+
+    @InjectMocks
+    private PayrollRunApplicationService payrollRunApplicationService;
+
+    private EmployeeClass employee;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private PayrollRun closedRun;
+
+    @BeforeEach
+    void setUp() {
+        employee = new EmployeeClass();
+        employee.setId(1L);
+        employee.setName("Ana");
+
+        startDate = LocalDate.of(2024, 3, 1);
+        endDate = LocalDate.of(2024, 3, 15);
+        closedRun = new PayrollRun(7L, startDate, endDate, LocalDateTime.of(2024, 3, 16, 8, 0), List.of());
+    }
+
+    private Report report(String hours, String earnings, String consumptions) {
+        return new Report(1L, Collections.emptyList(), Collections.emptyList(),
+                new HoursCalculation(new BigDecimal(hours), new BigDecimal(hours), BigDecimal.ZERO),
+                new BigDecimal(consumptions), new BigDecimal(earnings));
+    }
+
+    private PayrollLine total(String hours, String earnings, String consumptions) {
+        return new PayrollLine(1L, null,
+                new HoursCalculation(new BigDecimal(hours), new BigDecimal(hours), BigDecimal.ZERO),
+                new BigDecimal(earnings), new BigDecimal(consumptions),
+                new BigDecimal(earnings).subtract(new BigDecimal(consumptions)), closedRun.getClosedAt());
+    }
+
+    @Test
+    void testClosePeriod_StoresOneRegularLinePerReport() {
+        List<EmployeeClass> employees = List.of(employee);
+        when(payrollRunRepositoryPort.existsOverlapping(startDate, endDate)).thenReturn(false);
+        when(employeeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(employees));
+        when(reportingUseCase.generateCompleteReportsForEmployees(startDate, endDate, employees))
+                .thenReturn(List.of(report("40.00", "400.00", "12.50")));
+        when(payrollRunRepositoryPort.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PayrollRun run = payrollRunApplicationService.closePeriod(startDate, endDate);
+
+        assertEquals(startDate, run.getPeriodStart());
+        assertEquals(endDate, run.getPeriodEnd());
+        assertEquals(1, run.getLines().size());
+        PayrollLine line = run.getLines().get(0);
+        assertEquals(PayrollLineType.REGULAR, line.getLineType());
+        assertEquals(new BigDecimal("400.00"), line.getEarnings());
+        assertEquals(new BigDecimal("12.50"), line.getConsumptions());
+        assertEquals(new BigDecimal("387.50"), line.getNetPay());
+        assertEquals(run.getClosedAt(), line.getCreatedAt());
+    }
+
+    @Test
+    void testClosePeriod_RejectsOverlappingPeriod() {
+        when(payrollRunRepositoryPort.existsOverlapping(startDate, endDate)).thenReturn(true);
+
+        assertThrows(PayrollPeriodAlreadyClosedException.class, () -> payrollRunApplicationService.closePeriod(startDate, endDate));
+
+        verify(payrollRunRepositoryPort, never()).save(any());
+        verifyNoInteractions(reportingUseCase);
+    }
+
+    @Test
+    void testClosePeriod_RejectsInvertedRange() {
+        assertThrows(InvalidDateRangeException.class, () -> payrollRunApplicationService.closePeriod(endDate, startDate));
+
+        verifyNoInteractions(payrollRunRepositoryPort, reportingUseCase);
+    }
+
+    @Test
+    void testGetPayrollRun_NotClosed() {
+        when(payrollRunRepositoryPort.findByPeriod(startDate, endDate)).thenReturn(Optional.empty());
+
+        assertThrows(PayrollRunNotFoundException.class, () -> payrollRunApplicationService.getPayrollRun(startDate, endDate));
+    }
+
+    @Test
+    void testGetPayrollRun_AppendsTheDifferenceOfAPendingChange() {
+        when(payrollRunRepositoryPort.findByPeriod(startDate, endDate)).thenReturn(Optional.of(closedRun));
+        when(payrollRunRepositoryPort.findPendingAdjustments(7L)).thenReturn(Map.of(1L, 3L));
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        // A late clock-out added two hours after the period was closed
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(report("42.00", "420.00", "12.50"));
+        when(payrollRunRepositoryPort.findEmployeeTotal(7L, 1L)).thenReturn(Optional.of(total("40.00", "400.00", "12.50")));
+
+        payrollRunApplicationService.getPayrollRun(startDate, endDate);
+
+        ArgumentCaptor<PayrollLine> adjustment = ArgumentCaptor.forClass(PayrollLine.class);
+        verify(payrollRunRepositoryPort).resolvePendingAdjustment(eq(7L), eq(1L), adjustment.capture(), eq(3L));
+        assertEquals(PayrollLineType.ADJUSTMENT, adjustment.getValue().getLineType());
+        assertEquals(new BigDecimal("2.00"), adjustment.getValue().getHoursCalculation().getTotalHours());
+        assertEquals(new BigDecimal("20.00"), adjustment.getValue().getEarnings());
+        assertEquals(0, adjustment.getValue().getConsumptions().signum());
+        assertEquals(new BigDecimal("20.00"), adjustment.getValue().getNetPay());
+        verify(payrollRunRepositoryPort).findLines(7L);
+    }
+
+    @Test
+    void testApplyPendingAdjustments_ClearsTheMarkWithoutALineWhenNothingChanged() {
+        when(payrollRunRepositoryPort.findRunIdsWithPendingAdjustments()).thenReturn(Set.of(7L));
+        when(payrollRunRepositoryPort.findById(7L)).thenReturn(Optional.of(closedRun));
+        when(payrollRunRepositoryPort.findPendingAdjustments(7L)).thenReturn(Map.of(1L, 3L));
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(report("40.00", "400.00", "12.50"));
+        when(payrollRunRepositoryPort.findEmployeeTotal(7L, 1L)).thenReturn(Optional.of(total("40.00", "400.00", "12.50")));
+
+        int applied = payrollRunApplicationService.applyPendingAdjustments();
+
+        assertEquals(0, applied);
+        verify(payrollRunRepositoryPort).resolvePendingAdjustment(eq(7L), eq(1L), isNull(), eq(3L));
+    }
+
+    @Test
+    void testApplyPendingAdjustments_ReversesAnEmployeeWhoseActivityWasRemoved() {
+        when(payrollRunRepositoryPort.findRunIdsWithPendingAdjustments()).thenReturn(Set.of(7L));
+        when(payrollRunRepositoryPort.findById(7L)).thenReturn(Optional.of(closedRun));
+        when(payrollRunRepositoryPort.findPendingAdjustments(7L)).thenReturn(Map.of(1L, 3L));
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        // No activity left in the period, so no report
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(null);
+        when(payrollRunRepositoryPort.findEmployeeTotal(7L, 1L)).thenReturn(Optional.of(total("40.00", "400.00", "12.50")));
+        when(payrollRunRepositoryPort.resolvePendingAdjustment(eq(7L), eq(1L), any(PayrollLine.class), eq(3L))).thenReturn(true);
+
+        int applied = payrollRunApplicationService.applyPendingAdjustments();
+
+        assertEquals(1, applied);
+        ArgumentCaptor<PayrollLine> adjustment = ArgumentCaptor.forClass(PayrollLine.class);
+        verify(payrollRunRepositoryPort).resolvePendingAdjustment(eq(7L), eq(1L), adjustment.capture(), eq(3L));
+        assertEquals(new BigDecimal("-400.00"), adjustment.getValue().getEarnings());
+        assertEquals(new BigDecimal("-387.50"), adjustment.getValue().getNetPay());
+    }
+
+    @Test
+    void testFindClosedPeriodReports_OpenPeriod() {
+        when(payrollRunRepositoryPort.findByPeriod(startDate, endDate)).thenReturn(Optional.empty());
+
+        assertTrue(payrollRunApplicationService.findClosedPeriodReports(startDate, endDate).isEmpty());
+        verifyNoInteractions(reportingUseCase);
+    }
+
+    @Test
+    void testFindClosedPeriodReports_BuildsReportsFromTheSummedLines() {
+        PayrollLine reversed = new PayrollLine(2L, null,
+                new HoursCalculation(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO),
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, closedRun.getClosedAt());
+        when(payrollRunRepositoryPort.findByPeriod(startDate, endDate)).thenReturn(Optional.of(closedRun));
+        when(payrollRunRepositoryPort.findPendingAdjustments(7L)).thenReturn(Map.of());
+        when(payrollRunRepositoryPort.findEmployeeTotals(7L)).thenReturn(List.of(total("40.00", "400.00", "12.50"), reversed));
+
+        List<Report> reports = payrollRunApplicationService.findClosedPeriodReports(startDate, endDate).orElseThrow();
+
+        // An employee whose lines cancel out has no report, as if the period had no activity
+        assertEquals(1, reports.size());
+        assertEquals(1L, reports.get(0).getEmployeeId());
+        assertEquals(new BigDecimal("400.00"), reports.get(0).getTotalEarnings());
+        assertEquals(new BigDecimal("12.50"), reports.get(0).getTotalConsumptionAmount());
+        assertEquals(new BigDecimal("40.00"), reports.get(0).getHoursCalculation().getTotalHours());
+        verifyNoInteractions(reportingUseCase);
+    }
+
+    @Test
+    void testFindClosedPeriodLine_SettlesThatEmployeeFirst() {
+        when(payrollRunRepositoryPort.findByPeriod(startDate, endDate)).thenReturn(Optional.of(closedRun));
+        when(payrollRunRepositoryPort.findPendingAdjustments(7L)).thenReturn(Map.of(1L, 3L, 2L, 1L));
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(reportingUseCase.generateCompleteReportForEmployee(startDate, endDate, employee)).thenReturn(report("40.00", "400.00", "12.50"));
+        when(payrollRunRepositoryPort.findEmployeeTotal(7L, 1L)).thenReturn(Optional.of(total("40.00", "400.00", "12.50")));
+
+        Optional<PayrollLine> line = payrollRunApplicationService.findClosedPeriodLine(1L, startDate, endDate);
+
+        assertEquals(new BigDecimal("400.00"), line.orElseThrow().getEarnings());
+        verify(payrollRunRepositoryPort).resolvePendingAdjustment(eq(7L), eq(1L), isNull(), eq(3L));
+        verify(employeeRepository, never()).findById(2L);
+    }
+}
@@ -0,0 +1,181 @@
+package com.employed.bar.service;
+
+import com.employed.bar.domain.enums.OvertimeRateType;
+import com.employed.bar.domain.model.report.HoursCalculation;
+import com.employed.bar.domain.model.report.OvertimeRules;
+import com.employed.bar.domain.model.structure.AttendanceRecordClass;
+import com.employed.bar.domain.model.structure.EmployeeClass;
+import com.employed.bar.domain.service.ReportCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportCalculatorTest {
+
+    // A Monday
+    private static final LocalDate WEEK_START = LocalDate.of(2024, 3, 4);
+
+    private final ReportCalculator reportCalculator = new ReportCalculator();
+
+    private EmployeeClass employee(boolean paysOvertime) {
+        EmployeeClass employee = new EmployeeClass();
+        employee.setId(1L);
+        employee.setName("Ana");
+        employee.setPaysOvertime(paysOvertime);
+        employee.setOvertimeRateType(paysOvertime ? OvertimeRateType.FIFTY_PERCENT : null);
+        return employee;
+    }
+
+    private AttendanceRecordClass record(LocalDateTime entry, LocalDateTime exit) {
+        AttendanceRecordClass record = new AttendanceRecordClass();
+        record.setEntryDateTime(entry);
+        record.setExitDateTime(exit);
+        return record;
+    }
+
+    private AttendanceRecordClass shift(LocalDate day, int fromHour, int hours) {
+        LocalDateTime entry = day.atTime(fromHour, 0);
+        return record(entry, entry.plusHours(hours));
+    }
+
+    private HoursCalculation calculate(List<AttendanceRecordClass> records, EmployeeClass employee) {
+        return reportCalculator.calculateHours(records, WEEK_START.atStartOfDay(), WEEK_START.plusDays(14).atStartOfDay(), employee);
+    }
+
+    private void assertHours(String total, String regular, String overtime, HoursCalculation hours) {
+        assertEquals(new BigDecimal(total), hours.getTotalHours());
+        assertEquals(new BigDecimal(regular), hours.getRegularHours());
+        assertEquals(new BigDecimal(overtime), hours.getOvertimeHours());
+    }
+
+    @Test
+    void testCalculateHours_DayWithinThresholdIsRegular() {
+        HoursCalculation hours = calculate(List.of(shift(WEEK_START, 9, 8)), employee(true));
+
+        assertHours("8.00", "8.00", "0.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_TimeOverTheDailyThresholdIsOvertime() {
+        // Two records on the same day are added up before the threshold is applied
+        HoursCalculation hours = calculate(List.of(shift(WEEK_START, 8, 6), shift(WEEK_START, 16, 4)), employee(true));
+
+        assertHours("10.00", "8.00", "2.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_RegularTimeOverTheWeeklyThresholdIsOvertime() {
+        List<AttendanceRecordClass> records = new ArrayList<>();
+        for (int day = 0; day < 6; day++) {
+            records.add(shift(WEEK_START.plusDays(day), 9, 8));
+        }
+
+        HoursCalculation hours = calculate(records, employee(true));
+
+        assertHours("48.00", "40.00", "8.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_DailyOvertimeIsNotCountedAgainForTheWeek() {
+        List<AttendanceRecordClass> records = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            records.add(shift(WEEK_START.plusDays(day), 9, 9));
+        }
+
+        HoursCalculation hours = calculate(records, employee(true));
+
+        assertHours("45.00", "40.00", "5.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_WeeklyThresholdStartsOverEachWeek() {
+        List<AttendanceRecordClass> records = new ArrayList<>();
+        // Sunday of the first week and Monday to Friday of the second one
+        records.add(shift(WEEK_START.plusDays(6), 9, 8));
+        for (int day = 7; day < 12; day++) {
+            records.add(shift(WEEK_START.plusDays(day), 9, 8));
+        }
+
+        HoursCalculation hours = calculate(records, employee(true));
+
+        assertHours("48.00", "48.00", "0.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_NightShiftCountsForTheDayItStarted() {
+        // 22:00 to 07:00: split at midnight it would be 2h + 7h and no overtime
+        HoursCalculation hours = calculate(List.of(shift(WEEK_START, 22, 9)), employee(true));
+
+        assertHours("9.00", "8.00", "1.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_EmployeeWithoutOvertimeGetsEveryHourAsRegular() {
+        HoursCalculation hours = calculate(List.of(shift(WEEK_START, 8, 10)), employee(false));
+
+        assertHours("10.00", "10.00", "0.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_RoundsOnceOverTheWholePeriod() {
+        LocalDateTime nine = WEEK_START.atTime(9, 0);
+        List<AttendanceRecordClass> records = List.of(
+                record(nine, nine.plusMinutes(20)),
+                record(nine.plusHours(1), nine.plusHours(1).plusMinutes(20)),
+                record(nine.plusHours(2), nine.plusHours(2).plusMinutes(20)));
+
+        HoursCalculation hours = calculate(records, employee(true));
+
+        // Rounding each record first would give 3 x 0.33 = 0.99
+        assertHours("1.00", "1.00", "0.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_ClipsRecordsToThePeriodAndSkipsOpenOnes() {
+        LocalDateTime start = WEEK_START.atStartOfDay();
+        List<AttendanceRecordClass> records = List.of(
+                record(start.minusHours(2), start.plusHours(3)),
+                record(start.plusHours(10), null));
+
+        HoursCalculation hours = reportCalculator.calculateHours(records, start, start.plusDays(1), employee(true));
+
+        assertHours("3.00", "3.00", "0.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_UsesConfiguredRules() {
+        ReportCalculator sundayWeeks = new ReportCalculator(new OvertimeRules(0, 10 * 60, DayOfWeek.SUNDAY));
+        List<AttendanceRecordClass> records = List.of(
+                shift(WEEK_START.plusDays(5), 8, 12),  // Saturday
+                shift(WEEK_START.plusDays(6), 8, 12)); // Sunday, a new week
+
+        HoursCalculation hours = sundayWeeks.calculateHours(records, WEEK_START.atStartOfDay(), WEEK_START.plusDays(7).atStartOfDay(), employee(true));
+
+        assertHours("24.00", "20.00", "4.00", hours);
+    }
+
+    @Test
+    void testCalculateHours_OneHundredThousandRecordsAddUpPerDayAndWeek() {
+        int size = 100_000;
+        LocalDateTime start = LocalDate.of(2024, 1, 1).atStartOfDay();
+        List<AttendanceRecordClass> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // 25 shifts of 20 minutes per day over 4000 days
+            LocalDateTime entry = start.plusDays(i / 25).plusMinutes(30L * (i % 25));
+            records.add(record(entry, entry.plusMinutes(20)));
+        }
+
+        HoursCalculation hours = reportCalculator.calculateHours(records, start, start.plusDays(4000), employee(true));
+
+        // 500 minutes a day from a Monday: 20 minutes of daily overtime, then 40 regular hours per full week
+        // (571 full weeks of 1100 overtime minutes each, and 3 days of daily overtime in the last partial week)
+        assertHours("33333.33", "22864.00", "10469.33", hours);
+    }
+}
@@ -1,5 +1,7 @@
 package com.employed.bar.service;
 
+import com.employed.bar.application.cache.EmployeePeriodResultCache;
+import com.employed.bar.application.cache.FirstActivityDateCache;
 import com.employed.bar.application.service.ReportingApplicationService;
 import com.employed.bar.domain.enums.OvertimeRateType;
 import com.employed.bar.domain.enums.PaymentType;
@@ -15,18 +17,22 @@ import com.employed.bar.domain.port.in.payment.PaymentCalculationUseCase;
 import com.employed.bar.domain.port.in.service.SendEmployeeReportNotificationUseCase;
 import com.employed.bar.domain.port.out.AttendanceRepositoryPort;
 import com.employed.bar.domain.port.out.ConsumptionRepositoryPort;
+import com.employed.bar.domain.port.out.EmployeeChangeWatermarkPort;
 import com.employed.bar.domain.port.out.EmployeeRepositoryPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,6 +53,14 @@ public class ReportingApplicationServiceTest {
     private PaymentCalculationUseCase paymentCalculationUseCase;
     @Mock
     private SendEmployeeReportNotificationUseCase sendEmployeeReportNotificationUseCase;
+    @Spy
+    private TransactionOperations readOnlyTransaction = TransactionOperations.withoutTransaction();
+    @Mock
+    private EmployeeChangeWatermarkPort employeeChangeWatermarkPort;
+    @Spy
+    private FirstActivityDateCache firstActivityDateCache = new FirstActivityDateCache();
+    @Spy
+    private EmployeePeriodResultCache<Report> reportResultCache = new EmployeePeriodResultCache<>(100, Duration.ofHours(1));
 
     @InjectMocks
     private ReportingApplicationService reportingApplicationService;
@@ -91,6 +105,32 @@ public class ReportingApplicationServiceTest {
         hoursCalculation = new HoursCalculation(BigDecimal.valueOf(8.0), BigDecimal.valueOf(8.0), BigDecimal.ZERO);
     }
 
+    @Test
+    void testGenerateCompleteReportForEmployee_UsesLoadedEmployee() {
+        when(attendanceRepositoryPort.findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(attendanceRecord));
+        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(null)))
+                .thenReturn(Collections.singletonList(consumptionClass));
+        when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
+        when(reportCalculator.mapToConsumptionReportLine(consumptionClass)).thenReturn(consumptionReportLine);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
+        when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(BigDecimal.valueOf(80.0));
+
+        Report result = reportingApplicationService.generateCompleteReportForEmployee(startDate, endDate, employee);
+
+        assertNotNull(result);
+        assertEquals(employee.getId(), result.getEmployeeId());
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGenerateCompleteReportForEmployee_NullEmployee() {
+        assertThrows(IllegalArgumentException.class, () ->
+                reportingApplicationService.generateCompleteReportForEmployee(startDate, endDate, null));
+    }
+
     @Test
     void testGenerateCompleteReportForEmployeeById_Success() {
         when(employeeRepository.findById(employee.getId())).thenReturn(Optional.of(employee));
@@ -101,7 +141,7 @@ public class ReportingApplicationServiceTest {
                 .thenReturn(Collections.singletonList(consumptionClass));
         when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
         when(reportCalculator.mapToConsumptionReportLine(consumptionClass)).thenReturn(consumptionReportLine);
-        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(hoursCalculation);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
         when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
                 .thenReturn(BigDecimal.valueOf(80.0)); // Example total pay
 
@@ -118,11 +158,12 @@ public class ReportingApplicationServiceTest {
         assertEquals(BigDecimal.valueOf(80.0), result.getTotalEarnings());
 
         verify(employeeRepository, times(1)).findById(employee.getId());
-        verify(attendanceRepositoryPort, times(2)).findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(attendanceRepositoryPort, times(1)).findFirstEntryDateTimeByEmployee(employee.getId());
+        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class));
         verify(consumptionRepositoryPort, times(1)).findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class), eq(null));
         verify(reportCalculator, times(1)).mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class));
         verify(reportCalculator, times(1)).mapToConsumptionReportLine(consumptionClass);
-        verify(reportCalculator, times(1)).calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(reportCalculator, times(1)).calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class));
         verify(paymentCalculationUseCase, times(1)).calculateTotalPay(employee.getPaymentType(), employee.getSalary(), employee.getHourlyRate(), employee.isPaysOvertime(), employee.getOvertimeRateType(), hoursCalculation.getRegularHours(), hoursCalculation.getOvertimeHours());
     }
 
@@ -151,7 +192,7 @@ public class ReportingApplicationServiceTest {
         // Este mock también cubre la segunda llamada con el rango específico (reportStart a reportEnd)
         when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class), isNull()))
                 .thenReturn(Collections.emptyList());
-        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(expectedHours);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(expectedHours);
         when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(new AttendanceReportLine("Test Employee",
                         LocalDateTime.of(reportDate, LocalTime.of(22, 0)),
@@ -196,7 +237,7 @@ public class ReportingApplicationServiceTest {
 
         when(employeeRepository.findById(employee.getId())).thenReturn(Optional.of(employee));
         when(attendanceRepositoryPort.findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(Collections.singletonList(attendanceWithEmployee));
-        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(overtimeHours);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(overtimeHours);
         when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class), isNull())).thenReturn(Collections.emptyList());
 
         // Mock the payment calculation
@@ -240,7 +281,7 @@ public class ReportingApplicationServiceTest {
 
         when(employeeRepository.findById(employee.getId())).thenReturn(Optional.of(employee));
         when(attendanceRepositoryPort.findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
-        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(new HoursCalculation(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(new HoursCalculation(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
         when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class), isNull())).thenReturn(Collections.singletonList(consumption));
         when(reportCalculator.mapToConsumptionReportLine(any())).thenReturn(consumptionLine);
         when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), eq(BigDecimal.ZERO), eq(BigDecimal.ZERO)))
@@ -290,8 +331,8 @@ public class ReportingApplicationServiceTest {
         assertNull(result); // Expect null report for hourly employee with zero hours
 
         verify(employeeRepository, times(1)).findById(employee.getId());
-        verify(attendanceRepositoryPort, times(2)).findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(reportCalculator, never()).calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(reportCalculator, never()).calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class));
         verify(consumptionRepositoryPort, times(1)).findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class), isNull());
         verify(paymentCalculationUseCase, never()).calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class));
     }
@@ -316,7 +357,7 @@ public class ReportingApplicationServiceTest {
                 .thenReturn(Collections.singletonList(consumptionClass));
         when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
         when(reportCalculator.mapToConsumptionReportLine(consumptionClass)).thenReturn(consumptionReportLine);
-        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(hoursCalculation);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
         when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
                 .thenReturn(BigDecimal.valueOf(80.0));
 
@@ -326,11 +367,234 @@ public class ReportingApplicationServiceTest {
         // THEN
         verify(employeeRepository, times(1)).findById(employee.getId());
         verify(attendanceRepositoryPort, times(1)).findTopByEmployeeOrderByEntryDateTimeDesc(employee);
-        verify(attendanceRepositoryPort, times(2)).findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class));
         verify(consumptionRepositoryPort, times(1)).findByEmployeeAndDateTimeBetween(eq(employee), eq(expectedStartDate.atStartOfDay()), eq(expectedEndDate.plusDays(1).atStartOfDay()), eq(null));
         verify(reportCalculator, times(1)).mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class));
         verify(reportCalculator, times(1)).mapToConsumptionReportLine(consumptionClass);
-        verify(reportCalculator, times(1)).calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(reportCalculator, times(1)).calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class));
         verify(paymentCalculationUseCase, times(1)).calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class));
         verify(sendEmployeeReportNotificationUseCase, times(1)).sendReport(anyList(), anyList());
-    }}
\ No newline at end of file
+    }
+
+    @Test
+    void testGenerateCompleteReportsForEmployees_LoadsPeriodOnceAndGroupsByEmployee() {
+        // GIVEN
+        EmployeeClass otherEmployee = new EmployeeClass();
+        otherEmployee.setId(2L);
+        otherEmployee.setName("Other Employee");
+        otherEmployee.setPaymentType(PaymentType.HOURLY);
+        otherEmployee.setHourlyRate(BigDecimal.valueOf(12.0));
+        otherEmployee.setSalary(BigDecimal.ZERO);
+
+        attendanceRecord.setEmployee(employee);
+        attendanceRecord.setStatus(com.employed.bar.domain.enums.AttendanceStatus.PRESENT);
+        consumptionClass.setEmployee(employee);
+        consumptionClass.setConsumptionDate(LocalDateTime.of(startDate, LocalTime.of(12, 0)));
+
+        when(attendanceRepositoryPort.findFirstEntryDateTimeByEmployeeIds(anyCollection()))
+                .thenReturn(java.util.Map.of(employee.getId(), attendanceRecord.getEntryDateTime()));
+        when(attendanceRepositoryPort.findByDateRange(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()))
+                .thenReturn(Collections.singletonList(attendanceRecord));
+        when(consumptionRepositoryPort.findByDateTimeBetween(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()))
+                .thenReturn(Collections.singletonList(consumptionClass));
+        when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
+        when(reportCalculator.mapToConsumptionReportLine(consumptionClass)).thenReturn(consumptionReportLine);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
+        when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(BigDecimal.valueOf(80.0));
+
+        // WHEN
+        java.util.List<Report> reports = reportingApplicationService.generateCompleteReportsForEmployees(
+                startDate, endDate, java.util.Arrays.asList(employee, otherEmployee));
+
+        // THEN
+        assertEquals(1, reports.size()); // The employee without activity gets no report
+        Report result = reports.get(0);
+        assertEquals(employee.getId(), result.getEmployeeId());
+        assertEquals(1, result.getAttendanceLines().size());
+        assertEquals(1, result.getConsumptionLines().size());
+        assertEquals(BigDecimal.valueOf(50.0), result.getTotalConsumptionAmount());
+        assertEquals(BigDecimal.valueOf(80.0), result.getTotalEarnings());
+
+        verify(attendanceRepositoryPort, times(1)).findByDateRange(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(consumptionRepositoryPort, times(1)).findByDateTimeBetween(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(attendanceRepositoryPort, never()).findByEmployeeAndDateRange(any(), any(), any());
+        verify(consumptionRepositoryPort, never()).findByEmployeeAndDateTimeBetween(any(), any(), any(), any());
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGenerateCompleteReportsForEmployees_ExcludesConsumptionBeforeFirstActivity() {
+        // GIVEN
+        employee.setPaymentType(PaymentType.SALARIED);
+        employee.setSalary(new BigDecimal("2000.00"));
+        LocalDateTime firstActivity = LocalDateTime.of(startDate.plusDays(2), LocalTime.of(9, 0));
+        consumptionClass.setEmployee(employee);
+        consumptionClass.setConsumptionDate(LocalDateTime.of(startDate, LocalTime.of(12, 0)));
+
+        when(attendanceRepositoryPort.findFirstEntryDateTimeByEmployeeIds(anyCollection()))
+                .thenReturn(java.util.Map.of(employee.getId(), firstActivity));
+        when(attendanceRepositoryPort.findByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(consumptionRepositoryPort.findByDateTimeBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(consumptionClass));
+
+        // WHEN
+        java.util.List<Report> reports = reportingApplicationService.generateCompleteReportsForEmployees(
+                startDate, endDate, Collections.singletonList(employee));
+
+        // THEN
+        assertTrue(reports.isEmpty());
+        verify(reportCalculator, never()).mapToConsumptionReportLine(any());
+    }
+
+    @Test
+    void testGenerateAndSendWeeklyReport_UsesBulkQueries() {
+        // GIVEN
+        when(employeeRepository.findAll(any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new org.springframework.data.domain.PageImpl<>(Collections.singletonList(employee)));
+        when(attendanceRepositoryPort.findFirstEntryDateTimeByEmployeeIds(anyCollection())).thenReturn(Collections.emptyMap());
+        when(attendanceRepositoryPort.findByDateRange(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+        when(consumptionRepositoryPort.findByDateTimeBetween(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+
+        // WHEN
+        reportingApplicationService.generateAndSendWeeklyReport(startDate, endDate);
+
+        // THEN: the reads run in one read-only transaction and the queueing happens after it
+        verify(readOnlyTransaction, times(1)).execute(any());
+        verify(sendEmployeeReportNotificationUseCase).queueReports(Collections.singletonList(employee), Collections.emptyList(), startDate, endDate);
+        verify(attendanceRepositoryPort, never()).findByEmployeeAndDateRange(any(), any(), any());
+    }
+
+    @Test
+    void testGenerateAndSendWeeklyReport_QueuesOnlyEmployeesWithReport() {
+        // GIVEN
+        EmployeeClass otherEmployee = new EmployeeClass();
+        otherEmployee.setId(2L);
+        otherEmployee.setPaymentType(PaymentType.HOURLY);
+
+        attendanceRecord.setEmployee(employee);
+        attendanceRecord.setStatus(com.employed.bar.domain.enums.AttendanceStatus.PRESENT);
+
+        when(employeeRepository.findAll(any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new org.springframework.data.domain.PageImpl<>(java.util.Arrays.asList(otherEmployee, employee)));
+        when(attendanceRepositoryPort.findFirstEntryDateTimeByEmployeeIds(anyCollection())).thenReturn(Collections.emptyMap());
+        when(attendanceRepositoryPort.findByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(attendanceRecord));
+        when(consumptionRepositoryPort.findByDateTimeBetween(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+        when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
+        when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(BigDecimal.valueOf(80.0));
+
+        // WHEN
+        reportingApplicationService.generateAndSendWeeklyReport(startDate, endDate);
+
+        // THEN: only the employee with activity has a report, and it is queued in the outbox rather than sent over SMTP
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Report>> reportsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(sendEmployeeReportNotificationUseCase, times(1))
+                .queueReports(eq(java.util.Arrays.asList(otherEmployee, employee)), reportsCaptor.capture(), eq(startDate), eq(endDate));
+        assertEquals(1, reportsCaptor.getValue().size());
+        assertEquals(employee.getId(), reportsCaptor.getValue().get(0).getEmployeeId());
+        verify(sendEmployeeReportNotificationUseCase, never()).sendReport(anyList(), anyList());
+    }
+
+    @Test
+    void testGenerateCompleteReportForEmployeeById_UsesCachedFirstActivityDate() {
+        // GIVEN
+        LocalDateTime firstActivity = LocalDateTime.of(startDate.plusDays(1), LocalTime.of(9, 0));
+        firstActivityDateCache.put(employee.getId(), firstActivity);
+        attendanceRecord.setStatus(com.employed.bar.domain.enums.AttendanceStatus.PRESENT);
+
+        when(employeeRepository.findById(employee.getId())).thenReturn(Optional.of(employee));
+        when(attendanceRepositoryPort.findByEmployeeAndDateRange(employee, firstActivity, endDate.plusDays(1).atStartOfDay()))
+                .thenReturn(Collections.singletonList(attendanceRecord));
+        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(employee, firstActivity, endDate.plusDays(1).atStartOfDay(), null))
+                .thenReturn(Collections.emptyList());
+        when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
+        when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(BigDecimal.valueOf(80.0));
+
+        // WHEN
+        Report result = reportingApplicationService.generateCompleteReportForEmployeeById(startDate, endDate, employee.getId());
+
+        // THEN
+        assertNotNull(result);
+        verify(attendanceRepositoryPort, never()).findFirstEntryDateTimeByEmployee(anyLong());
+    }
+
+    @Test
+    void testGenerateCompleteReportForEmployee_ReusesReportUntilEmployeeChanges() {
+        // GIVEN
+        attendanceRecord.setStatus(com.employed.bar.domain.enums.AttendanceStatus.PRESENT);
+        when(attendanceRepositoryPort.findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(attendanceRecord));
+        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
+                .thenReturn(Collections.emptyList());
+        when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
+        when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(BigDecimal.valueOf(80.0));
+
+        // WHEN
+        Report first = reportingApplicationService.generateCompleteReportForEmployee(startDate, endDate, employee);
+        Report second = reportingApplicationService.generateCompleteReportForEmployee(startDate, endDate, employee);
+
+        // THEN: the second call is served without touching the repositories
+        assertSame(first, second);
+        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(any(), any(), any());
+
+        // WHEN a change bumps the employee's version
+        when(employeeChangeWatermarkPort.findVersions(anyCollection()))
+                .thenReturn(java.util.Map.of(employee.getId(), 1L));
+        reportingApplicationService.generateCompleteReportForEmployee(startDate, endDate, employee);
+
+        // THEN
+        verify(attendanceRepositoryPort, times(2)).findByEmployeeAndDateRange(any(), any(), any());
+    }
+
+    @Test
+    void testGenerateCompleteReportsForEmployees_RecomputesOnlyChangedEmployees() {
+        // GIVEN a first full run for three employees, only one of them with activity
+        EmployeeClass secondEmployee = new EmployeeClass();
+        secondEmployee.setId(2L);
+        secondEmployee.setPaymentType(PaymentType.HOURLY);
+        EmployeeClass thirdEmployee = new EmployeeClass();
+        thirdEmployee.setId(3L);
+        thirdEmployee.setPaymentType(PaymentType.HOURLY);
+        java.util.List<EmployeeClass> employees = java.util.Arrays.asList(employee, secondEmployee, thirdEmployee);
+
+        attendanceRecord.setEmployee(employee);
+        attendanceRecord.setStatus(com.employed.bar.domain.enums.AttendanceStatus.PRESENT);
+        when(attendanceRepositoryPort.findFirstEntryDateTimeByEmployeeIds(anyCollection()))
+                .thenReturn(java.util.Map.of(employee.getId(), attendanceRecord.getEntryDateTime()));
+        when(attendanceRepositoryPort.findByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(attendanceRecord));
+        when(consumptionRepositoryPort.findByDateTimeBetween(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+        when(attendanceRepositoryPort.findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(attendanceRecord));
+        when(consumptionRepositoryPort.findByEmployeeAndDateTimeBetween(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class), eq(null)))
+                .thenReturn(Collections.emptyList());
+        when(reportCalculator.mapToAttendanceReportLine(any(AttendanceRecordClass.class), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(attendanceReportLine);
+        when(reportCalculator.calculateHours(anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(EmployeeClass.class))).thenReturn(hoursCalculation);
+        when(paymentCalculationUseCase.calculateTotalPay(any(), any(), any(), anyBoolean(), any(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(BigDecimal.valueOf(80.0));
+
+        java.util.List<Report> firstRun = reportingApplicationService.generateCompleteReportsForEmployees(startDate, endDate, employees);
+
+        // WHEN the first employee's attendance is corrected
+        when(employeeChangeWatermarkPort.findVersions(anyCollection()))
+                .thenReturn(java.util.Map.of(employee.getId(), 1L));
+        java.util.List<Report> secondRun = reportingApplicationService.generateCompleteReportsForEmployees(startDate, endDate, employees);
+
+        // THEN only that employee is read again, with the per-employee queries
+        assertEquals(1, firstRun.size());
+        assertEquals(1, secondRun.size());
+        assertNotSame(firstRun.get(0), secondRun.get(0));
+        verify(attendanceRepositoryPort, times(1)).findByDateRange(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(attendanceRepositoryPort, times(1)).findByEmployeeAndDateRange(eq(employee), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(attendanceRepositoryPort, never()).findByEmployeeAndDateRange(eq(secondEmployee), any(), any());
+    }
+}
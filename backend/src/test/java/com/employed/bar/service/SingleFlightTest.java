@@ -0,0 +1,105 @@
+package com.employed.bar.service;
+
+import com.employed.bar.application.cache.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testExecute_ConcurrentCallsForTheSameKeyShareOneComputation() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("week", () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return 42;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("week", () -> {
+                computations.incrementAndGet();
+                return -1;
+            })));
+        }
+        // Give the followers time to find the flight in progress before it completes
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Integer> follower : followers) {
+            assertEquals(42, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        // Without a TTL nothing is kept once the flight lands
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    void testExecute_ReusesTheResultWithinTheTtlOnly() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofMillis(200));
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("week", computations::incrementAndGet);
+        assertEquals(1, singleFlight.execute("week", computations::incrementAndGet));
+        assertEquals(2, singleFlight.execute("other week", computations::incrementAndGet));
+        Thread.sleep(300);
+
+        assertEquals(3, singleFlight.execute("week", computations::incrementAndGet));
+    }
+
+    @Test
+    void testExecute_FailureIsSharedWithWaitersButNotKept() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofMinutes(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("week", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database unavailable");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute("week", () -> 1));
+        Thread.sleep(100);
+        release.countDown();
+
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+        assertEquals(7, singleFlight.execute("week", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}